@@ -1,5 +1,6 @@
 package ua.onlinecourses;
 
+import ua.onlinecourses.concurrent.ExecutorRegistry;
 import ua.onlinecourses.config.AppConfig;
 import ua.onlinecourses.exception.DataSerializationException;
 import ua.onlinecourses.exception.InvalidDataException;
@@ -58,6 +59,8 @@ public class Main {
 
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error in main: " + e.getMessage(), e);
+        } finally {
+            ExecutorRegistry.shutdownShared();
         }
     }
 
@@ -87,8 +90,6 @@ public class Main {
 
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error during parallel loading: {0}", e.getMessage());
-        } finally {
-            loader.shutdown();
         }
     }
 
@@ -97,7 +98,7 @@ public class Main {
                                                               InstructorRepository instructorRepo) {
         logger.log(Level.INFO, "Demonstrating data processing with ExecutorService...");
 
-        ExecutorServiceProcessor processor = new ExecutorServiceProcessor(4);
+        ExecutorServiceProcessor processor = new ExecutorServiceProcessor();
 
         try {
             processor.executeMultipleTasks(studentRepo, courseRepo, instructorRepo);
@@ -107,8 +108,6 @@ public class Main {
         } catch (InterruptedException e) {
             logger.log(Level.SEVERE, "ExecutorService processing interrupted: {0}", e.getMessage());
             Thread.currentThread().interrupt();
-        } finally {
-            processor.shutdown();
         }
     }
 
@@ -117,7 +116,7 @@ public class Main {
                                                                 InstructorRepository instructorRepo) {
         logger.log(Level.INFO, "Demonstrating async processing with CompletableFuture...");
 
-        CompletableFutureProcessor processor = new CompletableFutureProcessor(4);
+        CompletableFutureProcessor processor = new CompletableFutureProcessor();
 
         try {
             CompletableFuture<CompletableFutureProcessor.DataProcessingResult> resultFuture =
@@ -134,8 +133,6 @@ public class Main {
 
         } catch (Exception e) {
             logger.log(Level.SEVERE, "CompletableFuture processing error: {0}", e.getMessage());
-        } finally {
-            processor.shutdown();
         }
     }
 
@@ -0,0 +1,41 @@
+package ua.onlinecourses.concurrent;
+
+import java.time.Duration;
+
+public record Deadline(long nanoTime) {
+
+    public static final Deadline NONE = new Deadline(Long.MAX_VALUE);
+
+    public static Deadline after(Duration budget) {
+        if (budget == null || budget.isNegative()) {
+            throw new IllegalArgumentException("Budget must not be negative: " + budget);
+        }
+        long nanos;
+        try {
+            nanos = budget.toNanos();
+        } catch (ArithmeticException e) {
+            return NONE;
+        }
+        long now = System.nanoTime();
+        return nanos >= Long.MAX_VALUE - now ? NONE : new Deadline(now + nanos);
+    }
+
+    public boolean isNone() {
+        return nanoTime == Long.MAX_VALUE;
+    }
+
+    public boolean isExpired() {
+        return !isNone() && System.nanoTime() - nanoTime >= 0;
+    }
+
+    public long remainingNanos() {
+        return isNone() ? Long.MAX_VALUE : Math.max(0, nanoTime - System.nanoTime());
+    }
+
+    public Deadline earliest(Deadline other) {
+        if (other == null || other.isNone()) {
+            return this;
+        }
+        return isNone() || other.nanoTime - nanoTime < 0 ? other : this;
+    }
+}
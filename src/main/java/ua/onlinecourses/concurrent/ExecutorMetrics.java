@@ -0,0 +1,16 @@
+package ua.onlinecourses.concurrent;
+
+public record ExecutorMetrics(
+        String name,
+        int poolSize,
+        int active,
+        int queued,
+        long completed,
+        long rejected
+) {
+    @Override
+    public String toString() {
+        return String.format("ExecutorMetrics{name=%s, poolSize=%d, active=%d, queued=%d, completed=%d, rejected=%d}",
+                name, poolSize, active, queued, completed, rejected);
+    }
+}
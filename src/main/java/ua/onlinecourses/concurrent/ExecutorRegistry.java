@@ -0,0 +1,158 @@
+package ua.onlinecourses.concurrent;
+
+import org.eclipse.jetty.util.VirtualThreads;
+import ua.onlinecourses.config.AppConfig;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide worker pools: a CPU pool sized to the cores, a larger I/O pool for blocking work,
+ * a virtual-thread pool where the JVM supports it and a single scheduler thread. The web server
+ * shuts the shared registry down when it stops; the next {@link #shared()} call starts a fresh one,
+ * and {@link #forwarding} executors always resolve the current registry.
+ */
+public final class ExecutorRegistry {
+
+    private static final Logger logger = Logger.getLogger(ExecutorRegistry.class.getName());
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    public enum Pool { CPU, IO, VIRTUAL }
+
+    private static volatile ExecutorRegistry shared;
+
+    private final ExecutorSettings settings;
+    private final Map<Pool, ExecutorService> pools = new EnumMap<>(Pool.class);
+    private final ManagedThreadPool cpu;
+    private final ManagedThreadPool io;
+    private final VirtualThreadExecutor virtual;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private volatile boolean shutdown;
+
+    public ExecutorRegistry(ExecutorSettings settings) {
+        this.settings = settings;
+        this.cpu = new ManagedThreadPool("cpu", settings.cpuThreads(), settings.cpuQueueCapacity(), true);
+        this.io = new ManagedThreadPool("io", settings.ioThreads(), settings.ioQueueCapacity(), false);
+        this.virtual = createVirtualExecutor(settings);
+        this.scheduler = new ScheduledThreadPoolExecutor(1, ManagedThreadPool.daemonThreads("scheduler"));
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        pools.put(Pool.CPU, cpu);
+        pools.put(Pool.IO, io);
+        pools.put(Pool.VIRTUAL, virtual != null ? virtual : io);
+        logger.log(Level.INFO, "Executor registry started: cpu={0}, io={1}, virtual={2}",
+                new Object[]{settings.cpuThreads(), settings.ioThreads(), virtual != null ? "enabled" : "io fallback"});
+    }
+
+    private static VirtualThreadExecutor createVirtualExecutor(ExecutorSettings settings) {
+        if (!settings.virtualThreadsEnabled()) {
+            return null;
+        }
+        if (!VirtualThreads.areSupported()) {
+            logger.log(Level.INFO, "Virtual threads are not supported by Java {0}, virtual pool uses the io pool",
+                    System.getProperty("java.version"));
+            return null;
+        }
+        return new VirtualThreadExecutor("virtual", VirtualThreads.getDefaultVirtualThreadsExecutor());
+    }
+
+    public static ExecutorRegistry shared() {
+        ExecutorRegistry registry = shared;
+        if (registry == null || registry.isShutdown()) {
+            synchronized (ExecutorRegistry.class) {
+                registry = shared;
+                if (registry == null || registry.isShutdown()) {
+                    registry = new ExecutorRegistry(ExecutorSettings.fromConfig(new AppConfig()));
+                    shared = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    public static synchronized void shutdownShared() {
+        ExecutorRegistry registry = shared;
+        shared = null;
+        if (registry != null) {
+            registry.shutdown();
+        }
+    }
+
+    // For long-lived components that must outlive a registry restart.
+    public static Executor forwarding(Pool pool) {
+        return task -> shared().executor(pool).execute(task);
+    }
+
+    public ExecutorService executor(Pool pool) {
+        return pools.get(pool);
+    }
+
+    public ExecutorService cpu() {
+        return cpu;
+    }
+
+    public ExecutorService io() {
+        return io;
+    }
+
+    public ExecutorService virtual() {
+        return pools.get(Pool.VIRTUAL);
+    }
+
+    public ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    public ExecutorSettings getSettings() {
+        return settings;
+    }
+
+    public List<ExecutorMetrics> metrics() {
+        List<ExecutorMetrics> metrics = new ArrayList<>();
+        metrics.add(cpu.metrics());
+        metrics.add(io.metrics());
+        if (virtual != null) {
+            metrics.add(virtual.metrics());
+        }
+        metrics.add(new ExecutorMetrics("scheduler", scheduler.getPoolSize(), scheduler.getActiveCount(),
+                scheduler.getQueue().size(), scheduler.getCompletedTaskCount(), 0));
+        return metrics;
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    public void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        shutdown = true;
+        logger.log(Level.INFO, "Shutting down executor registry: {0}", metrics());
+        List<ExecutorService> executors = new ArrayList<>(List.of(scheduler, cpu, io));
+        if (virtual != null) {
+            executors.add(virtual);
+        }
+        executors.forEach(ExecutorService::shutdown);
+        try {
+            for (ExecutorService executor : executors) {
+                if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    logger.log(Level.WARNING, "Executor did not terminate in time, interrupting workers");
+                    executor.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            executors.forEach(ExecutorService::shutdownNow);
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ua.onlinecourses.concurrent;
+
+import ua.onlinecourses.config.AppConfig;
+import ua.onlinecourses.config.ConfigKeys;
+
+public record ExecutorSettings(
+        int cpuThreads,
+        int cpuQueueCapacity,
+        int ioThreads,
+        int ioQueueCapacity,
+        boolean virtualThreadsEnabled
+) {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+    public ExecutorSettings {
+        if (cpuThreads < 1 || ioThreads < 1) {
+            throw new IllegalArgumentException("Pool sizes must be positive: cpu=" + cpuThreads + ", io=" + ioThreads);
+        }
+        if (cpuQueueCapacity < 1 || ioQueueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacities must be positive: cpu=" + cpuQueueCapacity
+                    + ", io=" + ioQueueCapacity);
+        }
+    }
+
+    public static ExecutorSettings defaults() {
+        return new ExecutorSettings(defaultCpuThreads(), DEFAULT_QUEUE_CAPACITY, defaultIoThreads(),
+                DEFAULT_QUEUE_CAPACITY, true);
+    }
+
+    // -1 sizes a pool from the number of CPU cores
+    public static ExecutorSettings fromConfig(AppConfig config) {
+        int cpuThreads = config.getIntProperty(ConfigKeys.EXECUTOR_CPU_THREADS, -1);
+        int ioThreads = config.getIntProperty(ConfigKeys.EXECUTOR_IO_THREADS, -1);
+        return new ExecutorSettings(
+                cpuThreads < 0 ? defaultCpuThreads() : cpuThreads,
+                config.getIntProperty(ConfigKeys.EXECUTOR_CPU_QUEUE_CAPACITY, DEFAULT_QUEUE_CAPACITY),
+                ioThreads < 0 ? defaultIoThreads() : ioThreads,
+                config.getIntProperty(ConfigKeys.EXECUTOR_IO_QUEUE_CAPACITY, DEFAULT_QUEUE_CAPACITY),
+                config.getBooleanProperty(ConfigKeys.EXECUTOR_VIRTUAL_ENABLED, true)
+        );
+    }
+
+    private static int defaultCpuThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    private static int defaultIoThreads() {
+        return Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+    }
+}
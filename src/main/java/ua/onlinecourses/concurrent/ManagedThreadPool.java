@@ -0,0 +1,47 @@
+package ua.onlinecourses.concurrent;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size pool of named daemon threads over a bounded queue. A full queue either runs the
+ * task on the submitting thread, which throttles producers of CPU work, or rejects it; both
+ * count as rejections in the metrics.
+ */
+final class ManagedThreadPool extends ThreadPoolExecutor {
+
+    private final String name;
+    private final LongAdder rejected = new LongAdder();
+
+    ManagedThreadPool(String name, int threads, int queueCapacity, boolean callerRunsWhenFull) {
+        super(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity), daemonThreads(name));
+        this.name = name;
+        allowCoreThreadTimeOut(true);
+        setRejectedExecutionHandler((task, executor) -> {
+            rejected.increment();
+            if (!callerRunsWhenFull || executor.isShutdown()) {
+                throw new RejectedExecutionException("Executor " + name + " rejected task");
+            }
+            task.run();
+        });
+    }
+
+    ExecutorMetrics metrics() {
+        return new ExecutorMetrics(name, getPoolSize(), getActiveCount(), getQueue().size(),
+                getCompletedTaskCount(), rejected.sum());
+    }
+
+    static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package ua.onlinecourses.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One forked unit of a {@link TaskScope}. Cancelling a running subtask interrupts the thread it
+ * runs on; the interrupt is cleared before that thread goes back to its pool.
+ */
+public final class Subtask<T> {
+
+    public enum State { RUNNING, SUCCEEDED, FAILED, CANCELLED }
+
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    private final String name;
+    private Thread runner;
+
+    Subtask(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State state() {
+        if (!result.isDone()) {
+            return State.RUNNING;
+        }
+        if (result.isCancelled()) {
+            return State.CANCELLED;
+        }
+        return result.isCompletedExceptionally() ? State.FAILED : State.SUCCEEDED;
+    }
+
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    public T get() {
+        if (state() != State.SUCCEEDED) {
+            throw new IllegalStateException("Subtask " + name + " has no result: " + state());
+        }
+        return result.join();
+    }
+
+    public T getOrDefault(T fallback) {
+        return state() == State.SUCCEEDED ? result.join() : fallback;
+    }
+
+    public Throwable exception() {
+        if (state() != State.FAILED) {
+            return null;
+        }
+        return result.handle((value, error) -> error).join();
+    }
+
+    synchronized boolean start() {
+        if (result.isDone()) {
+            return false;
+        }
+        runner = Thread.currentThread();
+        return true;
+    }
+
+    synchronized void finish() {
+        runner = null;
+        Thread.interrupted();
+    }
+
+    void succeed(T value) {
+        result.complete(value);
+    }
+
+    void fail(Throwable error) {
+        result.completeExceptionally(error);
+    }
+
+    synchronized void cancel() {
+        if (result.cancel(false) && runner != null) {
+            runner.interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + "=" + state();
+    }
+}
@@ -0,0 +1,230 @@
+package ua.onlinecourses.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Owns a group of sibling subtasks that share one deadline. When the deadline passes, the scope is
+ * cancelled or closed, every unfinished subtask is cancelled and its thread interrupted; CPU-bound
+ * code stops at its next {@link #checkpoint()}. A scope opened inside a subtask inherits the
+ * earlier of the two deadlines and is cancelled together with its parent. Subtasks that finished
+ * keep their results, so callers can return what is ready and flag the rest as missing.
+ */
+public final class TaskScope implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(TaskScope.class.getName());
+
+    private static final ThreadLocal<TaskScope> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final TaskScope parent;
+    private final Deadline deadline;
+    private final Executor executor;
+    private final List<Subtask<?>> subtasks = new CopyOnWriteArrayList<>();
+    private final List<TaskScope> children = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<TaskScope> done = new CompletableFuture<>();
+    private final ScheduledFuture<?> timer;
+    private volatile boolean joining;
+    private volatile boolean cancelled;
+    private volatile boolean expired;
+
+    private TaskScope(String name, TaskScope parent, Deadline deadline, Executor executor) {
+        this.name = name;
+        this.parent = parent;
+        this.deadline = deadline;
+        this.executor = executor;
+        this.timer = deadline.isNone() ? null : ExecutorRegistry.shared().scheduler()
+                .schedule(this::expire, deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public static TaskScope open(String name, Duration budget, Executor executor) {
+        return open(name, Deadline.after(budget), executor);
+    }
+
+    public static TaskScope open(String name, Deadline deadline, Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        TaskScope parent = CURRENT.get();
+        TaskScope scope = new TaskScope(name, parent, parent == null ? deadline : deadline.earliest(parent.deadline), executor);
+        if (parent != null) {
+            parent.children.add(scope);
+            if (parent.cancelled) {
+                scope.cancel();
+            }
+        }
+        return scope;
+    }
+
+    // The scope whose subtask is running on this thread, or null outside any scope.
+    public static TaskScope current() {
+        return CURRENT.get();
+    }
+
+    // Cooperative cancellation point for long loops; a no-op outside a scope.
+    public static void checkpoint() {
+        TaskScope scope = CURRENT.get();
+        if (scope != null) {
+            scope.throwIfCancelled();
+        }
+    }
+
+    public void throwIfCancelled() {
+        if (cancelled || deadline.isExpired()) {
+            throw new CancellationException("Scope " + name + (expired || deadline.isExpired()
+                    ? " ran out of time" : " was cancelled"));
+        }
+    }
+
+    public <T> Subtask<T> fork(String taskName, Callable<T> task) {
+        if (joining && !cancelled) {
+            throw new IllegalStateException("Scope " + name + " is already being joined");
+        }
+        Subtask<T> subtask = new Subtask<>(taskName);
+        subtasks.add(subtask);
+        if (cancelled) {
+            subtask.cancel();
+            return subtask;
+        }
+        try {
+            executor.execute(() -> run(subtask, task));
+        } catch (RejectedExecutionException e) {
+            subtask.fail(e);
+        }
+        subtask.result.whenComplete((value, error) -> completeIfFinished());
+        return subtask;
+    }
+
+    private <T> void run(Subtask<T> subtask, Callable<T> task) {
+        if (!subtask.start()) {
+            return;
+        }
+        TaskScope previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            throwIfCancelled();
+            subtask.succeed(task.call());
+        } catch (Throwable e) {
+            if (cancelled || e instanceof CancellationException) {
+                subtask.cancel();
+            } else {
+                subtask.fail(e);
+            }
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+            subtask.finish();
+        }
+    }
+
+    // Completes when every subtask has finished, or right after the deadline cancels the stragglers.
+    public CompletableFuture<TaskScope> whenDone() {
+        joining = true;
+        completeIfFinished();
+        return done;
+    }
+
+    public TaskScope join() throws InterruptedException {
+        try {
+            return whenDone().get();
+        } catch (InterruptedException e) {
+            cancel();
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Scope " + name + " failed", e.getCause());
+        }
+    }
+
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        // subtasks first: a subtask waiting on a child scope must not see it finish and succeed
+        subtasks.forEach(Subtask::cancel);
+        children.forEach(TaskScope::cancel);
+        done.complete(this);
+    }
+
+    private void expire() {
+        if (cancelled || done.isDone()) {
+            return;
+        }
+        expired = true;
+        logger.log(Level.WARNING, "Scope {0} reached its deadline, cancelling {1} unfinished subtasks",
+                new Object[]{name, subtasks.stream().filter(subtask -> !subtask.isDone()).count()});
+        cancel();
+    }
+
+    private void completeIfFinished() {
+        if (joining && !done.isDone() && subtasks.stream().allMatch(Subtask::isDone)) {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            done.complete(this);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isExpired() {
+        return expired;
+    }
+
+    public List<Subtask<?>> subtasks() {
+        return List.copyOf(subtasks);
+    }
+
+    // Subtasks without a result: failed, cancelled or still running.
+    public List<Subtask<?>> missing() {
+        List<Subtask<?>> result = new ArrayList<>();
+        subtasks.forEach(subtask -> {
+            if (subtask.state() != Subtask.State.SUCCEEDED) {
+                result.add(subtask);
+            }
+        });
+        return result;
+    }
+
+    // Closing never waits: whatever is still running is cancelled.
+    @Override
+    public void close() {
+        if (done.isDone() && !cancelled) {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        } else {
+            cancel();
+        }
+        if (parent != null) {
+            parent.children.remove(this);
+        }
+    }
+}
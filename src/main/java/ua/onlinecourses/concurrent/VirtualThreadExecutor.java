@@ -0,0 +1,94 @@
+package ua.onlinecourses.concurrent;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Thread-per-task executor over a virtual thread factory; nothing queues, so only active tasks are tracked.
+final class VirtualThreadExecutor extends AbstractExecutorService {
+
+    private final String name;
+    private final Executor threads;
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile boolean shutdown;
+
+    VirtualThreadExecutor(String name, Executor threads) {
+        this.name = name;
+        this.threads = threads;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (shutdown) {
+            rejected.increment();
+            throw new RejectedExecutionException("Executor " + name + " is shut down");
+        }
+        active.incrementAndGet();
+        try {
+            threads.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    completed.increment();
+                    finished();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            finished();
+            throw e;
+        }
+    }
+
+    private void finished() {
+        if (active.decrementAndGet() == 0 && shutdown) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        return List.of();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && active.get() == 0;
+    }
+
+    @Override
+    public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!isTerminated()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    ExecutorMetrics metrics() {
+        return new ExecutorMetrics(name, active.get(), active.get(), 0, completed.sum(), rejected.sum());
+    }
+}
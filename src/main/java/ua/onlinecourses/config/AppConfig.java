@@ -91,6 +91,14 @@ public class AppConfig {
         return getProperty("data.path.base", "./data");
     }
 
+    public int getServerPort() {
+        return getIntProperty(ConfigKeys.SERVER_PORT, 8080);
+    }
+
+    public String getServerExecutionMode() {
+        return getProperty(ConfigKeys.SERVER_EXECUTION_MODE, "platform");
+    }
+
     private String combinePaths(String basePath, String filename) {
         Path base = Paths.get(basePath);
         Path file = Paths.get(filename);
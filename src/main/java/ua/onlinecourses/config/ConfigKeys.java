@@ -24,4 +24,32 @@ public final class ConfigKeys {
     public static final String DATA_PATH_ASSIGNMENTS_YAML = "data.path.assignments.yaml";
 
     public static final String TEST_DATA_COUNT = "test.data.count";
+
+    public static final String SERVER_PORT = "server.port";
+    public static final String SERVER_EXECUTION_MODE = "server.execution.mode";
+
+    public static final String SERVER_THREADS_MIN = "server.threads.min";
+    public static final String SERVER_THREADS_MAX = "server.threads.max";
+    public static final String SERVER_THREADS_IDLE_TIMEOUT_MS = "server.threads.idle.timeout.ms";
+
+    public static final String SERVER_CONNECTOR_ACCEPTORS = "server.connector.acceptors";
+    public static final String SERVER_CONNECTOR_SELECTORS = "server.connector.selectors";
+    public static final String SERVER_CONNECTOR_IDLE_TIMEOUT_MS = "server.connector.idle.timeout.ms";
+    public static final String SERVER_CONNECTOR_ACCEPT_QUEUE_SIZE = "server.connector.accept.queue.size";
+    public static final String SERVER_OUTPUT_BUFFER_SIZE = "server.output.buffer.size";
+    public static final String SERVER_KEEP_ALIVE = "server.http.keep.alive";
+    public static final String SERVER_H2C_ENABLED = "server.http2c.enabled";
+
+    public static final String SERVER_GZIP_ENABLED = "server.gzip.enabled";
+    public static final String SERVER_GZIP_MIN_SIZE = "server.gzip.min.size";
+    public static final String SERVER_JSON_FORMAT = "server.json.format";
+    public static final String SERVER_INGEST_BATCH_SIZE = "server.ingest.batch.size";
+
+    public static final String EXECUTOR_CPU_THREADS = "executor.cpu.threads";
+    public static final String EXECUTOR_CPU_QUEUE_CAPACITY = "executor.cpu.queue.capacity";
+    public static final String EXECUTOR_IO_THREADS = "executor.io.threads";
+    public static final String EXECUTOR_IO_QUEUE_CAPACITY = "executor.io.queue.capacity";
+    public static final String EXECUTOR_VIRTUAL_ENABLED = "executor.virtual.enabled";
+
+    public static final String CODEC_BLACKBIRD_ENABLED = "codec.blackbird.enabled";
 }
\ No newline at end of file
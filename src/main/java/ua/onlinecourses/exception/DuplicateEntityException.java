@@ -0,0 +1,8 @@
+package ua.onlinecourses.exception;
+
+public class DuplicateEntityException extends InvalidDataException {
+
+    public DuplicateEntityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,27 @@
+package ua.onlinecourses.exception;
+
+import java.io.IOException;
+
+public class RemoteApiException extends IOException {
+
+    private final int statusCode;
+    private final String responseBody;
+
+    public RemoteApiException(String message, int statusCode, String responseBody) {
+        super(message);
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public boolean isRetryable() {
+        return statusCode == 429 || statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+}
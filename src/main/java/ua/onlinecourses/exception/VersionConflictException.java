@@ -0,0 +1,21 @@
+package ua.onlinecourses.exception;
+
+public class VersionConflictException extends InvalidDataException {
+
+    private final long expectedVersion;
+    private final long currentVersion;
+
+    public VersionConflictException(String message, long expectedVersion, long currentVersion) {
+        super(message);
+        this.expectedVersion = expectedVersion;
+        this.currentVersion = currentVersion;
+    }
+
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -1,5 +1,8 @@
 package ua.onlinecourses.parallel;
 
+import ua.onlinecourses.concurrent.ExecutorRegistry;
+import ua.onlinecourses.concurrent.Subtask;
+import ua.onlinecourses.concurrent.TaskScope;
 import ua.onlinecourses.model.Course;
 import ua.onlinecourses.model.Instructor;
 import ua.onlinecourses.model.Student;
@@ -7,11 +10,11 @@ import ua.onlinecourses.repository.CourseRepository;
 import ua.onlinecourses.repository.InstructorRepository;
 import ua.onlinecourses.repository.StudentRepository;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -19,67 +22,83 @@ import java.util.stream.Collectors;
 public class CompletableFutureProcessor {
     private static final Logger logger = Logger.getLogger(CompletableFutureProcessor.class.getName());
 
+    public static final Duration DEFAULT_BUDGET = Duration.ofSeconds(30);
+
     private final ExecutorService executorService;
 
-    public CompletableFutureProcessor(int threadPoolSize) {
-        this.executorService = Executors.newFixedThreadPool(threadPoolSize);
-        logger.log(Level.INFO, "CompletableFutureProcessor created with {0} threads", threadPoolSize);
+    public CompletableFutureProcessor() {
+        this(ExecutorRegistry.shared().cpu());
+    }
+
+    public CompletableFutureProcessor(ExecutorService executorService) {
+        this.executorService = executorService;
+        logger.log(Level.INFO, "CompletableFutureProcessor created");
     }
 
     public CompletableFuture<DataProcessingResult> processAllDataAsync(StudentRepository studentRepo,
                                                                         CourseRepository courseRepo,
                                                                         InstructorRepository instructorRepo) {
+        return processAllDataAsync(studentRepo, courseRepo, instructorRepo, DEFAULT_BUDGET);
+    }
+
+    // When the budget runs out the unfinished parts are cancelled and the result is marked partial.
+    // Cancelling the returned future cancels the parts still running.
+    public CompletableFuture<DataProcessingResult> processAllDataAsync(StudentRepository studentRepo,
+                                                                        CourseRepository courseRepo,
+                                                                        InstructorRepository instructorRepo,
+                                                                        Duration budget) {
         logger.log(Level.INFO, "Starting async data processing with CompletableFuture");
         long startTime = System.currentTimeMillis();
+        RepositoryViews views = RepositoryViews.capture(studentRepo, courseRepo, instructorRepo);
+        TaskScope scope = TaskScope.open("processAllDataAsync", budget, executorService);
 
-        CompletableFuture<Long> studentCountFuture = CompletableFuture.supplyAsync(() -> {
+        Subtask<Long> studentCount = scope.fork("studentCount", () -> {
             String threadName = Thread.currentThread().getName();
             logger.log(Level.INFO, "Thread [{0}] counting students", threadName);
-            return (long) studentRepo.size();
-        }, executorService);
+            return (long) views.students().size();
+        });
 
-        CompletableFuture<Integer> totalCreditsFuture = CompletableFuture.supplyAsync(() -> {
+        Subtask<Integer> totalCredits = scope.fork("totalCredits", () -> {
             String threadName = Thread.currentThread().getName();
             logger.log(Level.INFO, "Thread [{0}] calculating total credits", threadName);
-            return courseRepo.getTotalCredits();
-        }, executorService);
+            return views.courses().getTotalCredits();
+        });
 
-        CompletableFuture<Double> avgExpertiseFuture = CompletableFuture.supplyAsync(() -> {
+        Subtask<Double> averageExpertise = scope.fork("averageExpertise", () -> {
             String threadName = Thread.currentThread().getName();
             logger.log(Level.INFO, "Thread [{0}] calculating average expertise", threadName);
-            return instructorRepo.getAverageExpertise();
-        }, executorService);
+            return views.instructors().getAverageExpertise();
+        });
 
-        CompletableFuture<List<String>> courseTitlesFuture = CompletableFuture.supplyAsync(() -> {
+        Subtask<List<String>> courseTitles = scope.fork("courseTitles", () -> {
             String threadName = Thread.currentThread().getName();
             logger.log(Level.INFO, "Thread [{0}] getting course titles", threadName);
-            return courseRepo.getAllTitles();
-        }, executorService);
+            return views.courses().getAllTitles();
+        });
 
-        return CompletableFuture.allOf(studentCountFuture, totalCreditsFuture, avgExpertiseFuture, courseTitlesFuture)
-                .thenApply(v -> {
-                    try {
-                        DataProcessingResult result = new DataProcessingResult(
-                                studentCountFuture.get(),
-                                totalCreditsFuture.get(),
-                                avgExpertiseFuture.get(),
-                                courseTitlesFuture.get()
-                        );
-                        long endTime = System.currentTimeMillis();
-                        logger.log(Level.INFO, "Async processing completed in {0} ms", (endTime - startTime));
-                        return result;
-                    } catch (Exception e) {
-                        logger.log(Level.SEVERE, "Error combining results: {0}", e.getMessage());
-                        return new DataProcessingResult(0, 0, 0.0, List.of());
-                    }
-                })
-                .handle((result, ex) -> {
-                    if (ex != null) {
-                        logger.log(Level.SEVERE, "Error in async processing: {0}", ex.getMessage());
-                        return new DataProcessingResult(0, 0, 0.0, List.of());
-                    }
-                    return result;
-                });
+        CompletableFuture<DataProcessingResult> result = scope.whenDone().thenApply(done -> {
+            List<String> missing = new ArrayList<>();
+            for (Subtask<?> subtask : done.missing()) {
+                missing.add(subtask.getName());
+                if (subtask.state() == Subtask.State.FAILED) {
+                    logger.log(Level.SEVERE, "Error in async processing of {0}: {1}",
+                            new Object[]{subtask.getName(), subtask.exception().getMessage()});
+                }
+            }
+            DataProcessingResult processed = new DataProcessingResult(
+                    studentCount.getOrDefault(0L),
+                    totalCredits.getOrDefault(0),
+                    averageExpertise.getOrDefault(0.0),
+                    courseTitles.getOrDefault(List.of()),
+                    missing
+            );
+            long endTime = System.currentTimeMillis();
+            logger.log(Level.INFO, "Async processing completed in {0} ms, missing parts: {1}",
+                    new Object[]{(endTime - startTime), missing});
+            return processed;
+        });
+        result.whenComplete((processed, ex) -> scope.close());
+        return result;
     }
 
     public CompletableFuture<Long> filterCoursesWithCompletableFuture(CourseRepository repository, int minCredits) {
@@ -146,29 +165,32 @@ public class CompletableFutureProcessor {
         });
     }
 
-    public void shutdown() {
-        logger.log(Level.INFO, "Shutting down CompletableFutureProcessor");
-        executorService.shutdown();
-        try {
-            if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
-                executorService.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executorService.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
-    }
-
     public record DataProcessingResult(
             long studentCount,
             int totalCredits,
             double averageExpertise,
-            List<String> courseTitles
+            List<String> courseTitles,
+            List<String> missing
     ) {
+        public DataProcessingResult {
+            courseTitles = List.copyOf(courseTitles);
+            missing = List.copyOf(missing);
+        }
+
+        public DataProcessingResult(long studentCount, int totalCredits, double averageExpertise,
+                                    List<String> courseTitles) {
+            this(studentCount, totalCredits, averageExpertise, courseTitles, List.of());
+        }
+
+        public boolean partial() {
+            return !missing.isEmpty();
+        }
+
         @Override
         public String toString() {
-            return String.format("DataProcessingResult{students=%d, totalCredits=%d, avgExpertise=%.2f, courses=%s}",
-                    studentCount, totalCredits, averageExpertise, courseTitles);
+            return String.format("DataProcessingResult{students=%d, totalCredits=%d, avgExpertise=%.2f, courses=%s%s}",
+                    studentCount, totalCredits, averageExpertise, courseTitles,
+                    partial() ? ", missing=" + missing : "");
         }
     }
 }
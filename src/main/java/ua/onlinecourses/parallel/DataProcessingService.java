@@ -1,5 +1,6 @@
 package ua.onlinecourses.parallel;
 
+import ua.onlinecourses.concurrent.TaskScope;
 import ua.onlinecourses.model.Course;
 import ua.onlinecourses.model.Instructor;
 import ua.onlinecourses.model.Student;
@@ -9,6 +10,7 @@ import ua.onlinecourses.repository.StudentRepository;
 
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -31,7 +33,10 @@ public class DataProcessingService {
             logger.log(Level.INFO, "Thread [{0}] started filtering students by domain: {1}",
                     new Object[]{threadName, domain});
             try {
-                List<Student> result = repository.findByEmailDomain(domain);
+                List<Student> result = domain == null
+                        ? List.of()
+                        : repository.columns().selectEquals(StudentRepository.COLUMN_EMAIL_DOMAIN,
+                                domain.trim().toLowerCase());
                 logger.log(Level.INFO, "Thread [{0}] completed filtering. Found {1} students",
                         new Object[]{threadName, result.size()});
                 return result;
@@ -58,9 +63,7 @@ public class DataProcessingService {
             logger.log(Level.INFO, "Thread [{0}] started counting courses with credits >= {1}",
                     new Object[]{threadName, minCredits});
             try {
-                long count = repository.getAll().stream()
-                        .filter(c -> c.credits() >= minCredits)
-                        .count();
+                long count = repository.columns().count(CourseRepository.COLUMN_CREDITS, minCredits, Integer.MAX_VALUE);
                 logger.log(Level.INFO, "Thread [{0}] completed counting. Found {1} courses",
                         new Object[]{threadName, count});
                 return count;
@@ -87,7 +90,8 @@ public class DataProcessingService {
             logger.log(Level.INFO, "Thread [{0}] started finding instructors with expertise >= {1}",
                     new Object[]{threadName, minExpertise});
             try {
-                List<Instructor> result = repository.findByMinExpertise(minExpertise);
+                List<Instructor> result = repository.columns()
+                        .select(InstructorRepository.COLUMN_EXPERTISE, minExpertise, Integer.MAX_VALUE);
                 logger.log(Level.INFO, "Thread [{0}] completed finding. Found {1} instructors",
                         new Object[]{threadName, result.size()});
                 return result;
@@ -139,9 +143,14 @@ public class DataProcessingService {
                 logger.log(Level.INFO, "Thread [{0}] processing {1} students",
                         new Object[]{threadName, students.size()});
                 for (Student student : students) {
+                    TaskScope.checkpoint();
                     System.out.println("  " + student.firstName() + " " + student.lastName() + " - " + student.email());
                 }
                 logger.log(Level.INFO, "Thread [{0}] completed printing students", threadName);
+            } catch (CancellationException e) {
+                logger.log(Level.WARNING, "Thread [{0}] stopped printing students: {1}",
+                        new Object[]{threadName, e.getMessage()});
+                throw e;
             } catch (Exception e) {
                 logger.log(Level.SEVERE, "Thread [{0}] error printing students: {1}",
                         new Object[]{threadName, e.getMessage()});
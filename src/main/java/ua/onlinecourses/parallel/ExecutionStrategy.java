@@ -0,0 +1,7 @@
+package ua.onlinecourses.parallel;
+
+public enum ExecutionStrategy {
+    SEQUENTIAL,
+    PARALLEL_STREAM,
+    PARTITIONED_EXECUTOR
+}
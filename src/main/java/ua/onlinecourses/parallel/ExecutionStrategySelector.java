@@ -0,0 +1,233 @@
+package ua.onlinecourses.parallel;
+
+import ua.onlinecourses.concurrent.ExecutorRegistry;
+import ua.onlinecourses.concurrent.TaskScope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collector;
+import java.util.stream.StreamSupport;
+
+/**
+ * Chooses sequential, parallel-stream or partitioned-executor execution per named operation from
+ * the input size and the per-element cost measured on earlier runs. Costs are kept per
+ * power-of-two size class as a moving average of nanoseconds per element, so the choice follows
+ * the live workload; every {@link #EXPLORE_INTERVAL}-th run of a size class re-measures the
+ * strategy that has gone longest without a sample.
+ */
+public class ExecutionStrategySelector {
+    private static final Logger logger = Logger.getLogger(ExecutionStrategySelector.class.getName());
+
+    public static final int MIN_PARALLEL_SIZE = 2_048;
+    public static final long MIN_PARALLEL_WORK_NANOS = 200_000;
+    static final int EXPLORE_INTERVAL = 32;
+    private static final double SMOOTHING = 0.3;
+    private static final int PARTITIONS_PER_WORKER = 4;
+    private static final int SIZE_CLASSES = 64;
+
+    private final Supplier<ExecutorService> executor;
+    private final int parallelism;
+    private final Map<String, Calibration> calibrations = new ConcurrentHashMap<>();
+
+    public ExecutionStrategySelector(ExecutorService executor, int parallelism) {
+        this(fixed(executor), parallelism);
+    }
+
+    private ExecutionStrategySelector(Supplier<ExecutorService> executor, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    private static Supplier<ExecutorService> fixed(ExecutorService executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        return () -> executor;
+    }
+
+    public static ExecutionStrategySelector shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public ExecutionStrategy choose(String operation, long size) {
+        if (size < MIN_PARALLEL_SIZE || parallelism < 2) {
+            return ExecutionStrategy.SEQUENTIAL;
+        }
+        return calibration(operation).choose(sizeClass(size), size);
+    }
+
+    public <T, A, R> R execute(String operation, Spliterator<T> source, Collector<? super T, A, R> collector) {
+        ExecutionStrategy strategy = choose(operation, source.estimateSize());
+        logger.log(Level.FINE, "Operation {0} over {1} elements runs {2}",
+                new Object[]{operation, source.estimateSize(), strategy});
+        return execute(strategy, operation, source, collector);
+    }
+
+    // Runs with a fixed strategy and still feeds the timing into the calibration.
+    public <T, A, R> R execute(ExecutionStrategy strategy, String operation, Spliterator<T> source,
+                               Collector<? super T, A, R> collector) {
+        long size = source.estimateSize();
+        long startTime = System.nanoTime();
+        R result = switch (strategy) {
+            case SEQUENTIAL -> StreamSupport.stream(source, false).collect(collector);
+            case PARALLEL_STREAM -> StreamSupport.stream(source, true).collect(collector);
+            case PARTITIONED_EXECUTOR -> executePartitioned(operation, source, collector);
+        };
+        record(operation, strategy, size, System.nanoTime() - startTime);
+        return result;
+    }
+
+    public void record(String operation, ExecutionStrategy strategy, long size, long nanos) {
+        if (size <= 0 || size == Long.MAX_VALUE || nanos < 0) {
+            return;
+        }
+        calibration(operation).record(strategy, sizeClass(size), (double) nanos / size);
+    }
+
+    public OptionalDouble nanosPerElement(String operation, ExecutionStrategy strategy, long size) {
+        Calibration calibration = calibrations.get(operation);
+        return calibration == null ? OptionalDouble.empty() : calibration.cost(strategy, sizeClass(size));
+    }
+
+    private <T, A, R> R executePartitioned(String operation, Spliterator<T> source,
+                                           Collector<? super T, A, R> collector) {
+        List<Spliterator<T>> parts = partition(source, parallelism * PARTITIONS_PER_WORKER);
+        List<FutureTask<A>> futures = new ArrayList<>(parts.size());
+        BiConsumer<A, ? super T> accumulator = collector.accumulator();
+        ExecutorService workers = executor.get();
+        // parts run outside the caller's scope, so they check its deadline themselves
+        TaskScope scope = TaskScope.current();
+        for (Spliterator<T> part : parts) {
+            FutureTask<A> task = new FutureTask<>(() -> {
+                if (scope != null) {
+                    scope.throwIfCancelled();
+                }
+                A container = collector.supplier().get();
+                part.forEachRemaining(item -> accumulator.accept(container, item));
+                return container;
+            });
+            futures.add(task);
+            workers.execute(task);
+        }
+        try {
+            A result = null;
+            for (int i = 0; i < futures.size(); i++) {
+                // the caller runs parts no worker has claimed yet, so a caller on a busy pool cannot starve
+                futures.get(i).run();
+                result = i == 0 ? futures.get(i).get() : collector.combiner().apply(result, futures.get(i).get());
+            }
+            return collector.finisher().apply(result);
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running " + operation, e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Operation " + operation + " failed", e.getCause());
+        }
+    }
+
+    // Splits round-robin until there are enough parts; prefixes go before their source, keeping encounter order.
+    static <T> List<Spliterator<T>> partition(Spliterator<T> source, int target) {
+        List<Spliterator<T>> parts = new ArrayList<>();
+        parts.add(source);
+        boolean progress = true;
+        while (progress && parts.size() < target) {
+            progress = false;
+            for (int i = 0; i < parts.size() && parts.size() < target; i++) {
+                Spliterator<T> prefix = parts.get(i).trySplit();
+                if (prefix != null) {
+                    parts.add(i++, prefix);
+                    progress = true;
+                }
+            }
+        }
+        return parts;
+    }
+
+    private Calibration calibration(String operation) {
+        return calibrations.computeIfAbsent(operation, key -> new Calibration());
+    }
+
+    private static int sizeClass(long size) {
+        return 63 - Long.numberOfLeadingZeros(Math.max(size, 1));
+    }
+
+    private static final class Calibration {
+        private static final ExecutionStrategy[] STRATEGIES = ExecutionStrategy.values();
+
+        private final double[][] costs = new double[SIZE_CLASSES][STRATEGIES.length];
+        private final int[][] samples = new int[SIZE_CLASSES][STRATEGIES.length];
+        private final long[][] sampledAt = new long[SIZE_CLASSES][STRATEGIES.length];
+        private final long[] runs = new long[SIZE_CLASSES];
+        private double sequentialCost = -1;
+
+        synchronized ExecutionStrategy choose(int sizeClass, long size) {
+            // work this cheap cannot pay for handing off to other threads
+            if (sequentialCost >= 0 && sequentialCost * size < MIN_PARALLEL_WORK_NANOS) {
+                return ExecutionStrategy.SEQUENTIAL;
+            }
+            long run = ++runs[sizeClass];
+            ExecutionStrategy best = null;
+            ExecutionStrategy stalest = null;
+            for (ExecutionStrategy strategy : STRATEGIES) {
+                int slot = strategy.ordinal();
+                if (samples[sizeClass][slot] == 0) {
+                    return strategy;
+                }
+                if (best == null || costs[sizeClass][slot] < costs[sizeClass][best.ordinal()]) {
+                    best = strategy;
+                }
+                if (stalest == null || sampledAt[sizeClass][slot] < sampledAt[sizeClass][stalest.ordinal()]) {
+                    stalest = strategy;
+                }
+            }
+            return run % EXPLORE_INTERVAL == 0 ? stalest : best;
+        }
+
+        synchronized void record(ExecutionStrategy strategy, int sizeClass, double nanosPerElement) {
+            int slot = strategy.ordinal();
+            costs[sizeClass][slot] = smooth(costs[sizeClass][slot], samples[sizeClass][slot] == 0, nanosPerElement);
+            samples[sizeClass][slot]++;
+            sampledAt[sizeClass][slot] = runs[sizeClass];
+            if (strategy == ExecutionStrategy.SEQUENTIAL) {
+                sequentialCost = smooth(sequentialCost, sequentialCost < 0, nanosPerElement);
+            }
+        }
+
+        synchronized OptionalDouble cost(ExecutionStrategy strategy, int sizeClass) {
+            int slot = strategy.ordinal();
+            return samples[sizeClass][slot] == 0 ? OptionalDouble.empty() : OptionalDouble.of(costs[sizeClass][slot]);
+        }
+
+        private static double smooth(double current, boolean first, double sample) {
+            return first ? sample : current + SMOOTHING * (sample - current);
+        }
+    }
+
+    private static final class SharedHolder {
+        private static final ExecutionStrategySelector INSTANCE = new ExecutionStrategySelector(
+                () -> ExecutorRegistry.shared().cpu(), Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -1,5 +1,7 @@
 package ua.onlinecourses.parallel;
 
+import ua.onlinecourses.concurrent.ExecutorRegistry;
+import ua.onlinecourses.concurrent.TaskScope;
 import ua.onlinecourses.model.Course;
 import ua.onlinecourses.model.Instructor;
 import ua.onlinecourses.model.Student;
@@ -7,8 +9,7 @@ import ua.onlinecourses.repository.CourseRepository;
 import ua.onlinecourses.repository.InstructorRepository;
 import ua.onlinecourses.repository.StudentRepository;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Duration;
 import java.util.concurrent.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -16,54 +17,64 @@ import java.util.logging.Logger;
 public class ExecutorServiceProcessor {
     private static final Logger logger = Logger.getLogger(ExecutorServiceProcessor.class.getName());
 
+    public static final Duration DEFAULT_BUDGET = Duration.ofSeconds(30);
+
     private final ExecutorService executorService;
 
-    public ExecutorServiceProcessor(int threadPoolSize) {
-        this.executorService = Executors.newFixedThreadPool(threadPoolSize);
-        logger.log(Level.INFO, "ExecutorServiceProcessor created with {0} threads", threadPoolSize);
+    public ExecutorServiceProcessor() {
+        this(ExecutorRegistry.shared().cpu());
     }
 
-    public void executeMultipleTasks(StudentRepository studentRepo,
-                                     CourseRepository courseRepo,
-                                     InstructorRepository instructorRepo) throws InterruptedException {
-        logger.log(Level.INFO, "Starting multiple task execution");
-        long startTime = System.currentTimeMillis();
-
-        List<Callable<Object>> tasks = new ArrayList<>();
-
-        tasks.add(() -> {
-            new DataProcessingService.PrintStudentsRunnable(studentRepo).run();
-            return null;
-        });
-
-        tasks.add(() -> new DataProcessingService.FilterStudentsByDomainTask(studentRepo, "chnu.edu.ua").call());
-        tasks.add(() -> new DataProcessingService.CountCoursesByCreditsTask(courseRepo, 3).call());
-        tasks.add(() -> new DataProcessingService.FindInstructorsByExpertiseTask(instructorRepo, 5).call());
-        tasks.add(() -> new DataProcessingService.CalculateTotalCreditsTask(courseRepo).call());
-        tasks.add(() -> new DataProcessingService.CalculateAverageExpertiseTask(instructorRepo).call());
-
-        List<Future<Object>> futures = executorService.invokeAll(tasks);
+    public ExecutorServiceProcessor(ExecutorService executorService) {
+        this.executorService = executorService;
+        logger.log(Level.INFO, "ExecutorServiceProcessor created");
+    }
 
-        logger.log(Level.INFO, "All tasks submitted. Processing results...");
+    public TaskResults executeMultipleTasks(StudentRepository studentRepo,
+                                            CourseRepository courseRepo,
+                                            InstructorRepository instructorRepo) throws InterruptedException {
+        return executeMultipleTasks(studentRepo, courseRepo, instructorRepo, DEFAULT_BUDGET);
+    }
 
-        int index = 0;
-        for (Future<Object> future : futures) {
-            try {
-                Object result = future.get(30, TimeUnit.SECONDS);
+    // Tasks still running when the budget runs out are cancelled and reported instead of awaited.
+    public TaskResults executeMultipleTasks(StudentRepository studentRepo,
+                                            CourseRepository courseRepo,
+                                            InstructorRepository instructorRepo,
+                                            Duration budget) throws InterruptedException {
+        logger.log(Level.INFO, "Starting multiple task execution with a budget of {0} ms", budget.toMillis());
+        long startTime = System.currentTimeMillis();
+        RepositoryViews views = RepositoryViews.capture(studentRepo, courseRepo, instructorRepo);
+
+        try (TaskScope scope = TaskScope.open("executeMultipleTasks", budget, executorService)) {
+            scope.fork("printStudents", () -> {
+                new DataProcessingService.PrintStudentsRunnable(views.students()).run();
+                return null;
+            });
+            scope.fork("studentsByDomain", new DataProcessingService.FilterStudentsByDomainTask(views.students(), "chnu.edu.ua"));
+            scope.fork("coursesByCredits", new DataProcessingService.CountCoursesByCreditsTask(views.courses(), 3));
+            scope.fork("instructorsByExpertise", new DataProcessingService.FindInstructorsByExpertiseTask(views.instructors(), 5));
+            scope.fork("totalCredits", new DataProcessingService.CalculateTotalCreditsTask(views.courses()));
+            scope.fork("averageExpertise", new DataProcessingService.CalculateAverageExpertiseTask(views.instructors()));
+
+            logger.log(Level.INFO, "All tasks submitted. Processing results...");
+            TaskResults results = TaskResults.of(scope.join());
+
+            results.values().forEach((task, result) -> {
                 if (result != null) {
-                    logger.log(Level.INFO, "Task {0} result: {1}", new Object[]{index, result});
+                    logger.log(Level.INFO, "Task {0} result: {1}", new Object[]{task, result});
                 }
-            } catch (ExecutionException e) {
-                logger.log(Level.SEVERE, "Task {0} failed: {1}", new Object[]{index, e.getCause().getMessage()});
-            } catch (TimeoutException e) {
-                logger.log(Level.WARNING, "Task {0} timed out", index);
-                future.cancel(true);
+            });
+            results.failures().forEach((task, message) ->
+                    logger.log(Level.SEVERE, "Task {0} failed: {1}", new Object[]{task, message}));
+            if (results.partial()) {
+                logger.log(Level.WARNING, "Tasks {0} did not finish within {1} ms",
+                        new Object[]{results.cancelled(), budget.toMillis()});
             }
-            index++;
-        }
 
-        long endTime = System.currentTimeMillis();
-        logger.log(Level.INFO, "Multiple task execution completed in {0} ms", (endTime - startTime));
+            long endTime = System.currentTimeMillis();
+            logger.log(Level.INFO, "Multiple task execution completed in {0} ms", (endTime - startTime));
+            return results;
+        }
     }
 
     public <T> Future<T> submitTask(Callable<T> task) {
@@ -94,17 +105,4 @@ public class ExecutorServiceProcessor {
             return 0;
         }
     }
-
-    public void shutdown() {
-        logger.log(Level.INFO, "Shutting down ExecutorServiceProcessor");
-        executorService.shutdown();
-        try {
-            if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
-                executorService.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executorService.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
-    }
 }
@@ -0,0 +1,317 @@
+package ua.onlinecourses.parallel;
+
+import ua.onlinecourses.repository.BatchOperation;
+import ua.onlinecourses.repository.BatchOutcome;
+import ua.onlinecourses.repository.GenericRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads a CSV file through four stages — read, tokenize, construct/validate, insert — connected by
+ * bounded queues of batches. Each stage runs its own workers and re-batches to its own batch size;
+ * a full queue blocks the stage feeding it, so a slow stage throttles everything upstream instead
+ * of buffering the file in memory. With more than one worker in a stage, batches may reach the
+ * repository out of file order.
+ */
+public class IngestPipeline<T> {
+    private static final Logger logger = Logger.getLogger(IngestPipeline.class.getName());
+
+    public static final Function<String, String[]> CSV_TOKENIZER = line -> line.split(",");
+
+    private static final long POLL_INTERVAL_MS = 50;
+    private static final List<Object> END_OF_STREAM = new ArrayList<>(0);
+
+    private record Line(int number, String text) {
+    }
+
+    private record Tokens(int number, String[] fields) {
+    }
+
+    private final String name;
+    private final IngestSettings settings;
+    private final Function<String, String[]> tokenizer;
+    private final Function<String[], T> constructor;
+    private final GenericRepository<T> repository;
+
+    public IngestPipeline(String name, IngestSettings settings, Function<String[], T> constructor,
+                          GenericRepository<T> repository) {
+        this(name, settings, CSV_TOKENIZER, constructor, repository);
+    }
+
+    public IngestPipeline(String name, IngestSettings settings, Function<String, String[]> tokenizer,
+                          Function<String[], T> constructor, GenericRepository<T> repository) {
+        this.name = name;
+        this.settings = settings;
+        this.tokenizer = tokenizer;
+        this.constructor = constructor;
+        this.repository = repository;
+    }
+
+    // Every worker holds a thread until its input ends, so a bounded pool must fit the whole pipeline.
+    public CompletableFuture<IngestReport> runAsync(Path path, Executor executor) {
+        if (executor instanceof ThreadPoolExecutor pool && pool.getMaximumPoolSize() < settings.workerCount()) {
+            throw new IllegalArgumentException("Pipeline needs " + settings.workerCount()
+                    + " workers but the executor has " + pool.getMaximumPoolSize() + " threads");
+        }
+        return new Run(path).start(executor);
+    }
+
+    private final class Run {
+        private final Path path;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final BlockingQueue<List<Line>> lines = new ArrayBlockingQueue<>(settings.queueCapacity());
+        private final BlockingQueue<List<Tokens>> tokens = new ArrayBlockingQueue<>(settings.queueCapacity());
+        private final BlockingQueue<List<T>> entities = new ArrayBlockingQueue<>(settings.queueCapacity());
+        private final LongAdder duplicates = new LongAdder();
+        private final Counters readCounters = new Counters("read", settings.read());
+        private final Counters tokenizeCounters = new Counters("tokenize", settings.tokenize());
+        private final Counters constructCounters = new Counters("construct", settings.construct());
+        private final Counters insertCounters = new Counters("insert", settings.insert());
+
+        Run(Path path) {
+            this.path = path;
+        }
+
+        CompletableFuture<IngestReport> start(Executor executor) {
+            long startTime = System.nanoTime();
+            List<CompletableFuture<Void>> workers = new ArrayList<>();
+            workers.add(CompletableFuture.runAsync(this::read, executor));
+            workers.addAll(stage(tokenizeCounters, lines, tokens, settings.construct().parallelism(), this::tokenize, executor));
+            workers.addAll(stage(constructCounters, tokens, entities, settings.insert().parallelism(), this::construct, executor));
+            workers.addAll(stage(insertCounters, entities, null, 0, this::insert, executor));
+            return CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+                Throwable error = failure.get();
+                if (error != null) {
+                    throw error instanceof RuntimeException runtime ? runtime : new IllegalStateException(error);
+                }
+                IngestReport report = new IngestReport(name, readCounters.items.sum(),
+                        insertCounters.items.sum() - duplicates.sum(), constructCounters.failed.sum(),
+                        duplicates.sum(), System.nanoTime() - startTime,
+                        List.of(readCounters.metrics(), tokenizeCounters.metrics(), constructCounters.metrics(),
+                                insertCounters.metrics()));
+                logger.log(Level.INFO, "Ingest of {0} finished: {1}", new Object[]{name, report});
+                return report;
+            });
+        }
+
+        private void read() {
+            int batchSize = settings.read().batchSize();
+            try (BufferedReader reader = Files.newBufferedReader(path)) {
+                List<Line> batch = new ArrayList<>(batchSize);
+                long busyFrom = System.nanoTime();
+                int number = 0;
+                String text;
+                while ((text = reader.readLine()) != null) {
+                    number++;
+                    String line = text.trim();
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+                    batch.add(new Line(number, line));
+                    if (batch.size() == batchSize) {
+                        readCounters.busy(busyFrom, batch.size());
+                        if (!put(lines, batch, readCounters)) {
+                            return;
+                        }
+                        batch = new ArrayList<>(batchSize);
+                        busyFrom = System.nanoTime();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    readCounters.busy(busyFrom, batch.size());
+                    put(lines, batch, readCounters);
+                }
+            } catch (IOException e) {
+                abort(new UncheckedIOException("Cannot read " + path, e));
+            } catch (RuntimeException e) {
+                abort(e);
+            } finally {
+                endOfStream(lines, settings.tokenize().parallelism(), readCounters);
+            }
+        }
+
+        private List<Tokens> tokenize(List<Line> batch) {
+            List<Tokens> result = new ArrayList<>(batch.size());
+            for (Line line : batch) {
+                result.add(new Tokens(line.number(), tokenizer.apply(line.text())));
+            }
+            return result;
+        }
+
+        private List<T> construct(List<Tokens> batch) {
+            List<T> result = new ArrayList<>(batch.size());
+            for (Tokens row : batch) {
+                try {
+                    result.add(constructor.apply(row.fields()));
+                } catch (RuntimeException e) {
+                    constructCounters.failed.increment();
+                    logger.log(Level.WARNING, "Failed to parse line {0} of {1}: {2}",
+                            new Object[]{row.number(), name, e.getMessage()});
+                }
+            }
+            return result;
+        }
+
+        private List<T> insert(List<T> batch) {
+            List<BatchOperation<T>> operations = new ArrayList<>(batch.size());
+            batch.forEach(item -> operations.add(BatchOperation.create(item)));
+            for (BatchOutcome outcome : repository.applyBatch(operations)) {
+                if (!outcome.isSuccess()) {
+                    duplicates.increment();
+                }
+            }
+            return List.of();
+        }
+
+        private <I, O> List<CompletableFuture<Void>> stage(Counters counters, BlockingQueue<List<I>> input,
+                                                           BlockingQueue<List<O>> output, int downstreamWorkers,
+                                                           Function<List<I>, List<O>> work, Executor executor) {
+            AtomicInteger running = new AtomicInteger(counters.parallelism);
+            List<CompletableFuture<Void>> workers = new ArrayList<>();
+            for (int i = 0; i < counters.parallelism; i++) {
+                workers.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        runWorker(counters, input, output, work);
+                    } catch (RuntimeException e) {
+                        abort(e);
+                    } finally {
+                        if (running.decrementAndGet() == 0 && output != null) {
+                            endOfStream(output, downstreamWorkers, counters);
+                        }
+                    }
+                }, executor));
+            }
+            return workers;
+        }
+
+        private <I, O> void runWorker(Counters counters, BlockingQueue<List<I>> input, BlockingQueue<List<O>> output,
+                                      Function<List<I>, List<O>> work) {
+            int batchSize = counters.batchSize;
+            List<I> pending = new ArrayList<>();
+            while (true) {
+                List<I> batch = take(input, counters);
+                if (batch == null) {
+                    return;
+                }
+                boolean last = batch == END_OF_STREAM;
+                pending.addAll(batch);
+                int from = 0;
+                while (pending.size() - from >= batchSize || (last && from < pending.size())) {
+                    int to = Math.min(from + batchSize, pending.size());
+                    long busyFrom = System.nanoTime();
+                    List<O> result = work.apply(new ArrayList<>(pending.subList(from, to)));
+                    counters.busy(busyFrom, to - from);
+                    if (output != null && !result.isEmpty() && !put(output, result, counters)) {
+                        return;
+                    }
+                    from = to;
+                }
+                pending.subList(0, from).clear();
+                if (last) {
+                    return;
+                }
+            }
+        }
+
+        // Returns null once the run has failed; END_OF_STREAM is handed over like any batch.
+        private <I> List<I> take(BlockingQueue<List<I>> queue, Counters counters) {
+            long waitFrom = System.nanoTime();
+            try {
+                while (failure.get() == null) {
+                    List<I> batch = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if (batch != null) {
+                        return batch;
+                    }
+                }
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort(e);
+                return null;
+            } finally {
+                counters.starvedNanos.add(System.nanoTime() - waitFrom);
+            }
+        }
+
+        private <O> boolean put(BlockingQueue<List<O>> queue, List<O> batch, Counters counters) {
+            long waitFrom = System.nanoTime();
+            try {
+                while (failure.get() == null) {
+                    if (queue.offer(batch, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort(e);
+                return false;
+            } finally {
+                counters.blockedNanos.add(System.nanoTime() - waitFrom);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private <O> void endOfStream(BlockingQueue<List<O>> queue, int consumers, Counters counters) {
+            for (int i = 0; i < consumers; i++) {
+                if (!put(queue, (List<O>) END_OF_STREAM, counters)) {
+                    return;
+                }
+            }
+        }
+
+        private void abort(Throwable error) {
+            if (failure.compareAndSet(null, error)) {
+                logger.log(Level.SEVERE, "Ingest of {0} aborted: {1}", new Object[]{name, error.getMessage()});
+            }
+        }
+    }
+
+    private static final class Counters {
+        private final String stage;
+        private final int parallelism;
+        private final int batchSize;
+        private final LongAdder items = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final LongAdder blockedNanos = new LongAdder();
+        private final LongAdder starvedNanos = new LongAdder();
+
+        Counters(String stage, IngestSettings.Stage settings) {
+            this.stage = stage;
+            this.parallelism = settings.parallelism();
+            this.batchSize = settings.batchSize();
+        }
+
+        // Items are counted on the way in; read has no input, so it counts what it produced.
+        void busy(long from, int consumed) {
+            busyNanos.add(System.nanoTime() - from);
+            items.add(consumed);
+            batches.increment();
+        }
+
+        IngestReport.StageMetrics metrics() {
+            return new IngestReport.StageMetrics(stage, parallelism, items.sum(), batches.sum(), failed.sum(),
+                    busyNanos.sum(), blockedNanos.sum(), starvedNanos.sum());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ua.onlinecourses.parallel;
+
+import java.util.Comparator;
+import java.util.List;
+
+public record IngestReport(
+        String name,
+        long lines,
+        long inserted,
+        long rejected,
+        long duplicates,
+        long elapsedNanos,
+        List<StageMetrics> stages
+) {
+
+    /**
+     * Counters of one pipeline stage. Busy time is spent processing, blocked time waiting for room
+     * downstream and starved time waiting for input, each summed over the stage's workers.
+     */
+    public record StageMetrics(
+            String stage,
+            int parallelism,
+            long items,
+            long batches,
+            long failed,
+            long busyNanos,
+            long blockedNanos,
+            long starvedNanos
+    ) {
+        // Items per second while the stage's workers were actually processing.
+        public double itemsPerSecond() {
+            return busyNanos == 0 ? 0 : items * 1_000_000_000.0 * parallelism / busyNanos;
+        }
+
+        public double utilization(long elapsedNanos) {
+            return elapsedNanos == 0 ? 0 : (double) busyNanos / ((double) elapsedNanos * parallelism);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s{workers=%d, items=%d, batches=%d, failed=%d, busy=%dms, blocked=%dms, starved=%dms, rate=%.0f/s}",
+                    stage, parallelism, items, batches, failed, busyNanos / 1_000_000, blockedNanos / 1_000_000,
+                    starvedNanos / 1_000_000, itemsPerSecond());
+        }
+    }
+
+    // The stage whose workers were busiest; upstream stages block on it and downstream ones starve.
+    public StageMetrics bottleneck() {
+        return stages.stream()
+                .max(Comparator.comparingDouble(stage -> stage.utilization(elapsedNanos)))
+                .orElse(null);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("IngestReport{name=%s, lines=%d, inserted=%d, rejected=%d, duplicates=%d, elapsed=%dms, bottleneck=%s, stages=%s}",
+                name, lines, inserted, rejected, duplicates, elapsedNanos / 1_000_000,
+                bottleneck() == null ? "none" : bottleneck().stage(), stages);
+    }
+}
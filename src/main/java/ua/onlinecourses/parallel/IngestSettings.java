@@ -0,0 +1,48 @@
+package ua.onlinecourses.parallel;
+
+public record IngestSettings(
+        int queueCapacity,
+        Stage read,
+        Stage tokenize,
+        Stage construct,
+        Stage insert
+) {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 4;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    public record Stage(int parallelism, int batchSize) {
+        public Stage {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Stage parallelism must be positive: " + parallelism);
+            }
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Stage batch size must be positive: " + batchSize);
+            }
+        }
+    }
+
+    public IngestSettings {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        }
+        if (read == null || tokenize == null || construct == null || insert == null) {
+            throw new IllegalArgumentException("Every stage needs settings");
+        }
+        if (read.parallelism() != 1) {
+            throw new IllegalArgumentException("A file is read by a single reader, got parallelism " + read.parallelism());
+        }
+    }
+
+    public static IngestSettings defaults() {
+        return new IngestSettings(DEFAULT_QUEUE_CAPACITY,
+                new Stage(1, DEFAULT_BATCH_SIZE),
+                new Stage(1, DEFAULT_BATCH_SIZE),
+                new Stage(2, DEFAULT_BATCH_SIZE),
+                new Stage(1, DEFAULT_BATCH_SIZE));
+    }
+
+    public int workerCount() {
+        return read.parallelism() + tokenize.parallelism() + construct.parallelism() + insert.parallelism();
+    }
+}
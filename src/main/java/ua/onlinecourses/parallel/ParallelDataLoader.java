@@ -1,23 +1,28 @@
 package ua.onlinecourses.parallel;
 
-import ua.onlinecourses.model.Course;
-import ua.onlinecourses.model.Instructor;
-import ua.onlinecourses.model.Student;
-import ua.onlinecourses.model.myModule;
+import ua.onlinecourses.concurrent.ExecutorRegistry;
 import ua.onlinecourses.parser.CourseFileParser;
 import ua.onlinecourses.parser.InstructorFileParser;
 import ua.onlinecourses.parser.ModuleFileParser;
 import ua.onlinecourses.parser.StudentFileParser;
 import ua.onlinecourses.repository.CourseRepository;
+import ua.onlinecourses.repository.GenericRepository;
 import ua.onlinecourses.repository.InstructorRepository;
 import ua.onlinecourses.repository.ModuleRepository;
 import ua.onlinecourses.repository.StudentRepository;
 
-import java.util.List;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,16 +34,39 @@ public class ParallelDataLoader {
     private final InstructorRepository instructorRepository;
     private final ModuleRepository moduleRepository;
     private final ExecutorService executorService;
+    private final IngestSettings settings;
+    private final Map<String, IngestReport> reports = new ConcurrentHashMap<>();
+
+    private static final int PIPELINES = 4;
 
     public ParallelDataLoader(StudentRepository studentRepository,
                               CourseRepository courseRepository,
                               InstructorRepository instructorRepository,
                               ModuleRepository moduleRepository) {
+        this(studentRepository, courseRepository, instructorRepository, moduleRepository, IngestSettings.defaults());
+    }
+
+    public ParallelDataLoader(StudentRepository studentRepository,
+                              CourseRepository courseRepository,
+                              InstructorRepository instructorRepository,
+                              ModuleRepository moduleRepository,
+                              IngestSettings settings) {
+        this(studentRepository, courseRepository, instructorRepository, moduleRepository, settings,
+                ExecutorRegistry.shared().virtual());
+    }
+
+    ParallelDataLoader(StudentRepository studentRepository,
+                       CourseRepository courseRepository,
+                       InstructorRepository instructorRepository,
+                       ModuleRepository moduleRepository,
+                       IngestSettings settings,
+                       ExecutorService executorService) {
         this.studentRepository = studentRepository;
         this.courseRepository = courseRepository;
         this.instructorRepository = instructorRepository;
         this.moduleRepository = moduleRepository;
-        this.executorService = Executors.newFixedThreadPool(4);
+        this.executorService = executorService;
+        this.settings = settings;
     }
 
     public CompletableFuture<Void> loadAllDataParallel(String studentsFile,
@@ -48,10 +76,25 @@ public class ParallelDataLoader {
         logger.log(Level.INFO, "Starting parallel data loading from files");
         long startTime = System.currentTimeMillis();
 
-        CompletableFuture<Integer> studentsFuture = loadStudentsAsync(studentsFile);
-        CompletableFuture<Integer> coursesFuture = loadCoursesAsync(coursesFile);
-        CompletableFuture<Integer> instructorsFuture = loadInstructorsAsync(instructorsFile);
-        CompletableFuture<Integer> modulesFuture = loadModulesAsync(modulesFile);
+        CompletableFuture<Integer> studentsFuture;
+        CompletableFuture<Integer> coursesFuture;
+        CompletableFuture<Integer> instructorsFuture;
+        CompletableFuture<Integer> modulesFuture;
+        if (fitsConcurrently(PIPELINES)) {
+            studentsFuture = loadStudentsAsync(studentsFile);
+            coursesFuture = loadCoursesAsync(coursesFile);
+            instructorsFuture = loadInstructorsAsync(instructorsFile);
+            modulesFuture = loadModulesAsync(modulesFile);
+        } else {
+            // Every pipeline worker holds its thread until its input ends, so pipelines that do not
+            // all fit into the pool would starve each other; run them one after another instead.
+            logger.log(Level.INFO, "Pool cannot host {0} pipelines of {1} workers, loading sequentially",
+                    new Object[]{PIPELINES, settings.workerCount()});
+            studentsFuture = loadStudentsAsync(studentsFile);
+            coursesFuture = studentsFuture.thenCompose(ignored -> loadCoursesAsync(coursesFile));
+            instructorsFuture = coursesFuture.thenCompose(ignored -> loadInstructorsAsync(instructorsFile));
+            modulesFuture = instructorsFuture.thenCompose(ignored -> loadModulesAsync(modulesFile));
+        }
 
         return CompletableFuture.allOf(studentsFuture, coursesFuture, instructorsFuture, modulesFuture)
                 .thenRun(() -> {
@@ -73,100 +116,70 @@ public class ParallelDataLoader {
                 });
     }
 
+    // Unbounded executors (virtual threads) always fit; a bounded pool needs idle threads for every worker.
+    private boolean fitsConcurrently(int pipelines) {
+        if (!(executorService instanceof ThreadPoolExecutor pool)) {
+            return true;
+        }
+        int idle = pool.getMaximumPoolSize() - pool.getActiveCount();
+        return idle >= pipelines * settings.workerCount();
+    }
+
     private CompletableFuture<Integer> loadStudentsAsync(String filePath) {
-        return CompletableFuture.supplyAsync(() -> {
-            String threadName = Thread.currentThread().getName();
-            logger.log(Level.INFO, "Thread [{0}] started loading students from {1}", new Object[]{threadName, filePath});
-            try {
-                List<Student> students = StudentFileParser.parseFromCSV(filePath);
-                int count = 0;
-                for (Student student : students) {
-                    if (studentRepository.add(student)) {
-                        count++;
-                    }
-                }
-                logger.log(Level.INFO, "Thread [{0}] completed loading {1} students", new Object[]{threadName, count});
-                return count;
-            } catch (Exception e) {
-                logger.log(Level.SEVERE, "Thread [{0}] error loading students: {1}", new Object[]{threadName, e.getMessage()});
-                return 0;
-            }
-        }, executorService);
+        return loadAsync("students", filePath, StudentFileParser::parseStudentFromFields, studentRepository);
     }
 
     private CompletableFuture<Integer> loadCoursesAsync(String filePath) {
-        return CompletableFuture.supplyAsync(() -> {
-            String threadName = Thread.currentThread().getName();
-            logger.log(Level.INFO, "Thread [{0}] started loading courses from {1}", new Object[]{threadName, filePath});
-            try {
-                List<Course> courses = CourseFileParser.parseFromCSV(filePath);
-                int count = 0;
-                for (Course course : courses) {
-                    if (courseRepository.add(course)) {
-                        count++;
-                    }
-                }
-                logger.log(Level.INFO, "Thread [{0}] completed loading {1} courses", new Object[]{threadName, count});
-                return count;
-            } catch (Exception e) {
-                logger.log(Level.SEVERE, "Thread [{0}] error loading courses: {1}", new Object[]{threadName, e.getMessage()});
-                return 0;
-            }
-        }, executorService);
+        return loadAsync("courses", filePath, CourseFileParser::parseCourseFromFields, courseRepository);
     }
 
     private CompletableFuture<Integer> loadInstructorsAsync(String filePath) {
-        return CompletableFuture.supplyAsync(() -> {
-            String threadName = Thread.currentThread().getName();
-            logger.log(Level.INFO, "Thread [{0}] started loading instructors from {1}", new Object[]{threadName, filePath});
-            try {
-                List<Instructor> instructors = InstructorFileParser.parseFromCSV(filePath);
-                int count = 0;
-                for (Instructor instructor : instructors) {
-                    if (instructorRepository.add(instructor)) {
-                        count++;
-                    }
-                }
-                logger.log(Level.INFO, "Thread [{0}] completed loading {1} instructors", new Object[]{threadName, count});
-                return count;
-            } catch (Exception e) {
-                logger.log(Level.SEVERE, "Thread [{0}] error loading instructors: {1}", new Object[]{threadName, e.getMessage()});
-                return 0;
-            }
-        }, executorService);
+        return loadAsync("instructors", filePath, InstructorFileParser::parseInstructorFromFields, instructorRepository);
     }
 
     private CompletableFuture<Integer> loadModulesAsync(String filePath) {
-        return CompletableFuture.supplyAsync(() -> {
-            String threadName = Thread.currentThread().getName();
-            logger.log(Level.INFO, "Thread [{0}] started loading modules from {1}", new Object[]{threadName, filePath});
-            try {
-                List<myModule> modules = ModuleFileParser.parseFromCSV(filePath);
-                int count = 0;
-                for (myModule module : modules) {
-                    if (moduleRepository.add(module)) {
-                        count++;
-                    }
-                }
-                logger.log(Level.INFO, "Thread [{0}] completed loading {1} modules", new Object[]{threadName, count});
-                return count;
-            } catch (Exception e) {
-                logger.log(Level.SEVERE, "Thread [{0}] error loading modules: {1}", new Object[]{threadName, e.getMessage()});
-                return 0;
-            }
-        }, executorService);
+        return loadAsync("modules", filePath, ModuleFileParser::parseModuleFromFields, moduleRepository);
     }
 
-    public void shutdown() {
-        logger.log(Level.INFO, "Shutting down ParallelDataLoader executor service");
-        executorService.shutdown();
+    private <T> CompletableFuture<Integer> loadAsync(String entityType, String filePath,
+                                                     Function<String[], T> constructor, GenericRepository<T> repository) {
+        logger.log(Level.INFO, "Starting pipelined load of {0} from {1}", new Object[]{entityType, filePath});
         try {
-            if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
-                executorService.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executorService.shutdownNow();
-            Thread.currentThread().interrupt();
+            return new IngestPipeline<>(entityType, settings, constructor, repository)
+                    .runAsync(resolve(filePath), executorService)
+                    .thenApply(report -> {
+                        reports.put(entityType, report);
+                        logger.log(Level.INFO, "Loaded {0} {1} ({2} rejected, {3} duplicates), bottleneck stage: {4}",
+                                new Object[]{report.inserted(), entityType, report.rejected(), report.duplicates(),
+                                        report.bottleneck().stage()});
+                        return (int) report.inserted();
+                    })
+                    .exceptionally(ex -> {
+                        logger.log(Level.SEVERE, "Error loading {0}: {1}", new Object[]{entityType, ex.getMessage()});
+                        return 0;
+                    });
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.SEVERE, "Error loading {0}: {1}", new Object[]{entityType, e.getMessage()});
+            return CompletableFuture.completedFuture(0);
+        }
+    }
+
+    public Map<String, IngestReport> getReports() {
+        return Map.copyOf(reports);
+    }
+
+    // Classpath resources win over plain file paths, as in the file parsers.
+    static Path resolve(String filePath) throws IOException {
+        Path path;
+        try {
+            URL url = Thread.currentThread().getContextClassLoader().getResource(filePath);
+            path = url != null ? Paths.get(url.toURI()) : Paths.get(filePath);
+        } catch (URISyntaxException e) {
+            path = Paths.get(filePath);
+        }
+        if (!Files.exists(path)) {
+            throw new IOException("File not found: " + filePath);
         }
+        return path;
     }
 }
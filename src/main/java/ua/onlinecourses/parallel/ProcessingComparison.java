@@ -1,27 +1,38 @@
 package ua.onlinecourses.parallel;
 
+import ua.onlinecourses.concurrent.ExecutorRegistry;
 import ua.onlinecourses.model.Course;
 import ua.onlinecourses.repository.CourseRepository;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 public class ProcessingComparison {
     private static final Logger logger = Logger.getLogger(ProcessingComparison.class.getName());
 
+    static final String OPERATION_FILTER_CREDITS = "courses.filterByMinCredits";
+    static final String OPERATION_SUM_CREDITS = "courses.sumCredits";
+
     public static void compareFilteringApproaches(CourseRepository repository, int minCredits) {
         logger.log(Level.INFO, "=== Starting comparison of filtering approaches ===");
         logger.log(Level.INFO, "Filtering courses with credits >= {0}", minCredits);
 
         long parallelStreamResult = filterWithParallelStream(repository, minCredits);
         long sequentialStreamResult = filterWithSequentialStream(repository, minCredits);
+        long columnScanResult = filterWithColumnScan(repository, minCredits);
+        long forkJoinScanResult = filterWithForkJoinScan(repository, minCredits);
+        Map<ExecutionStrategy, Long> calibrated = calibrateFiltering(repository, minCredits);
+        long adaptiveResult = filterAdaptive(repository, minCredits);
 
-        ExecutorServiceProcessor executorProcessor = new ExecutorServiceProcessor(4);
+        ExecutorServiceProcessor executorProcessor = new ExecutorServiceProcessor();
         long executorServiceResult = executorProcessor.filterCoursesWithExecutorService(repository, minCredits);
 
-        CompletableFutureProcessor cfProcessor = new CompletableFutureProcessor(4);
+        CompletableFutureProcessor cfProcessor = new CompletableFutureProcessor();
         long completableFutureResult = 0;
         try {
             completableFutureResult = cfProcessor.filterCoursesWithCompletableFuture(repository, minCredits)
@@ -33,16 +44,21 @@ public class ProcessingComparison {
         logger.log(Level.INFO, "=== Comparison Results ===");
         logger.log(Level.INFO, "Sequential Stream result: {0}", sequentialStreamResult);
         logger.log(Level.INFO, "Parallel Stream result: {0}", parallelStreamResult);
+        logger.log(Level.INFO, "Column scan result: {0}", columnScanResult);
+        logger.log(Level.INFO, "Fork/join scan result: {0}", forkJoinScanResult);
         logger.log(Level.INFO, "ExecutorService result: {0}", executorServiceResult);
         logger.log(Level.INFO, "CompletableFuture result: {0}", completableFutureResult);
+        logger.log(Level.INFO, "Adaptive result: {0}", adaptiveResult);
+        logSelection(OPERATION_FILTER_CREDITS, repository.size());
 
         boolean allEqual = (parallelStreamResult == sequentialStreamResult) &&
+                           (sequentialStreamResult == columnScanResult) &&
+                           (sequentialStreamResult == forkJoinScanResult) &&
+                           (sequentialStreamResult == adaptiveResult) &&
+                           calibrated.values().stream().allMatch(result -> result == sequentialStreamResult) &&
                            (sequentialStreamResult == executorServiceResult) &&
                            (executorServiceResult == completableFutureResult);
         logger.log(Level.INFO, "All results equal: {0}", allEqual);
-
-        executorProcessor.shutdown();
-        cfProcessor.shutdown();
     }
 
     public static long filterWithParallelStream(CourseRepository repository, int minCredits) {
@@ -51,8 +67,7 @@ public class ProcessingComparison {
         long startTime = System.currentTimeMillis();
 
         try {
-            List<Course> allCourses = repository.getAll();
-            long count = allCourses.parallelStream()
+            long count = repository.parallelStream()
                     .filter(course -> course.credits() >= minCredits)
                     .count();
 
@@ -87,14 +102,112 @@ public class ProcessingComparison {
         }
     }
 
+    public static long filterAdaptive(CourseRepository repository, int minCredits) {
+        long count = ExecutionStrategySelector.shared().execute(OPERATION_FILTER_CREDITS, repository.spliterator(),
+                Collectors.filtering(course -> course.credits() >= minCredits, Collectors.counting()));
+        logger.log(Level.INFO, "Adaptive filtering found {0} courses", count);
+        return count;
+    }
+
+    public static int sumCreditsAdaptive(CourseRepository repository) {
+        int sum = ExecutionStrategySelector.shared().execute(OPERATION_SUM_CREDITS, repository.spliterator(),
+                Collectors.summingInt(Course::credits));
+        logger.log(Level.INFO, "Adaptive credits sum: {0}", sum);
+        return sum;
+    }
+
+    // Runs every strategy once so the selector has live timings for this repository size.
+    private static Map<ExecutionStrategy, Long> calibrateFiltering(CourseRepository repository, int minCredits) {
+        Map<ExecutionStrategy, Long> results = new EnumMap<>(ExecutionStrategy.class);
+        for (ExecutionStrategy strategy : ExecutionStrategy.values()) {
+            results.put(strategy, ExecutionStrategySelector.shared().execute(strategy, OPERATION_FILTER_CREDITS,
+                    repository.spliterator(),
+                    Collectors.filtering(course -> course.credits() >= minCredits, Collectors.counting())));
+        }
+        return results;
+    }
+
+    private static Map<ExecutionStrategy, Integer> calibrateSum(CourseRepository repository) {
+        Map<ExecutionStrategy, Integer> results = new EnumMap<>(ExecutionStrategy.class);
+        for (ExecutionStrategy strategy : ExecutionStrategy.values()) {
+            results.put(strategy, ExecutionStrategySelector.shared().execute(strategy, OPERATION_SUM_CREDITS,
+                    repository.spliterator(), Collectors.summingInt(Course::credits)));
+        }
+        return results;
+    }
+
+    private static void logSelection(String operation, int size) {
+        ExecutionStrategySelector selector = ExecutionStrategySelector.shared();
+        for (ExecutionStrategy strategy : ExecutionStrategy.values()) {
+            selector.nanosPerElement(operation, strategy, size).ifPresent(cost ->
+                    logger.log(Level.INFO, "{0} costs {1} ns per element at {2} elements",
+                            new Object[]{strategy, String.format("%.1f", cost), size}));
+        }
+        logger.log(Level.INFO, "Selected strategy for {0} at {1} elements: {2}",
+                new Object[]{operation, size, selector.choose(operation, size)});
+    }
+
+    public static long filterWithForkJoinScan(CourseRepository repository, int minCredits) {
+        String threadName = Thread.currentThread().getName();
+        logger.log(Level.INFO, "Thread [{0}] starting fork/join scan filtering", threadName);
+        long startTime = System.currentTimeMillis();
+
+        try {
+            long count = repository.countWhere(course -> course.credits() >= minCredits);
+
+            long endTime = System.currentTimeMillis();
+            logger.log(Level.INFO, "Fork/join scan filtering completed in {0} ms. Found {1} courses",
+                    new Object[]{(endTime - startTime), count});
+            return count;
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error in fork/join scan filtering: {0}", e.getMessage());
+            return 0;
+        }
+    }
+
+    public static long filterWithColumnScan(CourseRepository repository, int minCredits) {
+        String threadName = Thread.currentThread().getName();
+        logger.log(Level.INFO, "Thread [{0}] starting column scan filtering", threadName);
+        long startTime = System.currentTimeMillis();
+
+        try {
+            long count = repository.columns().count(CourseRepository.COLUMN_CREDITS, minCredits, Integer.MAX_VALUE);
+
+            long endTime = System.currentTimeMillis();
+            logger.log(Level.INFO, "Column scan filtering completed in {0} ms. Found {1} courses",
+                    new Object[]{(endTime - startTime), count});
+            return count;
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error in column scan filtering: {0}", e.getMessage());
+            return 0;
+        }
+    }
+
+    public static int sumCreditsWithColumnScan(CourseRepository repository) {
+        String threadName = Thread.currentThread().getName();
+        logger.log(Level.INFO, "Thread [{0}] starting column scan credits sum", threadName);
+        long startTime = System.currentTimeMillis();
+
+        try {
+            int sum = (int) repository.columns().sum(CourseRepository.COLUMN_CREDITS);
+
+            long endTime = System.currentTimeMillis();
+            logger.log(Level.INFO, "Column scan credits sum completed in {0} ms. Total: {1}",
+                    new Object[]{(endTime - startTime), sum});
+            return sum;
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error in column scan credits sum: {0}", e.getMessage());
+            return 0;
+        }
+    }
+
     public static int sumCreditsWithParallelStream(CourseRepository repository) {
         String threadName = Thread.currentThread().getName();
         logger.log(Level.INFO, "Thread [{0}] starting Parallel Stream credits sum", threadName);
         long startTime = System.currentTimeMillis();
 
         try {
-            List<Course> allCourses = repository.getAll();
-            int sum = allCourses.parallelStream()
+            int sum = repository.parallelStream()
                     .mapToInt(Course::credits)
                     .sum();
 
@@ -123,7 +236,7 @@ public class ProcessingComparison {
             logger.log(Level.INFO, "CompletableFuture credits sum completed in {0} ms. Total: {1}",
                     new Object[]{(endTime - startTime), sum});
             return sum;
-        }).handle((result, ex) -> {
+        }, ExecutorRegistry.shared().cpu()).handle((result, ex) -> {
             if (ex != null) {
                 logger.log(Level.SEVERE, "Error in CompletableFuture credits sum: {0}", ex.getMessage());
                 return 0;
@@ -136,6 +249,9 @@ public class ProcessingComparison {
         logger.log(Level.INFO, "=== Starting comparison of sum approaches ===");
 
         int parallelResult = sumCreditsWithParallelStream(repository);
+        int columnScanResult = sumCreditsWithColumnScan(repository);
+        Map<ExecutionStrategy, Integer> calibrated = calibrateSum(repository);
+        int adaptiveResult = sumCreditsAdaptive(repository);
 
         int completableFutureResult = 0;
         try {
@@ -146,7 +262,13 @@ public class ProcessingComparison {
 
         logger.log(Level.INFO, "=== Sum Comparison Results ===");
         logger.log(Level.INFO, "Parallel Stream sum: {0}", parallelResult);
+        logger.log(Level.INFO, "Column scan sum: {0}", columnScanResult);
         logger.log(Level.INFO, "CompletableFuture sum: {0}", completableFutureResult);
-        logger.log(Level.INFO, "Results equal: {0}", parallelResult == completableFutureResult);
+        logger.log(Level.INFO, "Adaptive sum: {0}", adaptiveResult);
+        logSelection(OPERATION_SUM_CREDITS, repository.size());
+        logger.log(Level.INFO, "Results equal: {0}",
+                parallelResult == completableFutureResult && parallelResult == columnScanResult
+                        && parallelResult == adaptiveResult
+                        && calibrated.values().stream().allMatch(result -> result == parallelResult));
     }
 }
@@ -0,0 +1,15 @@
+package ua.onlinecourses.parallel;
+
+import ua.onlinecourses.repository.CourseRepository;
+import ua.onlinecourses.repository.InstructorRepository;
+import ua.onlinecourses.repository.RepositorySnapshots;
+import ua.onlinecourses.repository.StudentRepository;
+
+record RepositoryViews(StudentRepository students, CourseRepository courses, InstructorRepository instructors) {
+
+    static RepositoryViews capture(StudentRepository students, CourseRepository courses,
+                                   InstructorRepository instructors) {
+        return RepositorySnapshots.capture(() -> new RepositoryViews(students.snapshot(), courses.snapshot(),
+                instructors.snapshot()));
+    }
+}
@@ -0,0 +1,45 @@
+package ua.onlinecourses.parallel;
+
+import ua.onlinecourses.concurrent.Subtask;
+import ua.onlinecourses.concurrent.TaskScope;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a scoped batch of tasks by task name. Values may be null for tasks that only have side
+ * effects; a batch is partial when the deadline cancelled some tasks before they finished.
+ */
+public record TaskResults(Map<String, Object> values, Map<String, String> failures, List<String> cancelled) {
+
+    public TaskResults {
+        values = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+        failures = Map.copyOf(failures);
+        cancelled = List.copyOf(cancelled);
+    }
+
+    public static TaskResults of(TaskScope scope) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        Map<String, String> failures = new LinkedHashMap<>();
+        List<String> cancelled = new ArrayList<>();
+        for (Subtask<?> subtask : scope.subtasks()) {
+            switch (subtask.state()) {
+                case SUCCEEDED -> values.put(subtask.getName(), subtask.get());
+                case FAILED -> failures.put(subtask.getName(), String.valueOf(subtask.exception().getMessage()));
+                case CANCELLED, RUNNING -> cancelled.add(subtask.getName());
+            }
+        }
+        return new TaskResults(values, failures, cancelled);
+    }
+
+    public boolean partial() {
+        return !cancelled.isEmpty();
+    }
+
+    public boolean isComplete() {
+        return failures.isEmpty() && cancelled.isEmpty();
+    }
+}
@@ -75,10 +75,13 @@ public class CourseFileParser {
     }
    
     public static Course parseCourseFromLine(String line) throws InvalidDataException {
-        String[] parts = line.split(",");
+        return parseCourseFromFields(line.split(","));
+    }
+
+    public static Course parseCourseFromFields(String[] parts) throws InvalidDataException {
         if (parts.length != 4) {
             throw new InvalidDataException(
-                    "Expected format 'title, description, credits, startDate', got: " + line
+                    "Expected format 'title, description, credits, startDate', got: " + String.join(",", parts)
             );
         }
             String title = parts[0].trim();
@@ -77,10 +77,13 @@ public class InstructorFileParser {
     }
    
     public static Instructor parseInstructorFromLine(String line) throws InvalidDataException {
-        String[] parts = line.split(",");
+        return parseInstructorFromFields(line.split(","));
+    }
+
+    public static Instructor parseInstructorFromFields(String[] parts) throws InvalidDataException {
         if (parts.length != 3) {
             throw new InvalidDataException(
-                    "Expected format 'firstName, lastName, expertise', got: " + line
+                    "Expected format 'firstName, lastName, expertise', got: " + String.join(",", parts)
             );
         }
             String firstName = parts[0].trim();
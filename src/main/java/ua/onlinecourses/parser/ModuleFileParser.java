@@ -73,10 +73,13 @@ public class ModuleFileParser {
     }
    
     public static myModule parseModuleFromLine(String line) throws InvalidDataException {
-        String[] parts = line.split(",");
+        return parseModuleFromFields(line.split(","));
+    }
+
+    public static myModule parseModuleFromFields(String[] parts) throws InvalidDataException {
         if (parts.length != 2) {
             throw new InvalidDataException(
-                    "Expected format 'title, content', got: " + line
+                    "Expected format 'title, content', got: " + String.join(",", parts)
             );
         }
             String title = parts[0].trim();
@@ -73,10 +73,13 @@ public class StudentFileParser {
     }
    
     public static Student parseStudentFromLine(String line) throws InvalidDataException {
-        String[] parts = line.split(",");
+        return parseStudentFromFields(line.split(","));
+    }
+
+    public static Student parseStudentFromFields(String[] parts) throws InvalidDataException {
         if (parts.length != 4) {
             throw new InvalidDataException(
-                    "Expected format 'firstName, lastName, email, enrollmentDate', got: " + line
+                    "Expected format 'firstName, lastName, email, enrollmentDate', got: " + String.join(",", parts)
             );
         }
             String firstName = parts[0].trim();
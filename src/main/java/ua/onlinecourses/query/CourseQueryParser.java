@@ -0,0 +1,69 @@
+package ua.onlinecourses.query;
+
+import ua.onlinecourses.exception.InvalidDataException;
+import ua.onlinecourses.model.Course;
+import ua.onlinecourses.repository.CourseRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CourseQueryParser {
+
+    private static final Set<String> FILTERS = Set.of(
+            "title", "description", "minCredits", "maxCredits", "startAfter");
+
+    private static final Map<String, Comparator<Course>> SORT_FIELDS = Map.of(
+            "title", Course.BY_TITLE,
+            "credits", Course.BY_CREDITS,
+            "startDate", Course.BY_START_DATE,
+            "description", Comparator.comparing(Course::description)
+    );
+
+    private CourseQueryParser() {
+    }
+
+    public static EntityQuery<Course> parse(Map<String, String[]> parameterMap, CourseRepository repository) {
+        QueryParameters params = new QueryParameters(parameterMap);
+        params.requireKnown(FILTERS);
+        List<QueryCriterion<Course>> criteria = new ArrayList<>();
+
+        Integer minCredits = params.getInt("minCredits");
+        Integer maxCredits = params.getInt("maxCredits");
+        if (minCredits != null || maxCredits != null) {
+            int min = minCredits != null ? minCredits : 1;
+            int max = maxCredits != null ? maxCredits : 5;
+            if (min > max) {
+                throw new InvalidDataException("minCredits must not exceed maxCredits");
+            }
+            criteria.add(new QueryCriterion<>("credits in [" + min + ".." + max + "]",
+                    course -> course.credits() >= min && course.credits() <= max, 0.5,
+                    RangeIndexAccess.forIntRange(repository, CourseRepository.INDEX_CREDITS, min, max)));
+        }
+
+        String title = params.getString("title");
+        if (title != null) {
+            String term = title.toLowerCase();
+            criteria.add(QueryCriterion.scan("title~" + term,
+                    course -> course.title().toLowerCase().contains(term), 0.2));
+        }
+
+        String description = params.getString("description");
+        if (description != null) {
+            String term = description.toLowerCase();
+            criteria.add(QueryCriterion.scan("description~" + term,
+                    course -> course.description().toLowerCase().contains(term), 0.3));
+        }
+
+        LocalDate startAfter = params.getDate("startAfter");
+        if (startAfter != null) {
+            criteria.add(QueryCriterion.scan("startDate>" + startAfter,
+                    course -> course.startDate().isAfter(startAfter), 0.5));
+        }
+
+        return new EntityQuery<>(criteria, params.getSort(SORT_FIELDS), params.getOffset(), params.getLimit());
+    }
+}
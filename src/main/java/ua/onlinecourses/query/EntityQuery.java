@@ -0,0 +1,18 @@
+package ua.onlinecourses.query;
+
+import java.util.Comparator;
+import java.util.List;
+
+public record EntityQuery<T>(
+        List<QueryCriterion<T>> criteria,
+        Comparator<T> sort,
+        int offset,
+        int limit
+) {
+
+    public static final int NO_LIMIT = -1;
+
+    public boolean isUnfiltered() {
+        return criteria.isEmpty() && sort == null && offset == 0 && limit == NO_LIMIT;
+    }
+}
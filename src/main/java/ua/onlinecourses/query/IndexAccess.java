@@ -0,0 +1,11 @@
+package ua.onlinecourses.query;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+public record IndexAccess<T>(
+        String indexName,
+        long estimatedRows,
+        Supplier<Collection<T>> lookup
+) {
+}
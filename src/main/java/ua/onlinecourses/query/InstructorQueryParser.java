@@ -0,0 +1,64 @@
+package ua.onlinecourses.query;
+
+import ua.onlinecourses.exception.InvalidDataException;
+import ua.onlinecourses.model.Instructor;
+import ua.onlinecourses.repository.InstructorRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class InstructorQueryParser {
+
+    private static final Set<String> FILTERS = Set.of(
+            "lastName", "firstName", "minExpertise", "maxExpertise");
+
+    private static final Map<String, Comparator<Instructor>> SORT_FIELDS = Map.of(
+            "lastName", Instructor.BY_LAST_NAME,
+            "firstName", Instructor.BY_FIRST_NAME,
+            "expertise", Comparator.comparingInt(Instructor::expertise)
+    );
+
+    private InstructorQueryParser() {
+    }
+
+    public static EntityQuery<Instructor> parse(Map<String, String[]> parameterMap, InstructorRepository repository) {
+        QueryParameters params = new QueryParameters(parameterMap);
+        params.requireKnown(FILTERS);
+        List<QueryCriterion<Instructor>> criteria = new ArrayList<>();
+
+        String lastName = params.getString("lastName");
+        if (lastName != null) {
+            String key = lastName.toLowerCase();
+            criteria.add(QueryCriterion.indexed("lastName=" + key,
+                    instructor -> instructor.lastName().equalsIgnoreCase(key),
+                    new IndexAccess<>(InstructorRepository.INDEX_LAST_NAME,
+                            repository.countByIndex(InstructorRepository.INDEX_LAST_NAME, key),
+                            () -> repository.findByIndex(InstructorRepository.INDEX_LAST_NAME, key))));
+        }
+
+        Integer minExpertise = params.getInt("minExpertise");
+        Integer maxExpertise = params.getInt("maxExpertise");
+        if (minExpertise != null || maxExpertise != null) {
+            int min = minExpertise != null ? minExpertise : 1;
+            int max = maxExpertise != null ? maxExpertise : 60;
+            if (min > max) {
+                throw new InvalidDataException("minExpertise must not exceed maxExpertise");
+            }
+            criteria.add(new QueryCriterion<>("expertise in [" + min + ".." + max + "]",
+                    instructor -> instructor.expertise() >= min && instructor.expertise() <= max, 0.5,
+                    RangeIndexAccess.forIntRange(repository, InstructorRepository.INDEX_EXPERTISE, min, max)));
+        }
+
+        String firstName = params.getString("firstName");
+        if (firstName != null) {
+            String term = firstName.toLowerCase();
+            criteria.add(QueryCriterion.scan("firstName~" + term,
+                    instructor -> instructor.firstName().toLowerCase().contains(term), 0.2));
+        }
+
+        return new EntityQuery<>(criteria, params.getSort(SORT_FIELDS), params.getOffset(), params.getLimit());
+    }
+}
@@ -0,0 +1,71 @@
+package ua.onlinecourses.query;
+
+import ua.onlinecourses.exception.InvalidDataException;
+import ua.onlinecourses.model.myModule;
+import ua.onlinecourses.repository.ModuleRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ModuleQueryParser {
+
+    private static final Set<String> FILTERS = Set.of(
+            "title", "titleContains", "content", "minContentLength", "maxContentLength");
+
+    private static final Map<String, Comparator<myModule>> SORT_FIELDS = Map.of(
+            "title", myModule.BY_TITLE,
+            "content", myModule.BY_CONTENT,
+            "contentLength", myModule.BY_CONTENT_LENGTH,
+            "titleLength", Comparator.comparingInt((myModule m) -> m.title().length())
+    );
+
+    private ModuleQueryParser() {
+    }
+
+    public static EntityQuery<myModule> parse(Map<String, String[]> parameterMap, ModuleRepository repository) {
+        QueryParameters params = new QueryParameters(parameterMap);
+        params.requireKnown(FILTERS);
+        List<QueryCriterion<myModule>> criteria = new ArrayList<>();
+
+        String title = params.getString("title");
+        if (title != null) {
+            String key = title.toLowerCase();
+            criteria.add(QueryCriterion.indexed("title=" + key,
+                    module -> module.title().equalsIgnoreCase(key),
+                    new IndexAccess<>(ModuleRepository.INDEX_TITLE,
+                            repository.countByIndex(ModuleRepository.INDEX_TITLE, key),
+                            () -> repository.findByIndex(ModuleRepository.INDEX_TITLE, key))));
+        }
+
+        String titleContains = params.getString("titleContains");
+        if (titleContains != null) {
+            String term = titleContains.toLowerCase();
+            criteria.add(QueryCriterion.scan("title~" + term,
+                    module -> module.title().toLowerCase().contains(term), 0.2));
+        }
+
+        String content = params.getString("content");
+        if (content != null) {
+            String term = content.toLowerCase();
+            criteria.add(QueryCriterion.scan("content~" + term,
+                    module -> module.content().toLowerCase().contains(term), 0.3));
+        }
+
+        Integer minLength = params.getInt("minContentLength");
+        Integer maxLength = params.getInt("maxContentLength");
+        if (minLength != null || maxLength != null) {
+            int min = minLength != null ? minLength : 0;
+            int max = maxLength != null ? maxLength : Integer.MAX_VALUE;
+            if (min > max) {
+                throw new InvalidDataException("minContentLength must not exceed maxContentLength");
+            }
+            criteria.add(QueryCriterion.scan("contentLength in [" + min + ".." + max + "]",
+                    module -> module.content().length() >= min && module.content().length() <= max, 0.5));
+        }
+
+        return new EntityQuery<>(criteria, params.getSort(SORT_FIELDS), params.getOffset(), params.getLimit());
+    }
+}
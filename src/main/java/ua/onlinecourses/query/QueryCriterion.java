@@ -0,0 +1,23 @@
+package ua.onlinecourses.query;
+
+import java.util.function.Predicate;
+
+public record QueryCriterion<T>(
+        String description,
+        Predicate<T> predicate,
+        double selectivity,
+        IndexAccess<T> indexAccess
+) {
+
+    public static <T> QueryCriterion<T> scan(String description, Predicate<T> predicate, double selectivity) {
+        return new QueryCriterion<>(description, predicate, selectivity, null);
+    }
+
+    public static <T> QueryCriterion<T> indexed(String description, Predicate<T> predicate, IndexAccess<T> indexAccess) {
+        return new QueryCriterion<>(description, predicate, 0.0, indexAccess);
+    }
+
+    public boolean isIndexed() {
+        return indexAccess != null;
+    }
+}
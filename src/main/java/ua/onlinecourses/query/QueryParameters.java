@@ -0,0 +1,104 @@
+package ua.onlinecourses.query;
+
+import ua.onlinecourses.exception.InvalidDataException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+
+public class QueryParameters {
+
+    public static final String SORT = "sort";
+    public static final String ORDER = "order";
+    public static final String OFFSET = "offset";
+    public static final String LIMIT = "limit";
+
+    private static final Set<String> PAGING_PARAMETERS = Set.of(SORT, ORDER, OFFSET, LIMIT);
+
+    private final Map<String, String[]> parameters;
+
+    public QueryParameters(Map<String, String[]> parameters) {
+        this.parameters = parameters;
+    }
+
+    public void requireKnown(Set<String> filterNames) {
+        for (String name : parameters.keySet()) {
+            if (!filterNames.contains(name) && !PAGING_PARAMETERS.contains(name)) {
+                throw new InvalidDataException("Unsupported query parameter: " + name);
+            }
+        }
+    }
+
+    public boolean has(String name) {
+        return getString(name) != null;
+    }
+
+    public String getString(String name) {
+        String[] values = parameters.get(name);
+        if (values == null || values.length == 0 || values[0].trim().isEmpty()) {
+            return null;
+        }
+        return values[0].trim();
+    }
+
+    public Integer getInt(String name) {
+        String value = getString(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidDataException("Query parameter " + name + " must be an integer: " + value);
+        }
+    }
+
+    public LocalDate getDate(String name) {
+        String value = getString(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidDataException("Query parameter " + name + " must be an ISO date: " + value);
+        }
+    }
+
+    public int getOffset() {
+        Integer offset = getInt(OFFSET);
+        if (offset != null && offset < 0) {
+            throw new InvalidDataException("Query parameter offset must not be negative");
+        }
+        return offset == null ? 0 : offset;
+    }
+
+    public int getLimit() {
+        Integer limit = getInt(LIMIT);
+        if (limit != null && limit < 0) {
+            throw new InvalidDataException("Query parameter limit must not be negative");
+        }
+        return limit == null ? EntityQuery.NO_LIMIT : limit;
+    }
+
+    public <T> Comparator<T> getSort(Map<String, Comparator<T>> sortFields) {
+        String field = getString(SORT);
+        if (field == null) {
+            return null;
+        }
+        Comparator<T> comparator = sortFields.get(field);
+        if (comparator == null) {
+            throw new InvalidDataException("Unsupported sort field: " + field + ". Supported: " + sortFields.keySet());
+        }
+        String order = getString(ORDER);
+        if (order == null || order.equalsIgnoreCase("asc")) {
+            return comparator;
+        }
+        if (order.equalsIgnoreCase("desc")) {
+            return comparator.reversed();
+        }
+        throw new InvalidDataException("Query parameter order must be 'asc' or 'desc': " + order);
+    }
+}
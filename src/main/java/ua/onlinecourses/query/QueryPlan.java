@@ -0,0 +1,40 @@
+package ua.onlinecourses.query;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public record QueryPlan<T>(
+        IndexAccess<T> access,
+        List<QueryCriterion<T>> residualCriteria,
+        Comparator<T> sort,
+        int offset,
+        int limit
+) {
+
+    public boolean usesIndex() {
+        return access != null;
+    }
+
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        if (usesIndex()) {
+            sb.append("INDEX(").append(access.indexName()).append(", ~")
+                    .append(access.estimatedRows()).append(" rows)");
+        } else {
+            sb.append("SCAN");
+        }
+        if (!residualCriteria.isEmpty()) {
+            sb.append(" FILTER(").append(residualCriteria.stream()
+                    .map(QueryCriterion::description)
+                    .collect(Collectors.joining(", "))).append(")");
+        }
+        if (sort != null) {
+            sb.append(limit != EntityQuery.NO_LIMIT ? " TOP-K SORT" : " SORT");
+        }
+        if (offset > 0 || limit != EntityQuery.NO_LIMIT) {
+            sb.append(" PAGE(offset=").append(offset).append(", limit=").append(limit).append(")");
+        }
+        return sb.toString();
+    }
+}
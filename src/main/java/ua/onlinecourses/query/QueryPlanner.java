@@ -0,0 +1,118 @@
+package ua.onlinecourses.query;
+
+import ua.onlinecourses.repository.GenericRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class QueryPlanner {
+    private static final Logger logger = Logger.getLogger(QueryPlanner.class.getName());
+
+    static final double INDEX_SELECTIVITY_THRESHOLD = 0.5;
+
+    private QueryPlanner() {
+    }
+
+    public static <T> QueryPlan<T> plan(GenericRepository<T> repository, EntityQuery<T> query) {
+        int size = repository.size();
+        QueryCriterion<T> best = null;
+        for (QueryCriterion<T> criterion : query.criteria()) {
+            if (criterion.isIndexed() && (best == null ||
+                    criterion.indexAccess().estimatedRows() < best.indexAccess().estimatedRows())) {
+                best = criterion;
+            }
+        }
+
+        IndexAccess<T> access = null;
+        if (best != null && best.indexAccess().estimatedRows() <= size * INDEX_SELECTIVITY_THRESHOLD) {
+            access = best.indexAccess();
+        } else {
+            best = null;
+        }
+
+        List<QueryCriterion<T>> residual = new ArrayList<>();
+        for (QueryCriterion<T> criterion : query.criteria()) {
+            if (criterion != best) {
+                residual.add(criterion);
+            }
+        }
+        residual.sort(Comparator.comparingDouble(criterion -> estimateSelectivity(criterion, size)));
+
+        return new QueryPlan<>(access, residual, query.sort(), query.offset(), query.limit());
+    }
+
+    public static <T> QueryResult<T> execute(GenericRepository<T> repository, EntityQuery<T> query) {
+        long startTime = System.currentTimeMillis();
+        QueryPlan<T> plan = plan(repository, query);
+
+        Collection<T> source = plan.usesIndex() ? plan.access().lookup().get() : repository.getAll();
+        Predicate<T> filter = item -> true;
+        for (QueryCriterion<T> criterion : plan.residualCriteria()) {
+            filter = filter.and(criterion.predicate());
+        }
+
+        List<T> matches = new ArrayList<>();
+        int totalMatches = 0;
+        // the heap only pays off when it keeps fewer items than the source holds; the bound also
+        // keeps a huge requested limit from sizing the heap
+        long requested = (long) plan.offset() + Math.max(plan.limit(), 0);
+        boolean topK = plan.sort() != null && plan.limit() != EntityQuery.NO_LIMIT && requested < source.size();
+        int keep = (int) Math.min(requested, source.size());
+        PriorityQueue<T> heap = topK ? new PriorityQueue<>(Math.max(keep, 1), plan.sort().reversed()) : null;
+
+        for (T item : source) {
+            if (!filter.test(item)) {
+                continue;
+            }
+            totalMatches++;
+            if (topK) {
+                if (keep == 0) {
+                    continue;
+                }
+                if (heap.size() < keep) {
+                    heap.add(item);
+                } else if (plan.sort().compare(item, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(item);
+                }
+            } else {
+                matches.add(item);
+            }
+        }
+
+        if (topK) {
+            matches.addAll(heap);
+        }
+        if (plan.sort() != null) {
+            matches.sort(plan.sort());
+        }
+
+        List<T> page = page(matches, plan.offset(), plan.limit());
+        long endTime = System.currentTimeMillis();
+        logger.log(Level.INFO, "Query on {0} [{1}] returned {2} of {3} matches in {4} ms",
+                new Object[]{repository.getEntityType(), plan.describe(), page.size(), totalMatches,
+                        (endTime - startTime)});
+        return new QueryResult<>(page, totalMatches, plan.describe());
+    }
+
+    private static <T> double estimateSelectivity(QueryCriterion<T> criterion, int size) {
+        if (criterion.isIndexed()) {
+            return size == 0 ? 0.0 : (double) criterion.indexAccess().estimatedRows() / size;
+        }
+        return criterion.selectivity();
+    }
+
+    private static <T> List<T> page(List<T> items, int offset, int limit) {
+        if (offset >= items.size()) {
+            return List.of();
+        }
+        int end = limit == EntityQuery.NO_LIMIT ? items.size() : (int) Math.min(items.size(), (long) offset + limit);
+        return new ArrayList<>(items.subList(offset, end));
+    }
+}
@@ -0,0 +1,10 @@
+package ua.onlinecourses.query;
+
+import java.util.List;
+
+public record QueryResult<T>(
+        List<T> items,
+        int totalMatches,
+        String plan
+) {
+}
@@ -0,0 +1,31 @@
+package ua.onlinecourses.query;
+
+import ua.onlinecourses.repository.GenericRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class RangeIndexAccess {
+
+    static final int MAX_RANGE_WIDTH = 64;
+
+    private RangeIndexAccess() {
+    }
+
+    static <T> IndexAccess<T> forIntRange(GenericRepository<T> repository, String indexName, int min, int max) {
+        if ((long) max - min >= MAX_RANGE_WIDTH) {
+            return null;
+        }
+        long estimate = 0;
+        for (int value = min; value <= max; value++) {
+            estimate += repository.countByIndex(indexName, value);
+        }
+        return new IndexAccess<>(indexName, estimate, () -> {
+            List<T> results = new ArrayList<>();
+            for (int value = min; value <= max; value++) {
+                results.addAll(repository.findByIndex(indexName, value));
+            }
+            return results;
+        });
+    }
+}
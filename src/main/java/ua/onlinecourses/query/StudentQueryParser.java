@@ -0,0 +1,89 @@
+package ua.onlinecourses.query;
+
+import ua.onlinecourses.model.Student;
+import ua.onlinecourses.repository.StudentRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class StudentQueryParser {
+
+    private static final Set<String> FILTERS = Set.of(
+            "email", "domain", "lastName", "lastNameContains", "firstName", "enrolledFrom", "enrolledTo");
+
+    private static final Map<String, Comparator<Student>> SORT_FIELDS = Map.of(
+            "name", Student.BY_NAME,
+            "enrollmentDate", Student.BY_ENROLLMENT_DATE,
+            "firstName", Comparator.comparing(Student::firstName),
+            "email", Comparator.comparing(Student::email),
+            "emailLength", Comparator.comparingInt((Student s) -> s.email().length())
+    );
+
+    private StudentQueryParser() {
+    }
+
+    public static EntityQuery<Student> parse(Map<String, String[]> parameterMap, StudentRepository repository) {
+        QueryParameters params = new QueryParameters(parameterMap);
+        params.requireKnown(FILTERS);
+        List<QueryCriterion<Student>> criteria = new ArrayList<>();
+
+        String email = params.getString("email");
+        if (email != null) {
+            criteria.add(QueryCriterion.indexed("email=" + email,
+                    student -> student.email().equals(email),
+                    new IndexAccess<>("identity", repository.containsIdentity(email) ? 1 : 0,
+                            () -> repository.findByIdentity(email).map(List::of).orElse(List.of()))));
+        }
+
+        String domain = params.getString("domain");
+        if (domain != null) {
+            String key = domain.toLowerCase();
+            criteria.add(QueryCriterion.indexed("domain=" + key,
+                    student -> key.equals(StudentRepository.emailDomainKey(student.email())),
+                    new IndexAccess<>(StudentRepository.INDEX_EMAIL_DOMAIN,
+                            repository.countByIndex(StudentRepository.INDEX_EMAIL_DOMAIN, key),
+                            () -> repository.findByIndex(StudentRepository.INDEX_EMAIL_DOMAIN, key))));
+        }
+
+        String lastName = params.getString("lastName");
+        if (lastName != null) {
+            String key = lastName.toLowerCase();
+            criteria.add(QueryCriterion.indexed("lastName=" + key,
+                    student -> student.lastName().equalsIgnoreCase(key),
+                    new IndexAccess<>(StudentRepository.INDEX_LAST_NAME,
+                            repository.countByIndex(StudentRepository.INDEX_LAST_NAME, key),
+                            () -> repository.findByIndex(StudentRepository.INDEX_LAST_NAME, key))));
+        }
+
+        String lastNameContains = params.getString("lastNameContains");
+        if (lastNameContains != null) {
+            String term = lastNameContains.toLowerCase();
+            criteria.add(QueryCriterion.scan("lastName~" + term,
+                    student -> student.lastName().toLowerCase().contains(term), 0.3));
+        }
+
+        String firstName = params.getString("firstName");
+        if (firstName != null) {
+            criteria.add(QueryCriterion.scan("firstName=" + firstName,
+                    student -> student.firstName().equalsIgnoreCase(firstName), 0.1));
+        }
+
+        LocalDate enrolledFrom = params.getDate("enrolledFrom");
+        if (enrolledFrom != null) {
+            criteria.add(QueryCriterion.scan("enrollmentDate>=" + enrolledFrom,
+                    student -> !student.enrollmentDate().isBefore(enrolledFrom), 0.5));
+        }
+
+        LocalDate enrolledTo = params.getDate("enrolledTo");
+        if (enrolledTo != null) {
+            criteria.add(QueryCriterion.scan("enrollmentDate<=" + enrolledTo,
+                    student -> !student.enrollmentDate().isAfter(enrolledTo), 0.5));
+        }
+
+        return new EntityQuery<>(criteria, params.getSort(SORT_FIELDS), params.getOffset(), params.getLimit());
+    }
+}
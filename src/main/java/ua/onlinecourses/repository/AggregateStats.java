@@ -0,0 +1,20 @@
+package ua.onlinecourses.repository;
+
+public record AggregateStats(long count, long sum, int min, int max) {
+
+    public static final AggregateStats EMPTY = new AggregateStats(0, 0, 0, 0);
+
+    public AggregateStats {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative");
+        }
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public double average() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+}
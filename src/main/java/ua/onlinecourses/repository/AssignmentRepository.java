@@ -14,54 +14,76 @@ import java.util.stream.Collectors;
 public class AssignmentRepository extends GenericRepository<Assignment> {
     private static final Logger logger = Logger.getLogger(AssignmentRepository.class.getName());
 
+    public static final String INDEX_MARK = "mark";
+    public static final String INDEX_MAX_POINTS = "maxPoints";
+    public static final String AGGREGATE_MAX_POINTS = "maxPoints";
+    public static final String COLUMN_MAX_POINTS = "maxPoints";
+    public static final String COLUMN_MARK = "mark";
+    public static final String COLUMN_DUE_DATE = "dueDate";
+
     public AssignmentRepository() {
         super(Assignment::getIdentity, "Assignment");
+        registerIndex(INDEX_MARK, Assignment::mark);
+        registerBucketIndex(INDEX_MAX_POINTS, Assignment::maxPoints, 1, 100);
+        registerAggregate(AGGREGATE_MAX_POINTS, Assignment::maxPoints);
+        registerIntColumn(COLUMN_MAX_POINTS, Assignment::maxPoints);
+        registerByteColumn(COLUMN_MARK, assignment -> assignment.mark() == null ? -1 : assignment.mark().ordinal());
+        registerIntColumn(COLUMN_DUE_DATE, assignment -> (int) assignment.dueDate().toEpochDay());
+    }
+
+    private AssignmentRepository(AssignmentRepository source) {
+        super(source);
+    }
+
+    @Override
+    public AssignmentRepository snapshot() {
+        return new AssignmentRepository(this);
     }
 
     public List<Assignment> sortByDueDate() {
-        List<Assignment> allAssignments = getAll();
+        List<Assignment> allAssignments = snapshotList();
         allAssignments.sort(Assignment.BY_DUE_DATE);
         logger.log(Level.INFO, "Sorted Assignment by due date");
         return allAssignments;
     }
 
     public List<Assignment> sortByDueDateDesc() {
-        List<Assignment> allAssignments = getAll();
+        List<Assignment> allAssignments = snapshotList();
         allAssignments.sort(Assignment.BY_DUE_DATE.reversed());
         logger.log(Level.INFO, "Sorted Assignment by due date (descending)");
         return allAssignments;
     }
 
     public List<Assignment> sortByMaxPoints() {
-        List<Assignment> allAssignments = getAll();
+        List<Assignment> allAssignments = snapshotList();
         allAssignments.sort(Assignment.BY_MAX_POINTS);
         logger.log(Level.INFO, "Sorted Assignment by max points (descending)");
         return allAssignments;
     }
 
     public List<Assignment> sortByMark() {
-        List<Assignment> allAssignments = getAll();
+        List<Assignment> allAssignments = snapshotList();
         allAssignments.sort(Assignment.BY_MARK);
         logger.log(Level.INFO, "Sorted Assignment by mark");
         return allAssignments;
     }
 
     public List<Assignment> sortByModuleAndDate() {
-        List<Assignment> allAssignments = getAll();
+        List<Assignment> allAssignments = snapshotList();
         allAssignments.sort(Assignment.BY_MODULE_AND_DATE);
         logger.log(Level.INFO, "Sorted Assignment by module and due date");
         return allAssignments;
     }
 
     public List<Assignment> sortByModuleTitle() {
-        List<Assignment> allAssignments = getAll();
+        List<Assignment> allAssignments = snapshotList();
         allAssignments.sort((a1, a2) -> a1.module().title().compareTo(a2.module().title()));
         logger.log(Level.INFO, "Sorted Assignment by module title using lambda");
         return allAssignments;
     }
 
     public List<Assignment> sortByMarkPointsDate() {
-        List<Assignment> allAssignments = getAll();
+        List<Assignment> allAssignments = snapshotList();
         allAssignments.sort(
                 Comparator.comparing(Assignment::mark)
                         .thenComparingInt(Assignment::maxPoints).reversed()
@@ -72,7 +94,7 @@ public class AssignmentRepository extends GenericRepository<Assignment> {
     }
 
     public List<Assignment> sortNaturally() {
-        List<Assignment> allAssignments = getAll();
+        List<Assignment> allAssignments = snapshotList();
         allAssignments.sort(null);
         logger.log(Level.INFO, "Sorted Assignment using natural order (Comparable)");
         return allAssignments;
@@ -84,7 +106,7 @@ public class AssignmentRepository extends GenericRepository<Assignment> {
             return List.of();
         }
 
-        List<Assignment> results = getAll().stream()
+        List<Assignment> results = stream()
                 .filter(assignment -> assignment.mark() == mark)
                 .collect(Collectors.toList());
 
@@ -100,7 +122,7 @@ public class AssignmentRepository extends GenericRepository<Assignment> {
             return List.of();
         }
 
-        List<Assignment> results = getAll().stream()
+        List<Assignment> results = stream()
                 .filter(assignment -> assignment.maxPoints() >= minPoints &&
                         assignment.maxPoints() <= maxPoints)
                 .collect(Collectors.toList());
@@ -116,7 +138,7 @@ public class AssignmentRepository extends GenericRepository<Assignment> {
             return List.of();
         }
 
-        List<Assignment> results = getAll().stream()
+        List<Assignment> results = stream()
                 .filter(assignment -> assignment.dueDate().isBefore(date))
                 .collect(Collectors.toList());
 
@@ -131,7 +153,7 @@ public class AssignmentRepository extends GenericRepository<Assignment> {
             return List.of();
         }
 
-        List<Assignment> results = getAll().stream()
+        List<Assignment> results = stream()
                 .filter(assignment -> assignment.dueDate().isAfter(date))
                 .collect(Collectors.toList());
 
@@ -147,7 +169,7 @@ public class AssignmentRepository extends GenericRepository<Assignment> {
         }
 
         String searchTerm = moduleTitle.trim().toLowerCase();
-        List<Assignment> results = getAll().stream()
+        List<Assignment> results = stream()
                 .filter(assignment -> assignment.module().title().toLowerCase().contains(searchTerm))
                 .collect(Collectors.toList());
 
@@ -157,43 +179,35 @@ public class AssignmentRepository extends GenericRepository<Assignment> {
     }
 
     public Map<Mark, List<Assignment>> groupByMark() {
-        Map<Mark, List<Assignment>> grouped = getAll().stream()
-                .collect(Collectors.groupingBy(Assignment::mark));
+        Map<Mark, List<Assignment>> grouped = groupByEnum(Mark.class, Assignment::mark);
 
         logger.log(Level.INFO, "Grouped assignments by mark: {0} groups", grouped.size());
         return grouped;
     }
 
     public Map<String, List<Assignment>> groupByModuleTitle() {
-        Map<String, List<Assignment>> grouped = getAll().stream()
-                .collect(Collectors.groupingBy(assignment -> assignment.module().title()));
+        Map<String, List<Assignment>> grouped = groupBy(assignment -> assignment.module().title());
 
         logger.log(Level.INFO, "Grouped assignments by module title: {0} groups", grouped.size());
         return grouped;
     }
 
     public int getTotalMaxPoints() {
-        int total = getAll().stream()
-                .map(Assignment::maxPoints)
-                .reduce(0, Integer::sum);
+        int total = (int) aggregate(AGGREGATE_MAX_POINTS).sum();
 
         logger.log(Level.INFO, "Total max points across all assignments: {0}", total);
         return total;
     }
 
     public double getAverageMaxPoints() {
-        double average = getAll().stream()
-                .mapToInt(Assignment::maxPoints)
-                .average()
-                .orElse(0.0);
+        double average = aggregate(AGGREGATE_MAX_POINTS).average();
 
         logger.log(Level.INFO, "Average max points: {0}", average);
         return average;
     }
 
     public Optional<Assignment> getAssignmentWithMaxPoints() {
-        Optional<Assignment> result = getAll().stream()
-                .max(Comparator.comparingInt(Assignment::maxPoints));
+        Optional<Assignment> result = findWithMaxValue(INDEX_MAX_POINTS).stream().findFirst();
 
         if (result.isPresent()) {
             logger.log(Level.INFO, "Assignment with max points: {0} ({1} points)",
@@ -206,28 +220,27 @@ public class AssignmentRepository extends GenericRepository<Assignment> {
     }
 
     public List<Assignment> getAllAssignmentsWithMaxPoints() {
-        List<Assignment> allAssignments = getAll();
-        if (allAssignments.isEmpty()) {
+        List<Assignment> results = findWithMaxValue(INDEX_MAX_POINTS);
+        if (results.isEmpty()) {
             logger.log(Level.INFO, "No assignments found");
             return List.of();
         }
-
-        int maxPoints = allAssignments.stream()
-                .mapToInt(Assignment::maxPoints)
-                .max()
-                .orElse(0);
-
-        List<Assignment> results = allAssignments.stream()
-                .filter(assignment -> assignment.maxPoints() == maxPoints)
-                .collect(Collectors.toList());
+        int maxPoints = results.get(0).maxPoints();
 
         logger.log(Level.INFO, "Found {0} assignment(s) with max points: {1} points",
                 new Object[]{results.size(), maxPoints});
         return results;
     }
 
+    public List<Assignment> getTopAssignmentsByMaxPoints(int limit) {
+        List<Assignment> results = topByIndex(INDEX_MAX_POINTS, limit);
+
+        logger.log(Level.INFO, "Retrieved top {0} assignments by max points", results.size());
+        return results;
+    }
+
     public List<String> getAllModuleTitles() {
-        List<String> titles = getAll().stream()
+        List<String> titles = stream()
                 .map(assignment -> assignment.module().title())
                 .distinct()
                 .collect(Collectors.toList());
@@ -237,7 +250,7 @@ public class AssignmentRepository extends GenericRepository<Assignment> {
     }
 
     public boolean hasAssignmentWithPoints(int points) {
-        boolean exists = getAll().stream()
+        boolean exists = stream()
                 .anyMatch(assignment -> assignment.maxPoints() == points);
 
         logger.log(Level.INFO, "Assignments with {0} points exist: {1}",
@@ -246,7 +259,7 @@ public class AssignmentRepository extends GenericRepository<Assignment> {
     }
 
     public boolean allAssignmentsHaveMinPoints(int minPoints) {
-        boolean result = getAll().stream()
+        boolean result = stream()
                 .allMatch(assignment -> assignment.maxPoints() >= minPoints);
 
         logger.log(Level.INFO, "All assignments have >= {0} points: {1}",
@@ -256,9 +269,8 @@ public class AssignmentRepository extends GenericRepository<Assignment> {
 
     public void printAllAssignments() {
         logger.log(Level.INFO, "Printing all assignments:");
-        getAll().stream()
-                .forEach(assignment -> System.out.println(assignment.module().title() +
-                        " - due: " + assignment.dueDate() +
-                        ", points: " + assignment.maxPoints()));
+        forEach(assignment -> System.out.println(assignment.module().title() +
+                " - due: " + assignment.dueDate() +
+                ", points: " + assignment.maxPoints()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package ua.onlinecourses.repository;
+
+import java.util.function.UnaryOperator;
+
+public record BatchOperation<T>(Type type, String identity, T item, UnaryOperator<T> updater) {
+
+    public enum Type {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    public BatchOperation {
+        if (type == null) {
+            throw new IllegalArgumentException("Batch operation type is required");
+        }
+        if (type == Type.CREATE && item == null) {
+            throw new IllegalArgumentException("CREATE operation requires an item");
+        }
+        if (type == Type.UPDATE && updater == null) {
+            throw new IllegalArgumentException("UPDATE operation requires an updater");
+        }
+        if (type != Type.CREATE && identity == null) {
+            throw new IllegalArgumentException(type + " operation requires an identity");
+        }
+    }
+
+    public static <T> BatchOperation<T> create(T item) {
+        return new BatchOperation<>(Type.CREATE, null, item, null);
+    }
+
+    public static <T> BatchOperation<T> update(String identity, T item) {
+        return update(identity, existing -> item);
+    }
+
+    public static <T> BatchOperation<T> update(String identity, UnaryOperator<T> updater) {
+        return new BatchOperation<>(Type.UPDATE, identity, null, updater);
+    }
+
+    public static <T> BatchOperation<T> delete(String identity) {
+        return new BatchOperation<>(Type.DELETE, identity, null, null);
+    }
+}
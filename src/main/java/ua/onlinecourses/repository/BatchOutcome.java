@@ -0,0 +1,21 @@
+package ua.onlinecourses.repository;
+
+public record BatchOutcome(String identity, Status status, String message) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        CONFLICT,
+        NOT_FOUND,
+        INVALID
+    }
+
+    public boolean isSuccess() {
+        return status == Status.CREATED || status == Status.UPDATED || status == Status.DELETED;
+    }
+
+    public static BatchOutcome invalid(String identity, String message) {
+        return new BatchOutcome(identity, Status.INVALID, message);
+    }
+}
@@ -0,0 +1,154 @@
+package ua.onlinecourses.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * Index over an int field with a small, fixed domain: one bucket per possible value. Equality
+ * lookups are a single array access, and the highest values are found by walking buckets down
+ * from the top, so max, all-with-max and top-K cost O(domain + k) and survive removals. Within a
+ * bucket items keep insertion order, and a replacement takes over the position of the item it
+ * replaces, so ties come back in the same order as a scan of the repository's slots.
+ */
+class BucketIndex<T> implements LookupIndex<T> {
+
+    private final ToIntFunction<T> valueExtractor;
+    private final int minValue;
+    private final int maxValue;
+    private final List<Bucket<T>> buckets;
+    private final Map<T, Long> positions = new ConcurrentHashMap<>();
+    // Only advanced by writers, which the repository serialises.
+    private long nextPosition;
+
+    BucketIndex(ToIntFunction<T> valueExtractor, int minValue, int maxValue) {
+        if (minValue > maxValue) {
+            throw new IllegalArgumentException("Empty bucket range [" + minValue + ", " + maxValue + "]");
+        }
+        this.valueExtractor = valueExtractor;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.buckets = new ArrayList<>(maxValue - minValue + 1);
+        for (int value = minValue; value <= maxValue; value++) {
+            buckets.add(new Bucket<>());
+        }
+    }
+
+    @Override
+    public void add(T item) {
+        Bucket<T> bucket = bucket(valueExtractor.applyAsInt(item));
+        long position = nextPosition++;
+        positions.put(item, position);
+        bucket.put(position, item);
+    }
+
+    @Override
+    public void check(T item) {
+        bucket(valueExtractor.applyAsInt(item));
+    }
+
+    @Override
+    public void remove(T item) {
+        Long position = positions.remove(item);
+        if (position != null) {
+            bucket(valueExtractor.applyAsInt(item)).remove(position, item);
+        }
+    }
+
+    // The replacement is visible at the old position before the old item disappears.
+    @Override
+    public void replace(T existing, T replacement) {
+        Long position = positions.get(existing);
+        if (position == null) {
+            add(replacement);
+            return;
+        }
+        Bucket<T> target = bucket(valueExtractor.applyAsInt(replacement));
+        positions.put(replacement, position);
+        target.put(position, replacement);
+        positions.remove(existing, position);
+        Bucket<T> source = bucket(valueExtractor.applyAsInt(existing));
+        if (source != target) {
+            source.remove(position, existing);
+        }
+    }
+
+    @Override
+    public void clear() {
+        buckets.forEach(Bucket::clear);
+        positions.clear();
+    }
+
+    @Override
+    public List<T> find(Object key) {
+        if (!(key instanceof Integer value) || value < minValue || value > maxValue) {
+            return List.of();
+        }
+        return new ArrayList<>(buckets.get(value - minValue).items.values());
+    }
+
+    @Override
+    public int count(Object key) {
+        if (!(key instanceof Integer value) || value < minValue || value > maxValue) {
+            return 0;
+        }
+        return buckets.get(value - minValue).size.get();
+    }
+
+    List<T> findWithMax() {
+        for (int i = buckets.size() - 1; i >= 0; i--) {
+            List<T> items = new ArrayList<>(buckets.get(i).items.values());
+            if (!items.isEmpty()) {
+                return items;
+            }
+        }
+        return List.of();
+    }
+
+    List<T> top(int limit) {
+        List<T> result = new ArrayList<>(Math.min(limit, 64));
+        for (int i = buckets.size() - 1; i >= 0 && result.size() < limit; i--) {
+            for (T item : buckets.get(i).items.values()) {
+                if (result.size() == limit) {
+                    break;
+                }
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    private Bucket<T> bucket(int value) {
+        if (value < minValue || value > maxValue) {
+            throw new IllegalArgumentException("Value " + value + " outside index range [" + minValue + ", " + maxValue + "]");
+        }
+        return buckets.get(value - minValue);
+    }
+
+    // Items keyed by insertion position; the size is kept separately because skip lists count in O(n).
+    private static final class Bucket<T> {
+        private final ConcurrentSkipListMap<Long, T> items = new ConcurrentSkipListMap<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        void put(long position, T item) {
+            if (items.put(position, item) == null) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(long position, T item) {
+            if (items.remove(position, item)) {
+                size.decrementAndGet();
+            }
+        }
+
+        void clear() {
+            items.clear();
+            size.set(0);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ua.onlinecourses.repository;
+
+public record ChangeEvent<T>(long sequence, Type type, String entityType, String identity, T previous, T current) {
+
+    public enum Type {
+        ADDED,
+        REMOVED,
+        REPLACED,
+        CLEARED
+    }
+}
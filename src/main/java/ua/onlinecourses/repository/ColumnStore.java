@@ -0,0 +1,235 @@
+package ua.onlinecourses.repository;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Writer side of the columnar shadow of a repository: one primitive value per storage slot, kept
+ * in chunks of {@link #CHUNK_SIZE} rows, plus a liveness bitmap. Rows appended after the last
+ * {@link #freeze} are invisible to published views and are written in place; changes to older
+ * rows copy the affected chunk first, so every published {@link ColumnarView} stays immutable.
+ */
+final class ColumnStore<T> {
+
+    static final int CHUNK_BITS = 12;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    static final int NULL_CODE = -1;
+
+    enum Kind { INT, BYTE, DICTIONARY }
+
+    private final Map<String, Column<T>> columns = new LinkedHashMap<>();
+    private Chunks live = liveChunks();
+    private int rows;
+
+    void addColumn(String name, Kind kind, ToIntFunction<T> intExtractor, Function<T, String> stringExtractor,
+                   PersistentVector<T> items) {
+        if (columns.containsKey(name)) {
+            throw new IllegalArgumentException("Column " + name + " already registered");
+        }
+        Column<T> column = new Column<>(kind, intExtractor, stringExtractor);
+        for (int row = 0; row < rows; row++) {
+            T item = items.get(row);
+            if (item != null) {
+                column.write(row, item, true);
+            } else {
+                column.values.forAppend(row);
+            }
+        }
+        columns.put(name, column);
+    }
+
+    void append(T item) {
+        int row = rows++;
+        long[] words = (long[]) live.forAppend(row);
+        words[(row & CHUNK_MASK) >>> 6] |= 1L << row;
+        for (Column<T> column : columns.values()) {
+            column.write(row, item, true);
+        }
+    }
+
+    // Evaluates every column extractor without writing, so a failing extractor leaves no partial row.
+    void check(T item) {
+        for (Column<T> column : columns.values()) {
+            column.check(item);
+        }
+    }
+
+    void set(int row, T item) {
+        for (Column<T> column : columns.values()) {
+            column.write(row, item, false);
+        }
+    }
+
+    void remove(int row) {
+        long[] words = (long[]) live.forUpdate(row);
+        words[(row & CHUNK_MASK) >>> 6] &= ~(1L << row);
+    }
+
+    // Used after compaction or clear, when slots are renumbered.
+    void rebuild(PersistentVector<T> items) {
+        live = liveChunks();
+        rows = 0;
+        columns.values().forEach(Column::reset);
+        for (int slot = 0; slot < items.size(); slot++) {
+            T item = items.get(slot);
+            if (item != null) {
+                append(item);
+            } else {
+                appendEmpty();
+            }
+        }
+    }
+
+    private void appendEmpty() {
+        int row = rows++;
+        live.forAppend(row);
+        for (Column<T> column : columns.values()) {
+            column.values.forAppend(row);
+        }
+    }
+
+    ColumnarView<T> freeze(PersistentVector<T> items) {
+        Map<String, ColumnarView.Frozen> frozen = new LinkedHashMap<>();
+        columns.forEach((name, column) -> frozen.put(name, column.freeze(rows)));
+        return new ColumnarView<>(items, rows, live.freeze(rows), frozen);
+    }
+
+    private static Chunks liveChunks() {
+        return new Chunks(size -> new long[CHUNK_SIZE >>> 6], chunk -> ((long[]) chunk).clone());
+    }
+
+    private static final class Column<T> {
+        private final Kind kind;
+        private final ToIntFunction<T> intExtractor;
+        private final Function<T, String> stringExtractor;
+        private Chunks values;
+        private Dictionary dictionary;
+
+        Column(Kind kind, ToIntFunction<T> intExtractor, Function<T, String> stringExtractor) {
+            this.kind = kind;
+            this.intExtractor = intExtractor;
+            this.stringExtractor = stringExtractor;
+            reset();
+        }
+
+        void reset() {
+            values = kind == Kind.BYTE
+                    ? new Chunks(size -> new byte[CHUNK_SIZE], chunk -> ((byte[]) chunk).clone())
+                    : new Chunks(size -> new int[CHUNK_SIZE], chunk -> ((int[]) chunk).clone());
+            dictionary = kind == Kind.DICTIONARY ? new Dictionary() : null;
+        }
+
+        void check(T item) {
+            if (kind == Kind.DICTIONARY) {
+                stringExtractor.apply(item);
+            } else {
+                byteFit(intExtractor.applyAsInt(item));
+            }
+        }
+
+        private int byteFit(int value) {
+            if (kind == Kind.BYTE && (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE)) {
+                throw new IllegalArgumentException("Value " + value + " does not fit a byte column");
+            }
+            return value;
+        }
+
+        void write(int row, T item, boolean append) {
+            Object chunk = append ? values.forAppend(row) : values.forUpdate(row);
+            int index = row & CHUNK_MASK;
+            switch (kind) {
+                case INT -> ((int[]) chunk)[index] = intExtractor.applyAsInt(item);
+                case BYTE -> ((byte[]) chunk)[index] = (byte) byteFit(intExtractor.applyAsInt(item));
+                case DICTIONARY -> ((int[]) chunk)[index] = dictionary.encode(stringExtractor.apply(item));
+            }
+        }
+
+        ColumnarView.Frozen freeze(int rows) {
+            Object[] chunks = values.freeze(rows);
+            return dictionary == null
+                    ? new ColumnarView.Frozen(kind, chunks, null, 0, null)
+                    : new ColumnarView.Frozen(kind, chunks, dictionary.values, dictionary.size, dictionary.codes);
+        }
+    }
+
+    // Append-only string dictionary; published views only ever decode codes below their frozen size.
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+        private String[] values = new String[16];
+        private int size;
+
+        int encode(String value) {
+            if (value == null) {
+                return NULL_CODE;
+            }
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = value;
+            codes.put(value, size);
+            return size++;
+        }
+    }
+
+    // Copy-on-write array of primitive chunks shared with published views.
+    private static final class Chunks {
+        private final IntFunction<Object> factory;
+        private final UnaryOperator<Object> copier;
+        private Object[] array = new Object[0];
+        private boolean arrayShared;
+        private final BitSet owned = new BitSet();
+        private int frozenRows;
+
+        Chunks(IntFunction<Object> factory, UnaryOperator<Object> copier) {
+            this.factory = factory;
+            this.copier = copier;
+        }
+
+        Object forAppend(int row) {
+            int chunkIndex = row >>> CHUNK_BITS;
+            if (chunkIndex >= array.length) {
+                int previousLength = array.length;
+                array = Arrays.copyOf(array, chunkIndex + 1);
+                for (int i = previousLength; i <= chunkIndex; i++) {
+                    array[i] = factory.apply(CHUNK_SIZE);
+                }
+                owned.set(previousLength, chunkIndex + 1);
+                arrayShared = false;
+            }
+            return array[chunkIndex];
+        }
+
+        Object forUpdate(int row) {
+            int chunkIndex = row >>> CHUNK_BITS;
+            if (row >= frozenRows || owned.get(chunkIndex)) {
+                return array[chunkIndex];
+            }
+            if (arrayShared) {
+                array = array.clone();
+                arrayShared = false;
+            }
+            array[chunkIndex] = copier.apply(array[chunkIndex]);
+            owned.set(chunkIndex);
+            return array[chunkIndex];
+        }
+
+        Object[] freeze(int rows) {
+            arrayShared = true;
+            owned.clear();
+            frozenRows = rows;
+            return array;
+        }
+    }
+}
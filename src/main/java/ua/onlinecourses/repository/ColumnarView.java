@@ -0,0 +1,241 @@
+package ua.onlinecourses.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ua.onlinecourses.repository.ColumnStore.CHUNK_BITS;
+import static ua.onlinecourses.repository.ColumnStore.CHUNK_SIZE;
+
+/**
+ * Immutable columnar image of one published repository version. Kernels walk primitive chunks
+ * under the liveness bitmap; fully live 64-row words take a branch-free inner loop the JIT can
+ * vectorize, partially live words visit only their set bits.
+ */
+public final class ColumnarView<T> {
+
+    record Frozen(ColumnStore.Kind kind, Object[] chunks, String[] dictionary, int dictionarySize,
+                  Map<String, Integer> codes) {
+    }
+
+    private final PersistentVector<T> items;
+    private final int rows;
+    private final Object[] live;
+    private final Map<String, Frozen> columns;
+
+    ColumnarView(PersistentVector<T> items, int rows, Object[] live, Map<String, Frozen> columns) {
+        this.items = items;
+        this.rows = rows;
+        this.live = live;
+        this.columns = columns;
+    }
+
+    public int rowCount() {
+        return rows;
+    }
+
+    public boolean hasColumn(String name) {
+        return columns.containsKey(name);
+    }
+
+    public long count(String column, int min, int max) {
+        Object[] chunks = numeric(column).chunks();
+        long count = 0;
+        for (int c = 0; c < chunkCount(); c++) {
+            long[] words = (long[]) live[c];
+            Object chunk = chunks[c];
+            int limit = chunkRows(c);
+            for (int w = 0, base = 0; base < limit; w++, base += 64) {
+                long bits = words[w] & wordMask(limit - base);
+                if (bits == -1L) {
+                    count += chunk instanceof int[] ints
+                            ? countDense(ints, base, min, max)
+                            : countDense((byte[]) chunk, base, min, max);
+                } else {
+                    while (bits != 0) {
+                        int value = value(chunk, base + Long.numberOfTrailingZeros(bits));
+                        if (value >= min && value <= max) {
+                            count++;
+                        }
+                        bits &= bits - 1;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    public long count() {
+        long count = 0;
+        for (int c = 0; c < chunkCount(); c++) {
+            long[] words = (long[]) live[c];
+            int limit = chunkRows(c);
+            for (int w = 0, base = 0; base < limit; w++, base += 64) {
+                count += Long.bitCount(words[w] & wordMask(limit - base));
+            }
+        }
+        return count;
+    }
+
+    public long sum(String column) {
+        return sumWhere(column, null, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    // Sums sumColumn over live rows whose filterColumn value lies in [min, max]; a null filter matches all.
+    public long sumWhere(String sumColumn, String filterColumn, int min, int max) {
+        Object[] sums = numeric(sumColumn).chunks();
+        Object[] filters = filterColumn == null ? null : numeric(filterColumn).chunks();
+        long sum = 0;
+        for (int c = 0; c < chunkCount(); c++) {
+            long[] words = (long[]) live[c];
+            Object sumChunk = sums[c];
+            Object filterChunk = filters == null ? null : filters[c];
+            int limit = chunkRows(c);
+            for (int w = 0, base = 0; base < limit; w++, base += 64) {
+                long bits = words[w] & wordMask(limit - base);
+                if (bits == -1L && filterChunk == null && sumChunk instanceof int[] ints) {
+                    for (int i = base; i < base + 64; i++) {
+                        sum += ints[i];
+                    }
+                    continue;
+                }
+                while (bits != 0) {
+                    int row = base + Long.numberOfTrailingZeros(bits);
+                    if (filterChunk == null || inRange(value(filterChunk, row), min, max)) {
+                        sum += value(sumChunk, row);
+                    }
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return sum;
+    }
+
+    // counts[v - minValue] is the number of live rows holding v; values outside the range are skipped.
+    public long[] countByValue(String column, int minValue, int maxValue) {
+        Object[] chunks = numeric(column).chunks();
+        long[] counts = new long[maxValue - minValue + 1];
+        for (int c = 0; c < chunkCount(); c++) {
+            long[] words = (long[]) live[c];
+            Object chunk = chunks[c];
+            int limit = chunkRows(c);
+            for (int w = 0, base = 0; base < limit; w++, base += 64) {
+                long bits = words[w] & wordMask(limit - base);
+                while (bits != 0) {
+                    int slot = value(chunk, base + Long.numberOfTrailingZeros(bits)) - minValue;
+                    if (slot >= 0 && slot < counts.length) {
+                        counts[slot]++;
+                    }
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return counts;
+    }
+
+    public Map<String, Long> countByDictionary(String column) {
+        Frozen frozen = dictionary(column);
+        long[] counts = countByValue(column, 0, frozen.dictionarySize() - 1);
+        Map<String, Long> result = new HashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                result.put(frozen.dictionary()[code], counts[code]);
+            }
+        }
+        return result;
+    }
+
+    public long countEquals(String column, String value) {
+        int code = codeOf(column, value);
+        return code == ColumnStore.NULL_CODE ? 0 : count(column, code, code);
+    }
+
+    public List<T> select(String column, int min, int max) {
+        Object[] chunks = numeric(column).chunks();
+        List<T> result = new ArrayList<>();
+        for (int c = 0; c < chunkCount(); c++) {
+            long[] words = (long[]) live[c];
+            Object chunk = chunks[c];
+            int limit = chunkRows(c);
+            int offset = c << CHUNK_BITS;
+            for (int w = 0, base = 0; base < limit; w++, base += 64) {
+                long bits = words[w] & wordMask(limit - base);
+                while (bits != 0) {
+                    int row = base + Long.numberOfTrailingZeros(bits);
+                    if (inRange(value(chunk, row), min, max)) {
+                        result.add(items.get(offset + row));
+                    }
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return result;
+    }
+
+    public List<T> selectEquals(String column, String value) {
+        int code = codeOf(column, value);
+        return code == ColumnStore.NULL_CODE ? List.of() : select(column, code, code);
+    }
+
+    private int codeOf(String column, String value) {
+        Frozen frozen = dictionary(column);
+        Integer code = value == null ? null : frozen.codes().get(value);
+        // codes added after this view was frozen cannot occur in its rows
+        return code == null || code >= frozen.dictionarySize() ? ColumnStore.NULL_CODE : code;
+    }
+
+    private Frozen numeric(String column) {
+        Frozen frozen = columns.get(column);
+        if (frozen == null) {
+            throw new IllegalArgumentException("No column " + column);
+        }
+        return frozen;
+    }
+
+    private Frozen dictionary(String column) {
+        Frozen frozen = numeric(column);
+        if (frozen.kind() != ColumnStore.Kind.DICTIONARY) {
+            throw new IllegalArgumentException("Column " + column + " is not dictionary encoded");
+        }
+        return frozen;
+    }
+
+    private int chunkCount() {
+        return (rows + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+    }
+
+    private int chunkRows(int chunk) {
+        return Math.min(CHUNK_SIZE, rows - (chunk << CHUNK_BITS));
+    }
+
+    private static long wordMask(int remaining) {
+        return remaining >= 64 ? -1L : (1L << remaining) - 1;
+    }
+
+    private static boolean inRange(int value, int min, int max) {
+        return value >= min && value <= max;
+    }
+
+    private static int value(Object chunk, int index) {
+        return chunk instanceof int[] ints ? ints[index] : ((byte[]) chunk)[index];
+    }
+
+    private static int countDense(int[] values, int from, int min, int max) {
+        int count = 0;
+        for (int i = from; i < from + 64; i++) {
+            int value = values[i];
+            count += (value >= min & value <= max) ? 1 : 0;
+        }
+        return count;
+    }
+
+    private static int countDense(byte[] values, int from, int min, int max) {
+        int count = 0;
+        for (int i = from; i < from + 64; i++) {
+            int value = values[i];
+            count += (value >= min & value <= max) ? 1 : 0;
+        }
+        return count;
+    }
+}
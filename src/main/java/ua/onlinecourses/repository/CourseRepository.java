@@ -13,47 +13,65 @@ import java.util.stream.Collectors;
 public class CourseRepository extends GenericRepository<Course> {
     private static final Logger logger = Logger.getLogger(CourseRepository.class.getName());
 
+    public static final String INDEX_CREDITS = "credits";
+    public static final String AGGREGATE_CREDITS = "credits";
+    public static final String COLUMN_CREDITS = "credits";
+    public static final String COLUMN_START_DATE = "startDate";
+
     public CourseRepository() {
         super(Course::getFullName, "Course");
+        registerBucketIndex(INDEX_CREDITS, Course::credits, 1, 5);
+        registerAggregate(AGGREGATE_CREDITS, Course::credits);
+        registerIntColumn(COLUMN_CREDITS, Course::credits);
+        registerIntColumn(COLUMN_START_DATE, course -> (int) course.startDate().toEpochDay());
+    }
+
+    private CourseRepository(CourseRepository source) {
+        super(source);
+    }
+
+    @Override
+    public CourseRepository snapshot() {
+        return new CourseRepository(this);
     }
 
     public List<Course> sortByTitle() {
-        List<Course> allCourses = getAll();
+        List<Course> allCourses = snapshotList();
         allCourses.sort(Course.BY_TITLE);
         logger.log(Level.INFO, "Sorted Course by title");
         return allCourses;
     }
 
     public List<Course> sortByCredits() {
-        List<Course> allCourses = getAll();
+        List<Course> allCourses = snapshotList();
         allCourses.sort(Course.BY_CREDITS);
         logger.log(Level.INFO, "Sorted Course by credits");
         return allCourses;
     }
 
     public List<Course> sortByCreditsDesc() {
-        List<Course> allCourses = getAll();
+        List<Course> allCourses = snapshotList();
         allCourses.sort(Course.BY_CREDITS.reversed());
         logger.log(Level.INFO, "Sorted Course by credits (descending)");
         return allCourses;
     }
 
     public List<Course> sortByStartDate() {
-        List<Course> allCourses = getAll();
+        List<Course> allCourses = snapshotList();
         allCourses.sort(Course.BY_START_DATE);
         logger.log(Level.INFO, "Sorted Course by start date");
         return allCourses;
     }
 
     public List<Course> sortByDescription() {
-        List<Course> allCourses = getAll();
+        List<Course> allCourses = snapshotList();
         allCourses.sort((c1, c2) -> c1.description().compareTo(c2.description()));
         logger.log(Level.INFO, "Sorted Course by description using lambda");
         return allCourses;
     }
 
     public List<Course> sortByCreditsAndDate() {
-        List<Course> allCourses = getAll();
+        List<Course> allCourses = snapshotList();
         allCourses.sort(
                 Comparator.comparingInt(Course::credits).reversed()
                         .thenComparing(Course::startDate)
@@ -69,7 +87,7 @@ public class CourseRepository extends GenericRepository<Course> {
         }
 
         String searchTerm = partialTitle.trim().toLowerCase();
-        List<Course> results = getAll().stream()
+        List<Course> results = stream()
                 .filter(course -> course.title().toLowerCase().contains(searchTerm))
                 .collect(Collectors.toList());
 
@@ -85,7 +103,7 @@ public class CourseRepository extends GenericRepository<Course> {
             return List.of();
         }
 
-        List<Course> results = getAll().stream()
+        List<Course> results = stream()
                 .filter(course -> course.credits() >= minCredits && course.credits() <= maxCredits)
                 .collect(Collectors.toList());
 
@@ -100,7 +118,7 @@ public class CourseRepository extends GenericRepository<Course> {
             return List.of();
         }
 
-        List<Course> results = getAll().stream()
+        List<Course> results = stream()
                 .filter(course -> course.startDate().isAfter(date))
                 .collect(Collectors.toList());
 
@@ -116,7 +134,7 @@ public class CourseRepository extends GenericRepository<Course> {
         }
 
         String searchTerm = keyword.trim().toLowerCase();
-        List<Course> results = getAll().stream()
+        List<Course> results = stream()
                 .filter(course -> course.description().toLowerCase().contains(searchTerm))
                 .collect(Collectors.toList());
 
@@ -126,35 +144,28 @@ public class CourseRepository extends GenericRepository<Course> {
     }
 
     public Map<Integer, List<Course>> groupByCredits() {
-        Map<Integer, List<Course>> grouped = getAll().stream()
-                .collect(Collectors.groupingBy(Course::credits));
+        Map<Integer, List<Course>> grouped = groupByInt(Course::credits, 1, 5);
 
         logger.log(Level.INFO, "Grouped courses by credits: {0} groups", grouped.size());
         return grouped;
     }
 
     public int getTotalCredits() {
-        int total = getAll().stream()
-                .map(Course::credits)
-                .reduce(0, Integer::sum);
+        int total = (int) aggregate(AGGREGATE_CREDITS).sum();
 
         logger.log(Level.INFO, "Total credits across all courses: {0}", total);
         return total;
     }
 
     public double getAverageCredits() {
-        double average = getAll().stream()
-                .mapToInt(Course::credits)
-                .average()
-                .orElse(0.0);
+        double average = aggregate(AGGREGATE_CREDITS).average();
 
         logger.log(Level.INFO, "Average credits: {0}", average);
         return average;
     }
 
     public Optional<Course> getCourseWithMaxCredits() {
-        Optional<Course> result = getAll().stream()
-                .max(Comparator.comparingInt(Course::credits));
+        Optional<Course> result = findWithMaxValue(INDEX_CREDITS).stream().findFirst();
 
         if (result.isPresent()) {
             logger.log(Level.INFO, "Course with max credits: {0} ({1} credits)",
@@ -167,28 +178,27 @@ public class CourseRepository extends GenericRepository<Course> {
     }
 
     public List<Course> getAllCoursesWithMaxCredits() {
-        List<Course> allCourses = getAll();
-        if (allCourses.isEmpty()) {
+        List<Course> results = findWithMaxValue(INDEX_CREDITS);
+        if (results.isEmpty()) {
             logger.log(Level.INFO, "No courses found");
             return List.of();
         }
-
-        int maxCredits = allCourses.stream()
-                .mapToInt(Course::credits)
-                .max()
-                .orElse(0);
-
-        List<Course> results = allCourses.stream()
-                .filter(course -> course.credits() == maxCredits)
-                .collect(Collectors.toList());
+        int maxCredits = results.get(0).credits();
 
         logger.log(Level.INFO, "Found {0} course(s) with max credits: {1} credits",
                 new Object[]{results.size(), maxCredits});
         return results;
     }
 
+    public List<Course> getTopCoursesByCredits(int limit) {
+        List<Course> results = topByIndex(INDEX_CREDITS, limit);
+
+        logger.log(Level.INFO, "Retrieved top {0} courses by credits", results.size());
+        return results;
+    }
+
     public List<String> getAllTitles() {
-        List<String> titles = getAll().stream()
+        List<String> titles = stream()
                 .map(Course::title)
                 .collect(Collectors.toList());
 
@@ -197,7 +207,7 @@ public class CourseRepository extends GenericRepository<Course> {
     }
 
     public boolean hasCourseWithCredits(int credits) {
-        boolean exists = getAll().stream()
+        boolean exists = stream()
                 .anyMatch(course -> course.credits() == credits);
 
         logger.log(Level.INFO, "Courses with {0} credits exist: {1}",
@@ -206,7 +216,7 @@ public class CourseRepository extends GenericRepository<Course> {
     }
 
     public boolean allCoursesHaveMinCredits(int minCredits) {
-        boolean result = getAll().stream()
+        boolean result = stream()
                 .allMatch(course -> course.credits() >= minCredits);
 
         logger.log(Level.INFO, "All courses have >= {0} credits: {1}",
@@ -216,8 +226,7 @@ public class CourseRepository extends GenericRepository<Course> {
 
     public void printAllCourses() {
         logger.log(Level.INFO, "Printing all courses:");
-        getAll().stream()
-                .forEach(course -> System.out.println(course.title() + " - " +
-                        course.credits() + " credits"));
+        forEach(course -> System.out.println(course.title() + " - " +
+                course.credits() + " credits"));
     }
 }
\ No newline at end of file
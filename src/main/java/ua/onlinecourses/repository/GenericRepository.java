@@ -1,58 +1,160 @@
 package ua.onlinecourses.repository;
 
 
+import ua.onlinecourses.concurrent.ExecutorRegistry;
+import ua.onlinecourses.exception.DuplicateEntityException;
+import ua.onlinecourses.exception.VersionConflictException;
+
 import java.util.Comparator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class GenericRepository<T> {
     private static final Logger logger = Logger.getLogger(GenericRepository.class.getName());
 
 
-    private final List<T> items;
+    public static final long ANY_VERSION = -1;
+    public static final int CHANGE_BUFFER_SIZE = 1024;
+    private static final int MIN_TOMBSTONES_BEFORE_COMPACTION = 64;
+
+    // Writers mutate `working` under the repository lock and publish it to `storage`;
+    // readers only ever see a fully published vector.
+    private volatile Storage<T> storage;
+    private PersistentVector<T> working;
+    private int workingLive;
+    private final Map<String, Integer> slots;
+    private final Map<String, Versioned<T>> identityIndex;
+    private long versionCounter;
+    private final Map<String, LookupIndex<T>> indexes;
+    private final Map<String, Function<T, ?>> indexKeys;
+    private final Map<String, ToIntFunction<T>> bucketKeys;
+    private final Map<String, NumericAggregate<T>> aggregates;
+    private final Map<String, ToIntFunction<T>> aggregateKeys;
+    private final ColumnStore<T> columnStore;
     private final IdentityExtractor<T> identityExtractor;
     private final String entityType;
+    private final boolean snapshot;
+    private volatile Map<String, T> snapshotIdentities;
+    private final SubmissionPublisher<ChangeEvent<T>> changePublisher;
+    private final List<ChangeEvent<T>> pendingChanges;
+    private final AtomicLong droppedChanges;
+    private volatile long changeSequence;
+
+    // Aggregate statistics are frozen together with the items so readers never see them disagree.
+    private record Storage<T>(PersistentVector<T> items, int live, Map<String, AggregateStats> aggregates,
+                              ColumnarView<T> columns) {
+    }
 
     public GenericRepository(IdentityExtractor<T> identityExtractor, String entityType) {
-        this.items = new CopyOnWriteArrayList<>();
+        this.columnStore = new ColumnStore<>();
+        this.storage = new Storage<>(PersistentVector.empty(), 0, Map.of(), columnStore.freeze(PersistentVector.empty()));
+        this.working = storage.items();
+        this.slots = new HashMap<>();
+        this.identityIndex = new ConcurrentHashMap<>();
+        this.indexes = new ConcurrentHashMap<>();
+        this.indexKeys = new ConcurrentHashMap<>();
+        this.bucketKeys = new ConcurrentHashMap<>();
+        this.aggregates = new ConcurrentHashMap<>();
+        this.aggregateKeys = new ConcurrentHashMap<>();
         this.identityExtractor = identityExtractor;
         this.entityType = entityType;
+        this.snapshot = false;
+        this.changePublisher = new SubmissionPublisher<>(ExecutorRegistry.forwarding(ExecutorRegistry.Pool.IO),
+                CHANGE_BUFFER_SIZE);
+        this.pendingChanges = new ArrayList<>();
+        this.droppedChanges = new AtomicLong();
         logger.log(Level.INFO,"Created repository for {0}", entityType);
     }
 
+    // Read-only view sharing the source's currently published storage; later writes to the
+    // source are not visible through it.
+    protected GenericRepository(GenericRepository<T> source) {
+        this.storage = source.storage;
+        this.working = storage.items();
+        this.slots = Map.of();
+        this.identityIndex = new ConcurrentHashMap<>();
+        this.indexes = Map.of();
+        this.indexKeys = Map.copyOf(source.indexKeys);
+        this.bucketKeys = Map.copyOf(source.bucketKeys);
+        this.aggregates = Map.of();
+        this.aggregateKeys = Map.copyOf(source.aggregateKeys);
+        this.columnStore = null;
+        this.identityExtractor = source.identityExtractor;
+        this.entityType = source.entityType;
+        this.snapshot = true;
+        this.changePublisher = null;
+        this.pendingChanges = List.of();
+        this.droppedChanges = new AtomicLong();
+        this.changeSequence = source.changeSequence;
+    }
+
+    public GenericRepository<T> snapshot() {
+        return new GenericRepository<>(this);
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
     public synchronized boolean add(T item) {
+        requireWritable();
         if (item == null) {
             logger.log(Level.WARNING, "Attempted to add null {0}", entityType);
             return false;
         }
 
         String identity = identityExtractor.extractIdentity(item);
-        if (findByIdentity(identity).isPresent()) {
+        if (identityIndex.containsKey(identity)) {
             logger.log(Level.WARNING,"Cannot add {0} - already exists with identity: {1}",new Object[]{entityType, identity});
             return false;
         }
 
-        boolean added = items.add(item);
-        if (added) {
-            logger.log(Level.INFO, "Added {0}: {1}", new Object[]{entityType, identity});
-        }
-        return added;
+        insert(item);
+        publish();
+        logger.log(Level.INFO, "Added {0}: {1}", new Object[]{entityType, identity});
+        return true;
     }
 
 
-    public boolean remove(T item) {
+    public synchronized boolean remove(T item) {
+        requireWritable();
         if (item == null) {
             logger.log(Level.WARNING, "Attempted to remove null {0}", entityType);
             return false;
         }
 
-        boolean removed = items.remove(item);
+        String identity = identityExtractor.extractIdentity(item);
+        boolean removed = item.equals(current(identity));
         if (removed) {
+            delete(identity);
+            publish();
             logger.log(Level.INFO, "Removed {0}: {1}", new Object[]{entityType, identityExtractor.extractIdentity(item)});
         } else {
             logger.log(Level.WARNING,"Failed to remove {0}: {1}", new Object[]{entityType, identityExtractor.extractIdentity(item)});
@@ -62,29 +164,148 @@ public class GenericRepository<T> {
 
 
     public boolean removeByIdentity(String identity) {
+        return removeByIdentity(identity, ANY_VERSION);
+    }
+
+    public synchronized boolean removeByIdentity(String identity, long expectedVersion) {
+        requireWritable();
         if (identity == null) {
             logger.log(Level.WARNING,"Attempted to remove {0} with null identity", entityType);
             return false;
         }
 
-        Optional<T> itemToRemove = items.stream()
-                .filter(item -> identity.equals(identityExtractor.extractIdentity(item)))
-                .findFirst();
-
-        if (itemToRemove.isPresent()) {
-            boolean removed = items.remove(itemToRemove.get());
-            if (removed) {
-                logger.log(Level.INFO, "Removed {0} by identity: {1}", new Object[]{entityType, identity});
-            }
-            return removed;
+        Versioned<T> existing = identityIndex.get(identity);
+        if (existing != null) {
+            checkVersion(identity, existing, expectedVersion);
+            delete(identity);
+            publish();
+            logger.log(Level.INFO, "Removed {0} by identity: {1}", new Object[]{entityType, identity});
+            return true;
         } else {
             logger.log(Level.WARNING,"No {0} found with identity: {1} to remove", new Object[]{entityType, identity});
             return false;
         }
     }
 
+    public Optional<T> replace(String identity, T replacement) {
+        return compute(identity, existing -> replacement);
+    }
+
+    public Optional<T> compute(String identity, UnaryOperator<T> updater) {
+        return compute(identity, ANY_VERSION, updater).map(Versioned::value);
+    }
+
+    public synchronized Optional<Versioned<T>> compute(String identity, long expectedVersion, UnaryOperator<T> updater) {
+        requireWritable();
+        if (identity == null) {
+            logger.log(Level.WARNING, "Attempted to update {0} with null identity", entityType);
+            return Optional.empty();
+        }
+        Versioned<T> existing = identityIndex.get(identity);
+        if (existing == null) {
+            logger.log(Level.WARNING, "No {0} found with identity: {1} to update", new Object[]{entityType, identity});
+            return Optional.empty();
+        }
+        checkVersion(identity, existing, expectedVersion);
+
+        T replacement = updater.apply(existing.value());
+        if (replacement == null) {
+            throw new IllegalArgumentException("Replacement " + entityType + " must not be null");
+        }
+        String newIdentity = identityExtractor.extractIdentity(replacement);
+        if (!newIdentity.equals(identity) && identityIndex.containsKey(newIdentity)) {
+            throw new DuplicateEntityException(entityType + " already exists: " + newIdentity);
+        }
+        Versioned<T> updated = overwrite(identity, existing, newIdentity, replacement);
+        publish();
+        logger.log(Level.INFO, "Replaced {0}: {1} -> {2} (version {3})",
+                new Object[]{entityType, identity, newIdentity, updated.version()});
+        return Optional.of(updated);
+    }
+
+    public synchronized List<BatchOutcome> applyBatch(List<BatchOperation<T>> operations) {
+        requireWritable();
+        List<BatchOutcome> outcomes = new ArrayList<>(operations.size());
+        try {
+            for (BatchOperation<T> operation : operations) {
+                outcomes.add(applyOperation(operation));
+            }
+        } finally {
+            // operations applied before an unexpected failure must reach readers too
+            publish();
+        }
+
+        long succeeded = outcomes.stream().filter(BatchOutcome::isSuccess).count();
+        logger.log(Level.INFO, "Applied batch of {0} {1} operations: {2} succeeded, {3} failed",
+                new Object[]{operations.size(), entityType, succeeded, operations.size() - succeeded});
+        return outcomes;
+    }
+
+    private BatchOutcome applyOperation(BatchOperation<T> operation) {
+        switch (operation.type()) {
+            case CREATE -> {
+                String identity;
+                try {
+                    identity = identityExtractor.extractIdentity(operation.item());
+                } catch (RuntimeException e) {
+                    return BatchOutcome.invalid(null, e.getMessage());
+                }
+                if (identityIndex.containsKey(identity)) {
+                    return new BatchOutcome(identity, BatchOutcome.Status.CONFLICT,
+                            entityType + " already exists: " + identity);
+                }
+                try {
+                    insert(operation.item());
+                } catch (RuntimeException e) {
+                    return BatchOutcome.invalid(identity, e.getMessage());
+                }
+                return new BatchOutcome(identity, BatchOutcome.Status.CREATED, null);
+            }
+            case UPDATE -> {
+                Versioned<T> existing = identityIndex.get(operation.identity());
+                if (existing == null) {
+                    return new BatchOutcome(operation.identity(), BatchOutcome.Status.NOT_FOUND,
+                            entityType + " not found: " + operation.identity());
+                }
+                T replacement;
+                String newIdentity;
+                try {
+                    replacement = operation.updater().apply(existing.value());
+                    if (replacement == null) {
+                        return BatchOutcome.invalid(operation.identity(),
+                                "Replacement " + entityType + " must not be null");
+                    }
+                    newIdentity = identityExtractor.extractIdentity(replacement);
+                } catch (RuntimeException e) {
+                    return BatchOutcome.invalid(operation.identity(), e.getMessage());
+                }
+                if (!newIdentity.equals(operation.identity()) && identityIndex.containsKey(newIdentity)) {
+                    return new BatchOutcome(operation.identity(), BatchOutcome.Status.CONFLICT,
+                            entityType + " already exists: " + newIdentity);
+                }
+                try {
+                    overwrite(operation.identity(), existing, newIdentity, replacement);
+                } catch (RuntimeException e) {
+                    return BatchOutcome.invalid(operation.identity(), e.getMessage());
+                }
+                return new BatchOutcome(newIdentity, BatchOutcome.Status.UPDATED, null);
+            }
+            default -> {
+                if (!identityIndex.containsKey(operation.identity())) {
+                    return new BatchOutcome(operation.identity(), BatchOutcome.Status.NOT_FOUND,
+                            entityType + " not found: " + operation.identity());
+                }
+                delete(operation.identity());
+                return new BatchOutcome(operation.identity(), BatchOutcome.Status.DELETED, null);
+            }
+        }
+    }
+
     public boolean contains(T item) {
-        return items.contains(item); // Uses equals() internally
+        if (item == null) {
+            return false;
+        }
+        return item.equals(current(identityExtractor.extractIdentity(item)));
     }
 
     public boolean containsIdentity(String identity) {
@@ -97,9 +318,7 @@ public class GenericRepository<T> {
             return Optional.empty();
         }
 
-        Optional<T> result = items.stream()
-                .filter(item -> identity.equals(identityExtractor.extractIdentity(item)))
-                .findFirst();
+        Optional<T> result = Optional.ofNullable(current(identity));
 
         if (result.isPresent()) {
             logger.log(Level.INFO,"Found {0} with identity: {1}", new Object[]{entityType, identity});
@@ -110,22 +329,39 @@ public class GenericRepository<T> {
         return result;
     }
 
+    public Optional<Versioned<T>> findVersioned(String identity) {
+        if (snapshot) {
+            throw new UnsupportedOperationException(entityType + " snapshots do not track versions");
+        }
+        return identity == null ? Optional.empty() : Optional.ofNullable(identityIndex.get(identity));
+    }
+
     public List<T> getAll() {
-        logger.log(Level.INFO,"Retrieved all {0} items. Count: {1}", new Object[]{entityType, items.size()} );
-        return new ArrayList<>(items);
+        List<T> all = snapshotList();
+        logger.log(Level.INFO,"Retrieved all {0} items. Count: {1}", new Object[]{entityType, all.size()} );
+        return all;
     }
 
     public int size() {
-        return items.size();
+        return storage.live();
     }
 
     public boolean isEmpty() {
-        return items.isEmpty();
+        return storage.live() == 0;
     }
 
-    public void clear() {
-        int sizeBefore = items.size();
-        items.clear();
+    public synchronized void clear() {
+        requireWritable();
+        int sizeBefore = workingLive;
+        working = PersistentVector.empty();
+        workingLive = 0;
+        slots.clear();
+        identityIndex.clear();
+        indexes.values().forEach(LookupIndex::clear);
+        aggregates.values().forEach(NumericAggregate::clear);
+        columnStore.rebuild(working);
+        recordChange(ChangeEvent.Type.CLEARED, null, null, null);
+        publish();
         logger.log(Level.INFO,"Cleared repository. Removed {0} {1} items", new Object[]{sizeBefore, entityType});
     }
 
@@ -135,7 +371,7 @@ public class GenericRepository<T> {
             order = "asc";
         }
 
-        List<T> sortedItems = new ArrayList<>(items);
+        List<T> sortedItems = snapshotList();
 
         Comparator<T> comparator = Comparator.comparing(identityExtractor::extractIdentity);
 
@@ -151,8 +387,434 @@ public class GenericRepository<T> {
         return sortedItems;
     }
 
+    protected synchronized void registerIndex(String name, Function<T, ?> keyExtractor) {
+        requireWritable();
+        HashIndex<T> index = new HashIndex<>(keyExtractor);
+        working.forEachPresent(0, working.size(), index::add);
+        indexes.put(name, index);
+        indexKeys.put(name, keyExtractor);
+        logger.log(Level.FINE, "Registered index {0} for {1}", new Object[]{name, entityType});
+    }
+
+    // For int fields with a small fixed domain; also serves findByIndex/countByIndex with Integer keys.
+    protected synchronized void registerBucketIndex(String name, ToIntFunction<T> valueExtractor, int minValue, int maxValue) {
+        requireWritable();
+        BucketIndex<T> index = new BucketIndex<>(valueExtractor, minValue, maxValue);
+        working.forEachPresent(0, working.size(), index::add);
+        indexes.put(name, index);
+        indexKeys.put(name, valueExtractor::applyAsInt);
+        bucketKeys.put(name, valueExtractor);
+        logger.log(Level.FINE, "Registered bucket index {0} [{1}, {2}] for {3}",
+                new Object[]{name, minValue, maxValue, entityType});
+    }
+
+    protected synchronized void registerAggregate(String name, ToIntFunction<T> valueExtractor) {
+        requireWritable();
+        NumericAggregate<T> aggregate = new NumericAggregate<>(valueExtractor);
+        working.forEachPresent(0, working.size(), aggregate::add);
+        aggregates.put(name, aggregate);
+        aggregateKeys.put(name, valueExtractor);
+        publish();
+        logger.log(Level.FINE, "Registered aggregate {0} for {1}", new Object[]{name, entityType});
+    }
+
+    protected void registerIntColumn(String name, ToIntFunction<T> valueExtractor) {
+        registerColumn(name, ColumnStore.Kind.INT, valueExtractor, null);
+    }
+
+    protected void registerByteColumn(String name, ToIntFunction<T> valueExtractor) {
+        registerColumn(name, ColumnStore.Kind.BYTE, valueExtractor, null);
+    }
+
+    protected void registerDictionaryColumn(String name, Function<T, String> valueExtractor) {
+        registerColumn(name, ColumnStore.Kind.DICTIONARY, null, valueExtractor);
+    }
+
+    private synchronized void registerColumn(String name, ColumnStore.Kind kind, ToIntFunction<T> intExtractor,
+                                             Function<T, String> stringExtractor) {
+        requireWritable();
+        columnStore.addColumn(name, kind, intExtractor, stringExtractor, working);
+        publish();
+        logger.log(Level.FINE, "Registered {0} column {1} for {2}", new Object[]{kind, name, entityType});
+    }
+
+    // Columnar image of the currently published version; snapshots keep the image of their cut.
+    public ColumnarView<T> columns() {
+        return storage.columns();
+    }
+
+    public AggregateStats aggregate(String name) {
+        AggregateStats stats = storage.aggregates().get(name);
+        if (stats == null) {
+            throw new IllegalArgumentException("No aggregate " + name + " for " + entityType);
+        }
+        return stats;
+    }
+
+    public Map<Integer, Long> histogram(String name) {
+        ToIntFunction<T> valueExtractor = aggregateKeys.get(name);
+        if (valueExtractor == null) {
+            throw new IllegalArgumentException("No aggregate " + name + " for " + entityType);
+        }
+        if (!snapshot) {
+            return aggregates.get(name).histogram();
+        }
+        Map<Integer, Long> histogram = new TreeMap<>();
+        forEach(item -> histogram.merge(valueExtractor.applyAsInt(item), 1L, Long::sum));
+        return histogram;
+    }
+
+    public List<T> findWithMaxValue(String name) {
+        ToIntFunction<T> valueExtractor = bucketKey(name);
+        if (!snapshot) {
+            return ((BucketIndex<T>) indexes.get(name)).findWithMax();
+        }
+        List<T> result = new ArrayList<>();
+        int[] max = {Integer.MIN_VALUE};
+        forEach(item -> {
+            int value = valueExtractor.applyAsInt(item);
+            if (value > max[0]) {
+                max[0] = value;
+                result.clear();
+            }
+            if (value == max[0]) {
+                result.add(item);
+            }
+        });
+        return result;
+    }
+
+    public List<T> topByIndex(String name, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        }
+        ToIntFunction<T> valueExtractor = bucketKey(name);
+        if (!snapshot) {
+            return ((BucketIndex<T>) indexes.get(name)).top(limit);
+        }
+        return stream()
+                .sorted(Comparator.comparingInt(valueExtractor).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public boolean hasIndex(String name) {
+        return indexKeys.containsKey(name);
+    }
+
+    public List<T> findByIndex(String name, Object key) {
+        if (snapshot) {
+            return scanIndex(name, key);
+        }
+        LookupIndex<T> index = indexes.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("No index " + name + " for " + entityType);
+        }
+        return index.find(key);
+    }
+
+    public int countByIndex(String name, Object key) {
+        if (snapshot) {
+            return scanIndex(name, key).size();
+        }
+        LookupIndex<T> index = indexes.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("No index " + name + " for " + entityType);
+        }
+        return index.count(key);
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    // Events are delivered asynchronously through a bounded per-subscriber buffer; a subscriber that
+    // falls more than CHANGE_BUFFER_SIZE events behind misses events and sees a gap in the sequence.
+    public void subscribe(Flow.Subscriber<? super ChangeEvent<T>> subscriber) {
+        if (snapshot) {
+            throw new UnsupportedOperationException(entityType + " snapshots do not change");
+        }
+        changePublisher.subscribe(subscriber);
+    }
+
+    public Flow.Publisher<ChangeEvent<T>> changes() {
+        return this::subscribe;
+    }
+
+    public long getChangeSequence() {
+        return changeSequence;
+    }
+
+    public long getDroppedChangeEvents() {
+        return droppedChanges.get();
+    }
+
+    // Iteration primitives: each call reads one published storage version in place, without copying
+    // it and without the logging done by getAll(). The spliterator is public so callers that time a
+    // scan, such as the adaptive execution selector, measure the scan and not a copy.
+    public Spliterator<T> spliterator() {
+        Storage<T> current = storage;
+        PersistentVector<T> items = current.items();
+        // without removed slots the slot count is the element count, so splits stay exactly sized
+        return items.spliterator(0, items.size(), current.live() == items.size());
+    }
+
+    protected Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    protected void forEach(Consumer<? super T> action) {
+        PersistentVector<T> items = storage.items();
+        items.forEachPresent(0, items.size(), action);
+    }
+
+    // Grouping primitives for subclasses; large repositories are grouped on the fork/join pool.
+    protected <K> Map<K, List<T>> groupBy(Function<? super T, ? extends K> classifier) {
+        return GroupingEngine.groupBy(spliterator(), groupInParallel(), classifier);
+    }
+
+    protected <K> Map<K, Long> countBy(Function<? super T, ? extends K> classifier) {
+        return GroupingEngine.countBy(spliterator(), groupInParallel(), classifier);
+    }
+
+    protected <K extends Enum<K>> Map<K, List<T>> groupByEnum(Class<K> keyType, Function<? super T, K> classifier) {
+        return GroupingEngine.groupByEnum(spliterator(), groupInParallel(), keyType, classifier);
+    }
+
+    protected Map<Integer, List<T>> groupByInt(ToIntFunction<? super T> classifier, int minKey, int maxKey) {
+        return GroupingEngine.groupByInt(spliterator(), groupInParallel(), classifier, minKey, maxKey);
+    }
+
+    // Parallel queries over one published storage version; they split straight from the storage
+    // trie instead of copying into a list first, and results keep repository order.
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    public <A> A scan(Supplier<A> supplier, BiConsumer<A, ? super T> accumulator, BinaryOperator<A> combiner) {
+        return SegmentedScan.scan(storage.items(), supplier, accumulator, combiner);
+    }
+
+    public <R> R reduce(R identity, BiFunction<R, ? super T, R> accumulator, BinaryOperator<R> combiner) {
+        Object[] result = scan(() -> new Object[]{identity},
+                (partial, item) -> partial[0] = accumulator.apply(cast(partial[0]), item),
+                (left, right) -> {
+                    left[0] = combiner.apply(cast(left[0]), cast(right[0]));
+                    return left;
+                });
+        return cast(result[0]);
+    }
+
+    public long countWhere(Predicate<? super T> predicate) {
+        return scan(() -> new long[1], (count, item) -> {
+            if (predicate.test(item)) {
+                count[0]++;
+            }
+        }, (left, right) -> {
+            left[0] += right[0];
+            return left;
+        })[0];
+    }
+
+    public List<T> findWhere(Predicate<? super T> predicate) {
+        return scan(ArrayList::new, (List<T> matches, T item) -> {
+            if (predicate.test(item)) {
+                matches.add(item);
+            }
+        }, (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R cast(Object value) {
+        return (R) value;
+    }
+
+    private boolean groupInParallel() {
+        return storage.live() >= GroupingEngine.PARALLEL_THRESHOLD;
+    }
+
+    // Mutable copy for callers that sort or otherwise hand the result out.
+    protected List<T> snapshotList() {
+        Storage<T> current = storage;
+        List<T> result = new ArrayList<>(current.live());
+        current.items().forEachPresent(0, current.items().size(), result::add);
+        return result;
+    }
+
+    // Snapshots share no mutable index state with their source, so index lookups become scans.
+    private List<T> scanIndex(String name, Object key) {
+        Function<T, ?> keyExtractor = indexKeys.get(name);
+        if (keyExtractor == null) {
+            throw new IllegalArgumentException("No index " + name + " for " + entityType);
+        }
+        List<T> result = new ArrayList<>();
+        working.forEachPresent(0, working.size(), item -> {
+            if (Objects.equals(keyExtractor.apply(item), key)) {
+                result.add(item);
+            }
+        });
+        return result;
+    }
+
+    private Map<String, T> snapshotIdentities() {
+        Map<String, T> lookup = snapshotIdentities;
+        if (lookup == null) {
+            Map<String, T> built = new HashMap<>();
+            working.forEachPresent(0, working.size(), item -> built.put(identityExtractor.extractIdentity(item), item));
+            snapshotIdentities = lookup = built;
+        }
+        return lookup;
+    }
+
+    private ToIntFunction<T> bucketKey(String name) {
+        ToIntFunction<T> valueExtractor = bucketKeys.get(name);
+        if (valueExtractor == null) {
+            throw new IllegalArgumentException("No bucket index " + name + " for " + entityType);
+        }
+        return valueExtractor;
+    }
+
+    private void requireWritable() {
+        if (snapshot) {
+            throw new UnsupportedOperationException(entityType + " snapshot is read-only");
+        }
+    }
+
+    private T current(String identity) {
+        if (snapshot) {
+            return snapshotIdentities().get(identity);
+        }
+        Versioned<T> entry = identityIndex.get(identity);
+        return entry == null ? null : entry.value();
+    }
+
+    private void checkVersion(String identity, Versioned<T> existing, long expectedVersion) {
+        if (expectedVersion != ANY_VERSION && existing.version() != expectedVersion) {
+            throw new VersionConflictException(entityType + " " + identity + " is at version " + existing.version()
+                    + ", expected " + expectedVersion, expectedVersion, existing.version());
+        }
+    }
+
+    // Every derived key and column value is computed before anything is modified, so an item an
+    // index rejects never ends up half inserted.
+    private void checkDerived(T item) {
+        columnStore.check(item);
+        indexes.values().forEach(index -> index.check(item));
+        aggregates.values().forEach(aggregate -> aggregate.check(item));
+    }
+
+    private void insert(T item) {
+        String identity = identityExtractor.extractIdentity(item);
+        checkDerived(item);
+        slots.put(identity, working.size());
+        columnStore.append(item);
+        working = working.append(item);
+        workingLive++;
+        identityIndex.put(identity, new Versioned<>(item, ++versionCounter));
+        indexes.values().forEach(index -> index.add(item));
+        aggregates.values().forEach(aggregate -> aggregate.add(item));
+        recordChange(ChangeEvent.Type.ADDED, identity, null, item);
+    }
+
+    private void delete(String identity) {
+        Versioned<T> existing = identityIndex.get(identity);
+        int slot = slots.remove(identity);
+        working = working.set(slot, null);
+        columnStore.remove(slot);
+        workingLive--;
+        identityIndex.remove(identity, existing);
+        indexes.values().forEach(index -> index.remove(existing.value()));
+        aggregates.values().forEach(aggregate -> aggregate.remove(existing.value()));
+        recordChange(ChangeEvent.Type.REMOVED, identity, existing.value(), null);
+    }
+
+    // Entries are updated new-before-old so a concurrent lookup never finds neither version.
+    private Versioned<T> overwrite(String identity, Versioned<T> existing, String newIdentity, T replacement) {
+        if (existing.value().equals(replacement)) {
+            return existing;
+        }
+        checkDerived(replacement);
+        int slot = slots.get(identity);
+        Versioned<T> updated = new Versioned<>(replacement, ++versionCounter);
+        working = working.set(slot, replacement);
+        columnStore.set(slot, replacement);
+        identityIndex.put(newIdentity, updated);
+        indexes.values().forEach(index -> index.replace(existing.value(), replacement));
+        if (!newIdentity.equals(identity)) {
+            slots.remove(identity);
+            slots.put(newIdentity, slot);
+            identityIndex.remove(identity, existing);
+        }
+        aggregates.values().forEach(aggregate -> {
+            aggregate.remove(existing.value());
+            aggregate.add(replacement);
+        });
+        recordChange(ChangeEvent.Type.REPLACED, newIdentity, existing.value(), replacement);
+        return updated;
+    }
+
+    private void publish() {
+        int tombstones = working.size() - workingLive;
+        if (tombstones > MIN_TOMBSTONES_BEFORE_COMPACTION && tombstones > workingLive) {
+            compact();
+        }
+        Map<String, AggregateStats> aggregateStats = freezeAggregates();
+        ColumnarView<T> columns = columnStore.freeze(working);
+        Lock commit = RepositorySnapshots.commitLock();
+        commit.lock();
+        try {
+            storage = new Storage<>(working, workingLive, aggregateStats, columns);
+        } finally {
+            commit.unlock();
+        }
+        try {
+            for (ChangeEvent<T> event : pendingChanges) {
+                changePublisher.offer(event, (subscriber, dropped) -> {
+                    droppedChanges.incrementAndGet();
+                    return false;
+                });
+            }
+        } catch (RejectedExecutionException e) {
+            // the io pool is saturated or restarting; the commit already happened, so only delivery is lost
+            droppedChanges.incrementAndGet();
+            logger.log(Level.WARNING, "Change delivery for {0} rejected: {1}", new Object[]{entityType, e.getMessage()});
+        }
+        pendingChanges.clear();
+    }
+
+    private Map<String, AggregateStats> freezeAggregates() {
+        if (aggregates.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, AggregateStats> frozen = new HashMap<>();
+        aggregates.forEach((name, aggregate) -> frozen.put(name, aggregate.stats()));
+        return Map.copyOf(frozen);
+    }
 
-    List<T> getItemsForTesting() {
-        return items;
+    private void recordChange(ChangeEvent.Type type, String identity, T previous, T current) {
+        long sequence = ++changeSequence;
+        if (changePublisher.hasSubscribers()) {
+            pendingChanges.add(new ChangeEvent<>(sequence, type, entityType, identity, previous, current));
+        }
+    }
+
+    private void compact() {
+        PersistentVector<T> compacted = PersistentVector.empty();
+        slots.clear();
+        PersistentVector<T> source = working;
+        for (int slot = 0; slot < source.size(); slot++) {
+            T item = source.get(slot);
+            if (item != null) {
+                slots.put(identityExtractor.extractIdentity(item), compacted.size());
+                compacted = compacted.append(item);
+            }
+        }
+        logger.log(Level.FINE, "Compacted {0} storage from {1} to {2} slots",
+                new Object[]{entityType, source.size(), compacted.size()});
+        working = compacted;
+        columnStore.rebuild(compacted);
     }
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package ua.onlinecourses.repository;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.StreamSupport;
+
+/**
+ * Group-by and count-by over a storage spliterator. In parallel mode every fork/join leaf fills
+ * its own partial container, and partials are merged pairwise in encounter order, so group lists
+ * keep repository order and no container is ever shared between threads. Enum keys use EnumMap
+ * and bounded int keys use dense arrays instead of hashing.
+ */
+final class GroupingEngine {
+
+    static final int PARALLEL_THRESHOLD = 10_000;
+
+    private GroupingEngine() {
+    }
+
+    static <T, K> Map<K, List<T>> groupBy(Spliterator<T> source, boolean parallel,
+                                          Function<? super T, ? extends K> classifier) {
+        return StreamSupport.stream(source, parallel).collect(
+                HashMap<K, List<T>>::new,
+                (groups, item) -> groups.computeIfAbsent(key(classifier, item), key -> new ArrayList<>()).add(item),
+                GroupingEngine::mergeGroups);
+    }
+
+    static <T, K> Map<K, Long> countBy(Spliterator<T> source, boolean parallel,
+                                       Function<? super T, ? extends K> classifier) {
+        Map<K, long[]> counters = StreamSupport.stream(source, parallel).collect(
+                HashMap<K, long[]>::new,
+                (counts, item) -> counts.computeIfAbsent(key(classifier, item), key -> new long[1])[0]++,
+                (left, right) -> right.forEach((key, count) -> left.merge(key, count, (a, b) -> {
+                    a[0] += b[0];
+                    return a;
+                })));
+        Map<K, Long> result = new HashMap<>();
+        counters.forEach((key, count) -> result.put(key, count[0]));
+        return result;
+    }
+
+    static <T, K extends Enum<K>> Map<K, List<T>> groupByEnum(Spliterator<T> source, boolean parallel, Class<K> keyType,
+                                                              Function<? super T, K> classifier) {
+        return StreamSupport.stream(source, parallel).collect(
+                () -> new EnumMap<K, List<T>>(keyType),
+                (groups, item) -> groups.computeIfAbsent(key(classifier, item), key -> new ArrayList<>()).add(item),
+                GroupingEngine::mergeGroups);
+    }
+
+    // Keys in [minKey, maxKey] go to array buckets; anything outside still works through a small map.
+    static <T> Map<Integer, List<T>> groupByInt(Spliterator<T> source, boolean parallel, ToIntFunction<? super T> classifier,
+                                                int minKey, int maxKey) {
+        DenseGroups<T> groups = StreamSupport.stream(source, parallel).collect(
+                () -> new DenseGroups<T>(minKey, maxKey),
+                (dense, item) -> dense.add(classifier.applyAsInt(item), item),
+                DenseGroups::merge);
+        return groups.toMap();
+    }
+
+    private static <T, K> K key(Function<? super T, ? extends K> classifier, T item) {
+        return Objects.requireNonNull(classifier.apply(item), "element cannot be mapped to a null key");
+    }
+
+    private static <K, T> void mergeGroups(Map<K, List<T>> left, Map<K, List<T>> right) {
+        right.forEach((key, items) -> left.merge(key, items, (a, b) -> {
+            a.addAll(b);
+            return a;
+        }));
+    }
+
+    private static final class DenseGroups<T> {
+        private final int minKey;
+        private final List<List<T>> buckets;
+        private final Map<Integer, List<T>> overflow = new HashMap<>();
+
+        DenseGroups(int minKey, int maxKey) {
+            this.minKey = minKey;
+            this.buckets = new ArrayList<>(maxKey - minKey + 1);
+            for (int key = minKey; key <= maxKey; key++) {
+                buckets.add(null);
+            }
+        }
+
+        void add(int key, T item) {
+            int slot = key - minKey;
+            if (slot < 0 || slot >= buckets.size()) {
+                overflow.computeIfAbsent(key, k -> new ArrayList<>()).add(item);
+                return;
+            }
+            List<T> bucket = buckets.get(slot);
+            if (bucket == null) {
+                bucket = new ArrayList<>();
+                buckets.set(slot, bucket);
+            }
+            bucket.add(item);
+        }
+
+        void merge(DenseGroups<T> other) {
+            for (int slot = 0; slot < buckets.size(); slot++) {
+                List<T> theirs = other.buckets.get(slot);
+                if (theirs == null) {
+                    continue;
+                }
+                List<T> ours = buckets.get(slot);
+                if (ours == null) {
+                    buckets.set(slot, theirs);
+                } else {
+                    ours.addAll(theirs);
+                }
+            }
+            mergeGroups(overflow, other.overflow);
+        }
+
+        Map<Integer, List<T>> toMap() {
+            Map<Integer, List<T>> result = new LinkedHashMap<>();
+            for (int slot = 0; slot < buckets.size(); slot++) {
+                if (buckets.get(slot) != null) {
+                    result.put(minKey + slot, buckets.get(slot));
+                }
+            }
+            result.putAll(overflow);
+            return result;
+        }
+    }
+}
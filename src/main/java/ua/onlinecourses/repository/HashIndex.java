@@ -0,0 +1,59 @@
+package ua.onlinecourses.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+class HashIndex<T> implements LookupIndex<T> {
+
+    private final Function<T, ?> keyExtractor;
+    private final Map<Object, Set<T>> buckets = new ConcurrentHashMap<>();
+
+    HashIndex(Function<T, ?> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    public void add(T item) {
+        Object key = keyExtractor.apply(item);
+        if (key != null) {
+            buckets.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(item);
+        }
+    }
+
+    @Override
+    public void check(T item) {
+        keyExtractor.apply(item);
+    }
+
+    @Override
+    public void remove(T item) {
+        Object key = keyExtractor.apply(item);
+        if (key != null) {
+            buckets.computeIfPresent(key, (k, bucket) -> {
+                bucket.remove(item);
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+    }
+
+    @Override
+    public void clear() {
+        buckets.clear();
+    }
+
+    @Override
+    public List<T> find(Object key) {
+        Set<T> bucket = buckets.get(key);
+        return bucket == null ? List.of() : new ArrayList<>(bucket);
+    }
+
+    @Override
+    public int count(Object key) {
+        Set<T> bucket = buckets.get(key);
+        return bucket == null ? 0 : bucket.size();
+    }
+}
@@ -12,33 +12,53 @@ import java.util.stream.Collectors;
 public class InstructorRepository extends GenericRepository<Instructor> {
     private static final Logger logger = Logger.getLogger(InstructorRepository.class.getName());
 
+    public static final String INDEX_EXPERTISE = "expertise";
+    public static final String INDEX_LAST_NAME = "lastName";
+    public static final String AGGREGATE_EXPERTISE = "expertise";
+    public static final String COLUMN_EXPERTISE = "expertise";
+    public static final String COLUMN_LAST_NAME = "lastName";
+
     public InstructorRepository() {
         super(Instructor::getFullName, "Instructor");
+        registerBucketIndex(INDEX_EXPERTISE, Instructor::expertise, 1, 60);
+        registerIndex(INDEX_LAST_NAME, instructor -> instructor.lastName().toLowerCase());
+        registerAggregate(AGGREGATE_EXPERTISE, Instructor::expertise);
+        registerIntColumn(COLUMN_EXPERTISE, Instructor::expertise);
+        registerDictionaryColumn(COLUMN_LAST_NAME, Instructor::lastName);
+    }
+
+    private InstructorRepository(InstructorRepository source) {
+        super(source);
+    }
+
+    @Override
+    public InstructorRepository snapshot() {
+        return new InstructorRepository(this);
     }
 
     public List<Instructor> sortByExpertise() {
-        List<Instructor> allInstructors = getAll();
+        List<Instructor> allInstructors = snapshotList();
         allInstructors.sort(Instructor.BY_EXPERTISE);
         logger.log(Level.INFO, "Sorted Instructor by expertise level (descending)");
         return allInstructors;
     }
 
     public List<Instructor> sortByLastName() {
-        List<Instructor> allInstructors = getAll();
+        List<Instructor> allInstructors = snapshotList();
         allInstructors.sort(Instructor.BY_LAST_NAME);
         logger.log(Level.INFO, "Sorted Instructor by lastName and firstName");
         return allInstructors;
     }
 
     public List<Instructor> sortByFirstName() {
-        List<Instructor> allInstructors = getAll();
+        List<Instructor> allInstructors = snapshotList();
         allInstructors.sort(Instructor.BY_FIRST_NAME);
         logger.log(Level.INFO, "Sorted Instructor by firstName and lastName");
         return allInstructors;
     }
 
     public List<Instructor> sortByLastNameLength() {
-        List<Instructor> allInstructors = getAll();
+        List<Instructor> allInstructors = snapshotList();
         allInstructors.sort((i1, i2) -> {
             int lengthCompare = Integer.compare(i1.lastName().length(), i2.lastName().length());
             if (lengthCompare != 0) {
@@ -51,7 +71,7 @@ public class InstructorRepository extends GenericRepository<Instructor> {
     }
 
     public List<Instructor> sortByExpertiseAndName() {
-        List<Instructor> allInstructors = getAll();
+        List<Instructor> allInstructors = snapshotList();
         allInstructors.sort(
                 Comparator.comparingInt(Instructor::expertise).reversed()
                         .thenComparing(Instructor::lastName)
@@ -67,7 +87,7 @@ public class InstructorRepository extends GenericRepository<Instructor> {
             return List.of();
         }
 
-        List<Instructor> results = getAll().stream()
+        List<Instructor> results = stream()
                 .filter(instructor -> instructor.lastName().equalsIgnoreCase(lastName.trim()))
                 .collect(Collectors.toList());
 
@@ -83,7 +103,7 @@ public class InstructorRepository extends GenericRepository<Instructor> {
             return List.of();
         }
 
-        List<Instructor> results = getAll().stream()
+        List<Instructor> results = stream()
                 .filter(instructor -> instructor.expertise() >= minExpertise &&
                         instructor.expertise() <= maxExpertise)
                 .collect(Collectors.toList());
@@ -94,7 +114,7 @@ public class InstructorRepository extends GenericRepository<Instructor> {
     }
 
     public List<Instructor> findByMinExpertise(int minExpertise) {
-        List<Instructor> results = getAll().stream()
+        List<Instructor> results = stream()
                 .filter(instructor -> instructor.expertise() >= minExpertise)
                 .collect(Collectors.toList());
 
@@ -110,7 +130,7 @@ public class InstructorRepository extends GenericRepository<Instructor> {
         }
 
         String searchTerm = partialName.trim().toLowerCase();
-        List<Instructor> results = getAll().stream()
+        List<Instructor> results = stream()
                 .filter(instructor -> instructor.firstName().toLowerCase().contains(searchTerm))
                 .collect(Collectors.toList());
 
@@ -120,35 +140,28 @@ public class InstructorRepository extends GenericRepository<Instructor> {
     }
 
     public Map<String, List<Instructor>> groupByLastName() {
-        Map<String, List<Instructor>> grouped = getAll().stream()
-                .collect(Collectors.groupingBy(Instructor::lastName));
+        Map<String, List<Instructor>> grouped = groupBy(Instructor::lastName);
 
         logger.log(Level.INFO, "Grouped instructors by lastName: {0} groups", grouped.size());
         return grouped;
     }
 
     public int getTotalExpertise() {
-        int total = getAll().stream()
-                .map(Instructor::expertise)
-                .reduce(0, Integer::sum);
+        int total = (int) aggregate(AGGREGATE_EXPERTISE).sum();
 
         logger.log(Level.INFO, "Total expertise across all instructors: {0}", total);
         return total;
     }
 
     public double getAverageExpertise() {
-        double average = getAll().stream()
-                .mapToInt(Instructor::expertise)
-                .average()
-                .orElse(0.0);
+        double average = aggregate(AGGREGATE_EXPERTISE).average();
 
         logger.log(Level.INFO, "Average expertise: {0}", average);
         return average;
     }
 
     public Optional<Instructor> getInstructorWithMaxExpertise() {
-        Optional<Instructor> result = getAll().stream()
-                .max(Comparator.comparingInt(Instructor::expertise));
+        Optional<Instructor> result = findWithMaxValue(INDEX_EXPERTISE).stream().findFirst();
 
         if (result.isPresent()) {
             logger.log(Level.INFO, "Instructor with max expertise: {0} {1} ({2})",
@@ -162,28 +175,27 @@ public class InstructorRepository extends GenericRepository<Instructor> {
     }
 
     public List<Instructor> getAllInstructorsWithMaxExpertise() {
-        List<Instructor> allInstructors = getAll();
-        if (allInstructors.isEmpty()) {
+        List<Instructor> results = findWithMaxValue(INDEX_EXPERTISE);
+        if (results.isEmpty()) {
             logger.log(Level.INFO, "No instructors found");
             return List.of();
         }
-
-        int maxExpertise = allInstructors.stream()
-                .mapToInt(Instructor::expertise)
-                .max()
-                .orElse(0);
-
-        List<Instructor> results = allInstructors.stream()
-                .filter(instructor -> instructor.expertise() == maxExpertise)
-                .collect(Collectors.toList());
+        int maxExpertise = results.get(0).expertise();
 
         logger.log(Level.INFO, "Found {0} instructor(s) with max expertise: {1}",
                 new Object[]{results.size(), maxExpertise});
         return results;
     }
 
+    public List<Instructor> getTopInstructorsByExpertise(int limit) {
+        List<Instructor> results = topByIndex(INDEX_EXPERTISE, limit);
+
+        logger.log(Level.INFO, "Retrieved top {0} instructors by expertise", results.size());
+        return results;
+    }
+
     public List<String> getAllFullNames() {
-        List<String> fullNames = getAll().stream()
+        List<String> fullNames = stream()
                 .map(instructor -> instructor.firstName() + " " + instructor.lastName())
                 .collect(Collectors.toList());
 
@@ -192,7 +204,7 @@ public class InstructorRepository extends GenericRepository<Instructor> {
     }
 
     public boolean hasInstructorWithExpertise(int expertise) {
-        boolean exists = getAll().stream()
+        boolean exists = stream()
                 .anyMatch(instructor -> instructor.expertise() == expertise);
 
         logger.log(Level.INFO, "Instructors with expertise {0} exist: {1}",
@@ -201,7 +213,7 @@ public class InstructorRepository extends GenericRepository<Instructor> {
     }
 
     public boolean allInstructorsHaveMinExpertise(int minExpertise) {
-        boolean result = getAll().stream()
+        boolean result = stream()
                 .allMatch(instructor -> instructor.expertise() >= minExpertise);
 
         logger.log(Level.INFO, "All instructors have >= {0} expertise: {1}",
@@ -211,9 +223,8 @@ public class InstructorRepository extends GenericRepository<Instructor> {
 
     public void printAllInstructors() {
         logger.log(Level.INFO, "Printing all instructors:");
-        getAll().stream()
-                .forEach(instructor -> System.out.println(instructor.firstName() + " " +
-                        instructor.lastName() + " - expertise: " +
-                        instructor.expertise()));
+        forEach(instructor -> System.out.println(instructor.firstName() + " " +
+                instructor.lastName() + " - expertise: " +
+                instructor.expertise()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package ua.onlinecourses.repository;
+
+import java.util.List;
+
+interface LookupIndex<T> extends RepositoryIndex<T> {
+
+    List<T> find(Object key);
+
+    int count(Object key);
+}
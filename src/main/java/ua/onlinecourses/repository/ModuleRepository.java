@@ -12,33 +12,49 @@ import java.util.stream.Collectors;
 public class ModuleRepository extends GenericRepository<myModule> {
     private static final Logger logger = Logger.getLogger(ModuleRepository.class.getName());
 
+    public static final String INDEX_TITLE = "title";
+    public static final String INDEX_CONTENT_LENGTH = "contentLength";
+    public static final String AGGREGATE_CONTENT_LENGTH = "contentLength";
+
     public ModuleRepository() {
         super(myModule::getFullName, "Module");
+        registerIndex(INDEX_TITLE, module -> module.title().toLowerCase());
+        registerIndex(INDEX_CONTENT_LENGTH, module -> module.content().length());
+        registerAggregate(AGGREGATE_CONTENT_LENGTH, module -> module.content().length());
+    }
+
+    private ModuleRepository(ModuleRepository source) {
+        super(source);
+    }
+
+    @Override
+    public ModuleRepository snapshot() {
+        return new ModuleRepository(this);
     }
 
     public List<myModule> sortByTitle() {
-        List<myModule> allModules = getAll();
+        List<myModule> allModules = snapshotList();
         allModules.sort(myModule.BY_TITLE);
         logger.log(Level.INFO, "Sorted Module by title");
         return allModules;
     }
 
     public List<myModule> sortByContent() {
-        List<myModule> allModules = getAll();
+        List<myModule> allModules = snapshotList();
         allModules.sort(myModule.BY_CONTENT);
         logger.log(Level.INFO, "Sorted Module by content");
         return allModules;
     }
 
     public List<myModule> sortByContentLength() {
-        List<myModule> allModules = getAll();
+        List<myModule> allModules = snapshotList();
         allModules.sort(myModule.BY_CONTENT_LENGTH);
         logger.log(Level.INFO, "Sorted Module by content length");
         return allModules;
     }
 
     public List<myModule> sortByTitleLength() {
-        List<myModule> allModules = getAll();
+        List<myModule> allModules = snapshotList();
         allModules.sort((m1, m2) -> {
             int lengthCompare = Integer.compare(m1.title().length(), m2.title().length());
             return lengthCompare != 0 ? lengthCompare : m1.title().compareTo(m2.title());
@@ -48,7 +64,7 @@ public class ModuleRepository extends GenericRepository<myModule> {
     }
 
     public List<myModule> sortByTotalLength() {
-        List<myModule> allModules = getAll();
+        List<myModule> allModules = snapshotList();
         allModules.sort(
                 Comparator.comparingInt((myModule m) -> m.title().length() + m.content().length())
                         .thenComparing(myModule::title)
@@ -58,7 +74,7 @@ public class ModuleRepository extends GenericRepository<myModule> {
     }
 
     public List<myModule> sortNaturally() {
-        List<myModule> allModules = getAll();
+        List<myModule> allModules = snapshotList();
         allModules.sort(null);
         logger.log(Level.INFO, "Sorted Module using natural order (Comparable)");
         return allModules;
@@ -71,7 +87,7 @@ public class ModuleRepository extends GenericRepository<myModule> {
         }
 
         String searchTerm = partialTitle.trim().toLowerCase();
-        List<myModule> results = getAll().stream()
+        List<myModule> results = stream()
                 .filter(module -> module.title().toLowerCase().contains(searchTerm))
                 .collect(Collectors.toList());
 
@@ -87,7 +103,7 @@ public class ModuleRepository extends GenericRepository<myModule> {
         }
 
         String searchTerm = keyword.trim().toLowerCase();
-        List<myModule> results = getAll().stream()
+        List<myModule> results = stream()
                 .filter(module -> module.content().toLowerCase().contains(searchTerm))
                 .collect(Collectors.toList());
 
@@ -103,7 +119,7 @@ public class ModuleRepository extends GenericRepository<myModule> {
             return List.of();
         }
 
-        List<myModule> results = getAll().stream()
+        List<myModule> results = stream()
                 .filter(module -> module.title().length() >= minLength &&
                         module.title().length() <= maxLength)
                 .collect(Collectors.toList());
@@ -120,7 +136,7 @@ public class ModuleRepository extends GenericRepository<myModule> {
             return List.of();
         }
 
-        List<myModule> results = getAll().stream()
+        List<myModule> results = stream()
                 .filter(module -> module.content().length() >= minLength &&
                         module.content().length() <= maxLength)
                 .collect(Collectors.toList());
@@ -131,35 +147,35 @@ public class ModuleRepository extends GenericRepository<myModule> {
     }
 
     public Map<Integer, List<myModule>> groupByTitleLength() {
-        Map<Integer, List<myModule>> grouped = getAll().stream()
-                .collect(Collectors.groupingBy(module -> module.title().length()));
+        Map<Integer, List<myModule>> grouped = groupByInt(module -> module.title().length(), 3, 30);
 
         logger.log(Level.INFO, "Grouped modules by title length: {0} groups", grouped.size());
         return grouped;
     }
 
     public int getTotalContentLength() {
-        int total = getAll().stream()
-                .map(module -> module.content().length())
-                .reduce(0, Integer::sum);
+        int total = (int) aggregate(AGGREGATE_CONTENT_LENGTH).sum();
 
         logger.log(Level.INFO, "Total content length across all modules: {0}", total);
         return total;
     }
 
     public double getAverageContentLength() {
-        double average = getAll().stream()
-                .mapToInt(module -> module.content().length())
-                .average()
-                .orElse(0.0);
+        double average = aggregate(AGGREGATE_CONTENT_LENGTH).average();
 
         logger.log(Level.INFO, "Average content length: {0}", average);
         return average;
     }
 
     public Optional<myModule> getModuleWithLongestContent() {
-        Optional<myModule> result = getAll().stream()
-                .max(Comparator.comparingInt(module -> module.content().length()));
+        AggregateStats stats = aggregate(AGGREGATE_CONTENT_LENGTH);
+        Optional<myModule> result = stats.isEmpty()
+                ? Optional.empty()
+                : findByIndex(INDEX_CONTENT_LENGTH, stats.max()).stream().findFirst();
+        if (result.isEmpty() && !stats.isEmpty()) {
+            // the longest module was replaced after the statistics were published
+            result = stream().max(Comparator.comparingInt(module -> module.content().length()));
+        }
 
         if (result.isPresent()) {
             logger.log(Level.INFO, "Module with longest content: {0} ({1} chars)",
@@ -172,7 +188,7 @@ public class ModuleRepository extends GenericRepository<myModule> {
     }
 
     public List<String> getAllTitles() {
-        List<String> titles = getAll().stream()
+        List<String> titles = stream()
                 .map(myModule::title)
                 .collect(Collectors.toList());
 
@@ -181,7 +197,7 @@ public class ModuleRepository extends GenericRepository<myModule> {
     }
 
     public List<String> getAllTitlesUpperCase() {
-        List<String> titles = getAll().stream()
+        List<String> titles = stream()
                 .map(myModule::title)
                 .map(String::toUpperCase)
                 .collect(Collectors.toList());
@@ -196,7 +212,7 @@ public class ModuleRepository extends GenericRepository<myModule> {
             return false;
         }
 
-        boolean exists = getAll().stream()
+        boolean exists = stream()
                 .anyMatch(module -> module.title().equalsIgnoreCase(title.trim()));
 
         logger.log(Level.INFO, "Module with title ''{0}'' exists: {1}",
@@ -205,7 +221,7 @@ public class ModuleRepository extends GenericRepository<myModule> {
     }
 
     public boolean allModulesHaveMinContentLength(int minLength) {
-        boolean result = getAll().stream()
+        boolean result = stream()
                 .allMatch(module -> module.content().length() >= minLength);
 
         logger.log(Level.INFO, "All modules have content length >= {0}: {1}",
@@ -215,8 +231,7 @@ public class ModuleRepository extends GenericRepository<myModule> {
 
     public void printAllModules() {
         logger.log(Level.INFO, "Printing all modules:");
-        getAll().stream()
-                .forEach(module -> System.out.println(module.title() + " - " +
-                        module.content()));
+        forEach(module -> System.out.println(module.title() + " - " +
+                module.content()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package ua.onlinecourses.repository;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Count, sum and per-value histogram of an int-valued field, kept up to date by the repository
+ * on every write so statistics never need a scan. Min and max come from the histogram, so they
+ * stay correct when the current extreme is removed.
+ */
+class NumericAggregate<T> implements RepositoryIndex<T> {
+
+    private final ToIntFunction<T> valueExtractor;
+    private final TreeMap<Integer, Long> histogram = new TreeMap<>();
+    private long count;
+    private long sum;
+
+    NumericAggregate(ToIntFunction<T> valueExtractor) {
+        this.valueExtractor = valueExtractor;
+    }
+
+    @Override
+    public synchronized void add(T item) {
+        int value = valueExtractor.applyAsInt(item);
+        histogram.merge(value, 1L, Long::sum);
+        count++;
+        sum += value;
+    }
+
+    @Override
+    public void check(T item) {
+        valueExtractor.applyAsInt(item);
+    }
+
+    @Override
+    public synchronized void remove(T item) {
+        int value = valueExtractor.applyAsInt(item);
+        histogram.computeIfPresent(value, (key, occurrences) -> occurrences == 1 ? null : occurrences - 1);
+        count--;
+        sum -= value;
+    }
+
+    @Override
+    public synchronized void clear() {
+        histogram.clear();
+        count = 0;
+        sum = 0;
+    }
+
+    synchronized AggregateStats stats() {
+        if (count == 0) {
+            return AggregateStats.EMPTY;
+        }
+        return new AggregateStats(count, sum, histogram.firstKey(), histogram.lastKey());
+    }
+
+    synchronized Map<Integer, Long> histogram() {
+        return new TreeMap<>(histogram);
+    }
+}
@@ -0,0 +1,222 @@
+package ua.onlinecourses.repository;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Immutable 32-way trie of slots. Appends and slot writes copy only the path to the touched leaf
+ * (O(log32 n)), so every published root is a cheap, stable snapshot. Empty slots are {@code null}.
+ */
+final class PersistentVector<T> {
+
+    static final int BITS = 5;
+    static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final PersistentVector<?> EMPTY =
+            new PersistentVector<>(0, BITS, new Object[WIDTH], new Object[0]);
+
+    private final int count;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(int count, int shift, Object[] root, Object[] tail) {
+        this.count = count;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    int size() {
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        checkIndex(index);
+        return (T) leafFor(index)[index & MASK];
+    }
+
+    PersistentVector<T> append(T value) {
+        int tailSize = count - tailOffset();
+        if (tailSize < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tailSize + 1);
+            newTail[tailSize] = value;
+            return new PersistentVector<>(count + 1, shift, root, newTail);
+        }
+        Object[] newRoot;
+        int newShift = shift;
+        if ((count >>> BITS) > (1 << shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentVector<>(count + 1, newShift, newRoot, new Object[]{value});
+    }
+
+    PersistentVector<T> set(int index, T value) {
+        checkIndex(index);
+        if (index >= tailOffset()) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = value;
+            return new PersistentVector<>(count, shift, root, newTail);
+        }
+        return new PersistentVector<>(count, shift, assoc(shift, root, index, value), tail);
+    }
+
+    /**
+     * Returns the backing leaf array holding {@code index}; slots {@code [index & ~31, index | 31]}
+     * of the vector live in the same leaf. Callers must not modify it.
+     */
+    Object[] leafFor(int index) {
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEachPresent(int from, int to, Consumer<? super T> action) {
+        int index = from;
+        while (index < to) {
+            Object[] leaf = leafFor(index);
+            int leafEnd = Math.min(to, (index & ~MASK) + WIDTH);
+            for (; index < leafEnd; index++) {
+                Object value = leaf[index & MASK];
+                if (value != null) {
+                    action.accept((T) value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Spliterator over the present values of slots {@code [from, to)}. It reads leaves in place and
+     * splits on leaf boundaries, so traversal allocates nothing per element. Callers that know the
+     * range holds no empty slots pass {@code dense}, making it and all its splits SIZED.
+     */
+    Spliterator<T> spliterator(int from, int to, boolean dense) {
+        return new Slots(from, to, dense);
+    }
+
+    Spliterator<T> spliterator(int from, int to) {
+        return spliterator(from, to, false);
+    }
+
+    private final class Slots implements Spliterator<T> {
+        private int index;
+        private final int fence;
+        private final boolean dense;
+        private Object[] leaf;
+
+        Slots(int index, int fence, boolean dense) {
+            this.index = index;
+            this.fence = fence;
+            this.dense = dense;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (index < fence) {
+                if (leaf == null || (index & MASK) == 0) {
+                    leaf = leafFor(index);
+                }
+                Object value = leaf[index & MASK];
+                index++;
+                if (value != null) {
+                    action.accept((T) value);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            int from = index;
+            index = fence;
+            forEachPresent(from, fence, action);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int mid = ((index + fence) >>> 1) & ~MASK;
+            if (mid <= index) {
+                return null;
+            }
+            Spliterator<T> prefix = new Slots(index, mid, dense);
+            index = mid;
+            leaf = null;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return dense ? ORDERED | NONNULL | IMMUTABLE | SIZED | SUBSIZED : ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    private int tailOffset() {
+        return count < WIDTH ? 0 : ((count - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+        int subIndex = ((count - 1) >>> level) & MASK;
+        Object[] result = parent.clone();
+        Object[] inserted;
+        if (level == BITS) {
+            inserted = tailNode;
+        } else {
+            Object[] child = (Object[]) parent[subIndex];
+            inserted = child != null ? pushTail(level - BITS, child, tailNode) : newPath(level - BITS, tailNode);
+        }
+        result[subIndex] = inserted;
+        return result;
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+        Object[] result = new Object[WIDTH];
+        result[0] = newPath(level - BITS, node);
+        return result;
+    }
+
+    private static Object[] assoc(int level, Object[] node, int index, Object value) {
+        Object[] result = node.clone();
+        if (level == 0) {
+            result[index & MASK] = value;
+        } else {
+            int subIndex = (index >>> level) & MASK;
+            result[subIndex] = assoc(level - BITS, (Object[]) node[subIndex], index, value);
+        }
+        return result;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Slot " + index + " outside vector of size " + count);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ua.onlinecourses.repository;
+
+interface RepositoryIndex<T> {
+
+    void add(T item);
+
+    // Throws if add would reject the item; called before any part of the repository is modified.
+    default void check(T item) {
+    }
+
+    void remove(T item);
+
+    // Swaps an item for its new version; indexes that keep an order override this to keep the position.
+    default void replace(T existing, T replacement) {
+        add(replacement);
+        remove(existing);
+    }
+
+    void clear();
+}
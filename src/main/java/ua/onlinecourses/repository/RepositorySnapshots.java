@@ -0,0 +1,29 @@
+package ua.onlinecourses.repository;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+public final class RepositorySnapshots {
+
+    // Publishing a new storage version takes the shared side, so any number of repositories commit
+    // concurrently; a multi-repository capture takes the exclusive side for the few reads it needs.
+    private static final ReentrantReadWriteLock COMMITS = new ReentrantReadWriteLock();
+
+    private RepositorySnapshots() {
+    }
+
+    static Lock commitLock() {
+        return COMMITS.readLock();
+    }
+
+    public static <S> S capture(Supplier<S> capture) {
+        Lock lock = COMMITS.writeLock();
+        lock.lock();
+        try {
+            return capture.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ua.onlinecourses.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.StreamSupport;
+
+/**
+ * Counts matching elements of a storage vector four ways: copying into a list and splitting that
+ * (what getAll().parallelStream() does), a parallel stream over the storage spliterator, the
+ * fork/join segmented scan and a plain sequential walk. Sizes are element counts; 50M elements
+ * need a heap of about 3 GB.
+ */
+public class ScanBenchmark {
+    private static final Logger logger = Logger.getLogger(ScanBenchmark.class.getName());
+
+    private static final int[] DEFAULT_SIZES = {1_000_000, 5_000_000, 10_000_000, 50_000_000};
+    private static final int DEFAULT_ROUNDS = 5;
+
+    public static void runBenchmark(int[] sizes, int rounds) {
+        List<BenchmarkResult> results = new ArrayList<>();
+        for (int size : sizes) {
+            PersistentVector<Integer> items = createItems(size);
+            long expected = countSequential(items);
+            results.add(measure(size, "copy + parallelStream", rounds, expected, () -> countCopied(items)));
+            results.add(measure(size, "storage parallelStream", rounds, expected, () -> countStreamed(items)));
+            results.add(measure(size, "segmented fork/join", rounds, expected, () -> countSegmented(items)));
+            results.add(measure(size, "sequential", rounds, expected, () -> countSequential(items)));
+        }
+
+        logger.log(Level.INFO, "=== Scan Benchmark Results ({0} rounds, {1} cores) ===",
+                new Object[]{rounds, Runtime.getRuntime().availableProcessors()});
+        for (BenchmarkResult result : results) {
+            logger.log(Level.INFO, "{0}", result);
+        }
+    }
+
+    private static BenchmarkResult measure(int size, String approach, int rounds, long expected, LongSupplier count) {
+        count.getAsLong();
+        long[] nanos = new long[rounds];
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            long result = count.getAsLong();
+            nanos[round] = System.nanoTime() - start;
+            if (result != expected) {
+                throw new IllegalStateException(approach + " counted " + result + ", expected " + expected);
+            }
+        }
+        Arrays.sort(nanos);
+        return new BenchmarkResult(size, approach, nanos[rounds / 2] / 1_000_000.0, nanos[0] / 1_000_000.0);
+    }
+
+    private static PersistentVector<Integer> createItems(int size) {
+        PersistentVector<Integer> items = PersistentVector.empty();
+        for (int i = 0; i < size; i++) {
+            items = items.append(i);
+        }
+        return items;
+    }
+
+    private static boolean matches(Integer value) {
+        return (value & 3) != 0;
+    }
+
+    private static long countCopied(PersistentVector<Integer> items) {
+        List<Integer> copy = new ArrayList<>(items.size());
+        items.forEachPresent(0, items.size(), copy::add);
+        return copy.parallelStream().filter(ScanBenchmark::matches).count();
+    }
+
+    private static long countStreamed(PersistentVector<Integer> items) {
+        return StreamSupport.stream(items.spliterator(0, items.size(), true), true)
+                .filter(ScanBenchmark::matches).count();
+    }
+
+    private static long countSegmented(PersistentVector<Integer> items) {
+        return SegmentedScan.scan(items, () -> new long[1], (count, value) -> {
+            if (matches(value)) {
+                count[0]++;
+            }
+        }, (left, right) -> {
+            left[0] += right[0];
+            return left;
+        })[0];
+    }
+
+    private static long countSequential(PersistentVector<Integer> items) {
+        long[] count = new long[1];
+        items.forEachPresent(0, items.size(), value -> {
+            if (matches(value)) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    public record BenchmarkResult(int size, String approach, double medianMillis, double bestMillis) {
+        @Override
+        public String toString() {
+            return String.format("BenchmarkResult{size=%d, approach=%s, median=%.1fms, best=%.1fms}",
+                    size, approach, medianMillis, bestMillis);
+        }
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0
+                ? Arrays.stream(args[0].split(",")).mapToInt(size -> Integer.parseInt(size.trim())).toArray()
+                : DEFAULT_SIZES;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+        runBenchmark(sizes, rounds);
+    }
+}
@@ -0,0 +1,77 @@
+package ua.onlinecourses.repository;
+
+import ua.onlinecourses.concurrent.TaskScope;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Fork/join scan over the slots of one published vector. Tasks halve their slot range on leaf
+ * boundaries until a segment is small enough, so splitting starts straight from the trie with no
+ * up-front copy. Each segment fills its own container and containers are combined left to right,
+ * keeping encounter order. Segments check the caller's {@link TaskScope} before they start.
+ */
+final class SegmentedScan<T, A> extends RecursiveTask<A> {
+
+    static final int MIN_SEGMENT_SLOTS = 4_096;
+    private static final int SEGMENTS_PER_WORKER = 8;
+
+    private final PersistentVector<T> items;
+    private final int from;
+    private final int to;
+    private final int segmentSlots;
+    private final Supplier<A> supplier;
+    private final BiConsumer<A, ? super T> accumulator;
+    private final BinaryOperator<A> combiner;
+    private final TaskScope scope;
+
+    private SegmentedScan(PersistentVector<T> items, int from, int to, int segmentSlots, Supplier<A> supplier,
+                          BiConsumer<A, ? super T> accumulator, BinaryOperator<A> combiner, TaskScope scope) {
+        this.items = items;
+        this.from = from;
+        this.to = to;
+        this.segmentSlots = segmentSlots;
+        this.supplier = supplier;
+        this.accumulator = accumulator;
+        this.combiner = combiner;
+        this.scope = scope;
+    }
+
+    static <T, A> A scan(PersistentVector<T> items, Supplier<A> supplier, BiConsumer<A, ? super T> accumulator,
+                         BinaryOperator<A> combiner) {
+        int size = items.size();
+        int segmentSlots = segmentSlots(size, ForkJoinPool.getCommonPoolParallelism());
+        SegmentedScan<T, A> task = new SegmentedScan<>(items, 0, size, segmentSlots, supplier, accumulator,
+                combiner, TaskScope.current());
+        return size <= segmentSlots ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+    }
+
+    // Enough segments per worker to even out skew, never so small that forking outweighs the scan.
+    static int segmentSlots(int size, int parallelism) {
+        long perSegment = (long) size / ((long) Math.max(parallelism, 1) * SEGMENTS_PER_WORKER);
+        int slots = (int) Math.max(MIN_SEGMENT_SLOTS, Math.min(perSegment, Integer.MAX_VALUE / 2));
+        return (slots + PersistentVector.WIDTH - 1) & -PersistentVector.WIDTH;
+    }
+
+    @Override
+    protected A compute() {
+        if (to - from <= segmentSlots) {
+            if (scope != null) {
+                scope.throwIfCancelled();
+            }
+            A container = supplier.get();
+            items.forEachPresent(from, to, item -> accumulator.accept(container, item));
+            return container;
+        }
+        int mid = ((from + to) >>> 1) & -PersistentVector.WIDTH;
+        SegmentedScan<T, A> right = new SegmentedScan<>(items, mid, to, segmentSlots, supplier, accumulator,
+                combiner, scope);
+        right.fork();
+        A left = new SegmentedScan<>(items, from, mid, segmentSlots, supplier, accumulator, combiner, scope)
+                .compute();
+        return combiner.apply(left, right.join());
+    }
+}
@@ -13,47 +13,72 @@ import java.util.stream.Collectors;
 public class StudentRepository extends GenericRepository<Student> {
     private static final Logger logger = Logger.getLogger(StudentRepository.class.getName());
 
+    public static final String INDEX_EMAIL_DOMAIN = "emailDomain";
+    public static final String INDEX_LAST_NAME = "lastName";
+    public static final String COLUMN_ENROLLMENT_DATE = "enrollmentDate";
+    public static final String COLUMN_LAST_NAME = "lastName";
+    public static final String COLUMN_EMAIL_DOMAIN = "emailDomain";
+
     public StudentRepository() {
         super(Student::email, "Student");
+        registerIndex(INDEX_EMAIL_DOMAIN, student -> emailDomainKey(student.email()));
+        registerIndex(INDEX_LAST_NAME, student -> student.lastName().toLowerCase());
+        registerIntColumn(COLUMN_ENROLLMENT_DATE, student -> (int) student.enrollmentDate().toEpochDay());
+        registerDictionaryColumn(COLUMN_LAST_NAME, Student::lastName);
+        registerDictionaryColumn(COLUMN_EMAIL_DOMAIN, student -> emailDomainKey(student.email()));
+    }
+
+    private StudentRepository(StudentRepository source) {
+        super(source);
+    }
+
+    @Override
+    public StudentRepository snapshot() {
+        return new StudentRepository(this);
+    }
+
+    public static String emailDomainKey(String email) {
+        int at = email.lastIndexOf('@');
+        return at < 0 ? null : email.substring(at + 1).toLowerCase();
     }
 
     public List<Student> sortByName() {
-        List<Student> allStudents = getAll();
+        List<Student> allStudents = snapshotList();
         allStudents.sort(Student.BY_NAME);
         logger.log(Level.INFO, "Sorted Student by lastName, firstName, and email (ascending)");
         return allStudents;
     }
 
     public List<Student> sortByNameDesc() {
-        List<Student> allStudents = getAll();
+        List<Student> allStudents = snapshotList();
         allStudents.sort(Student.BY_NAME_DESC);
         logger.log(Level.INFO, "Sorted Student by lastName (desc), firstName, and email");
         return allStudents;
     }
 
     public List<Student> sortByEnrollmentDate() {
-        List<Student> allStudents = getAll();
+        List<Student> allStudents = snapshotList();
         allStudents.sort(Student.BY_ENROLLMENT_DATE);
         logger.log(Level.INFO, "Sorted Student by enrollment date");
         return allStudents;
     }
 
     public List<Student> sortByEnrollmentDateDesc() {
-        List<Student> allStudents = getAll();
+        List<Student> allStudents = snapshotList();
         allStudents.sort(Student.BY_ENROLLMENT_DATE.reversed());
         logger.log(Level.INFO, "Sorted Student by enrollment date (descending)");
         return allStudents;
     }
 
     public List<Student> sortByEmailLength() {
-        List<Student> allStudents = getAll();
+        List<Student> allStudents = snapshotList();
         allStudents.sort((s1, s2) -> Integer.compare(s1.email().length(), s2.email().length()));
         logger.log(Level.INFO, "Sorted Student by email length using lambda");
         return allStudents;
     }
 
     public List<Student> sortByFirstName() {
-        List<Student> allStudents = getAll();
+        List<Student> allStudents = snapshotList();
         allStudents.sort(Comparator.comparing(Student::firstName));
         logger.log(Level.INFO, "Sorted Student by firstName using method reference");
         return allStudents;
@@ -66,7 +91,7 @@ public class StudentRepository extends GenericRepository<Student> {
         }
 
         String searchTerm = partialName.trim().toLowerCase();
-        List<Student> results = getAll().stream()
+        List<Student> results = stream()
                 .filter(student -> student.lastName().toLowerCase().contains(searchTerm))
                 .collect(Collectors.toList());
 
@@ -81,7 +106,7 @@ public class StudentRepository extends GenericRepository<Student> {
             return List.of();
         }
 
-        List<Student> results = getAll().stream()
+        List<Student> results = stream()
                 .filter(student -> student.firstName().equalsIgnoreCase(firstName.trim()))
                 .collect(Collectors.toList());
 
@@ -97,7 +122,7 @@ public class StudentRepository extends GenericRepository<Student> {
             return List.of();
         }
 
-        List<Student> results = getAll().stream()
+        List<Student> results = stream()
                 .filter(student -> !student.enrollmentDate().isBefore(startDate) &&
                         !student.enrollmentDate().isAfter(endDate))
                 .collect(Collectors.toList());
@@ -114,7 +139,7 @@ public class StudentRepository extends GenericRepository<Student> {
         }
 
         String searchDomain = domain.trim().toLowerCase();
-        List<Student> results = getAll().stream()
+        List<Student> results = stream()
                 .filter(student -> student.email().toLowerCase().endsWith("@" + searchDomain))
                 .collect(Collectors.toList());
 
@@ -124,26 +149,21 @@ public class StudentRepository extends GenericRepository<Student> {
     }
 
     public Map<String, List<Student>> groupByLastName() {
-        Map<String, List<Student>> grouped = getAll().stream()
-                .collect(Collectors.groupingBy(Student::lastName));
+        Map<String, List<Student>> grouped = groupBy(Student::lastName);
 
         logger.log(Level.INFO, "Grouped students by lastName: {0} groups", grouped.size());
         return grouped;
     }
 
     public Map<LocalDate, Long> countByEnrollmentDate() {
-        Map<LocalDate, Long> counts = getAll().stream()
-                .collect(Collectors.groupingBy(
-                        Student::enrollmentDate,
-                        Collectors.counting()
-                ));
+        Map<LocalDate, Long> counts = countBy(Student::enrollmentDate);
 
         logger.log(Level.INFO, "Student counts by enrollment date: {0}", counts);
         return counts;
     }
 
     public List<String> getAllEmails() {
-        List<String> emails = getAll().stream()
+        List<String> emails = stream()
                 .map(Student::email)
                 .collect(Collectors.toList());
 
@@ -152,7 +172,7 @@ public class StudentRepository extends GenericRepository<Student> {
     }
 
     public List<String> getAllFullNames() {
-        List<String> fullNames = getAll().stream()
+        List<String> fullNames = stream()
                 .map(student -> student.firstName() + " " + student.lastName())
                 .collect(Collectors.toList());
 
@@ -161,7 +181,7 @@ public class StudentRepository extends GenericRepository<Student> {
     }
 
     public Optional<Student> findOldestStudent() {
-        Optional<Student> oldest = getAll().stream()
+        Optional<Student> oldest = stream()
                 .min(Comparator.comparing(Student::enrollmentDate));
 
         if (oldest.isPresent()) {
@@ -176,7 +196,7 @@ public class StudentRepository extends GenericRepository<Student> {
     }
 
     public Optional<Student> findNewestStudent() {
-        Optional<Student> newest = getAll().stream()
+        Optional<Student> newest = stream()
                 .max(Comparator.comparing(Student::enrollmentDate));
 
         if (newest.isPresent()) {
@@ -196,7 +216,7 @@ public class StudentRepository extends GenericRepository<Student> {
             return 0;
         }
 
-        long count = getAll().stream()
+        long count = stream()
                 .filter(student -> student.lastName().equalsIgnoreCase(lastName.trim()))
                 .count();
 
@@ -211,7 +231,7 @@ public class StudentRepository extends GenericRepository<Student> {
             return false;
         }
 
-        boolean exists = getAll().stream()
+        boolean exists = stream()
                 .anyMatch(student -> student.email().equalsIgnoreCase(email.trim()));
 
         logger.log(Level.INFO, "Student with email ''{0}'' exists: {1}",
@@ -225,7 +245,7 @@ public class StudentRepository extends GenericRepository<Student> {
             return false;
         }
 
-        boolean result = getAll().stream()
+        boolean result = stream()
                 .allMatch(student -> student.enrollmentDate().isAfter(date));
 
         logger.log(Level.INFO, "All students enrolled after {0}: {1}",
@@ -235,9 +255,8 @@ public class StudentRepository extends GenericRepository<Student> {
 
     public void printAllStudents() {
         logger.log(Level.INFO, "Printing all students:");
-        getAll().stream()
-                .forEach(student -> System.out.println(student.firstName() + " " +
-                        student.lastName() + " - " +
-                        student.email()));
+        forEach(student -> System.out.println(student.firstName() + " " +
+                student.lastName() + " - " +
+                student.email()));
     }
 }
\ No newline at end of file
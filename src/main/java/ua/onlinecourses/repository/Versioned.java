@@ -0,0 +1,4 @@
+package ua.onlinecourses.repository;
+
+public record Versioned<T>(T value, long version) {
+}
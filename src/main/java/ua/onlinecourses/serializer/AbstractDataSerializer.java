@@ -1,7 +1,6 @@
 package ua.onlinecourses.serializer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.JavaType;
 import ua.onlinecourses.exception.DataSerializationException;
 
 import java.io.File;
@@ -15,9 +14,15 @@ public abstract class AbstractDataSerializer<T> implements DataSerializer<T> {
 
     private static final Logger logger = Logger.getLogger(AbstractDataSerializer.class.getName());
     protected final ObjectMapper objectMapper;
+    protected final CodecRegistry codecs;
 
     protected AbstractDataSerializer(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+        this(new CodecRegistry(objectMapper));
+    }
+
+    protected AbstractDataSerializer(CodecRegistry codecs) {
+        this.codecs = codecs;
+        this.objectMapper = codecs.mapper();
     }
 
     @Override
@@ -29,7 +34,7 @@ public abstract class AbstractDataSerializer<T> implements DataSerializer<T> {
             File file = new File(filePath);
             createParentDirectories(file);
 
-            objectMapper.writeValue(file, items);
+            codecs.writer().writeValue(file, items);
             logger.log(Level.INFO, "Successfully serialized {0} items to {1} file: {2}",
                     new Object[]{items.size(), getFormat(), filePath});
 
@@ -58,8 +63,7 @@ public abstract class AbstractDataSerializer<T> implements DataSerializer<T> {
                 return new ArrayList<>();
             }
 
-            JavaType type = objectMapper.getTypeFactory().constructCollectionType(List.class, clazz);
-            List<T> items = objectMapper.readValue(file, type);
+            List<T> items = codecs.listReader(clazz).readValue(file);
 
             if (items == null) {
                 items = new ArrayList<>();
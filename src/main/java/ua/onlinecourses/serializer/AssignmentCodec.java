@@ -0,0 +1,108 @@
+package ua.onlinecourses.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ua.onlinecourses.model.Assignment;
+import ua.onlinecourses.model.Mark;
+import ua.onlinecourses.model.myModule;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+public final class AssignmentCodec {
+
+    private AssignmentCodec() {
+    }
+
+    public static final class Serializer extends StdSerializer<Assignment> {
+
+        private final ModuleCodec.Serializer moduleSerializer = new ModuleCodec.Serializer();
+
+        public Serializer() {
+            super(Assignment.class);
+        }
+
+        @Override
+        public void serialize(Assignment assignment, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(assignment);
+            generator.writeFieldName("module");
+            if (assignment.module() == null) {
+                generator.writeNull();
+            } else {
+                moduleSerializer.serialize(assignment.module(), generator, provider);
+            }
+            CodecSupport.writeDate(generator, "dueDate", assignment.dueDate());
+            generator.writeNumberField("maxPoints", assignment.maxPoints());
+            if (assignment.mark() == null) {
+                generator.writeNullField("mark");
+            } else {
+                generator.writeStringField("mark", assignment.mark().name());
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    public static final class Deserializer extends StdDeserializer<Assignment> {
+
+        private final boolean trusted;
+        private final ModuleCodec.Deserializer moduleDeserializer;
+
+        public Deserializer(boolean trusted) {
+            super(Assignment.class);
+            this.trusted = trusted;
+            this.moduleDeserializer = new ModuleCodec.Deserializer(trusted);
+        }
+
+        @Override
+        public Assignment deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return CodecSupport.read(trusted, () -> read(parser, context));
+        }
+
+        private Assignment read(JsonParser parser, DeserializationContext context) throws IOException {
+            myModule module = null;
+            LocalDate dueDate = null;
+            int maxPoints = 0;
+            Mark mark = null;
+
+            for (JsonToken token = CodecSupport.firstField(parser, context, Assignment.class);
+                 token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "module" -> module = value == JsonToken.VALUE_NULL
+                            ? null : moduleDeserializer.deserialize(parser, context);
+                    case "dueDate" -> dueDate = CodecSupport.readDate(parser, context);
+                    case "maxPoints" -> maxPoints = parser.getValueAsInt();
+                    case "mark" -> mark = readMark(parser, context);
+                    default -> context.handleUnknownProperty(parser, this, Assignment.class, field);
+                }
+            }
+
+            if (trusted) {
+                // ranges mirror the constraints on Assignment
+                CodecSupport.requirePresent(module, "module");
+                CodecSupport.requirePresent(dueDate, "dueDate");
+                CodecSupport.requireRange(maxPoints, 1, 100, "maxPoints");
+            }
+            return new Assignment(module, dueDate, maxPoints, mark);
+        }
+
+        private static Mark readMark(JsonParser parser, DeserializationContext context) throws IOException {
+            String text = parser.getValueAsString();
+            if (text == null) {
+                return null;
+            }
+            try {
+                return Mark.valueOf(text.trim());
+            } catch (IllegalArgumentException e) {
+                throw context.weirdStringException(text, Mark.class, "not one of the declared marks");
+            }
+        }
+    }
+}
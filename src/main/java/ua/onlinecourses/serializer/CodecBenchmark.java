@@ -0,0 +1,124 @@
+package ua.onlinecourses.serializer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import ua.onlinecourses.model.Assignment;
+import ua.onlinecourses.model.Mark;
+import ua.onlinecourses.model.Student;
+import ua.onlinecourses.model.myModule;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class CodecBenchmark {
+    private static final Logger logger = Logger.getLogger(CodecBenchmark.class.getName());
+
+    private static final int DEFAULT_ITEMS = 2000;
+    private static final int DEFAULT_ROUNDS = 20;
+
+    public static void runBenchmark(int items, int rounds) throws Exception {
+        Logger.getLogger("ua.onlinecourses").setLevel(Level.WARNING);
+        List<Student> students = createStudents(items);
+        List<Assignment> assignments = createAssignments(items);
+
+        List<BenchmarkResult> results = new ArrayList<>();
+        for (boolean yaml : new boolean[]{false, true}) {
+            ObjectMapper reflective = reflectiveMapper(yaml);
+            CodecRegistry custom = yaml ? CodecRegistry.yamlFiles() : CodecRegistry.jsonFiles();
+            String format = yaml ? "YAML" : "JSON";
+            results.add(measure(format, "reflective", Student.class, students, reflective, rounds));
+            results.add(measure(format, "custom", Student.class, students, custom.mapper(), rounds));
+            results.add(measure(format, "reflective", Assignment.class, assignments, reflective, rounds));
+            results.add(measure(format, "custom", Assignment.class, assignments, custom.mapper(), rounds));
+        }
+
+        Logger.getLogger("ua.onlinecourses").setLevel(Level.INFO);
+        logger.log(Level.INFO, "=== Codec Benchmark Results ({0} items x {1} rounds) ===", new Object[]{items, rounds});
+        for (BenchmarkResult result : results) {
+            logger.log(Level.INFO, "{0}", result);
+        }
+    }
+
+    private static <T> BenchmarkResult measure(String format, String path, Class<T> type, List<T> data,
+                                               ObjectMapper mapper, int rounds) throws Exception {
+        ObjectWriter writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, type));
+        ObjectReader reader = mapper.readerFor(mapper.getTypeFactory().constructCollectionType(List.class, type));
+
+        byte[] encoded = writer.writeValueAsBytes(data);
+        reader.readValue(encoded);
+
+        long writeNanos = 0;
+        long readNanos = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            encoded = writer.writeValueAsBytes(data);
+            writeNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<T> decoded = reader.readValue(encoded);
+            readNanos += System.nanoTime() - start;
+            if (decoded.size() != data.size()) {
+                throw new IllegalStateException("Round trip lost items: " + decoded.size());
+            }
+        }
+        return new BenchmarkResult(format, path, type.getSimpleName(), encoded.length,
+                writeNanos / rounds / 1000, readNanos / rounds / 1000);
+    }
+
+    private static ObjectMapper reflectiveMapper(boolean yaml) {
+        ObjectMapper mapper = yaml
+                ? new ObjectMapper(new YAMLFactory()
+                        .disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER)
+                        .enable(YAMLGenerator.Feature.MINIMIZE_QUOTES))
+                : new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return mapper;
+    }
+
+    private static List<Student> createStudents(int count) {
+        LocalDate enrolled = LocalDate.now().minusMonths(6);
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(new Student("Student" + i, "Benchmark" + i, "bench." + i + "@test.com", enrolled));
+        }
+        return students;
+    }
+
+    private static List<Assignment> createAssignments(int count) {
+        LocalDate due = LocalDate.now().plusMonths(2);
+        Mark[] marks = Mark.values();
+        List<Assignment> assignments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            myModule module = new myModule("Module " + i, "Content of benchmark module " + i);
+            assignments.add(new Assignment(module, due, 1 + i % 100, marks[i % marks.length]));
+        }
+        return assignments;
+    }
+
+    public record BenchmarkResult(String format, String path, String type, int bytes,
+                                  long writeMicros, long readMicros) {
+        @Override
+        public String toString() {
+            return String.format("BenchmarkResult{format=%s, path=%s, type=%s, bytes=%d, write=%dus, read=%dus}",
+                    format, path, type, bytes, writeMicros, readMicros);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ITEMS;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+        runBenchmark(items, rounds);
+    }
+}
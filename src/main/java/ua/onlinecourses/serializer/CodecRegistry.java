@@ -0,0 +1,137 @@
+package ua.onlinecourses.serializer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import ua.onlinecourses.config.AppConfig;
+import ua.onlinecourses.config.ConfigKeys;
+import ua.onlinecourses.model.Assignment;
+import ua.onlinecourses.model.Course;
+import ua.onlinecourses.model.Instructor;
+import ua.onlinecourses.model.Student;
+import ua.onlinecourses.model.myModule;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class CodecRegistry {
+
+    private static final Logger logger = Logger.getLogger(CodecRegistry.class.getName());
+
+    private static final List<Class<?>> ENTITY_TYPES =
+            List.of(Student.class, Course.class, Instructor.class, myModule.class, Assignment.class);
+    private static final boolean BLACKBIRD_ENABLED =
+            new AppConfig().getBooleanProperty(ConfigKeys.CODEC_BLACKBIRD_ENABLED, false);
+
+    private static final CodecRegistry HTTP = new CodecRegistry(createHttpMapper()).registerEntityTypes();
+    private static final CodecRegistry JSON_FILES = new CodecRegistry(createJsonFileMapper()).registerEntityTypes();
+    private static final CodecRegistry YAML_FILES = new CodecRegistry(createYamlFileMapper()).registerEntityTypes();
+
+    private final ObjectMapper mapper;
+    private final ObjectWriter prettyWriter;
+    private final ObjectWriter compactWriter;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectReader> listReaders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> listWriters = new ConcurrentHashMap<>();
+
+    public CodecRegistry(ObjectMapper mapper) {
+        this.mapper = mapper;
+        this.prettyWriter = mapper.writer().with(SerializationFeature.INDENT_OUTPUT);
+        this.compactWriter = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    public static CodecRegistry http() {
+        return HTTP;
+    }
+
+    public static CodecRegistry jsonFiles() {
+        return JSON_FILES;
+    }
+
+    public static CodecRegistry yamlFiles() {
+        return YAML_FILES;
+    }
+
+    public ObjectMapper mapper() {
+        return mapper;
+    }
+
+    public ObjectWriter writer() {
+        return mapper.isEnabled(SerializationFeature.INDENT_OUTPUT) ? prettyWriter : compactWriter;
+    }
+
+    public ObjectWriter prettyWriter() {
+        return prettyWriter;
+    }
+
+    public ObjectWriter compactWriter() {
+        return compactWriter;
+    }
+
+    public ObjectReader reader(Class<?> type) {
+        return readers.computeIfAbsent(type, mapper::readerFor);
+    }
+
+    public ObjectReader listReader(Class<?> elementType) {
+        return listReaders.computeIfAbsent(elementType, type -> mapper.readerFor(listType(type)));
+    }
+
+    public ObjectWriter listWriter(Class<?> elementType) {
+        return listWriters.computeIfAbsent(elementType, type -> writer().forType(listType(type)));
+    }
+
+    private JavaType listType(Class<?> elementType) {
+        return mapper.getTypeFactory().constructCollectionType(List.class, elementType);
+    }
+
+    private CodecRegistry registerEntityTypes() {
+        for (Class<?> type : ENTITY_TYPES) {
+            reader(type);
+            listReader(type);
+            listWriter(type);
+        }
+        logger.log(Level.FINE, "Prepared codecs for {0} entity types", ENTITY_TYPES.size());
+        return this;
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper, boolean trustedModels) {
+        mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new ModelCodecModule(trustedModels));
+        if (BLACKBIRD_ENABLED) {
+            mapper.registerModule(new BlackbirdModule());
+        }
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        return mapper;
+    }
+
+    private static ObjectMapper createHttpMapper() {
+        ObjectMapper mapper = configure(new ObjectMapper(), false);
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+
+    private static ObjectMapper createJsonFileMapper() {
+        ObjectMapper mapper = configure(new ObjectMapper(), true);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return mapper;
+    }
+
+    private static ObjectMapper createYamlFileMapper() {
+        YAMLFactory yamlFactory = new YAMLFactory()
+                .disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER)
+                .enable(YAMLGenerator.Feature.MINIMIZE_QUOTES);
+        ObjectMapper mapper = configure(new ObjectMapper(yamlFactory), true);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return mapper;
+    }
+}
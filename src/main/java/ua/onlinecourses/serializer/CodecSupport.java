@@ -0,0 +1,116 @@
+package ua.onlinecourses.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import ua.onlinecourses.exception.InvalidDataException;
+import ua.onlinecourses.util.ValidationUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+final class CodecSupport {
+
+    private CodecSupport() {
+    }
+
+    @FunctionalInterface
+    interface EntityReader<T> {
+        T read() throws IOException;
+    }
+
+    static JsonToken firstField(JsonParser parser, DeserializationContext context, Class<?> type) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        }
+        if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            context.handleUnexpectedToken(type, parser);
+        }
+        return token;
+    }
+
+    static void writeDate(JsonGenerator generator, String field, LocalDate date) throws IOException {
+        if (date == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeStringField(field, date.toString());
+        }
+    }
+
+    static LocalDate readDate(JsonParser parser, DeserializationContext context) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NULL -> {
+                return null;
+            }
+            case VALUE_STRING -> {
+                String text = parser.getText().trim();
+                try {
+                    return LocalDate.parse(text);
+                } catch (DateTimeParseException e) {
+                    throw JsonMappingException.from(parser, "Invalid ISO date: " + text, e);
+                }
+            }
+            case VALUE_NUMBER_INT -> {
+                return LocalDate.ofEpochDay(parser.getLongValue());
+            }
+            case START_ARRAY -> {
+                int year = nextInt(parser, context);
+                int month = nextInt(parser, context);
+                int day = nextInt(parser, context);
+                if (parser.nextToken() != JsonToken.END_ARRAY) {
+                    context.handleUnexpectedToken(LocalDate.class, parser);
+                }
+                return LocalDate.of(year, month, day);
+            }
+            default -> {
+                return (LocalDate) context.handleUnexpectedToken(LocalDate.class, parser);
+            }
+        }
+    }
+
+    static <T> T read(boolean trusted, EntityReader<T> reader) throws IOException {
+        if (!trusted) {
+            return reader.read();
+        }
+        try {
+            return ValidationUtils.constructTrusted(() -> {
+                try {
+                    return reader.read();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Trusted reads skip Bean Validation, but the fields repository identities, indexes and columns
+    // are derived from are still checked, so a bad file fails here instead of inside the repository.
+    static <T> T requirePresent(T value, String field) {
+        if (value == null) {
+            throw new InvalidDataException(field + ": invalid value 'null' — cannot be null");
+        }
+        return value;
+    }
+
+    static int requireRange(int value, int min, int max, String field) {
+        if (value < min || value > max) {
+            throw new InvalidDataException(String.format("%s: invalid value '%d' — must be between %d and %d",
+                    field, value, min, max));
+        }
+        return value;
+    }
+
+    private static int nextInt(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.nextToken() != JsonToken.VALUE_NUMBER_INT) {
+            context.handleUnexpectedToken(int.class, parser);
+        }
+        return parser.getIntValue();
+    }
+}
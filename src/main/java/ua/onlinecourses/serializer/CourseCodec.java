@@ -0,0 +1,79 @@
+package ua.onlinecourses.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ua.onlinecourses.model.Course;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+public final class CourseCodec {
+
+    private CourseCodec() {
+    }
+
+    public static final class Serializer extends StdSerializer<Course> {
+
+        public Serializer() {
+            super(Course.class);
+        }
+
+        @Override
+        public void serialize(Course course, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(course);
+            generator.writeStringField("title", course.title());
+            generator.writeStringField("description", course.description());
+            generator.writeNumberField("credits", course.credits());
+            CodecSupport.writeDate(generator, "startDate", course.startDate());
+            generator.writeEndObject();
+        }
+    }
+
+    public static final class Deserializer extends StdDeserializer<Course> {
+
+        private final boolean trusted;
+
+        public Deserializer(boolean trusted) {
+            super(Course.class);
+            this.trusted = trusted;
+        }
+
+        @Override
+        public Course deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return CodecSupport.read(trusted, () -> read(parser, context));
+        }
+
+        private Course read(JsonParser parser, DeserializationContext context) throws IOException {
+            String title = null;
+            String description = null;
+            int credits = 0;
+            LocalDate startDate = null;
+
+            for (JsonToken token = CodecSupport.firstField(parser, context, Course.class);
+                 token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "title" -> title = parser.getValueAsString();
+                    case "description" -> description = parser.getValueAsString();
+                    case "credits" -> credits = parser.getValueAsInt();
+                    case "startDate" -> startDate = CodecSupport.readDate(parser, context);
+                    default -> context.handleUnknownProperty(parser, this, Course.class, field);
+                }
+            }
+
+            if (trusted) {
+                CodecSupport.requirePresent(title, "title");
+                CodecSupport.requirePresent(description, "description");
+                CodecSupport.requireRange(credits, 1, 5, "credits");
+                CodecSupport.requirePresent(startDate, "startDate");
+            }
+            return new Course(title, description, credits, startDate);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ua.onlinecourses.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ua.onlinecourses.model.Instructor;
+
+import java.io.IOException;
+
+public final class InstructorCodec {
+
+    private InstructorCodec() {
+    }
+
+    public static final class Serializer extends StdSerializer<Instructor> {
+
+        public Serializer() {
+            super(Instructor.class);
+        }
+
+        @Override
+        public void serialize(Instructor instructor, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(instructor);
+            generator.writeStringField("firstName", instructor.firstName());
+            generator.writeStringField("lastName", instructor.lastName());
+            generator.writeNumberField("expertise", instructor.expertise());
+            generator.writeEndObject();
+        }
+    }
+
+    public static final class Deserializer extends StdDeserializer<Instructor> {
+
+        private final boolean trusted;
+
+        public Deserializer(boolean trusted) {
+            super(Instructor.class);
+            this.trusted = trusted;
+        }
+
+        @Override
+        public Instructor deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return CodecSupport.read(trusted, () -> read(parser, context));
+        }
+
+        private Instructor read(JsonParser parser, DeserializationContext context) throws IOException {
+            String firstName = null;
+            String lastName = null;
+            int expertise = 0;
+
+            for (JsonToken token = CodecSupport.firstField(parser, context, Instructor.class);
+                 token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "firstName" -> firstName = parser.getValueAsString();
+                    case "lastName" -> lastName = parser.getValueAsString();
+                    case "expertise" -> expertise = parser.getValueAsInt();
+                    default -> context.handleUnknownProperty(parser, this, Instructor.class, field);
+                }
+            }
+
+            if (trusted) {
+                CodecSupport.requirePresent(firstName, "firstName");
+                CodecSupport.requirePresent(lastName, "lastName");
+                CodecSupport.requireRange(expertise, 1, 60, "expertise");
+            }
+            return new Instructor(firstName, lastName, expertise);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ua.onlinecourses.serializer;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import ua.onlinecourses.model.Assignment;
+import ua.onlinecourses.model.Course;
+import ua.onlinecourses.model.Instructor;
+import ua.onlinecourses.model.Student;
+import ua.onlinecourses.model.myModule;
+
+public class ModelCodecModule extends SimpleModule {
+
+    public ModelCodecModule(boolean trusted) {
+        super("ModelCodecModule");
+        addSerializer(Student.class, new StudentCodec.Serializer());
+        addSerializer(Course.class, new CourseCodec.Serializer());
+        addSerializer(Instructor.class, new InstructorCodec.Serializer());
+        addSerializer(myModule.class, new ModuleCodec.Serializer());
+        addSerializer(Assignment.class, new AssignmentCodec.Serializer());
+        addDeserializer(Student.class, new StudentCodec.Deserializer(trusted));
+        addDeserializer(Course.class, new CourseCodec.Deserializer(trusted));
+        addDeserializer(Instructor.class, new InstructorCodec.Deserializer(trusted));
+        addDeserializer(myModule.class, new ModuleCodec.Deserializer(trusted));
+        addDeserializer(Assignment.class, new AssignmentCodec.Deserializer(trusted));
+    }
+}
@@ -0,0 +1,70 @@
+package ua.onlinecourses.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ua.onlinecourses.model.myModule;
+
+import java.io.IOException;
+
+public final class ModuleCodec {
+
+    private ModuleCodec() {
+    }
+
+    public static final class Serializer extends StdSerializer<myModule> {
+
+        public Serializer() {
+            super(myModule.class);
+        }
+
+        @Override
+        public void serialize(myModule module, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(module);
+            generator.writeStringField("title", module.title());
+            generator.writeStringField("content", module.content());
+            generator.writeEndObject();
+        }
+    }
+
+    public static final class Deserializer extends StdDeserializer<myModule> {
+
+        private final boolean trusted;
+
+        public Deserializer(boolean trusted) {
+            super(myModule.class);
+            this.trusted = trusted;
+        }
+
+        @Override
+        public myModule deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return CodecSupport.read(trusted, () -> read(parser, context));
+        }
+
+        private myModule read(JsonParser parser, DeserializationContext context) throws IOException {
+            String title = null;
+            String content = null;
+
+            for (JsonToken token = CodecSupport.firstField(parser, context, myModule.class);
+                 token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "title" -> title = parser.getValueAsString();
+                    case "content" -> content = parser.getValueAsString();
+                    default -> context.handleUnknownProperty(parser, this, myModule.class, field);
+                }
+            }
+
+            if (trusted) {
+                CodecSupport.requirePresent(title, "title");
+                CodecSupport.requirePresent(content, "content");
+            }
+            return new myModule(title, content);
+        }
+    }
+}
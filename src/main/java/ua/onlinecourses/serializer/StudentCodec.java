@@ -0,0 +1,78 @@
+package ua.onlinecourses.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ua.onlinecourses.model.Student;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+public final class StudentCodec {
+
+    private StudentCodec() {
+    }
+
+    public static final class Serializer extends StdSerializer<Student> {
+
+        public Serializer() {
+            super(Student.class);
+        }
+
+        @Override
+        public void serialize(Student student, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(student);
+            generator.writeStringField("firstName", student.firstName());
+            generator.writeStringField("lastName", student.lastName());
+            generator.writeStringField("email", student.email());
+            CodecSupport.writeDate(generator, "enrollmentDate", student.enrollmentDate());
+            generator.writeEndObject();
+        }
+    }
+
+    public static final class Deserializer extends StdDeserializer<Student> {
+
+        private final boolean trusted;
+
+        public Deserializer(boolean trusted) {
+            super(Student.class);
+            this.trusted = trusted;
+        }
+
+        @Override
+        public Student deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return CodecSupport.read(trusted, () -> read(parser, context));
+        }
+
+        private Student read(JsonParser parser, DeserializationContext context) throws IOException {
+            String firstName = null;
+            String lastName = null;
+            String email = null;
+            LocalDate enrollmentDate = null;
+
+            for (JsonToken token = CodecSupport.firstField(parser, context, Student.class);
+                 token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "firstName" -> firstName = parser.getValueAsString();
+                    case "lastName" -> lastName = parser.getValueAsString();
+                    case "email" -> email = parser.getValueAsString();
+                    case "enrollmentDate" -> enrollmentDate = CodecSupport.readDate(parser, context);
+                    default -> context.handleUnknownProperty(parser, this, Student.class, field);
+                }
+            }
+
+            if (trusted) {
+                CodecSupport.requirePresent(lastName, "lastName");
+                CodecSupport.requirePresent(email, "email");
+                CodecSupport.requirePresent(enrollmentDate, "enrollmentDate");
+            }
+            return new Student(firstName, lastName, email, enrollmentDate);
+        }
+    }
+}
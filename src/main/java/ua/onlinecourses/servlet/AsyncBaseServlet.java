@@ -0,0 +1,321 @@
+package ua.onlinecourses.servlet;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+
+public abstract class AsyncBaseServlet extends BaseServlet {
+
+    public static final long ASYNC_TIMEOUT_MS = 30_000;
+    public static final int MAX_BODY_BYTES = 64 * 1024 * 1024;
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if (isIngestRequest(request)) {
+            super.service(request, response);
+            return;
+        }
+
+        // The container restores its own path mapping once this dispatch returns, so the
+        // mapping seen by the handlers is captured before the body is read asynchronously.
+        String servletPath = request.getServletPath();
+        String pathInfo = request.getPathInfo();
+        AsyncContext async = request.startAsync();
+        async.setTimeout(ASYNC_TIMEOUT_MS);
+        async.addListener(new TimeoutListener());
+
+        if (!hasBody(request)) {
+            process(async, new BufferedRequest(request, servletPath, pathInfo, new byte[0]), response);
+            return;
+        }
+        ServletInputStream input = request.getInputStream();
+        input.setReadListener(new BodyReader(async, request, response, input, servletPath, pathInfo));
+    }
+
+    private static boolean hasBody(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (method.equals("GET") || method.equals("HEAD") || method.equals("DELETE") || method.equals("OPTIONS")) {
+            return false;
+        }
+        return request.getContentLengthLong() != 0;
+    }
+
+    private void process(AsyncContext async, BufferedRequest request, HttpServletResponse response) {
+        try {
+            BufferedResponse buffered = new BufferedResponse(response);
+            super.service(request, buffered);
+            byte[] content = buffered.toByteArray();
+            response.setContentLength(content.length);
+            ServletOutputStream output = response.getOutputStream();
+            output.setWriteListener(new BodyWriter(async, output, content));
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error processing async request: {0}", e.getMessage());
+            fail(async, response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private static void fail(AsyncContext async, HttpServletResponse response, int status) {
+        if (!response.isCommitted()) {
+            response.reset();
+            response.setStatus(status);
+        }
+        async.complete();
+    }
+
+    private final class BodyReader implements ReadListener {
+        private final AsyncContext async;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final ServletInputStream input;
+        private final String servletPath;
+        private final String pathInfo;
+        private final ByteArrayOutputStream body;
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+
+        private BodyReader(AsyncContext async, HttpServletRequest request, HttpServletResponse response,
+                           ServletInputStream input, String servletPath, String pathInfo) {
+            this.async = async;
+            this.request = request;
+            this.response = response;
+            this.input = input;
+            this.servletPath = servletPath;
+            this.pathInfo = pathInfo;
+            long length = request.getContentLengthLong();
+            this.body = new ByteArrayOutputStream(length > 0 && length <= MAX_BODY_BYTES ? (int) length : CHUNK_SIZE);
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            while (input.isReady()) {
+                int read = input.read(chunk);
+                if (read == -1) {
+                    return;
+                }
+                body.write(chunk, 0, read);
+                if (body.size() > MAX_BODY_BYTES) {
+                    logger.log(Level.WARNING, "Request body exceeds {0} bytes, rejecting", MAX_BODY_BYTES);
+                    fail(async, response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onAllDataRead() {
+            process(async, new BufferedRequest(request, servletPath, pathInfo, body.toByteArray()), response);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            logger.log(Level.WARNING, "Failed to read request body: {0}", t.getMessage());
+            fail(async, response, HttpServletResponse.SC_BAD_REQUEST);
+        }
+    }
+
+    private static final class BodyWriter implements WriteListener {
+        private final AsyncContext async;
+        private final ServletOutputStream output;
+        private final byte[] content;
+        private int position;
+
+        private BodyWriter(AsyncContext async, ServletOutputStream output, byte[] content) {
+            this.async = async;
+            this.output = output;
+            this.content = content;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (output.isReady()) {
+                if (position >= content.length) {
+                    async.complete();
+                    return;
+                }
+                int length = Math.min(CHUNK_SIZE, content.length - position);
+                output.write(content, position, length);
+                position += length;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            logger.log(Level.WARNING, "Failed to write response: {0}", t.getMessage());
+            async.complete();
+        }
+    }
+
+    private static final class TimeoutListener implements AsyncListener {
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            logger.log(Level.WARNING, "Async request timed out after {0} ms", ASYNC_TIMEOUT_MS);
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            fail(event.getAsyncContext(), response, HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    private static final class BufferedRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+        private final String servletPath;
+        private final String pathInfo;
+
+        private BufferedRequest(HttpServletRequest request, String servletPath, String pathInfo, byte[] body) {
+            super(request);
+            this.servletPath = servletPath;
+            this.pathInfo = pathInfo;
+            this.body = body;
+        }
+
+        @Override
+        public String getServletPath() {
+            return servletPath;
+        }
+
+        @Override
+        public String getPathInfo() {
+            return pathInfo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream source = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return source.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new IllegalStateException("Request body has already been read");
+                }
+
+                @Override
+                public int read() {
+                    return source.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return source.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset(getCharacterEncoding())));
+        }
+    }
+
+    private static final class BufferedResponse extends HttpServletResponseWrapper {
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        private ServletOutputStream output;
+        private PrintWriter writer;
+
+        private BufferedResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (output == null) {
+                output = new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        throw new IllegalStateException("Buffered response does not support write listeners");
+                    }
+
+                    @Override
+                    public void write(int b) {
+                        content.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] buffer, int offset, int length) {
+                        content.write(buffer, offset, length);
+                    }
+                };
+            }
+            return output;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            content.reset();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            content.reset();
+        }
+
+        byte[] toByteArray() {
+            flushBuffer();
+            return content.toByteArray();
+        }
+    }
+
+    private static Charset charset(String encoding) {
+        return encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+    }
+}
@@ -1,33 +1,55 @@
 package ua.onlinecourses.servlet;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import ua.onlinecourses.exception.InvalidDataException;
+import ua.onlinecourses.query.QueryResult;
+import ua.onlinecourses.repository.GenericRepository;
+import ua.onlinecourses.repository.Versioned;
+import ua.onlinecourses.serializer.CodecRegistry;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public abstract class BaseServlet extends HttpServlet {
 
+    public static final String JSON_FORMAT_INIT_PARAMETER = "json.format";
+    public static final String INGEST_BATCH_SIZE_INIT_PARAMETER = "ingest.batch.size";
+    private static final long NO_MATCHING_VERSION = 0;
+
     protected static final Logger logger = Logger.getLogger(BaseServlet.class.getName());
     protected ObjectMapper objectMapper;
     protected int requestCount = 0;
+    private JsonFormat defaultJsonFormat = JsonFormat.PRETTY;
+    private ObjectWriter prettyWriter;
+    private ObjectWriter compactWriter;
+    private int ingestBatchSize = ServerSettings.DEFAULT_INGEST_BATCH_SIZE;
 
     @Override
     public void init() throws ServletException {
         super.init();
-        objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        logger.log(Level.INFO, "{0} initialized", getServletName());
+        CodecRegistry codecs = CodecRegistry.http();
+        objectMapper = codecs.mapper();
+        prettyWriter = codecs.prettyWriter();
+        compactWriter = codecs.compactWriter();
+        defaultJsonFormat = JsonFormat.fromString(getInitParameter(JSON_FORMAT_INIT_PARAMETER));
+        String batchSize = getInitParameter(INGEST_BATCH_SIZE_INIT_PARAMETER);
+        if (batchSize != null) {
+            ingestBatchSize = Integer.parseInt(batchSize);
+        }
+        logger.log(Level.INFO, "{0} initialized (default JSON format: {1})",
+                new Object[]{getServletName(), defaultJsonFormat});
     }
 
     @Override
@@ -46,9 +68,12 @@ public abstract class BaseServlet extends HttpServlet {
         logger.log(Level.INFO, "{0} - Request #{1}: {2} {3}",
                 new Object[]{getServletName(), requestCount, method, path != null ? path : "/"});
         
+        JsonFormat format = JsonFormat.fromAcceptHeader(request.getHeader("Accept"), defaultJsonFormat);
+        response.addHeader("Vary", "Accept");
+
         long startTime = System.currentTimeMillis();
         try {
-            super.service(request, response);
+            super.service(request, new FormattedResponse(response, format));
         } finally {
             long duration = System.currentTimeMillis() - startTime;
             logger.log(Level.INFO, "{0} - Response: status={1}, duration={2}ms",
@@ -61,7 +86,64 @@ public abstract class BaseServlet extends HttpServlet {
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
         PrintWriter writer = response.getWriter();
-        objectMapper.writeValue(writer, data);
+        writerFor(response).writeValue(writer, data);
+    }
+
+    protected void sendQueryResponse(HttpServletResponse response, QueryResult<?> result) throws IOException {
+        response.setHeader("X-Total-Count", String.valueOf(result.totalMatches()));
+        response.setHeader("X-Query-Plan", result.plan());
+        sendJsonResponse(response, HttpServletResponse.SC_OK, result.items());
+    }
+
+    protected boolean isBulkRequest(HttpServletRequest request) {
+        return BulkRequestProcessor.BULK_PATH.equals(request.getPathInfo());
+    }
+
+    protected void handleBulkRequest(HttpServletRequest request, HttpServletResponse response,
+                                     BulkRequestProcessor<?, ?> processor) throws IOException {
+        try {
+            sendJsonResponse(response, HttpServletResponse.SC_OK, processor.process(request.getReader()));
+        } catch (InvalidDataException | JsonProcessingException e) {
+            logger.log(Level.WARNING, "Rejected bulk request: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    protected boolean isIngestRequest(HttpServletRequest request) {
+        return BulkRequestProcessor.INGEST_PATH.equals(request.getPathInfo());
+    }
+
+    protected void handleIngestRequest(HttpServletRequest request, HttpServletResponse response,
+                                       BulkRequestProcessor<?, ?> processor) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter writer = response.getWriter();
+        try {
+            processor.ingest(request.getInputStream(), ingestBatchSize, progress -> {
+                try {
+                    writer.write(compactWriter.writeValueAsString(progress));
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException(e);
+                }
+                writer.write('\n');
+                writer.flush();
+            });
+        } catch (InvalidDataException | JsonProcessingException e) {
+            logger.log(Level.WARNING, "Ingest stream aborted: {0}", e.getMessage());
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+                sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            } else {
+                writer.write(compactWriter.writeValueAsString(java.util.Map.of("error", e.getMessage())));
+                writer.write('\n');
+                writer.flush();
+            }
+        }
+    }
+
+    protected boolean hasQueryParameters(HttpServletRequest request) {
+        return !request.getParameterMap().isEmpty();
     }
 
     protected void sendErrorResponse(HttpServletResponse response, int status, String message) throws IOException {
@@ -71,18 +153,54 @@ public abstract class BaseServlet extends HttpServlet {
         PrintWriter writer = response.getWriter();
         java.util.Map<String, String> errorMap = new java.util.HashMap<>();
         errorMap.put("error", message);
-        objectMapper.writeValue(writer, errorMap);
+        writerFor(response).writeValue(writer, errorMap);
+    }
+
+    protected void setEntityTag(HttpServletResponse response, long version) {
+        response.setHeader("ETag", "\"" + version + "\"");
+    }
+
+    protected <T> void setEntityTag(HttpServletResponse response, GenericRepository<T> repository, String identity) {
+        repository.findVersioned(identity).ifPresent(entry -> setEntityTag(response, entry.version()));
+    }
+
+    // Maps If-Match onto the version a conditional write must see; no header or "*" means unconditional.
+    protected <T> long expectedVersion(HttpServletRequest request, GenericRepository<T> repository, String identity) {
+        String ifMatch = request.getHeader("If-Match");
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return GenericRepository.ANY_VERSION;
+        }
+        long current = repository.findVersioned(identity).map(Versioned::version).orElse(GenericRepository.ANY_VERSION);
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.trim();
+            if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                try {
+                    if (Long.parseLong(value.substring(1, value.length() - 1)) == current) {
+                        return current;
+                    }
+                } catch (NumberFormatException ignored) {
+                    // foreign or weak tags never match
+                }
+            }
+        }
+        return NO_MATCHING_VERSION;
+    }
+
+    protected ObjectWriter writerFor(HttpServletResponse response) {
+        JsonFormat format = response instanceof FormattedResponse formatted ? formatted.format : defaultJsonFormat;
+        return format == JsonFormat.COMPACT ? compactWriter : prettyWriter;
+    }
+
+    protected <D> D readJson(String body, Class<D> type) throws IOException {
+        return CodecRegistry.http().reader(type).readValue(body);
     }
 
     protected String readRequestBody(HttpServletRequest request) throws IOException {
-        StringBuilder sb = new StringBuilder();
+        StringWriter body = new StringWriter();
         try (BufferedReader reader = request.getReader()) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sb.append(line);
-            }
+            reader.transferTo(body);
         }
-        return sb.toString();
+        return body.toString();
     }
 
     protected String extractId(String pathInfo) {
@@ -96,4 +214,13 @@ public abstract class BaseServlet extends HttpServlet {
         }
         return id;
     }
+
+    private static final class FormattedResponse extends HttpServletResponseWrapper {
+        private final JsonFormat format;
+
+        private FormattedResponse(HttpServletResponse response, JsonFormat format) {
+            super(response);
+            this.format = format;
+        }
+    }
 }
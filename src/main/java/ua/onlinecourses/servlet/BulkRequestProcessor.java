@@ -0,0 +1,282 @@
+package ua.onlinecourses.servlet;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import ua.onlinecourses.exception.InvalidDataException;
+import ua.onlinecourses.repository.BatchOperation;
+import ua.onlinecourses.repository.BatchOutcome;
+import ua.onlinecourses.repository.GenericRepository;
+import ua.onlinecourses.serializer.CodecRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class BulkRequestProcessor<T, D> {
+
+    private static final Logger logger = Logger.getLogger(BulkRequestProcessor.class.getName());
+
+    public static final String BULK_PATH = "/_bulk";
+    public static final String INGEST_PATH = "/_ingest";
+    public static final int MAX_OPERATIONS = 100_000;
+    public static final long PERSIST_INTERVAL_MS = 10_000;
+
+    private final ObjectMapper objectMapper;
+    private final GenericRepository<T> repository;
+    private final ObjectReader dtoReader;
+    private final BiFunction<D, T, T> factory;
+    private final Runnable persister;
+
+    public BulkRequestProcessor(ObjectMapper objectMapper, GenericRepository<T> repository, Class<D> dtoType,
+                                BiFunction<D, T, T> factory, Runnable persister) {
+        this.objectMapper = objectMapper;
+        this.repository = repository;
+        this.dtoReader = CodecRegistry.http().reader(dtoType);
+        this.factory = factory;
+        this.persister = persister;
+    }
+
+    /**
+     * Decodes the whole request before touching the repository and applies it as one batch, so a
+     * malformed body or one over {@link #MAX_OPERATIONS} items changes nothing. Items are kept as
+     * decoded operations rather than JSON trees while the rest of the body is read.
+     */
+    public BulkResponse process(Reader body) throws IOException {
+        long startTime = System.currentTimeMillis();
+        DecodedBatch batch = new DecodedBatch(0);
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            readElements(parser, element -> {
+                if (batch.size() >= MAX_OPERATIONS) {
+                    throw new InvalidDataException("Bulk request exceeds " + MAX_OPERATIONS + " operations");
+                }
+                batch.add(element);
+            });
+        }
+
+        List<BulkItemResult> results = batch.apply();
+        if (results.stream().anyMatch(BulkItemResult::succeeded)) {
+            persister.run();
+        }
+
+        BulkResponse response = BulkResponse.of(results);
+        logger.log(Level.INFO, "Bulk {0} request: {1} items, {2} succeeded, {3} failed in {4} ms",
+                new Object[]{repository.getEntityType(), response.total(), response.succeeded(),
+                        response.failed(), System.currentTimeMillis() - startTime});
+        return response;
+    }
+
+    // Saves rewrite the whole repository, so a stream persists on an interval and once at its end.
+    public IngestProgress ingest(InputStream body, int batchSize, Consumer<IngestProgress> progressListener)
+            throws IOException {
+        long startTime = System.currentTimeMillis();
+        IngestState state = new IngestState(batchSize);
+        IngestProgress summary;
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            readElements(parser, element -> {
+                state.pending.add(element);
+                if (state.pending.size() >= batchSize) {
+                    progressListener.accept(flushChunk(state));
+                    if (state.changed && System.currentTimeMillis() - state.persistedAt >= PERSIST_INTERVAL_MS) {
+                        persistIfChanged(state);
+                    }
+                }
+            });
+            List<BulkItemResult> tailFailures = state.pending.isEmpty() ? List.of() : flushChunk(state).failures();
+            summary = state.snapshot(tailFailures, true);
+        } finally {
+            persistIfChanged(state);
+        }
+        progressListener.accept(summary);
+        logger.log(Level.INFO, "Ingested {0} stream: {1} items in {2} batches, {3} succeeded, {4} failed in {5} ms",
+                new Object[]{repository.getEntityType(), summary.processed(), summary.batches(),
+                        summary.succeeded(), summary.failed(), System.currentTimeMillis() - startTime});
+        return summary;
+    }
+
+    private IngestProgress flushChunk(IngestState state) {
+        List<BulkItemResult> failures = new ArrayList<>();
+        for (BulkItemResult result : applyPending(state)) {
+            if (!result.succeeded()) {
+                failures.add(result);
+            }
+        }
+        return state.snapshot(failures, false);
+    }
+
+    private List<BulkItemResult> applyPending(IngestState state) {
+        List<BulkItemResult> results = applyChunk(state.pending, state.processed);
+        state.pending.clear();
+        for (BulkItemResult result : results) {
+            if (result.succeeded()) {
+                state.succeeded++;
+                state.changed = true;
+            } else {
+                state.failed++;
+            }
+        }
+        state.processed += results.size();
+        state.batches++;
+        return results;
+    }
+
+    private void persistIfChanged(IngestState state) {
+        if (state.changed) {
+            persister.run();
+            state.changed = false;
+            state.persistedAt = System.currentTimeMillis();
+        }
+    }
+
+    private List<BulkItemResult> applyChunk(List<JsonNode> elements, long firstIndex) {
+        DecodedBatch batch = new DecodedBatch(firstIndex);
+        elements.forEach(batch::add);
+        return batch.apply();
+    }
+
+    private void readElements(JsonParser parser, Consumer<JsonNode> consumer) throws IOException {
+        JsonToken token = parser.nextToken();
+        boolean array = token == JsonToken.START_ARRAY;
+        if (array) {
+            token = parser.nextToken();
+        }
+        while (token != null && token != JsonToken.END_ARRAY) {
+            consumer.accept(parser.readValueAsTree());
+            token = parser.nextToken();
+        }
+        if (array && token != JsonToken.END_ARRAY) {
+            throw new InvalidDataException("Unterminated JSON array in bulk request");
+        }
+    }
+
+    private BatchOperation<T> toOperation(JsonNode element) throws IOException {
+        if (!element.isObject()) {
+            throw new InvalidDataException("Bulk item must be a JSON object");
+        }
+        String op = textOrNull(element, "op");
+        if (op == null) {
+            return BatchOperation.create(factory.apply(dtoReader.readValue(element), null));
+        }
+
+        String id = textOrNull(element, "id");
+        JsonNode data = element.get("data");
+        switch (op.toLowerCase()) {
+            case "create" -> {
+                return BatchOperation.create(factory.apply(readData(data), null));
+            }
+            case "update" -> {
+                requireId(id, op);
+                D dto = readData(data);
+                return BatchOperation.update(id, existing -> factory.apply(dto, existing));
+            }
+            case "delete" -> {
+                requireId(id, op);
+                return BatchOperation.delete(id);
+            }
+            default -> throw new InvalidDataException("Unknown bulk operation: " + op);
+        }
+    }
+
+    private D readData(JsonNode data) throws IOException {
+        if (data == null || !data.isObject()) {
+            throw new InvalidDataException("Bulk item requires a 'data' object");
+        }
+        return dtoReader.readValue(data);
+    }
+
+    private static void requireId(String id, String op) {
+        if (id == null || id.isEmpty()) {
+            throw new InvalidDataException("Bulk " + op + " requires an 'id'");
+        }
+    }
+
+    private static String textOrNull(JsonNode element, String field) {
+        JsonNode value = element.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    public record BulkItemResult(long index, String id, BatchOutcome.Status status, String error) {
+        static BulkItemResult of(long index, BatchOutcome outcome) {
+            return new BulkItemResult(index, outcome.identity(), outcome.status(), outcome.message());
+        }
+
+        boolean succeeded() {
+            return status == BatchOutcome.Status.CREATED || status == BatchOutcome.Status.UPDATED
+                    || status == BatchOutcome.Status.DELETED;
+        }
+    }
+
+    public record BulkResponse(int total, int succeeded, int failed, List<BulkItemResult> results) {
+        static BulkResponse of(List<BulkItemResult> results) {
+            int succeeded = (int) results.stream().filter(BulkItemResult::succeeded).count();
+            return new BulkResponse(results.size(), succeeded, results.size() - succeeded, results);
+        }
+    }
+
+    public record IngestProgress(long batches, long processed, long succeeded, long failed,
+                                 List<BulkItemResult> failures, boolean complete) {
+    }
+
+    // Items that failed to decode get their result right away; the rest wait for one applyBatch.
+    private final class DecodedBatch {
+        private final long firstIndex;
+        private final List<BulkItemResult> results = new ArrayList<>();
+        private final List<BatchOperation<T>> operations = new ArrayList<>();
+        private final List<Integer> operationPositions = new ArrayList<>();
+
+        private DecodedBatch(long firstIndex) {
+            this.firstIndex = firstIndex;
+        }
+
+        private int size() {
+            return results.size();
+        }
+
+        private void add(JsonNode element) {
+            int position = results.size();
+            results.add(null);
+            try {
+                operations.add(toOperation(element));
+                operationPositions.add(position);
+            } catch (Exception e) {
+                BatchOutcome outcome = BatchOutcome.invalid(textOrNull(element, "id"), e.getMessage());
+                results.set(position, BulkItemResult.of(firstIndex + position, outcome));
+            }
+        }
+
+        private List<BulkItemResult> apply() {
+            List<BatchOutcome> outcomes = repository.applyBatch(operations);
+            for (int j = 0; j < outcomes.size(); j++) {
+                int position = operationPositions.get(j);
+                results.set(position, BulkItemResult.of(firstIndex + position, outcomes.get(j)));
+            }
+            return results;
+        }
+    }
+
+    private static final class IngestState {
+        private final List<JsonNode> pending;
+        private long batches;
+        private long processed;
+        private long succeeded;
+        private long failed;
+        private boolean changed;
+        private long persistedAt = System.currentTimeMillis();
+
+        private IngestState(int batchSize) {
+            this.pending = new ArrayList<>(batchSize);
+        }
+
+        private IngestProgress snapshot(List<BulkItemResult> failures, boolean complete) {
+            return new IngestProgress(batches, processed, succeeded, failed, failures, complete);
+        }
+    }
+}
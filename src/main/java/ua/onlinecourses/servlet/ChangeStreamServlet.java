@@ -0,0 +1,182 @@
+package ua.onlinecourses.servlet;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import ua.onlinecourses.concurrent.ExecutorRegistry;
+import ua.onlinecourses.repository.ChangeEvent;
+import ua.onlinecourses.repository.GenericRepository;
+import ua.onlinecourses.serializer.CodecRegistry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+public class ChangeStreamServlet extends BaseServlet {
+
+    public static final long HEARTBEAT_INTERVAL_MS = 15_000;
+    public static final long RECONNECT_DELAY_MS = 3_000;
+
+    private final Map<String, GenericRepository<?>> repositories = new LinkedHashMap<>();
+    private final ObjectWriter eventWriter = CodecRegistry.http().compactWriter();
+
+    @Override
+    public void init() throws jakarta.servlet.ServletException {
+        super.init();
+        RepositoryManager manager = RepositoryManager.getInstance();
+        repositories.put("students", manager.getStudentRepository());
+        repositories.put("courses", manager.getCourseRepository());
+        repositories.put("instructors", manager.getInstructorRepository());
+        repositories.put("modules", manager.getModuleRepository());
+        logger.log(Level.INFO, "ChangeStreamServlet initialized for {0}", repositories.keySet());
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String collection = extractId(request.getPathInfo());
+        List<GenericRepository<?>> targets;
+        if (collection == null || collection.isEmpty()) {
+            targets = List.copyOf(repositories.values());
+        } else if (repositories.containsKey(collection)) {
+            targets = List.of(repositories.get(collection));
+        } else {
+            sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Unknown collection: " + collection);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+
+        AsyncContext async = request.startAsync();
+        async.setTimeout(0);
+        EventStream stream = new EventStream(async, response.getOutputStream());
+        async.addListener(stream);
+        for (GenericRepository<?> repository : targets) {
+            stream.subscribeTo(repository);
+        }
+        stream.send("retry: " + RECONNECT_DELAY_MS + "\n: subscribed to " + (collection == null ? "all" : collection) + "\n\n");
+        stream.heartbeat = ExecutorRegistry.shared().scheduler().scheduleAtFixedRate(stream::heartbeat,
+                HEARTBEAT_INTERVAL_MS, HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        logger.log(Level.INFO, "Change stream opened for {0}", collection == null ? "all collections" : collection);
+    }
+
+    private final class EventStream implements AsyncListener {
+        private final AsyncContext async;
+        private final ServletOutputStream output;
+        private final List<Flow.Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        private volatile ScheduledFuture<?> heartbeat;
+        private volatile boolean closed;
+
+        EventStream(AsyncContext async, ServletOutputStream output) {
+            this.async = async;
+            this.output = output;
+        }
+
+        <T> void subscribeTo(GenericRepository<T> repository) {
+            repository.subscribe(new Flow.Subscriber<ChangeEvent<T>>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscriptions.add(subscription);
+                    if (closed) {
+                        subscription.cancel();
+                    } else {
+                        subscription.request(1);
+                    }
+                }
+
+                @Override
+                public void onNext(ChangeEvent<T> event) {
+                    try {
+                        send("id: " + event.entityType() + ":" + event.sequence() + "\n"
+                                + "event: " + event.type() + "\n"
+                                + "data: " + eventWriter.writeValueAsString(event) + "\n\n");
+                        subscription.request(1);
+                    } catch (IOException e) {
+                        close();
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    close();
+                }
+
+                @Override
+                public void onComplete() {
+                    close();
+                }
+            });
+        }
+
+        synchronized void send(String text) throws IOException {
+            if (closed) {
+                throw new IOException("Change stream closed");
+            }
+            output.write(text.getBytes(StandardCharsets.UTF_8));
+            output.flush();
+        }
+
+        void heartbeat() {
+            try {
+                send(": keep-alive\n\n");
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            subscriptions.forEach(Flow.Subscription::cancel);
+            ScheduledFuture<?> scheduled = heartbeat;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            try {
+                async.complete();
+            } catch (IllegalStateException ignored) {
+                // the container already completed the request
+            }
+            logger.log(Level.INFO, "Change stream closed");
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
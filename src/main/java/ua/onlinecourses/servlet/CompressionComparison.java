@@ -0,0 +1,100 @@
+package ua.onlinecourses.servlet;
+
+import ua.onlinecourses.model.Student;
+import ua.onlinecourses.repository.StudentRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class CompressionComparison {
+    private static final Logger logger = Logger.getLogger(CompressionComparison.class.getName());
+
+    private static final int DEFAULT_STUDENTS = 5000;
+    private static final int DEFAULT_REQUESTS = 200;
+
+    public static void compareCompression(int students, int requests) throws Exception {
+        logger.log(Level.INFO, "=== Comparing response encodings: {0} students, {1} requests per variant ===",
+                new Object[]{students, requests});
+        seedStudents(students);
+
+        CompressionResult[] results = {
+                measure(false, JsonFormat.PRETTY, requests),
+                measure(false, JsonFormat.COMPACT, requests),
+                measure(true, JsonFormat.PRETTY, requests),
+                measure(true, JsonFormat.COMPACT, requests)
+        };
+
+        logger.log(Level.INFO, "=== Compression Comparison Results ===");
+        for (CompressionResult result : results) {
+            logger.log(Level.INFO, "{0}", result);
+        }
+    }
+
+    private static void seedStudents(int count) {
+        StudentRepository repository = RepositoryManager.getInstance().getStudentRepository();
+        LocalDate enrollmentDate = LocalDate.now().minusMonths(6);
+        for (int i = repository.size(); i < count; i++) {
+            repository.add(new Student("Student" + i, "Compression" + i,
+                    "compression." + i + "@test.com", enrollmentDate));
+        }
+    }
+
+    public static CompressionResult measure(boolean gzip, JsonFormat format, int requests) throws Exception {
+        ServerSettings settings = ServerSettings.defaults(0, ExecutionMode.PLATFORM)
+                .withCompression(gzip, JsonFormat.PRETTY);
+        WebServer server = new WebServer(settings);
+        server.start();
+        try {
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + server.getPort() + "/api/students"))
+                    .header("Accept", "application/json; format=" + format.name().toLowerCase())
+                    .header("Accept-Encoding", gzip ? "gzip" : "identity")
+                    .GET()
+                    .build();
+
+            long[] latencies = new long[requests];
+            long totalBytes = 0;
+            for (int i = 0; i < requests; i++) {
+                long sent = System.nanoTime();
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                latencies[i] = System.nanoTime() - sent;
+                totalBytes += response.body().length;
+            }
+            Arrays.sort(latencies);
+            CompressionResult result = new CompressionResult(gzip, format, totalBytes / requests,
+                    latencies[requests / 2] / 1000,
+                    latencies[Math.max(0, (int) Math.ceil(requests * 0.99) - 1)] / 1000);
+            logger.log(Level.INFO, "Compression run finished: {0}", result);
+            return result;
+        } finally {
+            server.stop();
+        }
+    }
+
+    public record CompressionResult(
+            boolean gzip,
+            JsonFormat format,
+            long bytesPerResponse,
+            long p50Micros,
+            long p99Micros
+    ) {
+        @Override
+        public String toString() {
+            return String.format("CompressionResult{gzip=%s, format=%s, bytes=%d, p50=%dus, p99=%dus}",
+                    gzip, format, bytesPerResponse, p50Micros, p99Micros);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_STUDENTS;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_REQUESTS;
+        compareCompression(students, requests);
+    }
+}
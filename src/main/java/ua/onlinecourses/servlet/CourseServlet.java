@@ -2,8 +2,15 @@ package ua.onlinecourses.servlet;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import ua.onlinecourses.exception.DuplicateEntityException;
+import ua.onlinecourses.exception.InvalidDataException;
+import ua.onlinecourses.exception.VersionConflictException;
 import ua.onlinecourses.model.Course;
+import ua.onlinecourses.query.CourseQueryParser;
+import ua.onlinecourses.query.QueryPlanner;
+import ua.onlinecourses.query.QueryResult;
 import ua.onlinecourses.repository.CourseRepository;
+import ua.onlinecourses.repository.Versioned;
 
 import java.io.IOException;
 import java.time.LocalDate;
@@ -11,14 +18,17 @@ import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
 
-public class CourseServlet extends BaseServlet {
+public class CourseServlet extends AsyncBaseServlet {
 
     private CourseRepository repository;
+    private BulkRequestProcessor<Course, CourseDTO> bulkProcessor;
 
     @Override
     public void init() throws jakarta.servlet.ServletException {
         super.init();
         repository = RepositoryManager.getInstance().getCourseRepository();
+        bulkProcessor = new BulkRequestProcessor<>(objectMapper, repository, CourseDTO.class, this::buildCourse,
+                RepositoryManager.getInstance()::saveCoursesToFile);
         logger.log(Level.INFO, "CourseServlet initialized with {0} courses", repository.size());
     }
 
@@ -28,20 +38,30 @@ public class CourseServlet extends BaseServlet {
             String pathInfo = request.getPathInfo();
             String id = extractId(pathInfo);
 
-            if (id == null || id.isEmpty()) {
+            if ((id == null || id.isEmpty()) && hasQueryParameters(request)) {
+                QueryResult<Course> result = QueryPlanner.execute(repository,
+                        CourseQueryParser.parse(request.getParameterMap(), repository));
+                logger.log(Level.INFO, "GET courses by query, plan: {0}, matches: {1}",
+                        new Object[]{result.plan(), result.totalMatches()});
+                sendQueryResponse(response, result);
+            } else if (id == null || id.isEmpty()) {
                 List<Course> courses = repository.getAll();
                 logger.log(Level.INFO, "GET all courses, count: {0}", courses.size());
                 sendJsonResponse(response, HttpServletResponse.SC_OK, courses);
             } else {
-                Optional<Course> course = repository.findByIdentity(id);
+                Optional<Versioned<Course>> course = repository.findVersioned(id);
                 if (course.isPresent()) {
                     logger.log(Level.INFO, "GET course by id: {0}", id);
-                    sendJsonResponse(response, HttpServletResponse.SC_OK, course.get());
+                    setEntityTag(response, course.get().version());
+                    sendJsonResponse(response, HttpServletResponse.SC_OK, course.get().value());
                 } else {
                     logger.log(Level.WARNING, "Course not found: {0}", id);
                     sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Course not found: " + id);
                 }
             }
+        } catch (InvalidDataException e) {
+            logger.log(Level.WARNING, "Invalid GET query: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error processing GET request: {0}", e.getMessage());
             sendErrorResponse(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
@@ -50,20 +70,24 @@ public class CourseServlet extends BaseServlet {
 
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (isBulkRequest(request)) {
+            handleBulkRequest(request, response, bulkProcessor);
+            return;
+        }
+        if (isIngestRequest(request)) {
+            handleIngestRequest(request, response, bulkProcessor);
+            return;
+        }
         try {
             String body = readRequestBody(request);
-            CourseDTO dto = objectMapper.readValue(body, CourseDTO.class);
+            CourseDTO dto = readJson(body, CourseDTO.class);
             
-            Course course = new Course(
-                    dto.title,
-                    dto.description,
-                    dto.credits != null ? dto.credits : 1,
-                    dto.startDate != null ? LocalDate.parse(dto.startDate) : LocalDate.now().plusMonths(1)
-            );
+            Course course = buildCourse(dto, null);
 
             if (repository.add(course)) {
                 RepositoryManager.getInstance().saveCoursesToFile();
                 logger.log(Level.INFO, "POST created course: {0}", course.title());
+                setEntityTag(response, repository, course.getFullName());
                 sendJsonResponse(response, HttpServletResponse.SC_CREATED, course);
             } else {
                 logger.log(Level.WARNING, "POST failed - course already exists: {0}", course.title());
@@ -84,28 +108,26 @@ public class CourseServlet extends BaseServlet {
                 return;
             }
 
-            Optional<Course> existing = repository.findByIdentity(id);
-            if (existing.isEmpty()) {
+            String body = readRequestBody(request);
+            CourseDTO dto = readJson(body, CourseDTO.class);
+
+            Optional<Versioned<Course>> replaced = repository.compute(id, expectedVersion(request, repository, id),
+                    existing -> buildCourse(dto, existing));
+            if (replaced.isEmpty()) {
                 sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Course not found: " + id);
                 return;
             }
-
-            String body = readRequestBody(request);
-            CourseDTO dto = objectMapper.readValue(body, CourseDTO.class);
-
-            repository.remove(existing.get());
-
-            Course updated = new Course(
-                    dto.title != null ? dto.title : existing.get().title(),
-                    dto.description != null ? dto.description : existing.get().description(),
-                    dto.credits != null ? dto.credits : existing.get().credits(),
-                    dto.startDate != null ? LocalDate.parse(dto.startDate) : existing.get().startDate()
-            );
-
-            repository.add(updated);
+            Course updated = replaced.get().value();
             RepositoryManager.getInstance().saveCoursesToFile();
             logger.log(Level.INFO, "PUT updated course: {0}", updated.title());
+            setEntityTag(response, replaced.get().version());
             sendJsonResponse(response, HttpServletResponse.SC_OK, updated);
+        } catch (VersionConflictException e) {
+            logger.log(Level.WARNING, "PUT precondition failed: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_PRECONDITION_FAILED, e.getMessage());
+        } catch (DuplicateEntityException e) {
+            logger.log(Level.WARNING, "PUT conflict: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_CONFLICT, e.getMessage());
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error processing PUT request: {0}", e.getMessage());
             sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
@@ -121,7 +143,7 @@ public class CourseServlet extends BaseServlet {
                 return;
             }
 
-            if (repository.removeByIdentity(id)) {
+            if (repository.removeByIdentity(id, expectedVersion(request, repository, id))) {
                 RepositoryManager.getInstance().saveCoursesToFile();
                 logger.log(Level.INFO, "DELETE removed course: {0}", id);
                 java.util.Map<String, String> result = new java.util.HashMap<>();
@@ -131,12 +153,32 @@ public class CourseServlet extends BaseServlet {
                 logger.log(Level.WARNING, "DELETE failed - course not found: {0}", id);
                 sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Course not found: " + id);
             }
+        } catch (VersionConflictException e) {
+            logger.log(Level.WARNING, "DELETE precondition failed: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_PRECONDITION_FAILED, e.getMessage());
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error processing DELETE request: {0}", e.getMessage());
             sendErrorResponse(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
         }
     }
 
+    private Course buildCourse(CourseDTO dto, Course existing) {
+        if (existing == null) {
+            return new Course(
+                    dto.title,
+                    dto.description,
+                    dto.credits != null ? dto.credits : 1,
+                    dto.startDate != null ? LocalDate.parse(dto.startDate) : LocalDate.now().plusMonths(1)
+            );
+        }
+        return new Course(
+                dto.title != null ? dto.title : existing.title(),
+                dto.description != null ? dto.description : existing.description(),
+                dto.credits != null ? dto.credits : existing.credits(),
+                dto.startDate != null ? LocalDate.parse(dto.startDate) : existing.startDate()
+        );
+    }
+
     public static class CourseDTO {
         public String title;
         public String description;
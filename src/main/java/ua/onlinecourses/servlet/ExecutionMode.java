@@ -0,0 +1,17 @@
+package ua.onlinecourses.servlet;
+
+public enum ExecutionMode {
+    PLATFORM,
+    VIRTUAL;
+
+    public static ExecutionMode fromString(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return PLATFORM;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown execution mode: " + value + ". Use 'platform' or 'virtual'");
+        }
+    }
+}
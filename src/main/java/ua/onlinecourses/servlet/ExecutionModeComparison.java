@@ -0,0 +1,141 @@
+package ua.onlinecourses.servlet;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ExecutionModeComparison {
+    private static final Logger logger = Logger.getLogger(ExecutionModeComparison.class.getName());
+
+    private static final int DEFAULT_CONNECTIONS = 2000;
+    private static final int DEFAULT_REQUESTS_PER_CONNECTION = 5;
+    private static final int WRITE_EVERY_NTH_REQUEST = 5;
+
+    public static void compareExecutionModes(int connections, int requestsPerConnection) throws Exception {
+        logger.log(Level.INFO, "=== Comparing server execution modes: {0} connections x {1} requests ===",
+                new Object[]{connections, requestsPerConnection});
+
+        LoadResult platformResult = runLoad(ExecutionMode.PLATFORM, connections, requestsPerConnection);
+        LoadResult virtualResult = runLoad(ExecutionMode.VIRTUAL, connections, requestsPerConnection);
+
+        logger.log(Level.INFO, "=== Execution Mode Comparison Results ===");
+        logger.log(Level.INFO, "Platform threads: {0}", platformResult);
+        logger.log(Level.INFO, "Virtual threads:  {0}", virtualResult);
+    }
+
+    public static LoadResult runLoad(ExecutionMode mode, int connections, int requestsPerConnection) throws Exception {
+        WebServer server = new WebServer(0, mode);
+        server.start();
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .executor(clientExecutor)
+                    .build();
+            String baseUrl = "http://localhost:" + server.getPort() + "/api";
+
+            int total = connections * requestsPerConnection;
+            long[] latencies = new long[total];
+            AtomicInteger recorded = new AtomicInteger();
+            AtomicInteger failures = new AtomicInteger();
+
+            long startTime = System.nanoTime();
+            List<CompletableFuture<Void>> clients = new ArrayList<>();
+            for (int c = 0; c < connections; c++) {
+                CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+                for (int r = 0; r < requestsPerConnection; r++) {
+                    HttpRequest request = buildRequest(baseUrl, mode, c, r);
+                    chain = chain.thenCompose(ignored -> {
+                        long sent = System.nanoTime();
+                        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                                .handle((response, ex) -> {
+                                    latencies[recorded.getAndIncrement()] = System.nanoTime() - sent;
+                                    if (ex != null || response.statusCode() >= 400) {
+                                        failures.incrementAndGet();
+                                    }
+                                    return null;
+                                });
+                    });
+                }
+                clients.add(chain);
+            }
+            CompletableFuture.allOf(clients.toArray(new CompletableFuture<?>[0])).join();
+            long durationNanos = System.nanoTime() - startTime;
+
+            long[] sorted = Arrays.copyOf(latencies, recorded.get());
+            Arrays.sort(sorted);
+            LoadResult result = new LoadResult(server.getExecutionMode(), sorted.length, failures.get(),
+                    durationNanos / 1_000_000,
+                    sorted.length * 1_000_000_000.0 / durationNanos,
+                    percentile(sorted, 0.50) / 1000,
+                    percentile(sorted, 0.99) / 1000,
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1000);
+            logger.log(Level.INFO, "Load run finished: {0}", result);
+            return result;
+        } finally {
+            clientExecutor.shutdownNow();
+            server.stop();
+        }
+    }
+
+    private static HttpRequest buildRequest(String baseUrl, ExecutionMode mode, int connection, int request) {
+        if ((connection * 31 + request) % WRITE_EVERY_NTH_REQUEST == 0) {
+            String body = String.format(
+                    "{\"firstName\": \"Load\", \"lastName\": \"Tester\", \"email\": \"load.%s.%d.%d@test.com\", \"enrollmentDate\": \"%s\"}",
+                    mode.name().toLowerCase(), connection, request, LocalDate.now());
+            return HttpRequest.newBuilder()
+                    .uri(URI.create(baseUrl + "/students"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+        return HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/courses?minCredits=3&sort=startDate"))
+                .GET()
+                .build();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    public record LoadResult(
+            ExecutionMode mode,
+            int requests,
+            int failures,
+            long durationMs,
+            double throughput,
+            long p50Micros,
+            long p99Micros,
+            long maxMicros
+    ) {
+        @Override
+        public String toString() {
+            return String.format("LoadResult{mode=%s, requests=%d, failures=%d, duration=%dms, throughput=%.1f req/s, p50=%dus, p99=%dus, max=%dus}",
+                    mode, requests, failures, durationMs, throughput, p50Micros, p99Micros, maxMicros);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CONNECTIONS;
+        int requestsPerConnection = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_REQUESTS_PER_CONNECTION;
+        compareExecutionModes(connections, requestsPerConnection);
+    }
+}
@@ -0,0 +1,31 @@
+package ua.onlinecourses.servlet;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import ua.onlinecourses.concurrent.ExecutorMetrics;
+import ua.onlinecourses.concurrent.ExecutorRegistry;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+
+public class ExecutorMetricsServlet extends BaseServlet {
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        List<ExecutorMetrics> metrics = ExecutorRegistry.shared().metrics();
+        String name = extractId(request.getPathInfo());
+        if (name == null || name.isEmpty()) {
+            sendJsonResponse(response, HttpServletResponse.SC_OK, metrics);
+            return;
+        }
+        Optional<ExecutorMetrics> pool = metrics.stream().filter(m -> m.name().equals(name)).findFirst();
+        if (pool.isPresent()) {
+            sendJsonResponse(response, HttpServletResponse.SC_OK, pool.get());
+        } else {
+            logger.log(Level.WARNING, "Executor not found: {0}", name);
+            sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Executor not found: " + name);
+        }
+    }
+}
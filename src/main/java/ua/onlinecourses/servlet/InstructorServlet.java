@@ -2,22 +2,32 @@ package ua.onlinecourses.servlet;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import ua.onlinecourses.exception.DuplicateEntityException;
+import ua.onlinecourses.exception.InvalidDataException;
+import ua.onlinecourses.exception.VersionConflictException;
 import ua.onlinecourses.model.Instructor;
+import ua.onlinecourses.query.InstructorQueryParser;
+import ua.onlinecourses.query.QueryPlanner;
+import ua.onlinecourses.query.QueryResult;
 import ua.onlinecourses.repository.InstructorRepository;
+import ua.onlinecourses.repository.Versioned;
 
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
 
-public class InstructorServlet extends BaseServlet {
+public class InstructorServlet extends AsyncBaseServlet {
 
     private InstructorRepository repository;
+    private BulkRequestProcessor<Instructor, InstructorDTO> bulkProcessor;
 
     @Override
     public void init() throws jakarta.servlet.ServletException {
         super.init();
         repository = RepositoryManager.getInstance().getInstructorRepository();
+        bulkProcessor = new BulkRequestProcessor<>(objectMapper, repository, InstructorDTO.class, this::buildInstructor,
+                RepositoryManager.getInstance()::saveInstructorsToFile);
         logger.log(Level.INFO, "InstructorServlet initialized with {0} instructors", repository.size());
     }
 
@@ -27,20 +37,30 @@ public class InstructorServlet extends BaseServlet {
             String pathInfo = request.getPathInfo();
             String id = extractId(pathInfo);
 
-            if (id == null || id.isEmpty()) {
+            if ((id == null || id.isEmpty()) && hasQueryParameters(request)) {
+                QueryResult<Instructor> result = QueryPlanner.execute(repository,
+                        InstructorQueryParser.parse(request.getParameterMap(), repository));
+                logger.log(Level.INFO, "GET instructors by query, plan: {0}, matches: {1}",
+                        new Object[]{result.plan(), result.totalMatches()});
+                sendQueryResponse(response, result);
+            } else if (id == null || id.isEmpty()) {
                 List<Instructor> instructors = repository.getAll();
                 logger.log(Level.INFO, "GET all instructors, count: {0}", instructors.size());
                 sendJsonResponse(response, HttpServletResponse.SC_OK, instructors);
             } else {
-                Optional<Instructor> instructor = repository.findByIdentity(id);
+                Optional<Versioned<Instructor>> instructor = repository.findVersioned(id);
                 if (instructor.isPresent()) {
                     logger.log(Level.INFO, "GET instructor by id: {0}", id);
-                    sendJsonResponse(response, HttpServletResponse.SC_OK, instructor.get());
+                    setEntityTag(response, instructor.get().version());
+                    sendJsonResponse(response, HttpServletResponse.SC_OK, instructor.get().value());
                 } else {
                     logger.log(Level.WARNING, "Instructor not found: {0}", id);
                     sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Instructor not found: " + id);
                 }
             }
+        } catch (InvalidDataException e) {
+            logger.log(Level.WARNING, "Invalid GET query: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error processing GET request: {0}", e.getMessage());
             sendErrorResponse(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
@@ -49,20 +69,25 @@ public class InstructorServlet extends BaseServlet {
 
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (isBulkRequest(request)) {
+            handleBulkRequest(request, response, bulkProcessor);
+            return;
+        }
+        if (isIngestRequest(request)) {
+            handleIngestRequest(request, response, bulkProcessor);
+            return;
+        }
         try {
             String body = readRequestBody(request);
-            InstructorDTO dto = objectMapper.readValue(body, InstructorDTO.class);
+            InstructorDTO dto = readJson(body, InstructorDTO.class);
             
-            Instructor instructor = new Instructor(
-                    dto.firstName,
-                    dto.lastName,
-                    dto.expertise != null ? dto.expertise : 1
-            );
+            Instructor instructor = buildInstructor(dto, null);
 
             if (repository.add(instructor)) {
                 RepositoryManager.getInstance().saveInstructorsToFile();
                 logger.log(Level.INFO, "POST created instructor: {0} {1}",
                         new Object[]{instructor.firstName(), instructor.lastName()});
+                setEntityTag(response, repository, instructor.getFullName());
                 sendJsonResponse(response, HttpServletResponse.SC_CREATED, instructor);
             } else {
                 logger.log(Level.WARNING, "POST failed - instructor already exists: {0} {1}",
@@ -85,28 +110,27 @@ public class InstructorServlet extends BaseServlet {
                 return;
             }
 
-            Optional<Instructor> existing = repository.findByIdentity(id);
-            if (existing.isEmpty()) {
+            String body = readRequestBody(request);
+            InstructorDTO dto = readJson(body, InstructorDTO.class);
+
+            Optional<Versioned<Instructor>> replaced = repository.compute(id, expectedVersion(request, repository, id),
+                    existing -> buildInstructor(dto, existing));
+            if (replaced.isEmpty()) {
                 sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Instructor not found: " + id);
                 return;
             }
-
-            String body = readRequestBody(request);
-            InstructorDTO dto = objectMapper.readValue(body, InstructorDTO.class);
-
-            repository.remove(existing.get());
-
-            Instructor updated = new Instructor(
-                    dto.firstName != null ? dto.firstName : existing.get().firstName(),
-                    dto.lastName != null ? dto.lastName : existing.get().lastName(),
-                    dto.expertise != null ? dto.expertise : existing.get().expertise()
-            );
-
-            repository.add(updated);
+            Instructor updated = replaced.get().value();
             RepositoryManager.getInstance().saveInstructorsToFile();
             logger.log(Level.INFO, "PUT updated instructor: {0} {1}",
                     new Object[]{updated.firstName(), updated.lastName()});
+            setEntityTag(response, replaced.get().version());
             sendJsonResponse(response, HttpServletResponse.SC_OK, updated);
+        } catch (VersionConflictException e) {
+            logger.log(Level.WARNING, "PUT precondition failed: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_PRECONDITION_FAILED, e.getMessage());
+        } catch (DuplicateEntityException e) {
+            logger.log(Level.WARNING, "PUT conflict: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_CONFLICT, e.getMessage());
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error processing PUT request: {0}", e.getMessage());
             sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
@@ -122,7 +146,7 @@ public class InstructorServlet extends BaseServlet {
                 return;
             }
 
-            if (repository.removeByIdentity(id)) {
+            if (repository.removeByIdentity(id, expectedVersion(request, repository, id))) {
                 RepositoryManager.getInstance().saveInstructorsToFile();
                 logger.log(Level.INFO, "DELETE removed instructor: {0}", id);
                 java.util.Map<String, String> result = new java.util.HashMap<>();
@@ -132,12 +156,30 @@ public class InstructorServlet extends BaseServlet {
                 logger.log(Level.WARNING, "DELETE failed - instructor not found: {0}", id);
                 sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Instructor not found: " + id);
             }
+        } catch (VersionConflictException e) {
+            logger.log(Level.WARNING, "DELETE precondition failed: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_PRECONDITION_FAILED, e.getMessage());
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error processing DELETE request: {0}", e.getMessage());
             sendErrorResponse(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
         }
     }
 
+    private Instructor buildInstructor(InstructorDTO dto, Instructor existing) {
+        if (existing == null) {
+            return new Instructor(
+                    dto.firstName,
+                    dto.lastName,
+                    dto.expertise != null ? dto.expertise : 1
+            );
+        }
+        return new Instructor(
+                dto.firstName != null ? dto.firstName : existing.firstName(),
+                dto.lastName != null ? dto.lastName : existing.lastName(),
+                dto.expertise != null ? dto.expertise : existing.expertise()
+        );
+    }
+
     public static class InstructorDTO {
         public String firstName;
         public String lastName;
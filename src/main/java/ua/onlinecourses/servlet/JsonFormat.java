@@ -0,0 +1,44 @@
+package ua.onlinecourses.servlet;
+
+public enum JsonFormat {
+    PRETTY,
+    COMPACT;
+
+    private static final String FORMAT_PARAMETER = "format";
+
+    public static JsonFormat fromString(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return PRETTY;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown JSON format: " + value + ". Use 'pretty' or 'compact'");
+        }
+    }
+
+    public static JsonFormat fromAcceptHeader(String accept, JsonFormat fallback) {
+        if (accept == null || accept.isEmpty()) {
+            return fallback;
+        }
+        for (String mediaRange : accept.split(",")) {
+            String[] parts = mediaRange.split(";");
+            if (!parts[0].trim().equalsIgnoreCase("application/json")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String[] parameter = parts[i].split("=", 2);
+                if (parameter.length == 2 && parameter[0].trim().equalsIgnoreCase(FORMAT_PARAMETER)) {
+                    String value = parameter[1].trim().replace("\"", "");
+                    if (value.equalsIgnoreCase("compact")) {
+                        return COMPACT;
+                    }
+                    if (value.equalsIgnoreCase("pretty")) {
+                        return PRETTY;
+                    }
+                }
+            }
+        }
+        return fallback;
+    }
+}
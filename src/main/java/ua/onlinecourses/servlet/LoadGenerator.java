@@ -0,0 +1,393 @@
+package ua.onlinecourses.servlet;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import ua.onlinecourses.repository.BatchOutcome;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class LoadGenerator {
+    private static final Logger logger = Logger.getLogger(LoadGenerator.class.getName());
+
+    private static final int MAX_IN_FLIGHT = 10_000;
+    private static final int CODE_SPACE = 26 * 26 * 26;
+
+    public enum Operation { GET, POST, PUT, DELETE }
+
+    public enum Target {
+        STUDENTS("students"),
+        COURSES("courses"),
+        INSTRUCTORS("instructors"),
+        MODULES("modules");
+
+        private final String path;
+
+        Target(String path) {
+            this.path = path;
+        }
+
+        public String path() {
+            return path;
+        }
+
+        GeneratedEntity generate(long n) {
+            String first = code(n);
+            String second = code(n / CODE_SPACE);
+            Map<String, Object> body = new LinkedHashMap<>();
+            return switch (this) {
+                case STUDENTS -> {
+                    String email = "load." + n + "@generated.test";
+                    body.put("firstName", first + "load");
+                    body.put("lastName", second + "gen");
+                    body.put("email", email);
+                    body.put("enrollmentDate", LocalDate.now().toString());
+                    yield new GeneratedEntity(email, body, "firstName");
+                }
+                case COURSES -> {
+                    int credits = 1 + (int) (n % 5);
+                    LocalDate startDate = LocalDate.now().plusDays(1 + n % 300);
+                    body.put("title", first + " generated course");
+                    body.put("description", second + " generated by the load generator");
+                    body.put("credits", credits);
+                    body.put("startDate", startDate.toString());
+                    yield new GeneratedEntity(first.toUpperCase() + "-" + second.toUpperCase() + "-" + credits + startDate,
+                            body, "title");
+                }
+                case INSTRUCTORS -> {
+                    int expertise = 1 + (int) (n % 60);
+                    body.put("firstName", first + "load");
+                    body.put("lastName", second + "gen");
+                    body.put("expertise", expertise);
+                    yield new GeneratedEntity(first.toUpperCase() + second.toUpperCase() + "-" + expertise, body,
+                            "lastName");
+                }
+                case MODULES -> {
+                    body.put("title", first + " module");
+                    body.put("content", second + " generated module content");
+                    yield new GeneratedEntity(first.toUpperCase() + "-" + second.toUpperCase(), body, "content");
+                }
+            };
+        }
+    }
+
+    public record Settings(
+            int targetRps,
+            Duration duration,
+            Map<Operation, Integer> mix,
+            int seedPerTarget
+    ) {
+        public Settings {
+            if (targetRps < 1) {
+                throw new IllegalArgumentException("Target RPS must be positive: " + targetRps);
+            }
+            if (duration == null || duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("Duration must be positive: " + duration);
+            }
+            if (seedPerTarget < 0) {
+                throw new IllegalArgumentException("Seed size must not be negative: " + seedPerTarget);
+            }
+            mix = new EnumMap<>(mix);
+            if (mix.values().stream().anyMatch(weight -> weight < 0)
+                    || mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+                throw new IllegalArgumentException("Operation mix needs non-negative weights with a positive sum: " + mix);
+            }
+        }
+
+        public static Settings defaults() {
+            return new Settings(500, Duration.ofSeconds(30), parseMix("70:15:10:5"), 200);
+        }
+
+        public static Map<Operation, Integer> parseMix(String mix) {
+            String[] parts = mix.split(":");
+            if (parts.length != Operation.values().length) {
+                throw new IllegalArgumentException("Mix must be GET:POST:PUT:DELETE weights, got: " + mix);
+            }
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            for (Operation operation : Operation.values()) {
+                weights.put(operation, Integer.parseInt(parts[operation.ordinal()].trim()));
+            }
+            return weights;
+        }
+    }
+
+    public record OperationStats(
+            Operation operation,
+            long requests,
+            long failures,
+            long p50Micros,
+            long p90Micros,
+            long p99Micros,
+            long p999Micros,
+            long maxMicros
+    ) {
+        @Override
+        public String toString() {
+            return String.format("%-6s requests=%d, failures=%d, p50=%dus, p90=%dus, p99=%dus, p99.9=%dus, max=%dus",
+                    operation, requests, failures, p50Micros, p90Micros, p99Micros, p999Micros, maxMicros);
+        }
+    }
+
+    public record LoadReport(
+            int targetRps,
+            long requests,
+            long failures,
+            long durationMs,
+            double throughput,
+            long maxSchedulingLagMicros,
+            long p50Micros,
+            long p99Micros,
+            long p999Micros,
+            long maxMicros,
+            List<OperationStats> operations
+    ) {
+        @Override
+        public String toString() {
+            return String.format("LoadReport{target=%d req/s, achieved=%.1f req/s, requests=%d, failures=%d, duration=%dms, p50=%dus, p99=%dus, p99.9=%dus, max=%dus, max scheduling lag=%dus}",
+                    targetRps, throughput, requests, failures, durationMs, p50Micros, p99Micros, p999Micros, maxMicros,
+                    maxSchedulingLagMicros);
+        }
+    }
+
+    record GeneratedEntity(String identity, Map<String, Object> body, String mutableField) {
+    }
+
+    private static final class EntityPool {
+        private final List<GeneratedEntity> entities = new ArrayList<>();
+
+        synchronized void add(GeneratedEntity entity) {
+            entities.add(entity);
+        }
+
+        synchronized GeneratedEntity pick() {
+            return entities.isEmpty() ? null : entities.get(ThreadLocalRandom.current().nextInt(entities.size()));
+        }
+
+        synchronized GeneratedEntity take() {
+            if (entities.isEmpty()) {
+                return null;
+            }
+            int index = ThreadLocalRandom.current().nextInt(entities.size());
+            GeneratedEntity last = entities.remove(entities.size() - 1);
+            return index == entities.size() ? last : entities.set(index, last);
+        }
+
+        synchronized List<GeneratedEntity> drain() {
+            List<GeneratedEntity> drained = new ArrayList<>(entities);
+            entities.clear();
+            return drained;
+        }
+    }
+
+    private final RestApiClient client;
+    private final Settings settings;
+    private final Map<Target, EntityPool> pools = new EnumMap<>(Target.class);
+    private final Map<Operation, LatencyHistogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> failures = new EnumMap<>(Operation.class);
+    private final LatencyHistogram overall = new LatencyHistogram();
+    private final AtomicLong sequence = new AtomicLong(ThreadLocalRandom.current().nextLong(1_000_000_000L));
+    private final int[] cumulativeWeights;
+
+    public LoadGenerator(String baseUrl, Settings settings) {
+        this.client = new RestApiClient(baseUrl, MAX_IN_FLIGHT, 0, Duration.ZERO);
+        this.settings = settings;
+        for (Target target : Target.values()) {
+            pools.put(target, new EntityPool());
+        }
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new LatencyHistogram());
+            failures.put(operation, new AtomicLong());
+        }
+        cumulativeWeights = new int[Operation.values().length];
+        int sum = 0;
+        for (Operation operation : Operation.values()) {
+            sum += settings.mix().getOrDefault(operation, 0);
+            cumulativeWeights[operation.ordinal()] = sum;
+        }
+    }
+
+    public static LoadReport runAgainstLocalServer(Settings settings) throws Exception {
+        WebServer server = new WebServer(0);
+        server.start();
+        try {
+            LoadGenerator generator = new LoadGenerator("http://localhost:" + server.getPort() + "/api", settings);
+            generator.seed();
+            try {
+                return generator.run();
+            } finally {
+                generator.cleanUp();
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    public void seed() {
+        if (settings.seedPerTarget() == 0) {
+            return;
+        }
+        for (Target target : Target.values()) {
+            List<GeneratedEntity> generated = new ArrayList<>();
+            for (int i = 0; i < settings.seedPerTarget(); i++) {
+                generated.add(target.generate(sequence.getAndIncrement()));
+            }
+            BulkRequestProcessor.BulkResponse response = client.bulkUploadAsync(target.path(),
+                    generated.stream().map(GeneratedEntity::body).toList()).join();
+            for (BulkRequestProcessor.BulkItemResult result : response.results()) {
+                if (result.status() == BatchOutcome.Status.CREATED) {
+                    pools.get(target).add(generated.get((int) result.index()));
+                }
+            }
+            logger.log(Level.INFO, "Seeded {0}: {1} of {2} created",
+                    new Object[]{target.path(), response.succeeded(), generated.size()});
+        }
+    }
+
+    public LoadReport run() {
+        long intervalNanos = 1_000_000_000L / settings.targetRps();
+        long total = settings.duration().toNanos() / intervalNanos;
+        logger.log(Level.INFO, "Starting open-loop load: {0} req/s for {1} s ({2} requests), mix {3}",
+                new Object[]{settings.targetRps(), settings.duration().toSeconds(), total, settings.mix()});
+
+        List<CompletableFuture<Void>> pending = new ArrayList<>((int) Math.min(total, Integer.MAX_VALUE));
+        long maxLag = 0;
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            maxLag = Math.max(maxLag, now - intended);
+            pending.add(dispatch(intended));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+        long durationNanos = System.nanoTime() - start;
+
+        List<OperationStats> operations = new ArrayList<>();
+        long failed = 0;
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = histograms.get(operation);
+            long operationFailures = failures.get(operation).get();
+            failed += operationFailures;
+            operations.add(new OperationStats(operation, histogram.count(), operationFailures,
+                    histogram.percentile(0.50), histogram.percentile(0.90), histogram.percentile(0.99),
+                    histogram.percentile(0.999), histogram.max()));
+        }
+        LoadReport report = new LoadReport(settings.targetRps(), overall.count(), failed, durationNanos / 1_000_000,
+                overall.count() * 1_000_000_000.0 / durationNanos, maxLag / 1000,
+                overall.percentile(0.50), overall.percentile(0.99), overall.percentile(0.999), overall.max(),
+                operations);
+        logger.log(Level.INFO, "=== Load Report ===");
+        logger.log(Level.INFO, "{0}", report);
+        for (OperationStats stats : operations) {
+            logger.log(Level.INFO, "  {0}", stats);
+        }
+        return report;
+    }
+
+    public void cleanUp() {
+        for (Target target : Target.values()) {
+            List<Map<String, Object>> deletes = new ArrayList<>();
+            for (GeneratedEntity entity : pools.get(target).drain()) {
+                deletes.add(Map.of("op", "delete", "id", entity.identity()));
+            }
+            if (!deletes.isEmpty()) {
+                client.bulkUploadAsync(target.path(), deletes).join();
+            }
+        }
+    }
+
+    private CompletableFuture<Void> dispatch(long intendedStart) {
+        Target target = Target.values()[ThreadLocalRandom.current().nextInt(Target.values().length)];
+        Operation operation = pickOperation();
+        EntityPool pool = pools.get(target);
+        GeneratedEntity existing = switch (operation) {
+            case GET, PUT -> pool.pick();
+            case DELETE -> pool.take();
+            case POST -> null;
+        };
+        if (existing == null && operation != Operation.POST) {
+            operation = Operation.POST;
+        }
+
+        String collection = "/" + target.path();
+        CompletableFuture<?> call;
+        GeneratedEntity created = null;
+        switch (operation) {
+            case GET -> call = ThreadLocalRandom.current().nextBoolean()
+                    ? client.getAsync(collection + "/" + encode(existing.identity()), JsonNode.class)
+                    : client.getAsync(collection + "?limit=20", JsonNode.class);
+            case PUT -> {
+                Map<String, Object> body = new HashMap<>(existing.body());
+                String current = String.valueOf(body.get(existing.mutableField()));
+                body.put(existing.mutableField(), current.substring(0, 3) + "upd" + sequence.getAndIncrement() % 1000);
+                call = client.putAsync(collection + "/" + encode(existing.identity()), body, JsonNode.class);
+            }
+            case DELETE -> call = client.deleteAsync(collection + "/" + encode(existing.identity()));
+            default -> {
+                created = target.generate(sequence.getAndIncrement());
+                call = client.postAsync(collection, created.body(), JsonNode.class);
+            }
+        }
+
+        Operation recorded = operation;
+        GeneratedEntity toRemember = created;
+        return call.handle((ignored, ex) -> {
+            long latencyMicros = (System.nanoTime() - intendedStart) / 1000;
+            histograms.get(recorded).record(latencyMicros);
+            overall.record(latencyMicros);
+            if (ex != null) {
+                failures.get(recorded).incrementAndGet();
+            } else if (toRemember != null) {
+                pool.add(toRemember);
+            }
+            return null;
+        });
+    }
+
+    private Operation pickOperation() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (Operation operation : Operation.values()) {
+            if (roll < cumulativeWeights[operation.ordinal()]) {
+                return operation;
+            }
+        }
+        return Operation.GET;
+    }
+
+    private static String encode(String identity) {
+        return URLEncoder.encode(identity, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private static String code(long n) {
+        long value = Math.floorMod(n, CODE_SPACE);
+        char[] letters = new char[3];
+        letters[0] = (char) ('A' + value / (26 * 26));
+        letters[1] = (char) ('a' + value / 26 % 26);
+        letters[2] = (char) ('a' + value % 26);
+        return new String(letters);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings defaults = Settings.defaults();
+        int rps = args.length > 0 ? Integer.parseInt(args[0]) : defaults.targetRps();
+        Duration duration = args.length > 1 ? Duration.ofSeconds(Long.parseLong(args[1])) : defaults.duration();
+        Map<Operation, Integer> mix = args.length > 2 ? Settings.parseMix(args[2]) : defaults.mix();
+        int seed = args.length > 3 ? Integer.parseInt(args[3]) : defaults.seedPerTarget();
+        runAgainstLocalServer(new Settings(rps, duration, mix, seed));
+    }
+}
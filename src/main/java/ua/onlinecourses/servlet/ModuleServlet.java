@@ -2,22 +2,32 @@ package ua.onlinecourses.servlet;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import ua.onlinecourses.exception.DuplicateEntityException;
+import ua.onlinecourses.exception.InvalidDataException;
+import ua.onlinecourses.exception.VersionConflictException;
 import ua.onlinecourses.model.myModule;
+import ua.onlinecourses.query.ModuleQueryParser;
+import ua.onlinecourses.query.QueryPlanner;
+import ua.onlinecourses.query.QueryResult;
 import ua.onlinecourses.repository.ModuleRepository;
+import ua.onlinecourses.repository.Versioned;
 
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
 
-public class ModuleServlet extends BaseServlet {
+public class ModuleServlet extends AsyncBaseServlet {
 
     private ModuleRepository repository;
+    private BulkRequestProcessor<myModule, ModuleDTO> bulkProcessor;
 
     @Override
     public void init() throws jakarta.servlet.ServletException {
         super.init();
         repository = RepositoryManager.getInstance().getModuleRepository();
+        bulkProcessor = new BulkRequestProcessor<>(objectMapper, repository, ModuleDTO.class, this::buildModule,
+                RepositoryManager.getInstance()::saveModulesToFile);
         logger.log(Level.INFO, "ModuleServlet initialized with {0} modules", repository.size());
     }
 
@@ -27,20 +37,30 @@ public class ModuleServlet extends BaseServlet {
             String pathInfo = request.getPathInfo();
             String id = extractId(pathInfo);
 
-            if (id == null || id.isEmpty()) {
+            if ((id == null || id.isEmpty()) && hasQueryParameters(request)) {
+                QueryResult<myModule> result = QueryPlanner.execute(repository,
+                        ModuleQueryParser.parse(request.getParameterMap(), repository));
+                logger.log(Level.INFO, "GET modules by query, plan: {0}, matches: {1}",
+                        new Object[]{result.plan(), result.totalMatches()});
+                sendQueryResponse(response, result);
+            } else if (id == null || id.isEmpty()) {
                 List<myModule> modules = repository.getAll();
                 logger.log(Level.INFO, "GET all modules, count: {0}", modules.size());
                 sendJsonResponse(response, HttpServletResponse.SC_OK, modules);
             } else {
-                Optional<myModule> module = repository.findByIdentity(id);
+                Optional<Versioned<myModule>> module = repository.findVersioned(id);
                 if (module.isPresent()) {
                     logger.log(Level.INFO, "GET module by id: {0}", id);
-                    sendJsonResponse(response, HttpServletResponse.SC_OK, module.get());
+                    setEntityTag(response, module.get().version());
+                    sendJsonResponse(response, HttpServletResponse.SC_OK, module.get().value());
                 } else {
                     logger.log(Level.WARNING, "Module not found: {0}", id);
                     sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Module not found: " + id);
                 }
             }
+        } catch (InvalidDataException e) {
+            logger.log(Level.WARNING, "Invalid GET query: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error processing GET request: {0}", e.getMessage());
             sendErrorResponse(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
@@ -49,18 +69,24 @@ public class ModuleServlet extends BaseServlet {
 
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (isBulkRequest(request)) {
+            handleBulkRequest(request, response, bulkProcessor);
+            return;
+        }
+        if (isIngestRequest(request)) {
+            handleIngestRequest(request, response, bulkProcessor);
+            return;
+        }
         try {
             String body = readRequestBody(request);
-            ModuleDTO dto = objectMapper.readValue(body, ModuleDTO.class);
+            ModuleDTO dto = readJson(body, ModuleDTO.class);
             
-            myModule module = new myModule(
-                    dto.title,
-                    dto.content
-            );
+            myModule module = buildModule(dto, null);
 
             if (repository.add(module)) {
                 RepositoryManager.getInstance().saveModulesToFile();
                 logger.log(Level.INFO, "POST created module: {0}", module.title());
+                setEntityTag(response, repository, module.getFullName());
                 sendJsonResponse(response, HttpServletResponse.SC_CREATED, module);
             } else {
                 logger.log(Level.WARNING, "POST failed - module already exists: {0}", module.title());
@@ -81,26 +107,26 @@ public class ModuleServlet extends BaseServlet {
                 return;
             }
 
-            Optional<myModule> existing = repository.findByIdentity(id);
-            if (existing.isEmpty()) {
+            String body = readRequestBody(request);
+            ModuleDTO dto = readJson(body, ModuleDTO.class);
+
+            Optional<Versioned<myModule>> replaced = repository.compute(id, expectedVersion(request, repository, id),
+                    existing -> buildModule(dto, existing));
+            if (replaced.isEmpty()) {
                 sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Module not found: " + id);
                 return;
             }
-
-            String body = readRequestBody(request);
-            ModuleDTO dto = objectMapper.readValue(body, ModuleDTO.class);
-
-            repository.remove(existing.get());
-
-            myModule updated = new myModule(
-                    dto.title != null ? dto.title : existing.get().title(),
-                    dto.content != null ? dto.content : existing.get().content()
-            );
-
-            repository.add(updated);
+            myModule updated = replaced.get().value();
             RepositoryManager.getInstance().saveModulesToFile();
             logger.log(Level.INFO, "PUT updated module: {0}", updated.title());
+            setEntityTag(response, replaced.get().version());
             sendJsonResponse(response, HttpServletResponse.SC_OK, updated);
+        } catch (VersionConflictException e) {
+            logger.log(Level.WARNING, "PUT precondition failed: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_PRECONDITION_FAILED, e.getMessage());
+        } catch (DuplicateEntityException e) {
+            logger.log(Level.WARNING, "PUT conflict: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_CONFLICT, e.getMessage());
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error processing PUT request: {0}", e.getMessage());
             sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
@@ -116,7 +142,7 @@ public class ModuleServlet extends BaseServlet {
                 return;
             }
 
-            if (repository.removeByIdentity(id)) {
+            if (repository.removeByIdentity(id, expectedVersion(request, repository, id))) {
                 RepositoryManager.getInstance().saveModulesToFile();
                 logger.log(Level.INFO, "DELETE removed module: {0}", id);
                 java.util.Map<String, String> result = new java.util.HashMap<>();
@@ -126,12 +152,28 @@ public class ModuleServlet extends BaseServlet {
                 logger.log(Level.WARNING, "DELETE failed - module not found: {0}", id);
                 sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Module not found: " + id);
             }
+        } catch (VersionConflictException e) {
+            logger.log(Level.WARNING, "DELETE precondition failed: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_PRECONDITION_FAILED, e.getMessage());
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error processing DELETE request: {0}", e.getMessage());
             sendErrorResponse(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
         }
     }
 
+    private myModule buildModule(ModuleDTO dto, myModule existing) {
+        if (existing == null) {
+            return new myModule(
+                    dto.title,
+                    dto.content
+            );
+        }
+        return new myModule(
+                dto.title != null ? dto.title : existing.title(),
+                dto.content != null ? dto.content : existing.content()
+        );
+    }
+
     public static class ModuleDTO {
         public String title;
         public String content;
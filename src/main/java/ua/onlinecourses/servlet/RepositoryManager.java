@@ -1,5 +1,6 @@
 package ua.onlinecourses.servlet;
 
+import ua.onlinecourses.concurrent.ExecutorRegistry;
 import ua.onlinecourses.config.AppConfig;
 import ua.onlinecourses.model.Course;
 import ua.onlinecourses.model.Instructor;
@@ -10,9 +11,14 @@ import ua.onlinecourses.persistence.PersistenceManager;
 import ua.onlinecourses.repository.CourseRepository;
 import ua.onlinecourses.repository.InstructorRepository;
 import ua.onlinecourses.repository.ModuleRepository;
+import ua.onlinecourses.repository.RepositorySnapshots;
 import ua.onlinecourses.repository.StudentRepository;
 
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,6 +34,9 @@ public class RepositoryManager {
     private final ModuleRepository moduleRepository;
     private final AppConfig config;
     private final PersistenceManager persistenceManager;
+    private final Map<String, AtomicBoolean> pendingSaves;
+    // Saves run one after another on the shared io pool; each link waits for the previous one.
+    private CompletableFuture<Void> saveChain = CompletableFuture.completedFuture(null);
 
     private RepositoryManager() {
         this.studentRepository = new StudentRepository();
@@ -36,6 +45,7 @@ public class RepositoryManager {
         this.moduleRepository = new ModuleRepository();
         this.config = new AppConfig();
         this.persistenceManager = new PersistenceManager(config);
+        this.pendingSaves = new ConcurrentHashMap<>();
         loadDataFromFiles();
     }
 
@@ -61,12 +71,14 @@ public class RepositoryManager {
                             instructorRepository.size(), moduleRepository.size()});
         } catch (Exception e) {
             logger.log(Level.WARNING, "Error loading data from CSV files: {0}", e.getMessage());
-        } finally {
-            loader.shutdown();
         }
     }
 
     public void saveStudentsToFile() {
+        scheduleSave("students", this::writeStudents);
+    }
+
+    private void writeStudents() {
         try {
             persistenceManager.save(studentRepository.getAll(), "students", Student.class, "JSON");
             logger.log(Level.INFO, "Students saved to file");
@@ -76,6 +88,10 @@ public class RepositoryManager {
     }
 
     public void saveCoursesToFile() {
+        scheduleSave("courses", this::writeCourses);
+    }
+
+    private void writeCourses() {
         try {
             persistenceManager.save(courseRepository.getAll(), "courses", Course.class, "JSON");
             logger.log(Level.INFO, "Courses saved to file");
@@ -85,6 +101,10 @@ public class RepositoryManager {
     }
 
     public void saveInstructorsToFile() {
+        scheduleSave("instructors", this::writeInstructors);
+    }
+
+    private void writeInstructors() {
         try {
             persistenceManager.save(instructorRepository.getAll(), "instructors", Instructor.class, "JSON");
             logger.log(Level.INFO, "Instructors saved to file");
@@ -94,6 +114,10 @@ public class RepositoryManager {
     }
 
     public void saveModulesToFile() {
+        scheduleSave("modules", this::writeModules);
+    }
+
+    private void writeModules() {
         try {
             persistenceManager.save(moduleRepository.getAll(), "modules", myModule.class, "JSON");
             logger.log(Level.INFO, "Modules saved to file");
@@ -102,6 +126,39 @@ public class RepositoryManager {
         }
     }
 
+    private void scheduleSave(String entityType, Runnable writer) {
+        AtomicBoolean pending = pendingSaves.computeIfAbsent(entityType, key -> new AtomicBoolean());
+        if (pending.compareAndSet(false, true)) {
+            synchronized (this) {
+                saveChain = saveChain.exceptionally(error -> null).thenRunAsync(() -> {
+                    pending.set(false);
+                    writer.run();
+                }, ExecutorRegistry.forwarding(ExecutorRegistry.Pool.IO));
+                saveChain.whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        pending.set(false);
+                        logger.log(Level.SEVERE, "Save of {0} was not scheduled: {1}",
+                                new Object[]{entityType, error.getMessage()});
+                    }
+                });
+            }
+        } else {
+            logger.log(Level.FINE, "Save of {0} already pending, coalescing", entityType);
+        }
+    }
+
+    public void flushPendingSaves() {
+        CompletableFuture<Void> pending;
+        synchronized (this) {
+            pending = saveChain;
+        }
+        try {
+            pending.exceptionally(error -> null).get(60, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Error waiting for pending saves: {0}", e.getMessage());
+        }
+    }
+
     public StudentRepository getStudentRepository() {
         return studentRepository;
     }
@@ -118,7 +175,30 @@ public class RepositoryManager {
         return moduleRepository;
     }
 
+    public Snapshot snapshot() {
+        return RepositorySnapshots.capture(() -> new Snapshot(studentRepository.snapshot(),
+                courseRepository.snapshot(), instructorRepository.snapshot(), moduleRepository.snapshot()));
+    }
+
+    public static synchronized void flushIfInitialized() {
+        if (instance != null) {
+            instance.flushPendingSaves();
+        }
+    }
+
+    // Lets queued saves of the old instance finish before a fresh one reloads the files.
     public static synchronized void reset() {
+        if (instance != null) {
+            instance.flushPendingSaves();
+        }
         instance = null;
     }
+
+    public record Snapshot(
+            StudentRepository students,
+            CourseRepository courses,
+            InstructorRepository instructors,
+            ModuleRepository modules
+    ) {
+    }
 }
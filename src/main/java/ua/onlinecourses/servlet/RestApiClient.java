@@ -2,16 +2,30 @@ package ua.onlinecourses.servlet;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.ObjectReader;
+import ua.onlinecourses.concurrent.ExecutorRegistry;
+import ua.onlinecourses.exception.RemoteApiException;
+import ua.onlinecourses.serializer.CodecRegistry;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -19,23 +33,38 @@ public class RestApiClient {
 
     private static final Logger logger = Logger.getLogger(RestApiClient.class.getName());
     private static final String DEFAULT_BASE_URL = "http://localhost:8080/api";
+    public static final int DEFAULT_MAX_IN_FLIGHT = 32;
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(100);
+    public static final int DEFAULT_BULK_CHUNK_SIZE = 500;
 
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final String baseUrl;
+    private final Semaphore inFlight;
+    private final int maxRetries;
+    private final Duration initialBackoff;
 
     public RestApiClient() {
         this(DEFAULT_BASE_URL);
     }
 
     public RestApiClient(String baseUrl) {
+        this(baseUrl, DEFAULT_MAX_IN_FLIGHT, DEFAULT_MAX_RETRIES, DEFAULT_INITIAL_BACKOFF);
+    }
+
+    public RestApiClient(String baseUrl, int maxInFlight, int maxRetries, Duration initialBackoff) {
+        if (maxInFlight < 1 || maxRetries < 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive and maxRetries non-negative");
+        }
         this.baseUrl = baseUrl;
         this.httpClient = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(10))
                 .build();
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+        this.objectMapper = CodecRegistry.http().mapper();
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxRetries = maxRetries;
+        this.initialBackoff = initialBackoff;
     }
 
     public String get(String endpoint) throws IOException, InterruptedException {
@@ -88,6 +117,138 @@ public class RestApiClient {
         return response.body();
     }
 
+    public <T> CompletableFuture<T> getAsync(String endpoint, Class<T> type) {
+        return sendAsync(jsonRequest(endpoint).GET().build(), CodecRegistry.http().reader(type));
+    }
+
+    public <T> CompletableFuture<List<T>> getListAsync(String endpoint, Class<T> elementType) {
+        return sendAsync(jsonRequest(endpoint).GET().build(), CodecRegistry.http().listReader(elementType));
+    }
+
+    public <T> CompletableFuture<T> postAsync(String endpoint, Object body, Class<T> responseType) {
+        return sendAsync(jsonRequest(endpoint).POST(jsonBody(body)).build(), CodecRegistry.http().reader(responseType));
+    }
+
+    public <T> CompletableFuture<T> putAsync(String endpoint, Object body, Class<T> responseType) {
+        return sendAsync(jsonRequest(endpoint).PUT(jsonBody(body)).build(), CodecRegistry.http().reader(responseType));
+    }
+
+    public CompletableFuture<JsonNode> deleteAsync(String endpoint) {
+        return sendAsync(jsonRequest(endpoint).DELETE().build(), CodecRegistry.http().reader(JsonNode.class));
+    }
+
+    public CompletableFuture<BulkRequestProcessor.BulkResponse> bulkUploadAsync(String collection, List<?> items) {
+        return bulkUploadAsync(collection, items, DEFAULT_BULK_CHUNK_SIZE);
+    }
+
+    public CompletableFuture<BulkRequestProcessor.BulkResponse> bulkUploadAsync(String collection, List<?> items,
+                                                                               int chunkSize) {
+        List<CompletableFuture<BulkRequestProcessor.BulkResponse>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            List<?> chunk = items.subList(from, Math.min(items.size(), from + chunkSize));
+            chunks.add(postAsync("/" + collection + BulkRequestProcessor.BULK_PATH, chunk,
+                    BulkRequestProcessor.BulkResponse.class));
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<BulkRequestProcessor.BulkItemResult> results = new ArrayList<>(items.size());
+            int succeeded = 0;
+            long offset = 0;
+            for (CompletableFuture<BulkRequestProcessor.BulkResponse> chunk : chunks) {
+                BulkRequestProcessor.BulkResponse response = chunk.join();
+                for (BulkRequestProcessor.BulkItemResult result : response.results()) {
+                    results.add(new BulkRequestProcessor.BulkItemResult(offset + result.index(), result.id(),
+                            result.status(), result.error()));
+                }
+                succeeded += response.succeeded();
+                offset += response.total();
+            }
+            logger.log(Level.INFO, "Bulk upload to {0}: {1} items in {2} chunks, {3} succeeded",
+                    new Object[]{collection, items.size(), chunks.size(), succeeded});
+            return new BulkRequestProcessor.BulkResponse(results.size(), succeeded, results.size() - succeeded, results);
+        });
+    }
+
+    private HttpRequest.Builder jsonRequest(String endpoint) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + endpoint))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json; format=compact")
+                .header("Accept-Encoding", "identity");
+    }
+
+    private HttpRequest.BodyPublisher jsonBody(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(CodecRegistry.http().compactWriter().writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> CompletableFuture<T> sendAsync(HttpRequest request, ObjectReader reader) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> result = attempt(request, reader, 0);
+        result.whenComplete((value, ex) -> inFlight.release());
+        return result;
+    }
+
+    private <T> CompletableFuture<T> attempt(HttpRequest request, ObjectReader reader, int attempt) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(response -> this.<T>decode(request, response, reader))
+                .handle((value, ex) -> {
+                    if (ex == null) {
+                        return CompletableFuture.completedFuture(value);
+                    }
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof UncheckedIOException unchecked) {
+                        cause = unchecked.getCause();
+                    }
+                    if (attempt < maxRetries && isRetryable(request, cause)) {
+                        long delay = initialBackoff.toMillis() << attempt;
+                        logger.log(Level.WARNING, "{0} {1} failed ({2}), retry {3}/{4} in {5} ms",
+                                new Object[]{request.method(), request.uri(), cause.getMessage(),
+                                        attempt + 1, maxRetries, delay});
+                        Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS,
+                                ExecutorRegistry.forwarding(ExecutorRegistry.Pool.IO));
+                        return CompletableFuture.supplyAsync(() -> null, delayed)
+                                .thenCompose(ignored -> this.<T>attempt(request, reader, attempt + 1));
+                    }
+                    return CompletableFuture.<T>failedFuture(cause);
+                })
+                .thenCompose(future -> future);
+    }
+
+    private <T> T decode(HttpRequest request, HttpResponse<InputStream> response, ObjectReader reader) {
+        try (InputStream body = response.body()) {
+            int status = response.statusCode();
+            if (status >= 400) {
+                String text = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                throw new RemoteApiException(request.method() + " " + request.uri() + " returned " + status,
+                        status, text);
+            }
+            logger.log(Level.FINE, "{0} {1} - Status: {2}", new Object[]{request.method(), request.uri(), status});
+            return reader.readValue(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // A POST may already have been applied when the response is lost or an error status comes back, so
+    // it is only replayed when the connection was never established; other methods are idempotent.
+    private static boolean isRetryable(HttpRequest request, Throwable cause) {
+        if ("POST".equals(request.method())) {
+            return cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException;
+        }
+        if (cause instanceof RemoteApiException remote) {
+            return remote.isRetryable();
+        }
+        return cause instanceof IOException && !(cause instanceof com.fasterxml.jackson.core.JsonProcessingException);
+    }
+
     public void printFormattedJson(String json) {
         try {
             JsonNode node = objectMapper.readTree(json);
@@ -0,0 +1,94 @@
+package ua.onlinecourses.servlet;
+
+import ua.onlinecourses.config.AppConfig;
+import ua.onlinecourses.config.ConfigKeys;
+
+public record ServerSettings(
+        int port,
+        ExecutionMode executionMode,
+        int minThreads,
+        int maxThreads,
+        int threadIdleTimeoutMs,
+        int acceptors,
+        int selectors,
+        int idleTimeoutMs,
+        int acceptQueueSize,
+        int outputBufferSize,
+        boolean keepAlive,
+        boolean h2cEnabled,
+        boolean gzipEnabled,
+        int gzipMinSize,
+        JsonFormat jsonFormat,
+        int ingestBatchSize
+) {
+
+    public static final int DEFAULT_MIN_THREADS = 8;
+    public static final int DEFAULT_MAX_THREADS = 200;
+    public static final int DEFAULT_THREAD_IDLE_TIMEOUT_MS = 60_000;
+    public static final int DEFAULT_IDLE_TIMEOUT_MS = 30_000;
+    public static final int DEFAULT_ACCEPT_QUEUE_SIZE = 128;
+    public static final int DEFAULT_OUTPUT_BUFFER_SIZE = 32 * 1024;
+    public static final int DEFAULT_GZIP_MIN_SIZE = 1024;
+    public static final int DEFAULT_INGEST_BATCH_SIZE = 500;
+
+    public ServerSettings {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Invalid port: " + port);
+        }
+        if (minThreads < 1 || maxThreads < minThreads) {
+            throw new IllegalArgumentException("Invalid thread pool bounds: min=" + minThreads + ", max=" + maxThreads);
+        }
+        if (outputBufferSize < 1024) {
+            throw new IllegalArgumentException("Output buffer size must be at least 1024 bytes: " + outputBufferSize);
+        }
+        if (gzipMinSize < 0) {
+            throw new IllegalArgumentException("Gzip minimum size must not be negative: " + gzipMinSize);
+        }
+        if (ingestBatchSize < 1) {
+            throw new IllegalArgumentException("Ingest batch size must be positive: " + ingestBatchSize);
+        }
+        if (jsonFormat == null) {
+            jsonFormat = JsonFormat.PRETTY;
+        }
+    }
+
+    public static ServerSettings defaults(int port, ExecutionMode executionMode) {
+        return new ServerSettings(port, executionMode,
+                DEFAULT_MIN_THREADS, DEFAULT_MAX_THREADS, DEFAULT_THREAD_IDLE_TIMEOUT_MS,
+                -1, -1, DEFAULT_IDLE_TIMEOUT_MS, DEFAULT_ACCEPT_QUEUE_SIZE, DEFAULT_OUTPUT_BUFFER_SIZE,
+                true, false, true, DEFAULT_GZIP_MIN_SIZE, JsonFormat.PRETTY, DEFAULT_INGEST_BATCH_SIZE);
+    }
+
+    public static ServerSettings fromConfig(AppConfig config) {
+        return new ServerSettings(
+                config.getServerPort(),
+                ExecutionMode.fromString(config.getServerExecutionMode()),
+                config.getIntProperty(ConfigKeys.SERVER_THREADS_MIN, DEFAULT_MIN_THREADS),
+                config.getIntProperty(ConfigKeys.SERVER_THREADS_MAX, DEFAULT_MAX_THREADS),
+                config.getIntProperty(ConfigKeys.SERVER_THREADS_IDLE_TIMEOUT_MS, DEFAULT_THREAD_IDLE_TIMEOUT_MS),
+                config.getIntProperty(ConfigKeys.SERVER_CONNECTOR_ACCEPTORS, -1),
+                config.getIntProperty(ConfigKeys.SERVER_CONNECTOR_SELECTORS, -1),
+                config.getIntProperty(ConfigKeys.SERVER_CONNECTOR_IDLE_TIMEOUT_MS, DEFAULT_IDLE_TIMEOUT_MS),
+                config.getIntProperty(ConfigKeys.SERVER_CONNECTOR_ACCEPT_QUEUE_SIZE, DEFAULT_ACCEPT_QUEUE_SIZE),
+                config.getIntProperty(ConfigKeys.SERVER_OUTPUT_BUFFER_SIZE, DEFAULT_OUTPUT_BUFFER_SIZE),
+                config.getBooleanProperty(ConfigKeys.SERVER_KEEP_ALIVE, true),
+                config.getBooleanProperty(ConfigKeys.SERVER_H2C_ENABLED, false),
+                config.getBooleanProperty(ConfigKeys.SERVER_GZIP_ENABLED, true),
+                config.getIntProperty(ConfigKeys.SERVER_GZIP_MIN_SIZE, DEFAULT_GZIP_MIN_SIZE),
+                JsonFormat.fromString(config.getProperty(ConfigKeys.SERVER_JSON_FORMAT)),
+                config.getIntProperty(ConfigKeys.SERVER_INGEST_BATCH_SIZE, DEFAULT_INGEST_BATCH_SIZE)
+        );
+    }
+
+    public ServerSettings withPort(int port) {
+        return new ServerSettings(port, executionMode, minThreads, maxThreads, threadIdleTimeoutMs,
+                acceptors, selectors, idleTimeoutMs, acceptQueueSize, outputBufferSize, keepAlive, h2cEnabled,
+                gzipEnabled, gzipMinSize, jsonFormat, ingestBatchSize);
+    }
+
+    public ServerSettings withCompression(boolean gzipEnabled, JsonFormat jsonFormat) {
+        return new ServerSettings(port, executionMode, minThreads, maxThreads, threadIdleTimeoutMs,
+                acceptors, selectors, idleTimeoutMs, acceptQueueSize, outputBufferSize, keepAlive, h2cEnabled,
+                gzipEnabled, gzipMinSize, jsonFormat, ingestBatchSize);
+    }
+}
@@ -2,8 +2,15 @@ package ua.onlinecourses.servlet;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import ua.onlinecourses.exception.DuplicateEntityException;
+import ua.onlinecourses.exception.InvalidDataException;
+import ua.onlinecourses.exception.VersionConflictException;
 import ua.onlinecourses.model.Student;
+import ua.onlinecourses.query.StudentQueryParser;
+import ua.onlinecourses.query.QueryPlanner;
+import ua.onlinecourses.query.QueryResult;
 import ua.onlinecourses.repository.StudentRepository;
+import ua.onlinecourses.repository.Versioned;
 
 import java.io.IOException;
 import java.time.LocalDate;
@@ -11,14 +18,17 @@ import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
 
-public class StudentServlet extends BaseServlet {
+public class StudentServlet extends AsyncBaseServlet {
 
     private StudentRepository repository;
+    private BulkRequestProcessor<Student, StudentDTO> bulkProcessor;
 
     @Override
     public void init() throws jakarta.servlet.ServletException {
         super.init();
         repository = RepositoryManager.getInstance().getStudentRepository();
+        bulkProcessor = new BulkRequestProcessor<>(objectMapper, repository, StudentDTO.class, this::buildStudent,
+                RepositoryManager.getInstance()::saveStudentsToFile);
         logger.log(Level.INFO, "StudentServlet initialized with {0} students", repository.size());
     }
 
@@ -28,20 +38,30 @@ public class StudentServlet extends BaseServlet {
             String pathInfo = request.getPathInfo();
             String id = extractId(pathInfo);
 
-            if (id == null || id.isEmpty()) {
+            if ((id == null || id.isEmpty()) && hasQueryParameters(request)) {
+                QueryResult<Student> result = QueryPlanner.execute(repository,
+                        StudentQueryParser.parse(request.getParameterMap(), repository));
+                logger.log(Level.INFO, "GET students by query, plan: {0}, matches: {1}",
+                        new Object[]{result.plan(), result.totalMatches()});
+                sendQueryResponse(response, result);
+            } else if (id == null || id.isEmpty()) {
                 List<Student> students = repository.getAll();
                 logger.log(Level.INFO, "GET all students, count: {0}", students.size());
                 sendJsonResponse(response, HttpServletResponse.SC_OK, students);
             } else {
-                Optional<Student> student = repository.findByIdentity(id);
+                Optional<Versioned<Student>> student = repository.findVersioned(id);
                 if (student.isPresent()) {
                     logger.log(Level.INFO, "GET student by email: {0}", id);
-                    sendJsonResponse(response, HttpServletResponse.SC_OK, student.get());
+                    setEntityTag(response, student.get().version());
+                    sendJsonResponse(response, HttpServletResponse.SC_OK, student.get().value());
                 } else {
                     logger.log(Level.WARNING, "Student not found: {0}", id);
                     sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Student not found: " + id);
                 }
             }
+        } catch (InvalidDataException e) {
+            logger.log(Level.WARNING, "Invalid GET query: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error processing GET request: {0}", e.getMessage());
             sendErrorResponse(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
@@ -50,20 +70,24 @@ public class StudentServlet extends BaseServlet {
 
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (isBulkRequest(request)) {
+            handleBulkRequest(request, response, bulkProcessor);
+            return;
+        }
+        if (isIngestRequest(request)) {
+            handleIngestRequest(request, response, bulkProcessor);
+            return;
+        }
         try {
             String body = readRequestBody(request);
-            StudentDTO dto = objectMapper.readValue(body, StudentDTO.class);
+            StudentDTO dto = readJson(body, StudentDTO.class);
             
-            Student student = new Student(
-                    dto.firstName,
-                    dto.lastName,
-                    dto.email,
-                    dto.enrollmentDate != null ? LocalDate.parse(dto.enrollmentDate) : LocalDate.now()
-            );
+            Student student = buildStudent(dto, null);
 
             if (repository.add(student)) {
                 RepositoryManager.getInstance().saveStudentsToFile();
                 logger.log(Level.INFO, "POST created student: {0}", student.email());
+                setEntityTag(response, repository, student.email());
                 sendJsonResponse(response, HttpServletResponse.SC_CREATED, student);
             } else {
                 logger.log(Level.WARNING, "POST failed - student already exists: {0}", student.email());
@@ -84,28 +108,26 @@ public class StudentServlet extends BaseServlet {
                 return;
             }
 
-            Optional<Student> existing = repository.findByIdentity(id);
-            if (existing.isEmpty()) {
+            String body = readRequestBody(request);
+            StudentDTO dto = readJson(body, StudentDTO.class);
+
+            Optional<Versioned<Student>> replaced = repository.compute(id, expectedVersion(request, repository, id),
+                    existing -> buildStudent(dto, existing));
+            if (replaced.isEmpty()) {
                 sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Student not found: " + id);
                 return;
             }
-
-            String body = readRequestBody(request);
-            StudentDTO dto = objectMapper.readValue(body, StudentDTO.class);
-
-            repository.remove(existing.get());
-
-            Student updated = new Student(
-                    dto.firstName != null ? dto.firstName : existing.get().firstName(),
-                    dto.lastName != null ? dto.lastName : existing.get().lastName(),
-                    dto.email != null ? dto.email : existing.get().email(),
-                    dto.enrollmentDate != null ? LocalDate.parse(dto.enrollmentDate) : existing.get().enrollmentDate()
-            );
-
-            repository.add(updated);
+            Student updated = replaced.get().value();
             RepositoryManager.getInstance().saveStudentsToFile();
             logger.log(Level.INFO, "PUT updated student: {0}", updated.email());
+            setEntityTag(response, replaced.get().version());
             sendJsonResponse(response, HttpServletResponse.SC_OK, updated);
+        } catch (VersionConflictException e) {
+            logger.log(Level.WARNING, "PUT precondition failed: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_PRECONDITION_FAILED, e.getMessage());
+        } catch (DuplicateEntityException e) {
+            logger.log(Level.WARNING, "PUT conflict: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_CONFLICT, e.getMessage());
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error processing PUT request: {0}", e.getMessage());
             sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
@@ -121,7 +143,7 @@ public class StudentServlet extends BaseServlet {
                 return;
             }
 
-            if (repository.removeByIdentity(id)) {
+            if (repository.removeByIdentity(id, expectedVersion(request, repository, id))) {
                 RepositoryManager.getInstance().saveStudentsToFile();
                 logger.log(Level.INFO, "DELETE removed student: {0}", id);
                 java.util.Map<String, String> result = new java.util.HashMap<>();
@@ -131,12 +153,32 @@ public class StudentServlet extends BaseServlet {
                 logger.log(Level.WARNING, "DELETE failed - student not found: {0}", id);
                 sendErrorResponse(response, HttpServletResponse.SC_NOT_FOUND, "Student not found: " + id);
             }
+        } catch (VersionConflictException e) {
+            logger.log(Level.WARNING, "DELETE precondition failed: {0}", e.getMessage());
+            sendErrorResponse(response, HttpServletResponse.SC_PRECONDITION_FAILED, e.getMessage());
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error processing DELETE request: {0}", e.getMessage());
             sendErrorResponse(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
         }
     }
 
+    private Student buildStudent(StudentDTO dto, Student existing) {
+        if (existing == null) {
+            return new Student(
+                    dto.firstName,
+                    dto.lastName,
+                    dto.email,
+                    dto.enrollmentDate != null ? LocalDate.parse(dto.enrollmentDate) : LocalDate.now()
+            );
+        }
+        return new Student(
+                dto.firstName != null ? dto.firstName : existing.firstName(),
+                dto.lastName != null ? dto.lastName : existing.lastName(),
+                dto.email != null ? dto.email : existing.email(),
+                dto.enrollmentDate != null ? LocalDate.parse(dto.enrollmentDate) : existing.enrollmentDate()
+        );
+    }
+
     public static class StudentDTO {
         public String firstName;
         public String lastName;
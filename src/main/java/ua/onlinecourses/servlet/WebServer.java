@@ -1,9 +1,21 @@
 package ua.onlinecourses.servlet;
 
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.ConnectionFactory;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.VirtualThreads;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import ua.onlinecourses.concurrent.ExecutorRegistry;
+import ua.onlinecourses.config.AppConfig;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -13,45 +25,137 @@ public class WebServer {
     private static final int DEFAULT_PORT = 8080;
 
     private final Server server;
+    private final ServerConnector connector;
     private final int port;
+    private final ExecutionMode executionMode;
+    private final ServerSettings settings;
 
     public WebServer() {
         this(DEFAULT_PORT);
     }
 
     public WebServer(int port) {
-        this.port = port;
-        this.server = new Server(port);
+        this(port, ExecutionMode.PLATFORM);
+    }
+
+    public WebServer(AppConfig config) {
+        this(ServerSettings.fromConfig(config));
+    }
+
+    public WebServer(int port, ExecutionMode executionMode) {
+        this(ServerSettings.defaults(port, executionMode));
+    }
+
+    public WebServer(ServerSettings settings) {
+        this.settings = settings;
+        this.port = settings.port();
+        this.executionMode = resolveExecutionMode(settings.executionMode());
+        this.server = new Server(createThreadPool(settings, this.executionMode));
+        this.connector = createConnector(server, settings);
+        this.server.addConnector(connector);
         configureServlets();
     }
 
+    private static ExecutionMode resolveExecutionMode(ExecutionMode requested) {
+        if (requested == ExecutionMode.VIRTUAL && !VirtualThreads.areSupported()) {
+            logger.log(Level.WARNING, "Virtual threads are not supported by Java {0}, falling back to platform threads",
+                    System.getProperty("java.version"));
+            return ExecutionMode.PLATFORM;
+        }
+        return requested;
+    }
+
+    private static QueuedThreadPool createThreadPool(ServerSettings settings, ExecutionMode executionMode) {
+        QueuedThreadPool threadPool = new QueuedThreadPool(
+                settings.maxThreads(), settings.minThreads(), settings.threadIdleTimeoutMs());
+        threadPool.setName("web-server");
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            threadPool.setVirtualThreadsExecutor(VirtualThreads.getDefaultVirtualThreadsExecutor());
+        }
+        logger.log(Level.INFO, "Request handling runs on {0} threads (pool min={1}, max={2})",
+                new Object[]{executionMode.name().toLowerCase(), settings.minThreads(), settings.maxThreads()});
+        return threadPool;
+    }
+
+    private static ServerConnector createConnector(Server server, ServerSettings settings) {
+        HttpConfiguration httpConfig = new HttpConfiguration();
+        httpConfig.setOutputBufferSize(settings.outputBufferSize());
+        httpConfig.setPersistentConnectionsEnabled(settings.keepAlive());
+        httpConfig.setSendServerVersion(false);
+
+        List<ConnectionFactory> factories = new ArrayList<>();
+        factories.add(new HttpConnectionFactory(httpConfig));
+        if (settings.h2cEnabled()) {
+            factories.add(new HTTP2CServerConnectionFactory(httpConfig));
+        }
+
+        ServerConnector connector = new ServerConnector(server, settings.acceptors(), settings.selectors(),
+                factories.toArray(new ConnectionFactory[0]));
+        connector.setPort(settings.port());
+        connector.setIdleTimeout(settings.idleTimeoutMs());
+        connector.setAcceptQueueSize(settings.acceptQueueSize());
+        logger.log(Level.INFO, "Connector configured: acceptors={0}, selectors={1}, idleTimeout={2}ms, " +
+                        "acceptQueue={3}, outputBuffer={4}, keepAlive={5}, h2c={6}",
+                new Object[]{connector.getAcceptors(), connector.getSelectorManager().getSelectorCount(),
+                        settings.idleTimeoutMs(), settings.acceptQueueSize(), settings.outputBufferSize(),
+                        settings.keepAlive(), settings.h2cEnabled()});
+        return connector;
+    }
+
     private void configureServlets() {
         ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
         context.setContextPath("/api");
 
-        context.addServlet(new ServletHolder(new StudentServlet()), "/students/*");
-        context.addServlet(new ServletHolder(new CourseServlet()), "/courses/*");
-        context.addServlet(new ServletHolder(new InstructorServlet()), "/instructors/*");
-        context.addServlet(new ServletHolder(new ModuleServlet()), "/modules/*");
-
-        server.setHandler(context);
+        context.addServlet(createHolder(new StudentServlet()), "/students/*");
+        context.addServlet(createHolder(new CourseServlet()), "/courses/*");
+        context.addServlet(createHolder(new InstructorServlet()), "/instructors/*");
+        context.addServlet(createHolder(new ModuleServlet()), "/modules/*");
+        context.addServlet(createHolder(new ChangeStreamServlet()), "/changes/*");
+        context.addServlet(createHolder(new ExecutorMetricsServlet()), "/executors/*");
+
+        if (settings.gzipEnabled()) {
+            GzipHandler gzipHandler = new GzipHandler();
+            gzipHandler.setMinGzipSize(settings.gzipMinSize());
+            gzipHandler.setIncludedMimeTypes("application/json", "application/x-ndjson", "text/plain");
+            gzipHandler.setIncludedMethods("GET", "POST", "PUT");
+            gzipHandler.setSyncFlush(true);
+            gzipHandler.setHandler(context);
+            server.setHandler(gzipHandler);
+            logger.log(Level.INFO, "Gzip compression enabled for responses of at least {0} bytes",
+                    settings.gzipMinSize());
+        } else {
+            server.setHandler(context);
+        }
         logger.log(Level.INFO, "Servlets configured at /api context path");
     }
 
+    private ServletHolder createHolder(BaseServlet servlet) {
+        ServletHolder holder = new ServletHolder(servlet);
+        holder.setAsyncSupported(true);
+        holder.setInitParameter(BaseServlet.JSON_FORMAT_INIT_PARAMETER, settings.jsonFormat().name());
+        holder.setInitParameter(BaseServlet.INGEST_BATCH_SIZE_INIT_PARAMETER, String.valueOf(settings.ingestBatchSize()));
+        return holder;
+    }
+
     public void start() throws Exception {
-        logger.log(Level.INFO, "Starting web server on port {0}...", port);
+        logger.log(Level.INFO, "Starting web server on port {0}...", this.port);
+        ExecutorRegistry.shared();
         server.start();
-        logger.log(Level.INFO, "Web server started successfully");
+        int port = getPort();
+        logger.log(Level.INFO, "Web server started successfully in {0} execution mode", executionMode);
         logger.log(Level.INFO, "REST API endpoints:");
         logger.log(Level.INFO, "  Students:    http://localhost:{0}/api/students", port);
         logger.log(Level.INFO, "  Courses:     http://localhost:{0}/api/courses", port);
         logger.log(Level.INFO, "  Instructors: http://localhost:{0}/api/instructors", port);
         logger.log(Level.INFO, "  Modules:     http://localhost:{0}/api/modules", port);
+        logger.log(Level.INFO, "  Executors:   http://localhost:{0}/api/executors", port);
     }
 
     public void stop() throws Exception {
         logger.log(Level.INFO, "Stopping web server...");
         server.stop();
+        RepositoryManager.flushIfInitialized();
+        ExecutorRegistry.shutdownShared();
         logger.log(Level.INFO, "Web server stopped");
     }
 
@@ -63,18 +167,37 @@ public class WebServer {
         return server.isRunning();
     }
 
+    public int getPort() {
+        int localPort = connector.getLocalPort();
+        return localPort > 0 ? localPort : port;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public ServerSettings getSettings() {
+        return settings;
+    }
+
+    // The underlying Jetty server, for checks on the applied connector and thread pool settings.
+    Server getServer() {
+        return server;
+    }
+
     public static void main(String[] args) {
-        int port = DEFAULT_PORT;
+        AppConfig config = new AppConfig();
+        int port = config.getServerPort();
         if (args.length > 0) {
             try {
                 port = Integer.parseInt(args[0]);
             } catch (NumberFormatException e) {
                 logger.log(Level.WARNING, "Invalid port number: {0}, using default: {1}",
-                        new Object[]{args[0], DEFAULT_PORT});
+                        new Object[]{args[0], port});
             }
         }
 
-        WebServer webServer = new WebServer(port);
+        WebServer webServer = new WebServer(ServerSettings.fromConfig(config).withPort(port));
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             try {
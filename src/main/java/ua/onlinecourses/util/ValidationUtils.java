@@ -7,6 +7,7 @@ import jakarta.validation.ValidatorFactory;
 import ua.onlinecourses.exception.InvalidDataException;
 
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -15,11 +16,15 @@ public class ValidationUtils {
     private static final Logger logger = Logger.getLogger(ValidationUtils.class.getName());
     private static final ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
     private static final Validator validator = factory.getValidator();
+    private static final ThreadLocal<Boolean> trustedConstruction = ThreadLocal.withInitial(() -> false);
 
     private ValidationUtils() {
     }
 
     public static <T> void validate(T object) {
+        if (trustedConstruction.get()) {
+            return;
+        }
         logger.log(Level.INFO, "Attempting to validate object: {0}", object.getClass().getSimpleName());
         Set<ConstraintViolation<T>> violations = validator.validate(object);
         if (!violations.isEmpty()) {
@@ -38,6 +43,18 @@ public class ValidationUtils {
         logger.log(Level.INFO, "Validation successful for {0}", object.getClass().getSimpleName());
     }
 
+    public static <T> T constructTrusted(Supplier<T> constructor) {
+        if (trustedConstruction.get()) {
+            return constructor.get();
+        }
+        trustedConstruction.set(true);
+        try {
+            return constructor.get();
+        } finally {
+            trustedConstruction.set(false);
+        }
+    }
+
     public static Validator getValidator() {
         return validator;
     }
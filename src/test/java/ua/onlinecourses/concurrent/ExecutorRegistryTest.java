@@ -0,0 +1,117 @@
+package ua.onlinecourses.concurrent;
+
+import org.eclipse.jetty.util.VirtualThreads;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorRegistryTest {
+
+    private ExecutorRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ExecutorRegistry(new ExecutorSettings(1, 1, 1, 1, true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void testMetricsCountCompletedTasks() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            registry.cpu().submit(() -> { }).get(5, TimeUnit.SECONDS);
+        }
+
+        // the pool counts a task as completed just after its future completes
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (metrics("cpu").completed() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        ExecutorMetrics cpu = metrics("cpu");
+        assertEquals(3, cpu.completed());
+        assertEquals(0, cpu.queued());
+        assertEquals(0, cpu.rejected());
+        assertEquals(1, cpu.poolSize());
+    }
+
+    @Test
+    void testFullCpuPoolRunsTaskOnCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        registry.cpu().execute(() -> await(release));
+        registry.cpu().execute(() -> { });
+
+        AtomicReference<Thread> runner = new AtomicReference<>();
+        registry.cpu().execute(() -> runner.set(Thread.currentThread()));
+
+        assertSame(Thread.currentThread(), runner.get());
+        ExecutorMetrics cpu = metrics("cpu");
+        assertEquals(1, cpu.queued());
+        assertEquals(1, cpu.rejected());
+        release.countDown();
+    }
+
+    @Test
+    void testFullIoPoolRejects() {
+        CountDownLatch release = new CountDownLatch(1);
+        registry.io().execute(() -> await(release));
+        registry.io().execute(() -> { });
+
+        assertThrows(RejectedExecutionException.class, () -> registry.io().execute(() -> { }));
+        assertEquals(1, metrics("io").rejected());
+        release.countDown();
+    }
+
+    @Test
+    void testVirtualPoolFallsBackToIoWhenUnsupported() throws Exception {
+        if (VirtualThreads.areSupported()) {
+            assertNotSame(registry.io(), registry.virtual());
+        } else {
+            assertSame(registry.io(), registry.virtual());
+        }
+        assertEquals("done", registry.virtual().submit(() -> "done").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSharedRegistryRestartsAfterShutdown() throws Exception {
+        ExecutorRegistry first = ExecutorRegistry.shared();
+        assertSame(first, ExecutorRegistry.shared());
+
+        ExecutorRegistry.shutdownShared();
+
+        assertTrue(first.isShutdown());
+        assertTrue(first.cpu().isShutdown());
+        String thread = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(),
+                ExecutorRegistry.forwarding(ExecutorRegistry.Pool.CPU)).get(5, TimeUnit.SECONDS);
+        assertTrue(thread.startsWith("cpu-"));
+        assertNotSame(first, ExecutorRegistry.shared());
+    }
+
+    @Test
+    void testInvalidSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ExecutorSettings(0, 1, 1, 1, true));
+        assertThrows(IllegalArgumentException.class, () -> new ExecutorSettings(1, 1, 1, 0, true));
+    }
+
+    private ExecutorMetrics metrics(String name) {
+        return registry.metrics().stream().filter(m -> m.name().equals(name)).findFirst().orElseThrow();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
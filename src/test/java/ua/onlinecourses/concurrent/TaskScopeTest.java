@@ -0,0 +1,134 @@
+package ua.onlinecourses.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskScopeTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        // the scope timer runs on the shared scheduler; starting it must not eat into test budgets
+        ExecutorRegistry.shared();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testJoinCollectsAllResults() throws Exception {
+        try (TaskScope scope = TaskScope.open("all", Duration.ofSeconds(5), executor)) {
+            Subtask<Integer> first = scope.fork("first", () -> 1);
+            Subtask<String> second = scope.fork("second", () -> "two");
+
+            scope.join();
+
+            assertEquals(1, first.get());
+            assertEquals("two", second.get());
+            assertTrue(scope.missing().isEmpty());
+            assertFalse(scope.isExpired());
+        }
+    }
+
+    @Test
+    void testDeadlineCancelsBlockedAndSpinningSiblings() throws Exception {
+        CountDownLatch blockedStopped = new CountDownLatch(1);
+        CountDownLatch spinnerStopped = new CountDownLatch(1);
+        try (TaskScope scope = TaskScope.open("slow", Duration.ofMillis(100), executor)) {
+            Subtask<String> fast = scope.fork("fast", () -> "done");
+            Subtask<Void> blocked = scope.fork("blocked", () -> {
+                try {
+                    Thread.sleep(60_000);
+                    return null;
+                } finally {
+                    blockedStopped.countDown();
+                }
+            });
+            Subtask<Void> spinning = scope.fork("spinning", () -> {
+                try {
+                    while (true) {
+                        TaskScope.checkpoint();
+                    }
+                } finally {
+                    spinnerStopped.countDown();
+                }
+            });
+
+            long start = System.nanoTime();
+            scope.join();
+
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            assertTrue(scope.isExpired());
+            assertEquals("done", fast.get());
+            assertEquals(Subtask.State.CANCELLED, blocked.state());
+            assertEquals(Subtask.State.CANCELLED, spinning.state());
+            assertTrue(blockedStopped.await(5, TimeUnit.SECONDS), "Interrupted task should stop");
+            assertTrue(spinnerStopped.await(5, TimeUnit.SECONDS), "Task at a checkpoint should stop");
+        }
+    }
+
+    @Test
+    void testFailureIsCapturedWithoutCancellingSiblings() throws Exception {
+        try (TaskScope scope = TaskScope.open("failing", Duration.ofSeconds(5), executor)) {
+            Subtask<Integer> failing = scope.fork("failing", () -> {
+                throw new IllegalStateException("boom");
+            });
+            Subtask<Integer> ok = scope.fork("ok", () -> 2);
+
+            scope.join();
+
+            assertEquals(Subtask.State.FAILED, failing.state());
+            assertEquals("boom", failing.exception().getMessage());
+            assertEquals(0, failing.getOrDefault(0));
+            assertEquals(2, ok.get());
+        }
+    }
+
+    @Test
+    void testNestedScopeInheritsDeadlineAndParentCancellation() throws Exception {
+        AtomicReference<TaskScope> child = new AtomicReference<>();
+        CountDownLatch childStarted = new CountDownLatch(1);
+        try (TaskScope parent = TaskScope.open("parent", Duration.ofSeconds(2), executor)) {
+            Subtask<Void> outer = parent.fork("outer", () -> {
+                try (TaskScope nested = TaskScope.open("nested", Duration.ofMinutes(5), executor)) {
+                    child.set(nested);
+                    nested.fork("inner", () -> {
+                        childStarted.countDown();
+                        Thread.sleep(60_000);
+                        return null;
+                    });
+                    nested.join();
+                }
+                return null;
+            });
+
+            assertTrue(childStarted.await(5, TimeUnit.SECONDS));
+            assertEquals(parent.getDeadline(), child.get().getDeadline());
+
+            parent.cancel();
+
+            assertTrue(child.get().isCancelled());
+            assertEquals(Subtask.State.CANCELLED, outer.state());
+        }
+    }
+
+    @Test
+    void testCheckpointOutsideScopeIsNoOp() {
+        assertNull(TaskScope.current());
+        assertDoesNotThrow(TaskScope::checkpoint);
+    }
+}
@@ -9,9 +9,11 @@ import ua.onlinecourses.repository.CourseRepository;
 import ua.onlinecourses.repository.InstructorRepository;
 import ua.onlinecourses.repository.StudentRepository;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -121,16 +123,65 @@ class DataProcessingTest {
 
     @Test
     void testExecutorServiceProcessor() throws Exception {
-        ExecutorServiceProcessor processor = new ExecutorServiceProcessor(4);
+        ExecutorServiceProcessor processor = new ExecutorServiceProcessor();
 
-        processor.executeMultipleTasks(studentRepo, courseRepo, instructorRepo);
+        TaskResults results = processor.executeMultipleTasks(studentRepo, courseRepo, instructorRepo);
 
-        processor.shutdown();
+        assertTrue(results.isComplete(), "All tasks should finish within the default budget");
+        assertEquals(12, results.values().get("totalCredits"));
+        assertEquals(6, results.values().size());
+    }
+
+    @Test
+    void testExecuteMultipleTasksReportsTasksCutOffByBudget() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> {
+            release.await();
+            return null;
+        });
+        try {
+            ExecutorServiceProcessor processor = new ExecutorServiceProcessor(executor);
+
+            TaskResults results = processor.executeMultipleTasks(studentRepo, courseRepo, instructorRepo,
+                    Duration.ofMillis(100));
+
+            assertTrue(results.partial());
+            assertEquals(6, results.cancelled().size());
+            assertTrue(results.values().isEmpty());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testProcessAllDataAsyncReturnsPartialResultWhenBudgetExpires() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> {
+            release.await();
+            return null;
+        });
+        try {
+            CompletableFutureProcessor processor = new CompletableFutureProcessor(executor);
+
+            CompletableFutureProcessor.DataProcessingResult result = processor
+                    .processAllDataAsync(studentRepo, courseRepo, instructorRepo, Duration.ofMillis(100))
+                    .get(5, TimeUnit.SECONDS);
+
+            assertTrue(result.partial());
+            assertEquals(List.of("studentCount", "totalCredits", "averageExpertise", "courseTitles"), result.missing());
+            assertEquals(0, result.studentCount());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
     }
 
     @Test
     void testCompletableFutureProcessing() throws Exception {
-        CompletableFutureProcessor processor = new CompletableFutureProcessor(4);
+        CompletableFutureProcessor processor = new CompletableFutureProcessor();
 
         CompletableFuture<CompletableFutureProcessor.DataProcessingResult> resultFuture =
                 processor.processAllDataAsync(studentRepo, courseRepo, instructorRepo);
@@ -140,13 +191,12 @@ class DataProcessingTest {
         assertEquals(3, result.studentCount(), "Should have 3 students");
         assertEquals(12, result.totalCredits(), "Total credits should be 12");
         assertEquals(3, result.courseTitles().size(), "Should have 3 course titles");
-
-        processor.shutdown();
+        assertFalse(result.partial());
     }
 
     @Test
     void testCombineStudentFiltering() throws Exception {
-        CompletableFutureProcessor processor = new CompletableFutureProcessor(4);
+        CompletableFutureProcessor processor = new CompletableFutureProcessor();
 
         CompletableFuture<List<Student>> resultFuture =
                 processor.combineStudentFiltering(studentRepo, "chnu.edu.ua", "student.ua");
@@ -154,8 +204,6 @@ class DataProcessingTest {
         List<Student> result = resultFuture.get(30, TimeUnit.SECONDS);
 
         assertEquals(3, result.size(), "Should find 3 students from both domains");
-
-        processor.shutdown();
     }
 
     @Test
@@ -177,4 +225,15 @@ class DataProcessingTest {
                 "Both approaches should produce same sum");
         assertEquals(12, parallelSum, "Sum should be 12");
     }
+
+    @Test
+    void testAdaptiveProcessingScansStorageInPlace() {
+        // the removed slot stays in storage as a gap the in-place scan has to skip
+        courseRepo.remove(courseRepo.getAll().stream()
+                .filter(course -> course.title().equals("Python Intro"))
+                .findFirst().orElseThrow());
+
+        assertEquals(2, ProcessingComparison.filterAdaptive(courseRepo, 3));
+        assertEquals(9, ProcessingComparison.sumCreditsAdaptive(courseRepo));
+    }
 }
@@ -0,0 +1,129 @@
+package ua.onlinecourses.parallel;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionStrategySelectorTest {
+
+    private static final String OPERATION = "test.operation";
+    private static final int LARGE = 1 << 20;
+
+    private ExecutorService executor;
+    private ExecutionStrategySelector selector;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        selector = new ExecutionStrategySelector(executor, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSmallInputsRunSequentially() {
+        assertEquals(ExecutionStrategy.SEQUENTIAL, selector.choose(OPERATION, 10));
+        assertEquals(ExecutionStrategy.SEQUENTIAL,
+                selector.choose(OPERATION, ExecutionStrategySelector.MIN_PARALLEL_SIZE - 1));
+    }
+
+    @Test
+    void testCheapWorkStaysSequential() {
+        selector.record(OPERATION, ExecutionStrategy.SEQUENTIAL, LARGE, LARGE / 100);
+
+        assertEquals(ExecutionStrategy.SEQUENTIAL, selector.choose(OPERATION, 10_000));
+    }
+
+    @Test
+    void testPicksCheapestMeasuredStrategy() {
+        selector.record(OPERATION, ExecutionStrategy.SEQUENTIAL, LARGE, LARGE * 100L);
+        assertEquals(ExecutionStrategy.PARALLEL_STREAM, selector.choose(OPERATION, LARGE), "unmeasured strategies are tried first");
+
+        selector.record(OPERATION, ExecutionStrategy.PARALLEL_STREAM, LARGE, LARGE * 30L);
+        selector.record(OPERATION, ExecutionStrategy.PARTITIONED_EXECUTOR, LARGE, LARGE * 20L);
+
+        assertEquals(ExecutionStrategy.PARTITIONED_EXECUTOR, selector.choose(OPERATION, LARGE));
+        assertEquals(20.0, selector.nanosPerElement(OPERATION, ExecutionStrategy.PARTITIONED_EXECUTOR, LARGE)
+                .orElseThrow(), 0.001);
+    }
+
+    @Test
+    void testLiveTimingsMoveTheChoice() {
+        selector.record(OPERATION, ExecutionStrategy.SEQUENTIAL, LARGE, LARGE * 100L);
+        selector.record(OPERATION, ExecutionStrategy.PARALLEL_STREAM, LARGE, LARGE * 30L);
+        selector.record(OPERATION, ExecutionStrategy.PARTITIONED_EXECUTOR, LARGE, LARGE * 40L);
+        assertEquals(ExecutionStrategy.PARALLEL_STREAM, selector.choose(OPERATION, LARGE));
+
+        for (int i = 0; i < 10; i++) {
+            selector.record(OPERATION, ExecutionStrategy.PARALLEL_STREAM, LARGE, LARGE * 200L);
+        }
+
+        assertEquals(ExecutionStrategy.PARTITIONED_EXECUTOR, selector.choose(OPERATION, LARGE));
+    }
+
+    @Test
+    void testPeriodicallyRemeasuresStaleStrategy() {
+        selector.record(OPERATION, ExecutionStrategy.SEQUENTIAL, LARGE, LARGE * 100L);
+        selector.record(OPERATION, ExecutionStrategy.PARALLEL_STREAM, LARGE, LARGE * 30L);
+        selector.record(OPERATION, ExecutionStrategy.PARTITIONED_EXECUTOR, LARGE, LARGE * 40L);
+
+        List<ExecutionStrategy> choices = new ArrayList<>();
+        for (int i = 0; i < ExecutionStrategySelector.EXPLORE_INTERVAL; i++) {
+            choices.add(selector.choose(OPERATION, LARGE));
+        }
+
+        assertTrue(choices.contains(ExecutionStrategy.SEQUENTIAL), "stale strategy should be re-measured");
+        assertEquals(ExecutionStrategy.PARALLEL_STREAM, choices.get(0));
+    }
+
+    @Test
+    void testEveryStrategyProducesTheSameResult() {
+        List<Integer> values = IntStream.range(0, 50_000).boxed().collect(Collectors.toList());
+
+        for (ExecutionStrategy strategy : ExecutionStrategy.values()) {
+            List<Integer> evens = selector.execute(strategy, OPERATION, values.spliterator(),
+                    Collectors.filtering(value -> value % 2 == 0, Collectors.toList()));
+            long sum = selector.execute(strategy, OPERATION, values.spliterator(),
+                    Collectors.summingLong(Integer::longValue));
+
+            assertEquals(25_000, evens.size(), strategy.name());
+            assertEquals(0, evens.get(0));
+            assertEquals(49_998, evens.get(evens.size() - 1), "encounter order is kept");
+            assertEquals(1_249_975_000L, sum, strategy.name());
+            assertTrue(selector.nanosPerElement(OPERATION, strategy, values.size()).isPresent());
+        }
+    }
+
+    @Test
+    void testPartitionKeepsEncounterOrder() {
+        List<Integer> values = IntStream.range(0, 1_000).boxed().collect(Collectors.toList());
+
+        List<Spliterator<Integer>> parts = ExecutionStrategySelector.partition(values.spliterator(), 8);
+
+        assertEquals(8, parts.size());
+        List<Integer> joined = new ArrayList<>();
+        parts.forEach(part -> part.forEachRemaining(joined::add));
+        assertEquals(values, joined);
+    }
+
+    @Test
+    void testPartitionedFailurePropagates() {
+        List<Integer> values = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+
+        assertThrows(ArithmeticException.class, () -> selector.execute(ExecutionStrategy.PARTITIONED_EXECUTOR,
+                OPERATION, values.spliterator(), Collectors.summingInt(value -> 1 / (value - 5_000))));
+    }
+}
@@ -0,0 +1,143 @@
+package ua.onlinecourses.parallel;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ua.onlinecourses.model.Student;
+import ua.onlinecourses.parser.StudentFileParser;
+import ua.onlinecourses.repository.StudentRepository;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestPipelineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ExecutorService executor;
+    private StudentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        repository = new StudentRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testAllStagesDeliverEveryValidRow() throws Exception {
+        List<String> lines = studentLines(1_000);
+        lines.add(3, "# comment");
+        lines.add(10, "");
+        lines.add("Broken,Line");
+        lines.add("Old,Student,old.student@test.com,2001-01-01");
+        lines.add(lines.get(0));
+        Path file = write(lines);
+        IngestSettings settings = new IngestSettings(1, new IngestSettings.Stage(1, 64),
+                new IngestSettings.Stage(2, 50), new IngestSettings.Stage(3, 17), new IngestSettings.Stage(2, 100));
+
+        IngestReport report = pipeline(settings, StudentFileParser::parseStudentFromFields)
+                .runAsync(file, executor).get(30, TimeUnit.SECONDS);
+
+        assertEquals(1_000, repository.size());
+        assertEquals(1_000, report.inserted());
+        assertEquals(1_003, report.lines());
+        assertEquals(2, report.rejected());
+        assertEquals(1, report.duplicates());
+        assertEquals(List.of("read", "tokenize", "construct", "insert"),
+                report.stages().stream().map(IngestReport.StageMetrics::stage).toList());
+        assertEquals(1_003, report.stages().get(1).items());
+        assertEquals(1_001, report.stages().get(3).items());
+        assertEquals(2, report.stages().get(2).failed());
+    }
+
+    @Test
+    void testSlowStageThrottlesUpstreamAndIsReportedAsBottleneck() throws Exception {
+        Path file = write(studentLines(200));
+        IngestSettings settings = new IngestSettings(1, new IngestSettings.Stage(1, 5),
+                new IngestSettings.Stage(1, 5), new IngestSettings.Stage(1, 5), new IngestSettings.Stage(1, 5));
+        Function<String[], Student> slowConstructor = fields -> {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return StudentFileParser.parseStudentFromFields(fields);
+        };
+
+        IngestReport report = pipeline(settings, slowConstructor).runAsync(file, executor).get(30, TimeUnit.SECONDS);
+
+        assertEquals(200, report.inserted());
+        assertEquals("construct", report.bottleneck().stage());
+        assertTrue(report.stages().get(0).blockedNanos() > 0, "reader should wait for room downstream");
+        assertTrue(report.stages().get(3).starvedNanos() > report.stages().get(3).busyNanos(),
+                "insert should mostly wait for input");
+    }
+
+    @Test
+    void testMissingFileFailsTheRun() {
+        IngestPipeline<Student> pipeline = pipeline(IngestSettings.defaults(), StudentFileParser::parseStudentFromFields);
+
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> pipeline.runAsync(tempDir.resolve("missing.csv"), executor).join());
+        assertInstanceOf(UncheckedIOException.class, error.getCause());
+        assertEquals(0, repository.size());
+    }
+
+    @Test
+    void testPoolTooSmallForPipelineIsRejected() {
+        ExecutorService small = Executors.newFixedThreadPool(2);
+        try {
+            assertThrows(IllegalArgumentException.class, () -> pipeline(IngestSettings.defaults(),
+                    StudentFileParser::parseStudentFromFields).runAsync(tempDir.resolve("any.csv"), small));
+        } finally {
+            small.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidSettingsAreRejected() {
+        IngestSettings.Stage stage = new IngestSettings.Stage(1, 10);
+        assertThrows(IllegalArgumentException.class, () -> new IngestSettings.Stage(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new IngestSettings.Stage(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new IngestSettings(0, stage, stage, stage, stage));
+        assertThrows(IllegalArgumentException.class,
+                () -> new IngestSettings(1, new IngestSettings.Stage(2, 10), stage, stage, stage));
+    }
+
+    private IngestPipeline<Student> pipeline(IngestSettings settings, Function<String[], Student> constructor) {
+        return new IngestPipeline<>("students", settings, constructor, repository);
+    }
+
+    private Path write(List<String> lines) throws Exception {
+        Path file = tempDir.resolve("students.csv");
+        Files.write(file, lines);
+        return file;
+    }
+
+    private static List<String> studentLines(int count) {
+        String date = LocalDate.now().minusDays(30).toString();
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add("Anna,Koval,anna.koval" + i + "@test.com," + date);
+        }
+        return lines;
+    }
+}
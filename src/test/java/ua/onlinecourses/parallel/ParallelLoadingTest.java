@@ -12,10 +12,12 @@ import ua.onlinecourses.repository.ModuleRepository;
 import ua.onlinecourses.repository.StudentRepository;
 
 import java.time.LocalDate;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -52,8 +54,24 @@ class ParallelLoadingTest {
         assertTrue(courseRepo.size() >= 0, "Courses should be loaded");
         assertTrue(instructorRepo.size() >= 0, "Instructors should be loaded");
         assertTrue(moduleRepo.size() >= 0, "Modules should be loaded");
+    }
 
-        loader.shutdown();
+    @Test
+    void testPoolTooSmallForAllPipelinesLoadsSequentially() throws Exception {
+        IngestSettings settings = IngestSettings.defaults();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(settings.workerCount(), settings.workerCount(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(settings.workerCount()));
+        try {
+            ParallelDataLoader loader = new ParallelDataLoader(studentRepo, courseRepo, instructorRepo, moduleRepo,
+                    settings, pool);
+
+            loader.loadAllDataParallel("students.csv", "courses.csv", "instructors.csv", "modules.csv")
+                    .get(30, TimeUnit.SECONDS);
+
+            assertEquals(4, loader.getReports().size(), "Every pipeline should finish on the small pool");
+        } finally {
+            pool.shutdownNow();
+        }
     }
 
     @Test
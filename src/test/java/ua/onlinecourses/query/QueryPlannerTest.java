@@ -0,0 +1,149 @@
+package ua.onlinecourses.query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.onlinecourses.exception.InvalidDataException;
+import ua.onlinecourses.model.Course;
+import ua.onlinecourses.model.Instructor;
+import ua.onlinecourses.model.Student;
+import ua.onlinecourses.repository.CourseRepository;
+import ua.onlinecourses.repository.InstructorRepository;
+import ua.onlinecourses.repository.StudentRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryPlannerTest {
+
+    private StudentRepository studentRepo;
+    private CourseRepository courseRepo;
+    private InstructorRepository instructorRepo;
+
+    @BeforeEach
+    void setUp() {
+        studentRepo = new StudentRepository();
+        courseRepo = new CourseRepository();
+        instructorRepo = new InstructorRepository();
+
+        studentRepo.add(new Student("Lesia", "Melnyk", "lesia.melnyk@chnu.edu.ua", LocalDate.now().minusMonths(3)));
+        studentRepo.add(new Student("Liliya", "Fivko", "liliya.fivko@student.ua", LocalDate.now().minusMonths(2)));
+        studentRepo.add(new Student("Ivan", "Bondaryk", "ivan.bondaryk@chnu.edu.ua", LocalDate.now().minusMonths(1)));
+        studentRepo.add(new Student("Oksana", "Melnyk", "oksana.melnyk@gmail.com", LocalDate.now().minusMonths(4)));
+
+        courseRepo.add(new Course("Java Basics", "Introduction to Java", 5, LocalDate.now().plusMonths(1)));
+        courseRepo.add(new Course("Python Intro", "Learn Python basics", 3, LocalDate.now().plusMonths(2)));
+        courseRepo.add(new Course("Web Development", "HTML CSS JavaScript", 4, LocalDate.now().plusMonths(3)));
+        courseRepo.add(new Course("Databases", "Relational modelling", 2, LocalDate.now().plusMonths(4)));
+
+        instructorRepo.add(new Instructor("Igor", "Bylat", 15));
+        instructorRepo.add(new Instructor("Denys", "Malyk", 25));
+        instructorRepo.add(new Instructor("Inessa", "Kir", 10));
+    }
+
+    @Test
+    void testIdentityLookupUsesIndex() {
+        EntityQuery<Student> query = StudentQueryParser.parse(
+                Map.of("email", new String[]{"ivan.bondaryk@chnu.edu.ua"}), studentRepo);
+
+        QueryPlan<Student> plan = QueryPlanner.plan(studentRepo, query);
+        QueryResult<Student> result = QueryPlanner.execute(studentRepo, query);
+
+        assertTrue(plan.usesIndex());
+        assertEquals("identity", plan.access().indexName());
+        assertEquals(1, result.totalMatches());
+        assertEquals("Ivan", result.items().get(0).firstName());
+    }
+
+    @Test
+    void testDomainFilterWithSortAndPaging() {
+        EntityQuery<Student> query = StudentQueryParser.parse(Map.of(
+                "domain", new String[]{"chnu.edu.ua"},
+                "sort", new String[]{"enrollmentDate"},
+                "order", new String[]{"desc"},
+                "limit", new String[]{"1"}), studentRepo);
+
+        QueryResult<Student> result = QueryPlanner.execute(studentRepo, query);
+
+        assertEquals(2, result.totalMatches());
+        assertEquals(1, result.items().size());
+        assertEquals("ivan.bondaryk@chnu.edu.ua", result.items().get(0).email());
+    }
+
+    @Test
+    void testUnselectiveIndexFallsBackToScan() {
+        EntityQuery<Course> query = CourseQueryParser.parse(Map.of(
+                "minCredits", new String[]{"2"},
+                "maxCredits", new String[]{"5"}), courseRepo);
+
+        QueryPlan<Course> plan = QueryPlanner.plan(courseRepo, query);
+
+        assertFalse(plan.usesIndex());
+        assertEquals(4, QueryPlanner.execute(courseRepo, query).totalMatches());
+    }
+
+    @Test
+    void testSelectiveRangeUsesIndexAndResidualFilter() {
+        EntityQuery<Course> query = CourseQueryParser.parse(Map.of(
+                "minCredits", new String[]{"5"},
+                "title", new String[]{"java"}), courseRepo);
+
+        QueryPlan<Course> plan = QueryPlanner.plan(courseRepo, query);
+        QueryResult<Course> result = QueryPlanner.execute(courseRepo, query);
+
+        assertTrue(plan.usesIndex());
+        assertEquals(CourseRepository.INDEX_CREDITS, plan.access().indexName());
+        assertEquals(1, plan.residualCriteria().size());
+        assertEquals(List.of("Java Basics"), result.items().stream().map(Course::title).toList());
+    }
+
+    @Test
+    void testTopKMatchesFullSort() {
+        EntityQuery<Instructor> query = InstructorQueryParser.parse(Map.of(
+                "sort", new String[]{"expertise"},
+                "order", new String[]{"desc"},
+                "offset", new String[]{"1"},
+                "limit", new String[]{"2"}), instructorRepo);
+
+        QueryResult<Instructor> result = QueryPlanner.execute(instructorRepo, query);
+
+        assertEquals(3, result.totalMatches());
+        assertEquals(List.of(15, 10), result.items().stream().map(Instructor::expertise).toList());
+    }
+
+    @Test
+    void testHugeLimitDoesNotSizeTheHeap() {
+        EntityQuery<Instructor> query = InstructorQueryParser.parse(Map.of(
+                "sort", new String[]{"expertise"},
+                "limit", new String[]{"2000000000"}), instructorRepo);
+
+        QueryResult<Instructor> result = QueryPlanner.execute(instructorRepo, query);
+
+        assertEquals(List.of(10, 15, 25), result.items().stream().map(Instructor::expertise).toList());
+    }
+
+    @Test
+    void testOffsetPlusLimitOverflowIsHandled() {
+        EntityQuery<Instructor> query = InstructorQueryParser.parse(Map.of(
+                "sort", new String[]{"expertise"},
+                "offset", new String[]{"1"},
+                "limit", new String[]{String.valueOf(Integer.MAX_VALUE)}), instructorRepo);
+
+        QueryResult<Instructor> result = QueryPlanner.execute(instructorRepo, query);
+
+        assertEquals(3, result.totalMatches());
+        assertEquals(List.of(15, 25), result.items().stream().map(Instructor::expertise).toList());
+    }
+
+    @Test
+    void testInvalidParametersAreRejected() {
+        assertThrows(InvalidDataException.class, () ->
+                InstructorQueryParser.parse(Map.of("unknown", new String[]{"x"}), instructorRepo));
+        assertThrows(InvalidDataException.class, () ->
+                InstructorQueryParser.parse(Map.of("minExpertise", new String[]{"abc"}), instructorRepo));
+        assertThrows(InvalidDataException.class, () ->
+                CourseQueryParser.parse(Map.of("sort", new String[]{"unknown"}), courseRepo));
+    }
+}
@@ -0,0 +1,147 @@
+package ua.onlinecourses.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.onlinecourses.model.Student;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Repository Change Event Tests")
+public class ChangeEventTest {
+
+    private StudentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new StudentRepository();
+    }
+
+    private Student student(int i, String firstName) {
+        return new Student(firstName, "Rotar", "student" + i + "@chnu.edu.ua", LocalDate.now().minusMonths(1));
+    }
+
+    private static class Collector implements Flow.Subscriber<ChangeEvent<Student>> {
+        final BlockingQueue<ChangeEvent<Student>> events = new LinkedBlockingQueue<>();
+        final CountDownLatch subscribed = new CountDownLatch(1);
+        Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+            subscribed.countDown();
+        }
+
+        @Override
+        public void onNext(ChangeEvent<Student> item) {
+            events.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        ChangeEvent<Student> next() throws InterruptedException {
+            ChangeEvent<Student> event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "expected a change event");
+            return event;
+        }
+    }
+
+    @Test
+    @DisplayName("Test add, replace and remove are published in order")
+    void testEventsPublishedInOrder() throws Exception {
+        Collector collector = new Collector();
+        repository.subscribe(collector);
+        assertTrue(collector.subscribed.await(5, TimeUnit.SECONDS));
+
+        Student original = student(1, "Alice");
+        Student renamed = student(1, "Alicia");
+        repository.add(original);
+        repository.replace(original.email(), renamed);
+        repository.removeByIdentity(original.email());
+
+        ChangeEvent<Student> added = collector.next();
+        ChangeEvent<Student> replaced = collector.next();
+        ChangeEvent<Student> removed = collector.next();
+
+        assertEquals(ChangeEvent.Type.ADDED, added.type());
+        assertEquals(original, added.current());
+        assertNull(added.previous());
+        assertEquals(ChangeEvent.Type.REPLACED, replaced.type());
+        assertEquals(original, replaced.previous());
+        assertEquals(renamed, replaced.current());
+        assertEquals(ChangeEvent.Type.REMOVED, removed.type());
+        assertEquals(renamed, removed.previous());
+        assertEquals("Student", added.entityType());
+        assertEquals(original.email(), removed.identity());
+
+        assertEquals(added.sequence() + 1, replaced.sequence());
+        assertEquals(replaced.sequence() + 1, removed.sequence());
+        assertEquals(removed.sequence(), repository.getChangeSequence());
+    }
+
+    @Test
+    @DisplayName("Test slow subscribers drop events instead of blocking writers")
+    void testSlowSubscriberDropsEvents() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Collector slow = new Collector() {
+            @Override
+            public void onNext(ChangeEvent<Student> item) {
+                super.onNext(item);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        repository.subscribe(slow);
+        assertTrue(slow.subscribed.await(5, TimeUnit.SECONDS));
+
+        int total = GenericRepository.CHANGE_BUFFER_SIZE * 3;
+        for (int i = 0; i < total; i++) {
+            repository.add(student(i, "Student"));
+        }
+        assertEquals(total, repository.size());
+        assertTrue(repository.getDroppedChangeEvents() > 0);
+        release.countDown();
+
+        List<ChangeEvent<Student>> received = new ArrayList<>();
+        ChangeEvent<Student> event;
+        while ((event = slow.events.poll(1, TimeUnit.SECONDS)) != null) {
+            received.add(event);
+        }
+        assertEquals(total, received.size() + repository.getDroppedChangeEvents());
+
+        repository.add(student(total, "Late"));
+        ChangeEvent<Student> late = slow.next();
+        assertEquals(repository.getChangeSequence(), late.sequence());
+        assertTrue(late.sequence() > received.get(received.size() - 1).sequence() + 1,
+                "dropped events must show up as a sequence gap");
+    }
+
+    @Test
+    @DisplayName("Test snapshots cannot be subscribed to")
+    void testSnapshotRejectsSubscribers() {
+        repository.add(student(1, "Alice"));
+        long sequence = repository.getChangeSequence();
+        StudentRepository snapshot = repository.snapshot();
+        assertEquals(sequence, snapshot.getChangeSequence());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.subscribe(new Collector()));
+    }
+}
@@ -0,0 +1,119 @@
+package ua.onlinecourses.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.onlinecourses.model.Course;
+import ua.onlinecourses.model.Student;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Columnar View Tests")
+public class ColumnarViewTest {
+
+    private static final String[] DOMAINS = {"chnu.edu.ua", "student.ua", "gmail.com"};
+    private static final String[] LAST_NAMES = {"Melnyk", "Koval", "Bondar", "Shevchuk", "Tkachenko"};
+    private static final int STUDENTS = ColumnStore.CHUNK_SIZE * 2 + 500;
+
+    private StudentRepository students;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        students = new StudentRepository();
+        today = LocalDate.now();
+        for (int i = 0; i < STUDENTS; i++) {
+            students.add(student(i));
+        }
+    }
+
+    private Student student(int i) {
+        return new Student("Student", LAST_NAMES[i % LAST_NAMES.length],
+                "student" + i + "@" + DOMAINS[i % DOMAINS.length], today.minusDays(i % 100));
+    }
+
+    private void assertMatchesRows(StudentRepository repository) {
+        List<Student> all = repository.getAll();
+        ColumnarView<Student> columns = repository.columns();
+
+        assertEquals(all.size(), columns.count());
+        for (String domain : DOMAINS) {
+            List<Student> expected = all.stream()
+                    .filter(student -> student.email().endsWith("@" + domain))
+                    .collect(Collectors.toList());
+            assertEquals(expected.size(), columns.countEquals(StudentRepository.COLUMN_EMAIL_DOMAIN, domain));
+            assertEquals(expected, columns.selectEquals(StudentRepository.COLUMN_EMAIL_DOMAIN, domain));
+        }
+        assertEquals(all.stream().collect(Collectors.groupingBy(Student::lastName, Collectors.counting())),
+                columns.countByDictionary(StudentRepository.COLUMN_LAST_NAME));
+
+        LocalDate from = today.minusDays(30);
+        long recent = all.stream().filter(student -> !student.enrollmentDate().isBefore(from)).count();
+        assertEquals(recent, columns.count(StudentRepository.COLUMN_ENROLLMENT_DATE,
+                (int) from.toEpochDay(), (int) today.toEpochDay()));
+    }
+
+    @Test
+    @DisplayName("Test kernels agree with row scans across chunk boundaries")
+    void testKernelsMatchRowScan() {
+        assertEquals(STUDENTS, students.columns().rowCount());
+        assertMatchesRows(students);
+        assertEquals(0, students.columns().countEquals(StudentRepository.COLUMN_EMAIL_DOMAIN, "unknown.org"));
+        assertThrows(IllegalArgumentException.class, () -> students.columns().count("unknown", 0, 1));
+    }
+
+    @Test
+    @DisplayName("Test removals and replacements keep columns in step and snapshots intact")
+    void testWritesAndSnapshots() {
+        StudentRepository snapshot = students.snapshot();
+        for (int i = 0; i < STUDENTS; i += 7) {
+            students.removeByIdentity(student(i).email());
+        }
+        for (int i = 1; i < STUDENTS; i += 11) {
+            Student existing = student(i);
+            students.replace(existing.email(), new Student("Student", "Renamed",
+                    existing.email(), existing.enrollmentDate()));
+        }
+
+        assertMatchesRows(students);
+        assertMatchesRows(snapshot);
+        assertEquals(STUDENTS, snapshot.columns().count());
+        assertTrue(students.columns().countEquals(StudentRepository.COLUMN_LAST_NAME, "Renamed") > 0);
+        assertEquals(0, snapshot.columns().countEquals(StudentRepository.COLUMN_LAST_NAME, "Renamed"));
+    }
+
+    @Test
+    @DisplayName("Test columns survive compaction and clear")
+    void testCompactionAndClear() {
+        for (int i = 0; i < STUDENTS; i++) {
+            if (i % 4 != 0) {
+                students.removeByIdentity(student(i).email());
+            }
+        }
+        assertTrue(students.columns().rowCount() < STUDENTS);
+        assertMatchesRows(students);
+
+        students.clear();
+        assertEquals(0, students.columns().count());
+        assertTrue(students.columns().countByDictionary(StudentRepository.COLUMN_LAST_NAME).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test int column sums and value histograms")
+    void testIntColumns() {
+        CourseRepository courses = new CourseRepository();
+        for (int day = 0; day < 200; day++) {
+            courses.add(new Course("Course", "Description", day % 5 + 1, today.plusDays(day)));
+        }
+        ColumnarView<Course> columns = courses.columns();
+
+        assertEquals(courses.getTotalCredits(), columns.sum(CourseRepository.COLUMN_CREDITS));
+        assertEquals(40 * 5, columns.sumWhere(CourseRepository.COLUMN_CREDITS, CourseRepository.COLUMN_CREDITS, 5, 5));
+        long[] histogram = columns.countByValue(CourseRepository.COLUMN_CREDITS, 1, 5);
+        assertArrayEquals(new long[]{40, 40, 40, 40, 40}, histogram);
+    }
+}
@@ -0,0 +1,68 @@
+package ua.onlinecourses.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.onlinecourses.model.Instructor;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Generic Repository Aggregate Tests")
+public class GenericRepositoryAggregateTest {
+
+    private InstructorRepository repository;
+    private Instructor junior;
+    private Instructor middle;
+    private Instructor senior;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InstructorRepository();
+        junior = new Instructor("Olena", "Koval", 2);
+        middle = new Instructor("Petro", "Melnyk", 10);
+        senior = new Instructor("Iryna", "Bondar", 30);
+        repository.add(junior);
+        repository.add(middle);
+        repository.add(senior);
+    }
+
+    @Test
+    @DisplayName("Test aggregates follow adds and removals")
+    void testAggregatesFollowWrites() {
+        AggregateStats stats = repository.aggregate(InstructorRepository.AGGREGATE_EXPERTISE);
+        assertEquals(new AggregateStats(3, 42, 2, 30), stats);
+        assertEquals(42, repository.getTotalExpertise());
+        assertEquals(14.0, repository.getAverageExpertise(), 0.0001);
+
+        repository.remove(senior);
+        assertEquals(new AggregateStats(2, 12, 2, 10), repository.aggregate(InstructorRepository.AGGREGATE_EXPERTISE));
+
+        repository.clear();
+        assertTrue(repository.aggregate(InstructorRepository.AGGREGATE_EXPERTISE).isEmpty());
+        assertEquals(0.0, repository.getAverageExpertise());
+    }
+
+    @Test
+    @DisplayName("Test replacements move values between histogram buckets")
+    void testReplaceUpdatesHistogram() {
+        Instructor promoted = new Instructor("Olena", "Koval", 10);
+        repository.replace(junior.getFullName(), promoted);
+
+        assertEquals(new AggregateStats(3, 50, 10, 30), repository.aggregate(InstructorRepository.AGGREGATE_EXPERTISE));
+        assertEquals(Map.of(10, 2L, 30, 1L), repository.histogram(InstructorRepository.AGGREGATE_EXPERTISE));
+    }
+
+    @Test
+    @DisplayName("Test snapshots keep the aggregates of their cut")
+    void testSnapshotAggregates() {
+        InstructorRepository snapshot = repository.snapshot();
+        repository.remove(middle);
+
+        assertEquals(new AggregateStats(3, 42, 2, 30), snapshot.aggregate(InstructorRepository.AGGREGATE_EXPERTISE));
+        assertEquals(Map.of(2, 1L, 10, 1L, 30, 1L), snapshot.histogram(InstructorRepository.AGGREGATE_EXPERTISE));
+        assertEquals(32, repository.getTotalExpertise());
+        assertThrows(IllegalArgumentException.class, () -> repository.aggregate("unknown"));
+    }
+}
@@ -0,0 +1,112 @@
+package ua.onlinecourses.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.onlinecourses.model.Student;
+import ua.onlinecourses.model.myModule;
+import ua.onlinecourses.util.ValidationUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Generic Repository Batch Tests")
+public class GenericRepositoryBatchTest {
+
+    private StudentRepository repository;
+    private Student existing1, existing2, created;
+
+    @BeforeEach
+    void setUp() {
+        repository = new StudentRepository();
+        LocalDate enrolled = LocalDate.now().minusMonths(3);
+        existing1 = new Student("Yuriy", "Vasuluk", "yuriy.vasuluk@chnu.edu.ua", enrolled);
+        existing2 = new Student("Alice", "Rotar", "alice.rotar@chnu.edu.ua", enrolled);
+        created = new Student("Bohdan", "Kostiuk", "bohdan.kostiuk@gmail.com", enrolled);
+        repository.add(existing1);
+        repository.add(existing2);
+    }
+
+    @Test
+    @DisplayName("Test applying a batch of create, update and delete operations")
+    void testApplyBatch() {
+        Student renamed = new Student("Alicia", existing2.lastName(), existing2.email(), existing2.enrollmentDate());
+
+        List<BatchOutcome> outcomes = repository.applyBatch(List.of(
+                BatchOperation.create(created),
+                BatchOperation.create(existing1),
+                BatchOperation.update(existing2.email(), renamed),
+                BatchOperation.delete(existing1.email()),
+                BatchOperation.delete("missing@chnu.edu.ua")
+        ));
+
+        assertEquals(List.of(BatchOutcome.Status.CREATED, BatchOutcome.Status.CONFLICT,
+                        BatchOutcome.Status.UPDATED, BatchOutcome.Status.DELETED, BatchOutcome.Status.NOT_FOUND),
+                outcomes.stream().map(BatchOutcome::status).toList());
+        assertEquals(2, repository.size());
+        assertFalse(repository.containsIdentity(existing1.email()));
+        assertEquals("Alicia", repository.findByIdentity(existing2.email()).orElseThrow().firstName());
+        assertEquals(List.of(renamed), repository.findByIndex(StudentRepository.INDEX_LAST_NAME, "rotar"));
+        assertEquals(1, repository.countByIndex(StudentRepository.INDEX_EMAIL_DOMAIN, "gmail.com"));
+    }
+
+    @Test
+    @DisplayName("Test create followed by delete in the same batch leaves no trace")
+    void testCreateThenDeleteInSameBatch() {
+        List<BatchOutcome> outcomes = repository.applyBatch(List.of(
+                BatchOperation.create(created),
+                BatchOperation.delete(created.email())
+        ));
+
+        assertTrue(outcomes.stream().allMatch(BatchOutcome::isSuccess));
+        assertEquals(2, repository.size());
+        assertFalse(repository.getAll().contains(created));
+    }
+
+    @Test
+    @DisplayName("Test a null replacement is reported invalid and the rest of the batch still applies")
+    void testNullReplacementIsInvalid() {
+        List<BatchOutcome> outcomes = repository.applyBatch(List.of(
+                BatchOperation.create(created),
+                BatchOperation.update(existing1.email(), student -> null)
+        ));
+
+        assertEquals(List.of(BatchOutcome.Status.CREATED, BatchOutcome.Status.INVALID),
+                outcomes.stream().map(BatchOutcome::status).toList());
+        assertEquals(existing1, repository.findByIdentity(existing1.email()).orElseThrow());
+        assertTrue(repository.getAll().contains(created));
+    }
+
+    @Test
+    @DisplayName("Test an item without a valid identity is reported invalid")
+    void testIdentityFailureIsInvalid() {
+        ModuleRepository modules = new ModuleRepository();
+        // trusted construction skips Bean Validation, so the title is too short to derive an identity
+        myModule nameless = ValidationUtils.constructTrusted(() -> new myModule("ab", "cd"));
+
+        List<BatchOutcome> outcomes = modules.applyBatch(List.of(
+                BatchOperation.create(nameless),
+                BatchOperation.create(new myModule("Streams", "Stream API"))
+        ));
+
+        assertEquals(List.of(BatchOutcome.Status.INVALID, BatchOutcome.Status.CREATED),
+                outcomes.stream().map(BatchOutcome::status).toList());
+        assertEquals(1, modules.getAll().size());
+    }
+
+    @Test
+    @DisplayName("Test operations applied before an unexpected failure are published")
+    void testPartialBatchIsPublishedOnFailure() {
+        assertThrows(AssertionError.class, () -> repository.applyBatch(List.of(
+                BatchOperation.create(created),
+                BatchOperation.update(existing1.email(), student -> {
+                    throw new AssertionError("updater crashed");
+                })
+        )));
+
+        assertTrue(repository.getAll().contains(created));
+        assertEquals(3, repository.getAll().size());
+    }
+}
@@ -0,0 +1,135 @@
+package ua.onlinecourses.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.onlinecourses.model.Assignment;
+import ua.onlinecourses.model.Instructor;
+import ua.onlinecourses.model.Mark;
+import ua.onlinecourses.model.myModule;
+import ua.onlinecourses.util.ValidationUtils;
+
+import java.time.LocalDate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Generic Repository Bucket Index Tests")
+public class GenericRepositoryBucketIndexTest {
+
+    private InstructorRepository repository;
+    private Instructor junior;
+    private Instructor seniorA;
+    private Instructor seniorB;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InstructorRepository();
+        junior = new Instructor("Olena", "Koval", 5);
+        seniorA = new Instructor("Petro", "Melnyk", 40);
+        seniorB = new Instructor("Iryna", "Bondar", 40);
+        repository.add(junior);
+        repository.add(seniorA);
+        repository.add(seniorB);
+        repository.add(new Instructor("Taras", "Shevchuk", 20));
+    }
+
+    @Test
+    @DisplayName("Test all-with-max stays correct when the maximum is removed")
+    void testMaxSurvivesRemoval() {
+        assertEquals(List.of(seniorA, seniorB), repository.getAllInstructorsWithMaxExpertise());
+        assertEquals(seniorA, repository.getInstructorWithMaxExpertise().orElseThrow());
+
+        repository.remove(seniorA);
+        repository.remove(seniorB);
+        assertEquals(20, repository.getInstructorWithMaxExpertise().orElseThrow().expertise());
+
+        repository.clear();
+        assertTrue(repository.getAllInstructorsWithMaxExpertise().isEmpty());
+        assertTrue(repository.getInstructorWithMaxExpertise().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test top-K returns values in descending order")
+    void testTopK() {
+        List<Integer> top = repository.getTopInstructorsByExpertise(3).stream()
+                .map(Instructor::expertise)
+                .collect(Collectors.toList());
+        assertEquals(List.of(40, 40, 20), top);
+        assertEquals(4, repository.getTopInstructorsByExpertise(10).size());
+        assertTrue(repository.getTopInstructorsByExpertise(0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> repository.getTopInstructorsByExpertise(-1));
+    }
+
+    @Test
+    @DisplayName("Test bucket index serves equality lookups and follows replacements")
+    void testEqualityLookupAndReplace() {
+        assertEquals(2, repository.countByIndex(InstructorRepository.INDEX_EXPERTISE, 40));
+        assertEquals(List.of(junior), repository.findByIndex(InstructorRepository.INDEX_EXPERTISE, 5));
+        assertTrue(repository.findByIndex(InstructorRepository.INDEX_EXPERTISE, 99).isEmpty());
+
+        Instructor promoted = new Instructor("Olena", "Koval", 55);
+        repository.replace(junior.getFullName(), promoted);
+        assertEquals(List.of(promoted), repository.getAllInstructorsWithMaxExpertise());
+        assertEquals(0, repository.countByIndex(InstructorRepository.INDEX_EXPERTISE, 5));
+    }
+
+    @Test
+    @DisplayName("Test snapshots answer max and top-K by scanning their cut")
+    void testSnapshotFallback() {
+        InstructorRepository snapshot = repository.snapshot();
+        repository.add(new Instructor("Ostap", "Vyshnya", 60));
+
+        assertEquals(List.of(seniorA, seniorB), snapshot.getAllInstructorsWithMaxExpertise());
+        assertEquals(List.of(40, 40), snapshot.getTopInstructorsByExpertise(2).stream()
+                .map(Instructor::expertise)
+                .collect(Collectors.toList()));
+        assertEquals(60, repository.getInstructorWithMaxExpertise().orElseThrow().expertise());
+    }
+
+    @Test
+    @DisplayName("Test ties come back in insertion order and replacements keep their position")
+    void testTiesKeepInsertionOrder() {
+        Instructor taras = new Instructor("Taras", "Shevchuk", 20);
+        assertEquals(List.of(seniorA, seniorB, taras), repository.getTopInstructorsByExpertise(3));
+
+        Instructor raisedA = new Instructor("Petro", "Melnyk", 41);
+        Instructor loweredA = new Instructor("Petro", "Melnyk", 40);
+        repository.replace(seniorA.getFullName(), raisedA);
+        assertEquals(List.of(raisedA), repository.getAllInstructorsWithMaxExpertise());
+        repository.replace(raisedA.getFullName(), loweredA);
+
+        List<Instructor> live = repository.getAllInstructorsWithMaxExpertise();
+        assertEquals(List.of(loweredA, seniorB), live);
+        assertEquals(live, repository.snapshot().getAllInstructorsWithMaxExpertise());
+        assertEquals(repository.snapshot().getTopInstructorsByExpertise(4), repository.getTopInstructorsByExpertise(4));
+        assertEquals(List.of(loweredA, seniorB), repository.findByIndex(InstructorRepository.INDEX_EXPERTISE, 40));
+        assertEquals(2, repository.countByIndex(InstructorRepository.INDEX_EXPERTISE, 40));
+    }
+
+    @Test
+    @DisplayName("Test an item the bucket index rejects is not half inserted")
+    void testOutOfRangeInsertLeavesNoTrace() {
+        AssignmentRepository assignments = new AssignmentRepository();
+        myModule module = new myModule("Streams", "Stream API");
+        LocalDate due = LocalDate.now().plusDays(7);
+        // bypasses Bean Validation the way trusted file loads do, so maxPoints can leave the index range
+        Assignment outOfRange = ValidationUtils.constructTrusted(() -> new Assignment(module, due, 500, Mark.GOOD));
+
+        assertThrows(IllegalArgumentException.class, () -> assignments.add(outOfRange));
+        assertEquals(0, assignments.size());
+        assertTrue(assignments.findByIdentity(outOfRange.getIdentity()).isEmpty());
+        assertEquals(0, assignments.columns().count());
+
+        List<BatchOutcome> outcomes = assignments.applyBatch(List.of(BatchOperation.create(outOfRange)));
+        assertFalse(outcomes.get(0).isSuccess());
+        assertEquals(0, assignments.size());
+
+        Assignment valid = new Assignment(module, due, 50, Mark.GOOD);
+        assertTrue(assignments.add(valid));
+        assertEquals(List.of(valid), assignments.findByIndex(AssignmentRepository.INDEX_MAX_POINTS, 50));
+        assertEquals(50, assignments.aggregate(AssignmentRepository.AGGREGATE_MAX_POINTS).max());
+    }
+}
@@ -0,0 +1,113 @@
+package ua.onlinecourses.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.onlinecourses.exception.DuplicateEntityException;
+import ua.onlinecourses.model.Student;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Generic Repository Replace Tests")
+public class GenericRepositoryReplaceTest {
+
+    private StudentRepository repository;
+    private Student first, second, third;
+
+    @BeforeEach
+    void setUp() {
+        repository = new StudentRepository();
+        LocalDate enrolled = LocalDate.now().minusMonths(3);
+        first = new Student("Yuriy", "Vasuluk", "yuriy.vasuluk@chnu.edu.ua", enrolled);
+        second = new Student("Alice", "Rotar", "alice.rotar@chnu.edu.ua", enrolled);
+        third = new Student("Bohdan", "Kostiuk", "bohdan.kostiuk@gmail.com", enrolled);
+        repository.add(first);
+        repository.add(second);
+        repository.add(third);
+    }
+
+    @Test
+    @DisplayName("Test replace keeps position and updates indexes")
+    void testReplaceInPlace() {
+        Student renamed = new Student("Alicia", "Moroz", second.email(), second.enrollmentDate());
+
+        assertEquals(Optional.of(renamed), repository.replace(second.email(), renamed));
+        assertEquals(List.of(first, renamed, third), repository.getAll());
+        assertEquals(3, repository.size());
+        assertTrue(repository.findByIndex(StudentRepository.INDEX_LAST_NAME, "rotar").isEmpty());
+        assertEquals(List.of(renamed), repository.findByIndex(StudentRepository.INDEX_LAST_NAME, "moroz"));
+    }
+
+    @Test
+    @DisplayName("Test compute handles identity change")
+    void testComputeWithIdentityChange() {
+        Student moved = repository.compute(first.email(), existing -> new Student(existing.firstName(),
+                existing.lastName(), "yuriy.vasuluk@gmail.com", existing.enrollmentDate())).orElseThrow();
+
+        assertFalse(repository.containsIdentity(first.email()));
+        assertEquals(moved, repository.findByIdentity("yuriy.vasuluk@gmail.com").orElseThrow());
+        assertEquals(2, repository.countByIndex(StudentRepository.INDEX_EMAIL_DOMAIN, "gmail.com"));
+        assertEquals(List.of(moved, second, third), repository.getAll());
+    }
+
+    @Test
+    @DisplayName("Test compute rejects identity collisions and missing entities")
+    void testComputeConflictsAndMissing() {
+        Student clash = new Student(first.firstName(), first.lastName(), second.email(), first.enrollmentDate());
+
+        assertThrows(DuplicateEntityException.class, () -> repository.replace(first.email(), clash));
+        assertEquals(first, repository.findByIdentity(first.email()).orElseThrow());
+        assertEquals(second, repository.findByIdentity(second.email()).orElseThrow());
+        assertTrue(repository.replace("missing@chnu.edu.ua", clash).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test storage is compacted after many removals")
+    void testRemovalsAndReAdds() {
+        LocalDate enrolled = LocalDate.now().minusMonths(1);
+        for (int i = 0; i < 500; i++) {
+            assertTrue(repository.add(new Student("Load", "Tester", "load" + i + "@test.com", enrolled)));
+        }
+        for (int i = 0; i < 500; i += 2) {
+            assertTrue(repository.removeByIdentity("load" + i + "@test.com"));
+        }
+        assertEquals(253, repository.size());
+        assertEquals(253, repository.getAll().size());
+        for (int i = 1; i < 500; i += 2) {
+            assertTrue(repository.replace("load" + i + "@test.com",
+                    new Student("Done", "Tester", "load" + i + "@test.com", enrolled)).isPresent());
+        }
+        assertEquals(250, repository.findByIndex(StudentRepository.INDEX_LAST_NAME, "tester").size());
+        assertEquals(List.of(first, second, third), repository.getAll().subList(0, 3));
+    }
+
+    @Test
+    @DisplayName("Test concurrent readers never observe a replaced entity as missing")
+    void testReplaceNeverExposesGap() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger gaps = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                if (repository.findByIdentity(second.email()).isEmpty()
+                        || repository.getAll().size() != 3) {
+                    gaps.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 2_000; i++) {
+            String name = i % 2 == 0 ? "Alicia" : "Alice";
+            repository.compute(second.email(), existing -> new Student(name, existing.lastName(),
+                    existing.email(), existing.enrollmentDate()));
+        }
+        running.set(false);
+        reader.join();
+        assertEquals(0, gaps.get());
+    }
+}
@@ -0,0 +1,99 @@
+package ua.onlinecourses.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.onlinecourses.exception.VersionConflictException;
+import ua.onlinecourses.model.Student;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Generic Repository Version Tests")
+public class GenericRepositoryVersionTest {
+
+    private StudentRepository repository;
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        repository = new StudentRepository();
+        student = new Student("Alice", "Rotar", "alice.rotar@chnu.edu.ua", LocalDate.now().minusMonths(3));
+        repository.add(student);
+    }
+
+    private Student renamed(Student existing, String firstName) {
+        return new Student(firstName, existing.lastName(), existing.email(), existing.enrollmentDate());
+    }
+
+    @Test
+    @DisplayName("Test versions advance on every change")
+    void testVersionsAdvance() {
+        long initial = repository.findVersioned(student.email()).orElseThrow().version();
+
+        Versioned<Student> updated = repository.compute(student.email(), initial,
+                existing -> renamed(existing, "Alicia")).orElseThrow();
+        assertTrue(updated.version() > initial);
+        assertEquals(updated, repository.findVersioned(student.email()).orElseThrow());
+
+        Versioned<Student> unchanged = repository.compute(student.email(), updated.version(),
+                existing -> existing).orElseThrow();
+        assertEquals(updated.version(), unchanged.version());
+    }
+
+    @Test
+    @DisplayName("Test stale versions are rejected")
+    void testStaleVersionRejected() {
+        long initial = repository.findVersioned(student.email()).orElseThrow().version();
+        repository.compute(student.email(), initial, existing -> renamed(existing, "Alicia"));
+
+        VersionConflictException ex = assertThrows(VersionConflictException.class,
+                () -> repository.compute(student.email(), initial, existing -> renamed(existing, "Alina")));
+        assertEquals(initial, ex.getExpectedVersion());
+        assertEquals("Alicia", repository.findByIdentity(student.email()).orElseThrow().firstName());
+
+        assertThrows(VersionConflictException.class, () -> repository.removeByIdentity(student.email(), initial));
+        assertTrue(repository.containsIdentity(student.email()));
+        assertTrue(repository.removeByIdentity(student.email(), ex.getCurrentVersion()));
+    }
+
+    @Test
+    @DisplayName("Test concurrent compare-and-set updates never lose a write")
+    void testConcurrentCompareAndSet() throws Exception {
+        repository.replace(student.email(), renamed(student, "N0xx"));
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int applied = 0; applied < 50; ) {
+                        Versioned<Student> current = repository.findVersioned(student.email()).orElseThrow();
+                        String name = current.value().firstName();
+                        int next = Integer.parseInt(name.substring(1, name.length() - 2)) + 1;
+                        try {
+                            repository.compute(student.email(), current.version(),
+                                    existing -> renamed(existing, "N" + next + "xx"));
+                            applied++;
+                        } catch (VersionConflictException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("N400xx", repository.findByIdentity(student.email()).orElseThrow().firstName());
+    }
+}
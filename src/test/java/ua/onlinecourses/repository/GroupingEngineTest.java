@@ -0,0 +1,67 @@
+package ua.onlinecourses.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.onlinecourses.model.Mark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Grouping Engine Tests")
+public class GroupingEngineTest {
+
+    private static final int SIZE = GroupingEngine.PARALLEL_THRESHOLD * 5;
+
+    private PersistentVector<Integer> vector;
+    private List<Integer> values;
+
+    @BeforeEach
+    void setUp() {
+        vector = PersistentVector.empty();
+        for (int i = 0; i < SIZE; i++) {
+            vector = vector.append(i);
+        }
+        for (int i = 0; i < SIZE; i += 13) {
+            vector = vector.set(i, null);
+        }
+        values = StreamSupport.stream(vector.spliterator(0, vector.size()), false).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Test parallel grouping matches Collectors.groupingBy and keeps encounter order")
+    void testGroupByMatchesCollectors() {
+        Map<Integer, List<Integer>> expected = values.stream().collect(Collectors.groupingBy(v -> v % 97));
+        for (boolean parallel : new boolean[]{false, true}) {
+            assertEquals(expected, GroupingEngine.groupBy(vector.spliterator(0, vector.size()), parallel, v -> v % 97));
+            assertEquals(values.stream().collect(Collectors.groupingBy(v -> v % 7, Collectors.counting())),
+                    GroupingEngine.countBy(vector.spliterator(0, vector.size()), parallel, v -> v % 7));
+        }
+    }
+
+    @Test
+    @DisplayName("Test enum and dense integer grouping")
+    void testEnumAndDenseGrouping() {
+        Mark[] marks = Mark.values();
+        Map<Mark, List<Integer>> byMark = GroupingEngine.groupByEnum(vector.spliterator(0, vector.size()), true,
+                Mark.class, v -> marks[v % marks.length]);
+        assertEquals(values.stream().collect(Collectors.groupingBy(v -> marks[v % marks.length])), byMark);
+
+        // keys 0..9 fall in the dense range, 10 and 11 spill into the overflow map
+        Map<Integer, List<Integer>> dense = GroupingEngine.groupByInt(vector.spliterator(0, vector.size()), true,
+                v -> v % 12, 0, 9);
+        assertEquals(values.stream().collect(Collectors.groupingBy(v -> v % 12)), dense);
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11), List.copyOf(dense.keySet()));
+    }
+
+    @Test
+    @DisplayName("Test null keys are rejected like Collectors.groupingBy")
+    void testNullKeysRejected() {
+        assertThrows(NullPointerException.class,
+                () -> GroupingEngine.groupBy(vector.spliterator(0, vector.size()), false, v -> null));
+    }
+}
@@ -0,0 +1,101 @@
+package ua.onlinecourses.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Persistent Vector Tests")
+public class PersistentVectorTest {
+
+    @Test
+    @DisplayName("Test appends across several trie levels")
+    void testAppendAndGet() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        int size = 40_000;
+        for (int i = 0; i < size; i++) {
+            vector = vector.append(i);
+        }
+        assertEquals(size, vector.size());
+        for (int i = 0; i < size; i++) {
+            assertEquals(i, vector.get(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> PersistentVector.empty().get(0));
+    }
+
+    @Test
+    @DisplayName("Test set leaves earlier versions untouched")
+    void testStructuralSharing() {
+        PersistentVector<Integer> original = PersistentVector.empty();
+        for (int i = 0; i < 2_000; i++) {
+            original = original.append(i);
+        }
+        PersistentVector<Integer> updated = original.set(5, -5).set(1_999, null);
+
+        assertEquals(5, original.get(5));
+        assertEquals(1_999, original.get(1_999));
+        assertEquals(-5, updated.get(5));
+        assertNull(updated.get(1_999));
+        assertSame(original.leafFor(1_000), updated.leafFor(1_000));
+    }
+
+    @Test
+    @DisplayName("Test ranged iteration skips empty slots")
+    void testForEachPresent() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < 100; i++) {
+            vector = vector.append(i);
+        }
+        for (int i = 0; i < 100; i += 3) {
+            vector = vector.set(i, null);
+        }
+        List<Integer> seen = new ArrayList<>();
+        vector.forEachPresent(30, 70, seen::add);
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 30; i < 70; i++) {
+            if (i % 3 != 0) {
+                expected.add(i);
+            }
+        }
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    @DisplayName("Test spliterator skips empty slots and splits on leaf boundaries")
+    void testSpliterator() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            vector = vector.append(i);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            if (i % 7 == 0) {
+                vector = vector.set(i, null);
+            } else {
+                expected.add(i);
+            }
+        }
+
+        List<Integer> advanced = new ArrayList<>();
+        Spliterator<Integer> single = vector.spliterator(0, vector.size());
+        while (single.tryAdvance(advanced::add)) {
+        }
+        assertEquals(expected, advanced);
+
+        Spliterator<Integer> suffix = vector.spliterator(0, vector.size());
+        Spliterator<Integer> prefix = suffix.trySplit();
+        assertNotNull(prefix);
+        assertEquals(0, prefix.estimateSize() % PersistentVector.WIDTH);
+
+        assertEquals(expected, StreamSupport.stream(vector.spliterator(0, vector.size()), true)
+                .collect(Collectors.toList()));
+        assertFalse(PersistentVector.<Integer>empty().spliterator(0, 0).tryAdvance(advanced::add));
+    }
+}
@@ -0,0 +1,95 @@
+package ua.onlinecourses.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.onlinecourses.model.Course;
+import ua.onlinecourses.model.Student;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Repository Snapshot Tests")
+public class RepositorySnapshotTest {
+
+    private StudentRepository students;
+    private CourseRepository courses;
+    private LocalDate enrolled;
+
+    @BeforeEach
+    void setUp() {
+        students = new StudentRepository();
+        courses = new CourseRepository();
+        enrolled = LocalDate.now().minusMonths(2);
+        students.add(new Student("Alice", "Rotar", "alice.rotar@chnu.edu.ua", enrolled));
+        students.add(new Student("Bohdan", "Kostiuk", "bohdan.kostiuk@gmail.com", enrolled));
+        courses.add(new Course("Java Basics", "Introduction to Java", 5, LocalDate.now().plusMonths(1)));
+    }
+
+    @Test
+    @DisplayName("Test snapshot is isolated from later writes")
+    void testSnapshotIsolation() {
+        StudentRepository snapshot = students.snapshot();
+
+        students.add(new Student("Ivan", "Bondaryk", "ivan.bondaryk@chnu.edu.ua", enrolled));
+        students.removeByIdentity("alice.rotar@chnu.edu.ua");
+        students.replace("bohdan.kostiuk@gmail.com",
+                new Student("Bodya", "Kostiuk", "bohdan.kostiuk@gmail.com", enrolled));
+
+        assertTrue(snapshot.isSnapshot());
+        assertEquals(2, snapshot.size());
+        assertTrue(snapshot.containsIdentity("alice.rotar@chnu.edu.ua"));
+        assertFalse(snapshot.containsIdentity("ivan.bondaryk@chnu.edu.ua"));
+        assertEquals("Bohdan", snapshot.findByIdentity("bohdan.kostiuk@gmail.com").orElseThrow().firstName());
+        assertEquals(1, snapshot.findByEmailDomain("chnu.edu.ua").size());
+        assertEquals(List.of("Rotar"), snapshot.findByIndex(StudentRepository.INDEX_LAST_NAME, "rotar")
+                .stream().map(Student::lastName).toList());
+        assertEquals(2, students.size());
+    }
+
+    @Test
+    @DisplayName("Test snapshot rejects writes")
+    void testSnapshotIsReadOnly() {
+        StudentRepository snapshot = students.snapshot();
+        Student student = new Student("Ivan", "Bondaryk", "ivan.bondaryk@chnu.edu.ua", enrolled);
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(student));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.removeByIdentity("alice.rotar@chnu.edu.ua"));
+        assertThrows(UnsupportedOperationException.class, snapshot::clear);
+        assertEquals(2, snapshot.size());
+    }
+
+    @Test
+    @DisplayName("Test multi-repository capture is a consistent cut")
+    void testCaptureAcrossRepositories() throws Exception {
+        StudentRepository mirror = new StudentRepository();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; running.get(); i++) {
+                Student student = new Student("Writer", "Tester", "writer" + i + "@test.com", enrolled);
+                students.add(student);
+                mirror.add(student);
+            }
+        });
+        writer.start();
+        try {
+            for (int attempt = 0; attempt < 2_000; attempt++) {
+                StudentRepository[] primaryView = new StudentRepository[1];
+                StudentRepository mirrorView = RepositorySnapshots.capture(() -> {
+                    primaryView[0] = students.snapshot();
+                    return mirror.snapshot();
+                });
+                int primaryAdded = primaryView[0].size() - 2;
+                int mirrorAdded = mirrorView.size();
+                assertTrue(primaryAdded == mirrorAdded || primaryAdded == mirrorAdded + 1,
+                        "primary " + primaryAdded + " vs mirror " + mirrorAdded);
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+}
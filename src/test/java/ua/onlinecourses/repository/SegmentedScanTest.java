@@ -0,0 +1,129 @@
+package ua.onlinecourses.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.onlinecourses.concurrent.Subtask;
+import ua.onlinecourses.concurrent.TaskScope;
+import ua.onlinecourses.model.Course;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Segmented Scan Tests")
+public class SegmentedScanTest {
+
+    private static final int SIZE = SegmentedScan.MIN_SEGMENT_SLOTS * 25;
+
+    private PersistentVector<Integer> vector;
+    private List<Integer> values;
+
+    @BeforeEach
+    void setUp() {
+        vector = PersistentVector.empty();
+        for (int i = 0; i < SIZE; i++) {
+            vector = vector.append(i);
+        }
+        for (int i = 0; i < SIZE; i += 11) {
+            vector = vector.set(i, null);
+        }
+        values = StreamSupport.stream(vector.spliterator(0, vector.size()), false).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Test scan splits into segments and keeps encounter order")
+    void testScanKeepsEncounterOrder() {
+        List<Integer> scanned = SegmentedScan.scan(vector, ArrayList::new, List::add, (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+        assertEquals(values, scanned);
+
+        long[] sum = SegmentedScan.scan(vector, () -> new long[1], (total, value) -> total[0] += value, (left, right) -> {
+            left[0] += right[0];
+            return left;
+        });
+        assertEquals(values.stream().mapToLong(Integer::longValue).sum(), sum[0]);
+    }
+
+    @Test
+    @DisplayName("Test segment size is leaf aligned and never below the minimum")
+    void testSegmentSlots() {
+        assertEquals(SegmentedScan.MIN_SEGMENT_SLOTS, SegmentedScan.segmentSlots(1_000, 8));
+        int slots = SegmentedScan.segmentSlots(50_000_000, 4);
+        assertEquals(0, slots % PersistentVector.WIDTH);
+        assertTrue(slots >= 50_000_000 / 32);
+    }
+
+    @Test
+    @DisplayName("Test dense storage spliterator is exactly sized through splits")
+    void testDenseSpliteratorIsSized() {
+        PersistentVector<Integer> dense = PersistentVector.empty();
+        for (int i = 0; i < 10_000; i++) {
+            dense = dense.append(i);
+        }
+        Spliterator<Integer> suffix = dense.spliterator(0, dense.size(), true);
+        Spliterator<Integer> prefix = suffix.trySplit();
+        assertNotNull(prefix);
+        assertTrue(prefix.hasCharacteristics(Spliterator.SUBSIZED));
+        assertEquals(10_000, prefix.getExactSizeIfKnown() + suffix.getExactSizeIfKnown());
+        assertEquals(-1, vector.spliterator(0, vector.size()).getExactSizeIfKnown());
+    }
+
+    @Test
+    @DisplayName("Test repository scan API matches sequential filtering")
+    void testRepositoryScanApi() {
+        CourseRepository repository = new CourseRepository();
+        LocalDate start = LocalDate.now().plusMonths(1);
+        for (int i = 0; i < 40; i++) {
+            repository.add(new Course("Course " + i, "Description " + i, 1 + i % 5, start));
+        }
+        repository.remove(repository.getAll().get(3));
+
+        List<Course> expected = repository.getAll().stream().filter(course -> course.credits() >= 4).toList();
+        assertEquals(expected, repository.findWhere(course -> course.credits() >= 4));
+        assertEquals(expected.size(), repository.countWhere(course -> course.credits() >= 4));
+        assertEquals(expected.size(), repository.parallelStream().filter(course -> course.credits() >= 4).count());
+        assertEquals(repository.getTotalCredits(),
+                repository.reduce(0, (total, course) -> total + course.credits(), Integer::sum));
+    }
+
+    @Test
+    @DisplayName("Test scan stops when the calling scope is cancelled")
+    void testScanHonoursCancelledScope() throws Exception {
+        CountDownLatch stopped = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (TaskScope scope = TaskScope.open("scan", Duration.ofSeconds(5), executor)) {
+            Subtask<Long> scan = scope.fork("scan", () -> {
+                TaskScope.current().cancel();
+                try {
+                    return SegmentedScan.scan(vector, () -> new long[1], (count, value) -> count[0]++, (left, right) -> {
+                        left[0] += right[0];
+                        return left;
+                    })[0];
+                } catch (CancellationException e) {
+                    stopped.countDown();
+                    throw e;
+                }
+            });
+            scope.join();
+            assertEquals(Subtask.State.CANCELLED, scan.state());
+            // cancelling completes the join at once; the scan notices at its next segment
+            assertTrue(stopped.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ua.onlinecourses.serializer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.onlinecourses.model.Course;
+import ua.onlinecourses.model.Student;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CodecRegistry Tests")
+class CodecRegistryTest {
+
+    @Test
+    @DisplayName("Readers and writers are cached per type")
+    void testCodecsAreCached() {
+        CodecRegistry codecs = CodecRegistry.http();
+        assertSame(codecs.reader(Student.class), codecs.reader(Student.class));
+        assertSame(codecs.listReader(Course.class), codecs.listReader(Course.class));
+        assertSame(codecs.listWriter(Course.class), codecs.listWriter(Course.class));
+        assertNotSame(codecs.listReader(Student.class), codecs.listReader(Course.class));
+    }
+
+    @Test
+    @DisplayName("List codecs round-trip entities")
+    void testListRoundTrip() throws Exception {
+        LocalDate enrolled = LocalDate.now().minusMonths(2);
+        List<Student> students = List.of(
+                new Student("Lesia", "Melnyk", "lesia.melnyk@chnu.edu.ua", enrolled),
+                new Student("Liliya", "Fivko", "liliya.fivko@student.ua", enrolled));
+
+        for (CodecRegistry codecs : List.of(CodecRegistry.http(), CodecRegistry.jsonFiles(), CodecRegistry.yamlFiles())) {
+            String encoded = codecs.listWriter(Student.class).writeValueAsString(students);
+            List<Student> decoded = codecs.listReader(Student.class).readValue(encoded);
+            assertEquals(students, decoded);
+        }
+    }
+
+    @Test
+    @DisplayName("Compact writer omits indentation")
+    void testCompactWriter() throws Exception {
+        Course course = new Course("Java Basics", "Introductory course", 3, LocalDate.now().plusMonths(1));
+        String compact = CodecRegistry.http().compactWriter().writeValueAsString(course);
+        String pretty = CodecRegistry.http().prettyWriter().writeValueAsString(course);
+        assertFalse(compact.contains("\n"));
+        assertTrue(pretty.contains("\n"));
+        assertTrue(compact.contains("\"startDate\":\"" + course.startDate() + "\""));
+    }
+}
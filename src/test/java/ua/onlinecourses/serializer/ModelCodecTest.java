@@ -0,0 +1,84 @@
+package ua.onlinecourses.serializer;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ua.onlinecourses.exception.InvalidDataException;
+import ua.onlinecourses.model.Assignment;
+import ua.onlinecourses.model.Course;
+import ua.onlinecourses.model.Instructor;
+import ua.onlinecourses.model.Mark;
+import ua.onlinecourses.model.Student;
+import ua.onlinecourses.model.myModule;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Model Codec Tests")
+class ModelCodecTest {
+
+    @Test
+    @DisplayName("All model records round-trip through the hand-written codecs")
+    void testRoundTrip() throws Exception {
+        myModule module = new myModule("Streams", "Java streams in depth");
+        List<Object> values = List.of(
+                new Student("Lesia", "Melnyk", "lesia.melnyk@chnu.edu.ua", LocalDate.now().minusMonths(1)),
+                new Course("Java Basics", "Introductory course", 3, LocalDate.now().plusMonths(1)),
+                new Instructor("Petro", "Ivanenko", 12),
+                module,
+                new Assignment(module, LocalDate.now().plusWeeks(2), 80, Mark.GOOD));
+
+        for (CodecRegistry codecs : List.of(CodecRegistry.http(), CodecRegistry.jsonFiles(), CodecRegistry.yamlFiles())) {
+            for (Object value : values) {
+                String encoded = codecs.writer().writeValueAsString(value);
+                assertEquals(value, codecs.reader(value.getClass()).readValue(encoded));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Dates are written as ISO strings and legacy array dates are still read")
+    void testDateFormats() throws Exception {
+        LocalDate startDate = LocalDate.now().plusMonths(1);
+        Course course = new Course("Java Basics", "Introductory course", 3, startDate);
+        String json = CodecRegistry.jsonFiles().compactWriter().writeValueAsString(course);
+        assertTrue(json.contains("\"startDate\":\"" + startDate + "\""));
+
+        String legacy = String.format("{\"title\":\"Java Basics\",\"description\":\"Introductory course\","
+                + "\"credits\":3,\"startDate\":[%d,%d,%d],\"legacyField\":true}",
+                startDate.getYear(), startDate.getMonthValue(), startDate.getDayOfMonth());
+        assertEquals(course, CodecRegistry.jsonFiles().reader(Course.class).readValue(legacy));
+    }
+
+    @Test
+    @DisplayName("File codecs trust stored data while HTTP codecs validate it")
+    void testTrustedConstruction() throws Exception {
+        String stale = "{\"title\":\"Old Course\",\"description\":\"Started long ago\",\"credits\":3,"
+                + "\"startDate\":\"2020-01-01\"}";
+
+        Course loaded = CodecRegistry.jsonFiles().reader(Course.class).readValue(stale);
+        assertEquals(LocalDate.of(2020, 1, 1), loaded.startDate());
+
+        Exception e = assertThrows(Exception.class,
+                () -> CodecRegistry.http().reader(Course.class).readValue(stale));
+        assertTrue(e instanceof InvalidDataException || e.getCause() instanceof InvalidDataException);
+        assertThrows(JsonMappingException.class,
+                () -> CodecRegistry.http().reader(Course.class).readValue(stale.replace("}", ",\"extra\":1}")));
+    }
+
+    @Test
+    @DisplayName("Trusted file loads still reject values the repository indexes cannot hold")
+    void testTrustedLoadsCheckIndexedFields() {
+        String outOfRange = "{\"module\":{\"title\":\"Streams\",\"content\":\"Java streams\"},"
+                + "\"dueDate\":\"2020-01-01\",\"maxPoints\":500,\"mark\":null}";
+        Exception e = assertThrows(Exception.class,
+                () -> CodecRegistry.jsonFiles().reader(Assignment.class).readValue(outOfRange));
+        assertTrue(e instanceof InvalidDataException || e.getCause() instanceof InvalidDataException);
+
+        String missingDate = "{\"title\":\"Old Course\",\"description\":\"Started long ago\",\"credits\":3}";
+        e = assertThrows(Exception.class, () -> CodecRegistry.yamlFiles().reader(Course.class).readValue(missingDate));
+        assertTrue(e instanceof InvalidDataException || e.getCause() instanceof InvalidDataException);
+    }
+}
@@ -0,0 +1,98 @@
+package ua.onlinecourses.servlet;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.onlinecourses.exception.InvalidDataException;
+import ua.onlinecourses.model.Student;
+import ua.onlinecourses.repository.StudentRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkRequestProcessorTest {
+
+    private StudentRepository repository;
+    private AtomicInteger saves;
+    private BulkRequestProcessor<Student, StudentServlet.StudentDTO> processor;
+
+    @BeforeEach
+    void setUp() {
+        repository = new StudentRepository();
+        saves = new AtomicInteger();
+        processor = new BulkRequestProcessor<>(new ObjectMapper(), repository, StudentServlet.StudentDTO.class,
+                (dto, existing) -> new Student(dto.firstName, dto.lastName, dto.email,
+                        LocalDate.parse(dto.enrollmentDate)), saves::incrementAndGet);
+    }
+
+    private static String students(int count) {
+        StringBuilder body = new StringBuilder();
+        String enrolled = LocalDate.now().minusMonths(1).toString();
+        for (int i = 0; i < count; i++) {
+            body.append(String.format("{\"firstName\": \"Bulk\", \"lastName\": \"Student\", "
+                    + "\"email\": \"bulk.%d@test.com\", \"enrollmentDate\": \"%s\"}%n", i, enrolled));
+        }
+        return body.toString();
+    }
+
+    @Test
+    void testIngestPersistsOnceAtStreamEnd() throws Exception {
+        List<BulkRequestProcessor.IngestProgress> progress = new ArrayList<>();
+
+        BulkRequestProcessor.IngestProgress summary = processor.ingest(
+                new ByteArrayInputStream(students(250).getBytes(StandardCharsets.UTF_8)), 10, progress::add);
+
+        assertEquals(26, progress.size());
+        assertEquals(250, summary.succeeded());
+        assertEquals(250, repository.size());
+        assertEquals(1, saves.get());
+    }
+
+    @Test
+    void testIngestWithoutChangesDoesNotPersist() throws Exception {
+        processor.ingest(new ByteArrayInputStream("{\"firstName\": \"\"}".getBytes(StandardCharsets.UTF_8)), 10,
+                progress -> { });
+
+        assertEquals(0, saves.get());
+    }
+
+    @Test
+    void testBulkAppliesOneBatchAndPersistsOnce() throws Exception {
+        int total = 2_005;
+
+        BulkRequestProcessor.BulkResponse response = processor.process(new StringReader(students(total)));
+
+        assertEquals(total, response.total());
+        assertEquals(total, response.succeeded());
+        assertEquals(total - 1, response.results().get(total - 1).index());
+        assertEquals(1, saves.get());
+    }
+
+    @Test
+    void testMalformedBulkAppliesNothing() {
+        String body = "[" + students(2_000).trim().replace("\n", ",") + ", {\"firstName\": ";
+
+        assertThrows(JsonProcessingException.class, () -> processor.process(new StringReader(body)));
+        assertEquals(0, repository.size());
+        assertEquals(0, saves.get());
+    }
+
+    @Test
+    void testBulkOverOperationLimitIsRejected() {
+        String body = students(BulkRequestProcessor.MAX_OPERATIONS + 1);
+
+        InvalidDataException e = assertThrows(InvalidDataException.class,
+                () -> processor.process(new StringReader(body)));
+        assertTrue(e.getMessage().contains("exceeds"));
+        assertEquals(0, repository.size());
+        assertEquals(0, saves.get());
+    }
+}
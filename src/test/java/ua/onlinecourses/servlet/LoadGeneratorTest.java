@@ -0,0 +1,57 @@
+package ua.onlinecourses.servlet;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadGeneratorTest {
+
+    @Test
+    void testHistogramPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(100_000, histogram.count());
+        assertEquals(100_000, histogram.max());
+        assertEquals(50_000, histogram.percentile(0.50), 50_000 * 0.02);
+        assertEquals(99_000, histogram.percentile(0.99), 99_000 * 0.02);
+        assertEquals(100_000, histogram.percentile(1.0));
+        assertEquals(50_000.5, histogram.mean(), 0.001);
+    }
+
+    @Test
+    void testBucketBoundariesAreContiguous() {
+        for (long value = 0; value < 1_000_000; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) >= value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestEquivalentValue(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    void testOpenLoopRunIssuesTargetRequestCountWithMixedOperations() throws Exception {
+        LoadGenerator.Settings settings = new LoadGenerator.Settings(200, Duration.ofSeconds(1),
+                LoadGenerator.Settings.parseMix("40:20:20:20"), 20);
+        LoadGenerator.LoadReport report = LoadGenerator.runAgainstLocalServer(settings);
+
+        assertEquals(200, report.requests());
+        // reads and updates may race with a concurrent delete of the same generated entity
+        assertTrue(report.failures() < report.requests() / 4, report::toString);
+        assertEquals(LoadGenerator.Operation.values().length, report.operations().size());
+        report.operations().forEach(stats -> assertTrue(stats.requests() > 0, stats::toString));
+        assertTrue(report.p99Micros() >= report.p50Micros());
+        assertTrue(report.maxMicros() >= report.p999Micros());
+    }
+
+    @Test
+    void testSettingsRejectInvalidMix() {
+        assertThrows(IllegalArgumentException.class, () -> LoadGenerator.Settings.parseMix("1:2:3"));
+        assertThrows(IllegalArgumentException.class, () -> new LoadGenerator.Settings(10, Duration.ofSeconds(1),
+                LoadGenerator.Settings.parseMix("0:0:0:0"), 0));
+    }
+}
@@ -0,0 +1,141 @@
+package ua.onlinecourses.servlet;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import ua.onlinecourses.exception.RemoteApiException;
+import ua.onlinecourses.model.Course;
+
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestApiClientTest {
+
+    @Test
+    void testTypedAsyncGetDecodesEntities() throws Exception {
+        WebServer server = new WebServer(0);
+        server.start();
+        try {
+            RestApiClient client = new RestApiClient("http://localhost:" + server.getPort() + "/api");
+            List<Course> courses = client.getListAsync("/courses", Course.class).join();
+            assertNotNull(courses);
+            courses.forEach(course -> assertNotNull(course.title()));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testBulkUploadMergesChunkResults() throws Exception {
+        WebServer server = new WebServer(0);
+        server.start();
+        try {
+            RestApiClient client = new RestApiClient("http://localhost:" + server.getPort() + "/api", 2, 0,
+                    Duration.ofMillis(10));
+            List<Map<String, Object>> students = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                students.add(Map.of("firstName", "Bulk", "lastName", "Client",
+                        "email", "bulk.client." + System.nanoTime() + "." + i + "@test.com",
+                        "enrollmentDate", LocalDate.now().toString()));
+            }
+            BulkRequestProcessor.BulkResponse response = client.bulkUploadAsync("students", students, 10).join();
+            assertEquals(25, response.total());
+            assertEquals(25, response.succeeded());
+            assertEquals(0, response.failed());
+            for (int i = 0; i < response.results().size(); i++) {
+                assertEquals(i, response.results().get(i).index());
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testRetriesTransientFailuresWithBackoff() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        HttpServer stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.createContext("/api/flaky", exchange -> {
+            boolean fail = calls.incrementAndGet() < 3;
+            byte[] body = (fail ? "{\"error\":\"busy\"}" : "{\"ok\":true}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(fail ? 503 : 200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        stub.createContext("/api/missing", exchange -> {
+            calls.incrementAndGet();
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        stub.start();
+        try {
+            RestApiClient client = new RestApiClient("http://localhost:" + stub.getAddress().getPort() + "/api",
+                    4, 3, Duration.ofMillis(10));
+            Map<?, ?> result = client.getAsync("/flaky", Map.class).join();
+            assertEquals(true, result.get("ok"));
+            assertEquals(3, calls.get());
+
+            calls.set(0);
+            CompletionException ex = assertThrows(CompletionException.class,
+                    () -> client.getAsync("/missing", Map.class).join());
+            RemoteApiException remote = assertInstanceOf(RemoteApiException.class, ex.getCause());
+            assertEquals(404, remote.getStatusCode());
+            assertEquals(1, calls.get());
+        } finally {
+            stub.stop(0);
+        }
+    }
+
+    @Test
+    void testPostIsNotReplayedAfterTheServerAnswered() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        HttpServer stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // applies the request, then times out the way the async servlet layer does
+        stub.createContext("/api/students", exchange -> {
+            calls.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            byte[] body = "{\"error\":\"timed out\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(503, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        stub.start();
+        try {
+            RestApiClient client = new RestApiClient("http://localhost:" + stub.getAddress().getPort() + "/api",
+                    4, 3, Duration.ofMillis(10));
+            CompletionException ex = assertThrows(CompletionException.class,
+                    () -> client.postAsync("/students", Map.of("email", "once@test.com"), Map.class).join());
+            assertEquals(503, assertInstanceOf(RemoteApiException.class, ex.getCause()).getStatusCode());
+            assertEquals(1, calls.get());
+
+            calls.set(0);
+            assertThrows(CompletionException.class,
+                    () -> client.putAsync("/students", Map.of("email", "once@test.com"), Map.class).join());
+            assertEquals(4, calls.get());
+        } finally {
+            stub.stop(0);
+        }
+    }
+
+    @Test
+    void testPostIsRetriedWhenTheConnectionIsRefused() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        RestApiClient client = new RestApiClient("http://localhost:" + port + "/api", 4, 2, Duration.ofMillis(10));
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> client.postAsync("/students", Map.of("email", "late@test.com"), Map.class).join());
+        assertInstanceOf(ConnectException.class, ex.getCause());
+    }
+}
@@ -0,0 +1,369 @@
+package ua.onlinecourses.servlet;
+
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private HttpResponse<String> get(WebServer server, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + server.getPort() + "/api" + path))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutionMode.class)
+    void testServerHandlesRequestsInEachExecutionMode(ExecutionMode mode) throws Exception {
+        WebServer server = new WebServer(0, mode);
+        server.start();
+        try {
+            assertTrue(server.isRunning());
+            assertTrue(server.getPort() > 0);
+            assertEquals(200, get(server, "/courses").statusCode());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testQueryParametersAreApplied() throws Exception {
+        WebServer server = new WebServer(0);
+        server.start();
+        try {
+            HttpResponse<String> response = get(server, "/instructors?minExpertise=1&sort=expertise&limit=1");
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("X-Total-Count").isPresent());
+            assertTrue(response.headers().firstValue("X-Query-Plan").isPresent());
+
+            assertEquals(400, get(server, "/instructors?minExpertise=abc").statusCode());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testTunedSettingsAreApplied() throws Exception {
+        ServerSettings settings = new ServerSettings(0, ExecutionMode.PLATFORM, 4, 16, 10_000,
+                1, 2, 5_000, 64, 8 * 1024, false, true, false, 1024, JsonFormat.PRETTY, 100);
+        WebServer server = new WebServer(settings);
+        server.start();
+        try {
+            assertSame(settings, server.getSettings());
+
+            ServerConnector connector = (ServerConnector) server.getServer().getConnectors()[0];
+            assertEquals(1, connector.getAcceptors());
+            assertEquals(2, connector.getSelectorManager().getSelectorCount());
+            assertEquals(5_000, connector.getIdleTimeout());
+            assertEquals(64, connector.getAcceptQueueSize());
+            HttpConfiguration httpConfig = connector.getConnectionFactory(HttpConnectionFactory.class)
+                    .getHttpConfiguration();
+            assertEquals(8 * 1024, httpConfig.getOutputBufferSize());
+            assertFalse(httpConfig.isPersistentConnectionsEnabled());
+
+            QueuedThreadPool threadPool = (QueuedThreadPool) server.getServer().getThreadPool();
+            assertEquals(4, threadPool.getMinThreads());
+            assertEquals(16, threadPool.getMaxThreads());
+            assertEquals(10_000, threadPool.getIdleTimeout());
+
+            HttpResponse<String> response = get(server, "/courses");
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("Server").isEmpty());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testExecutorMetricsAreExported() throws Exception {
+        WebServer server = new WebServer(0);
+        server.start();
+        try {
+            HttpResponse<String> response = get(server, "/executors");
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains("\"cpu\""));
+            assertTrue(response.body().contains("\"rejected\""));
+
+            assertEquals(200, get(server, "/executors/io").statusCode());
+            assertEquals(404, get(server, "/executors/unknown").statusCode());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testInvalidSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ServerSettings(0, ExecutionMode.PLATFORM, 10, 5, 10_000, -1, -1, 5_000, 64, 8 * 1024, true, false, true, 1024, JsonFormat.PRETTY, 100));
+        assertThrows(IllegalArgumentException.class,
+                () -> ServerSettings.defaults(70_000, ExecutionMode.PLATFORM));
+    }
+
+    @Test
+    void testGzipAndCompactJsonReduceResponseSize() throws Exception {
+        WebServer server = new WebServer(ServerSettings.defaults(0, ExecutionMode.PLATFORM)
+                .withCompression(true, JsonFormat.PRETTY));
+        server.start();
+        try {
+            URI uri = URI.create("http://localhost:" + server.getPort() + "/api/courses");
+            HttpResponse<byte[]> pretty = client.send(HttpRequest.newBuilder(uri)
+                    .header("Accept-Encoding", "identity").GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+            HttpResponse<byte[]> compact = client.send(HttpRequest.newBuilder(uri)
+                    .header("Accept-Encoding", "identity")
+                    .header("Accept", "application/json; format=compact").GET().build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(200, compact.statusCode());
+            assertTrue(compact.body().length <= pretty.body().length);
+            assertFalse(new String(compact.body()).contains("\n  "));
+
+            HttpResponse<byte[]> gzipped = client.send(HttpRequest.newBuilder(uri)
+                    .header("Accept-Encoding", "gzip").GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(200, gzipped.statusCode());
+            if (pretty.body().length >= ServerSettings.DEFAULT_GZIP_MIN_SIZE) {
+                assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElse(""));
+                assertTrue(gzipped.body().length < pretty.body().length);
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testBulkEndpointReportsPerItemStatus() throws Exception {
+        WebServer server = new WebServer(0);
+        server.start();
+        try {
+            String title = "Bulk import module";
+            String body = "[{\"title\": \"" + title + "\", \"content\": \"Imported in bulk\"},"
+                    + "{\"op\": \"update\", \"id\": \"BUL-IMP\", \"data\": {\"content\": \"Updated in bulk\"}},"
+                    + "{\"op\": \"delete\", \"id\": \"no such module\"},"
+                    + "{\"title\": \"\"}]";
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + server.getPort() + "/api/modules/_bulk"))
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json; format=compact")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains("\"total\":4,\"succeeded\":2,\"failed\":2"));
+            assertTrue(response.body().contains("\"NOT_FOUND\""));
+            assertTrue(response.body().contains("\"INVALID\""));
+            assertTrue(get(server, "/modules?title=" + URLEncoder.encode(title, StandardCharsets.UTF_8))
+                    .body().contains("Updated in bulk"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testIngestStreamsProgressPerMicroBatch() throws Exception {
+        ServerSettings defaults = ServerSettings.defaults(0, ExecutionMode.PLATFORM);
+        WebServer server = new WebServer(new ServerSettings(0, ExecutionMode.PLATFORM,
+                defaults.minThreads(), defaults.maxThreads(), defaults.threadIdleTimeoutMs(), -1, -1,
+                defaults.idleTimeoutMs(), defaults.acceptQueueSize(), defaults.outputBufferSize(),
+                true, false, false, 1024, JsonFormat.COMPACT, 100));
+        server.start();
+        try {
+            StringBuilder body = new StringBuilder();
+            String enrolled = LocalDate.now().minusMonths(1).toString();
+            for (int i = 0; i < 250; i++) {
+                body.append(String.format("{\"firstName\": \"Stream\", \"lastName\": \"Ingest\", "
+                        + "\"email\": \"stream.ingest.%d@test.com\", \"enrollmentDate\": \"%s\"}%n", i, enrolled));
+            }
+            body.append("{\"firstName\": \"\", \"email\": \"broken\"}\n");
+
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + server.getPort() + "/api/students/_ingest"))
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode());
+            String[] lines = response.body().trim().split("\n");
+            assertEquals(3, lines.length);
+            assertTrue(lines[0].contains("\"processed\":100"));
+            assertTrue(lines[2].contains("\"processed\":251,\"succeeded\":250,\"failed\":1"));
+            assertTrue(lines[2].contains("\"complete\":true"));
+            assertEquals(200, get(server, "/students/stream.ingest.249@test.com").statusCode());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testSlowUploadsDoNotPinWorkerThreads() throws Exception {
+        ServerSettings defaults = ServerSettings.defaults(0, ExecutionMode.PLATFORM);
+        WebServer server = new WebServer(new ServerSettings(0, ExecutionMode.PLATFORM, 4, 8, 10_000, 1, 1,
+                defaults.idleTimeoutMs(), defaults.acceptQueueSize(), defaults.outputBufferSize(),
+                true, false, false, 1024, JsonFormat.COMPACT, 100));
+        server.start();
+        List<Socket> uploads = new ArrayList<>();
+        try {
+            String body = "{\"title\": \"Slow upload\", \"content\": \"Sent in two parts\"}";
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < 12; i++) {
+                Socket socket = new Socket("localhost", server.getPort());
+                socket.setSoTimeout(10_000);
+                OutputStream output = socket.getOutputStream();
+                output.write(("POST /api/modules HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                        + "Content-Length: " + bytes.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                output.write(bytes, 0, 10);
+                output.flush();
+                uploads.add(socket);
+            }
+
+            HttpClient quickClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            HttpResponse<String> response = quickClient.send(HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + server.getPort() + "/api/modules"))
+                    .timeout(Duration.ofSeconds(5))
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+
+            for (Socket socket : uploads) {
+                socket.getOutputStream().write(bytes, 10, bytes.length - 10);
+                socket.getOutputStream().flush();
+            }
+            for (Socket socket : uploads) {
+                String statusLine = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                        StandardCharsets.US_ASCII)).readLine();
+                assertTrue(statusLine.contains(" 201 ") || statusLine.contains(" 409 "), statusLine);
+            }
+        } finally {
+            for (Socket socket : uploads) {
+                socket.close();
+            }
+            server.stop();
+        }
+    }
+
+    @Test
+    void testConditionalWritesUseEntityTags() throws Exception {
+        WebServer server = new WebServer(0);
+        server.start();
+        try {
+            String email = "etag." + System.nanoTime() + "@test.com";
+            URI collection = URI.create("http://localhost:" + server.getPort() + "/api/students");
+            URI item = URI.create(collection + "/" + email);
+            String body = "{\"firstName\": \"Etag\", \"lastName\": \"Tester\", \"email\": \"" + email
+                    + "\", \"enrollmentDate\": \"" + LocalDate.now() + "\"}";
+            HttpResponse<String> created = client.send(HttpRequest.newBuilder(collection)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, created.statusCode());
+            String etag = created.headers().firstValue("ETag").orElseThrow();
+            assertEquals(etag, get(server, "/students/" + email).headers().firstValue("ETag").orElseThrow());
+
+            String update = body.replace("Etag", "Etagged");
+            HttpResponse<String> stale = client.send(HttpRequest.newBuilder(item)
+                    .header("Content-Type", "application/json")
+                    .header("If-Match", "\"0\"")
+                    .PUT(HttpRequest.BodyPublishers.ofString(update))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(412, stale.statusCode());
+
+            HttpResponse<String> updated = client.send(HttpRequest.newBuilder(item)
+                    .header("Content-Type", "application/json")
+                    .header("If-Match", etag)
+                    .PUT(HttpRequest.BodyPublishers.ofString(update))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, updated.statusCode());
+            String newEtag = updated.headers().firstValue("ETag").orElseThrow();
+            assertNotEquals(etag, newEtag);
+
+            assertEquals(412, client.send(HttpRequest.newBuilder(item).header("If-Match", etag).DELETE().build(),
+                    HttpResponse.BodyHandlers.ofString()).statusCode());
+            assertEquals(200, client.send(HttpRequest.newBuilder(item).header("If-Match", newEtag).DELETE().build(),
+                    HttpResponse.BodyHandlers.ofString()).statusCode());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testChangeStreamDeliversRepositoryEvents() throws Exception {
+        WebServer server = new WebServer(0);
+        server.start();
+        try {
+            String email = "sse." + System.nanoTime() + "@test.com";
+            HttpResponse<Stream<String>> stream = client.send(HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + server.getPort() + "/api/changes/students")).GET().build(),
+                    HttpResponse.BodyHandlers.ofLines());
+            assertEquals(200, stream.statusCode());
+            assertTrue(stream.headers().firstValue("Content-Type").orElseThrow().startsWith("text/event-stream"));
+            assertEquals(404, get(server, "/changes/unknown").statusCode());
+
+            String body = "{\"firstName\": \"Stream\", \"lastName\": \"Tester\", \"email\": \"" + email
+                    + "\", \"enrollmentDate\": \"" + LocalDate.now() + "\"}";
+            assertEquals(201, client.send(HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + server.getPort() + "/api/students"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString()).statusCode());
+
+            try (Stream<String> lines = stream.body()) {
+                List<String> event = new ArrayList<>();
+                Iterator<String> iterator = lines.iterator();
+                while (iterator.hasNext()) {
+                    String line = iterator.next();
+                    if (line.startsWith("data:") && line.contains(email)) {
+                        event.add(line);
+                        break;
+                    }
+                    event.add(line);
+                }
+                assertTrue(event.contains("event: ADDED"), event.toString());
+                assertTrue(event.get(event.size() - 1).contains(email));
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testJsonFormatParsing() {
+        assertEquals(JsonFormat.COMPACT, JsonFormat.fromString("compact"));
+        assertEquals(JsonFormat.PRETTY, JsonFormat.fromString(null));
+        assertThrows(IllegalArgumentException.class, () -> JsonFormat.fromString("minified"));
+        assertEquals(JsonFormat.COMPACT,
+                JsonFormat.fromAcceptHeader("text/html, application/json; format=compact", JsonFormat.PRETTY));
+        assertEquals(JsonFormat.PRETTY, JsonFormat.fromAcceptHeader("*/*", JsonFormat.PRETTY));
+        assertEquals(JsonFormat.COMPACT, JsonFormat.fromAcceptHeader(null, JsonFormat.COMPACT));
+    }
+
+    @Test
+    void testExecutionModeParsing() {
+        assertEquals(ExecutionMode.VIRTUAL, ExecutionMode.fromString("virtual"));
+        assertEquals(ExecutionMode.PLATFORM, ExecutionMode.fromString(null));
+        assertThrows(IllegalArgumentException.class, () -> ExecutionMode.fromString("green"));
+    }
+}